@@ -9,17 +9,25 @@ import javafx.geometry.Rectangle2D;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.image.Image;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyCodeCombination;
+import javafx.scene.input.KeyCombination;
 import javafx.stage.Screen;
 import javafx.stage.Stage;
 import javafx.stage.StageStyle;
 import javafx.util.Duration;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import seng202.team7.business.BackgroundExecutor;
 import seng202.team7.controller.MainController;
 import seng202.team7.controller.SplashController;
+import seng202.team7.map.MapServer;
+import seng202.team7.metrics.MetricsRegistry;
+import seng202.team7.repository.DatabaseMaintenance;
 
 import java.io.IOException;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 
 /**
  * This class handles the launching of the program alongside App.java
@@ -38,6 +46,8 @@ public class MainWindow extends Application {
      */
     @Override
     public void start(Stage primaryStage) {
+        MetricsRegistry.getInstance().startPeriodicDump(60, TimeUnit.SECONDS);
+        DatabaseMaintenance.getInstance().start(1, TimeUnit.MINUTES);
         showSplashScreen(primaryStage);
     }
 
@@ -93,6 +103,9 @@ public class MainWindow extends Application {
             MainController mainController = mainWindowLoader.getController();
             mainController.init(primaryStage);
             Scene scene = new Scene(mainWindowParent);
+            // Ctrl+Shift+D opens the diagnostics panel
+            scene.getAccelerators().put(new KeyCodeCombination(KeyCode.D, KeyCombination.SHORTCUT_DOWN,
+                    KeyCombination.SHIFT_DOWN), mainController::showDiagnosticsPopup);
 
             Screen screen = Screen.getPrimary();
             Rectangle2D bounds = screen.getVisualBounds();
@@ -120,6 +133,17 @@ public class MainWindow extends Application {
         }
     }
 
+    /**
+     * Stops all background work when the application closes.
+     */
+    @Override
+    public void stop() {
+        MetricsRegistry.getInstance().stopPeriodicDump();
+        DatabaseMaintenance.getInstance().stop();
+        MapServer.getInstance().stop();
+        BackgroundExecutor.getInstance().shutdown();
+    }
+
     /**
      * The main entry point of the application.
      *
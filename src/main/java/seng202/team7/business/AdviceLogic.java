@@ -3,7 +3,9 @@ package seng202.team7.business;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import seng202.team7.model.Crash;
+import seng202.team7.model.RoadSurface;
 import seng202.team7.model.Season;
+import seng202.team7.model.TrafficControl;
 import seng202.team7.model.WeatherCondition;
 import seng202.team7.model.CrashParameter;
 import java.text.ParseException;
@@ -143,9 +145,10 @@ public class AdviceLogic {
         List<List<String>> parameterPairs = new ArrayList<>();
         if (!(riskiestCrash == null)) {
             getRiskiestCrash();
-            if (!"Nil".equals(riskiestCrash.getTrafficControl()) && !"Unknown".equals(riskiestCrash.getTrafficControl())) {
+            TrafficControl trafficControl = riskiestCrash.getTrafficControl();
+            if (trafficControl != TrafficControl.NIL && trafficControl != TrafficControl.UNKNOWN) {
                 List<String> parameterAdviceList1 = new ArrayList<>();
-                String trafficControlString = riskiestCrash.getTrafficControl();
+                String trafficControlString = Objects.toString(trafficControl, null);
                 String advice1 = Objects.requireNonNull(CrashParameter.valueFromStr(trafficControlString)).getParameterAdvice();
                 String imageURL = Objects.requireNonNull(CrashParameter.valueFromStr(trafficControlString)).getImageURL();
                 parameterAdviceList1.add("Road Advice");
@@ -153,7 +156,7 @@ public class AdviceLogic {
                 parameterAdviceList1.add(imageURL);
                 parameterPairs.add(parameterAdviceList1);
             }
-            if ("Unsealed".equals(riskiestCrash.getRoadSurface())) {
+            if (riskiestCrash.getRoadSurface() == RoadSurface.UNSEALED) {
                 List<String> parameterAdviceList2 = new ArrayList<>();
                 String advice2 = Objects.requireNonNull(CrashParameter.valueFromStr("Unsealed")).getParameterAdvice();
                 String imageURL = Objects.requireNonNull(CrashParameter.valueFromStr("Unsealed")).getImageURL();
@@ -223,7 +226,7 @@ public class AdviceLogic {
     public WeatherCondition weatherEnumSelect() {
         Map<String, Integer> weatherCount = new HashMap<>();
         for (Crash crash : crashes) {
-            String weatherA = crash.getWeatherA();
+            String weatherA = Objects.toString(crash.getWeatherA(), null);
 
             if (weatherCount.containsKey(weatherA)) {
                 weatherCount.put(weatherA, weatherCount.get(weatherA) + 1);
@@ -231,7 +234,7 @@ public class AdviceLogic {
                 weatherCount.put(weatherA,1);
             }
 
-            String weatherB = crash.getWeatherB();
+            String weatherB = Objects.toString(crash.getWeatherB(), null);
 
             if (weatherCount.containsKey(weatherB)) {
                 weatherCount.put(weatherB, weatherCount.get(weatherB) + 1);
@@ -240,6 +243,8 @@ public class AdviceLogic {
             }
         }
         weatherCount.remove("Null");
+        // Weather missing from a crash, or not a known value, says nothing about the weather on the route
+        weatherCount.remove(null);
 
         String keyWithMaxValue = "Unknown";
         int maxValue = 0;
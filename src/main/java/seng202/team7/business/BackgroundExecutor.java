@@ -0,0 +1,201 @@
+package seng202.team7.business;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Singleton class that runs all background work for the app, instead of each caller starting its own thread.
+ * There are two bounded pools of daemon threads:
+ * <ul>
+ *     <li>an I/O pool for work that mostly waits, such as database queries and web requests</li>
+ *     <li>a CPU pool, sized to the machine, for work that keeps a core busy, such as parsing a CSV file</li>
+ * </ul>
+ * Both pools have bounded queues. A task that does not fit is cancelled rather than queued without limit, so its
+ * cancellation handlers still run. Tasks submitted under a key replace, and cancel, the previous task with that key,
+ * so work such as loading a table page never piles up behind itself.
+ * Tasks are passed as {@link FutureTask}s, which includes JavaFX Tasks, so cancelling them interrupts the thread
+ * running them. Work that repeats is timed by a single scheduler thread and run on the I/O pool, and the few classes
+ * that need threads of their own take them from {@link #daemonThreadFactory(String)}.
+ */
+public class BackgroundExecutor {
+    private static final Logger log = LogManager.getLogger(BackgroundExecutor.class);
+    private static final int IO_THREADS = 8;
+    private static final int CPU_THREADS = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+    private static final int QUEUE_CAPACITY = 64;
+    private static BackgroundExecutor instance = null;
+
+    private final ThreadPoolExecutor ioPool;
+    private final ThreadPoolExecutor cpuPool;
+    private final ScheduledThreadPoolExecutor scheduler;
+    private final Map<String, Future<?>> latestTasks = new HashMap<>();
+
+    /**
+     * Private constructor for singleton purposes
+     */
+    private BackgroundExecutor() {
+        ioPool = createPool("drivewise-io", IO_THREADS);
+        cpuPool = createPool("drivewise-cpu", CPU_THREADS);
+        scheduler = new ScheduledThreadPoolExecutor(1, new DaemonThreadFactory("drivewise-scheduler"));
+        scheduler.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Singleton method to get the executor, creating it if it does not exist yet.
+     *
+     * @return the single instance of BackgroundExecutor
+     */
+    public static synchronized BackgroundExecutor getInstance() {
+        if (instance == null) {
+            instance = new BackgroundExecutor();
+        }
+        return instance;
+    }
+
+    /**
+     * Runs a task that mostly waits on I/O, such as a database query.
+     *
+     * @param task the task to run
+     */
+    public void submitIO(FutureTask<?> task) {
+        ioPool.execute(task);
+    }
+
+    /**
+     * Runs a task that keeps a processor busy, such as parsing.
+     *
+     * @param task the task to run
+     */
+    public void submitCPU(FutureTask<?> task) {
+        cpuPool.execute(task);
+    }
+
+    /**
+     * Runs an I/O task, first cancelling the last task submitted with the same key if it has not finished.
+     * Only the most recent request for the key is ever worked on, however quickly requests arrive.
+     *
+     * @param key identifies the kind of work, such as the table's page loads
+     * @param task the task to run
+     */
+    public void submitLatestIO(String key, FutureTask<?> task) {
+        Future<?> previous;
+        synchronized (latestTasks) {
+            previous = latestTasks.put(key, task);
+        }
+        if (previous != null && !previous.isDone()) {
+            previous.cancel(true);
+        }
+        submitIO(task);
+    }
+
+    /**
+     * Runs a task on the I/O pool over and over, a fixed time apart. The scheduler thread only times the runs, so a
+     * slow run never holds up other scheduled work; a run that is due while the last one is still going is skipped.
+     *
+     * @param task the task to run, which should catch and log its own exceptions
+     * @param delay the time between runs
+     * @param unit the unit of the delay
+     * @return the schedule, which stops further runs when cancelled
+     */
+    public ScheduledFuture<?> scheduleIO(Runnable task, long delay, TimeUnit unit) {
+        AtomicReference<Future<?>> lastRun = new AtomicReference<>();
+        return scheduler.scheduleWithFixedDelay(() -> {
+            Future<?> previous = lastRun.get();
+            if (previous != null && !previous.isDone()) {
+                return;
+            }
+            FutureTask<Void> run = new FutureTask<>(task, null);
+            lastRun.set(run);
+            submitIO(run);
+        }, delay, delay, unit);
+    }
+
+    /**
+     * Gets a factory of named daemon threads, for work that cannot share the pools. A task that blocks until
+     * another task makes progress, such as a producer and its consumer, would deadlock if both were queued for
+     * the same full pool, so each such task needs a thread of its own.
+     *
+     * @param name the name of the threads, which are numbered after it
+     * @return the thread factory
+     */
+    public static ThreadFactory daemonThreadFactory(String name) {
+        return new DaemonThreadFactory(name);
+    }
+
+    /**
+     * Cancels all running and queued tasks and stops the threads. Called when the app closes.
+     */
+    public void shutdown() {
+        scheduler.shutdownNow();
+        cancelAll(ioPool);
+        cancelAll(cpuPool);
+    }
+
+    private static void cancelAll(ThreadPoolExecutor pool) {
+        for (Runnable queued : pool.shutdownNow()) {
+            if (queued instanceof Future<?> future) {
+                future.cancel(false);
+            }
+        }
+    }
+
+    private static ThreadPoolExecutor createPool(String name, int threads) {
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(QUEUE_CAPACITY), new DaemonThreadFactory(name), new CancelWhenFull(name));
+        // Idle threads are let go, so the pools cost nothing while the app is quiet
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    /**
+     * Creates named daemon threads, so background work never keeps the app open.
+     */
+    private static class DaemonThreadFactory implements ThreadFactory {
+        private final String name;
+        private final AtomicInteger count = new AtomicInteger();
+
+        DaemonThreadFactory(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+    /**
+     * Cancels tasks that arrive when a pool's queue is full, so whoever submitted them is told through the task's
+     * own cancellation rather than the task silently never running.
+     */
+    private static class CancelWhenFull implements RejectedExecutionHandler {
+        private final String name;
+
+        CancelWhenFull(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public void rejectedExecution(Runnable task, ThreadPoolExecutor pool) {
+            log.error("Background task rejected by " + name + " pool, " + pool.getQueue().size() + " tasks queued");
+            if (task instanceof Future<?> future) {
+                future.cancel(false);
+            }
+        }
+    }
+}
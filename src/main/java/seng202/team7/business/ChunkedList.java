@@ -0,0 +1,110 @@
+package seng202.team7.business;
+
+import java.util.AbstractList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.concurrent.FutureTask;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+
+/**
+ * Read-only list of a fixed size whose items are loaded lazily, in chunks, the first time an index in the chunk is
+ * read. Chunks are only ever loaded in the background: reading an item whose chunk is not loaded yet gives null, and
+ * the list reports the chunk once it has loaded so the reader can read it again. Only the most recently used chunks
+ * are kept, and the chunks either side of the last one read are loaded too, so a view that only reads the rows it
+ * shows, such as a TableView, can scroll smoothly through far more rows than it would be sensible to hold at once.
+ *
+ * @param <T> the type of item in the list
+ */
+public class ChunkedList<T> extends AbstractList<T> implements RandomAccess {
+    private final int size;
+    private final int chunkSize;
+    private final int chunkCount;
+    private final PageCache<T> chunks;
+    private final IntConsumer onChunkLoaded;
+    // Chunks that were read before they had loaded, and so are reported once they load
+    private final Set<Integer> missedChunks = new HashSet<>();
+    private int lastChunk = -1;
+
+    /**
+     * Creates a list whose chunks are loaded by the given loader.
+     *
+     * @param size the number of items in the list
+     * @param chunkSize the number of items in each chunk, except possibly the last
+     * @param chunkLoader loads the chunk with the given index, returning null if it could not be loaded
+     * @param loader runs the background loads of chunks
+     * @param maxChunks the most chunks kept at once
+     * @param onChunkLoaded given the index of each chunk that was read before it had loaded, once it has loaded, on
+     *                      the thread that loaded it
+     */
+    public ChunkedList(int size, int chunkSize, IntFunction<List<T>> chunkLoader, Consumer<FutureTask<?>> loader,
+                       int maxChunks, IntConsumer onChunkLoaded) {
+        this.size = size;
+        this.chunkSize = chunkSize;
+        this.chunkCount = (size + chunkSize - 1) / chunkSize;
+        this.onChunkLoaded = onChunkLoaded;
+        this.chunks = new PageCache<>(chunkLoader, loader, maxChunks, 1, this::chunkLoaded);
+    }
+
+    /**
+     * Gets an item, starting a background load of its chunk if it is not already loaded.
+     *
+     * @param index the index of the item
+     * @return the item, or null if its chunk has not loaded yet
+     */
+    @Override
+    public T get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+        }
+        int chunkIndex = index / chunkSize;
+        List<T> chunk = chunks.getIfPresent(chunkIndex);
+        if (chunk == null) {
+            synchronized (missedChunks) {
+                missedChunks.add(chunkIndex);
+            }
+            // The chunk may have loaded since it was looked for, before it could be reported
+            chunk = chunks.getIfPresent(chunkIndex);
+            if (chunk == null) {
+                chunks.prefetch(chunkIndex, chunkCount);
+            } else {
+                synchronized (missedChunks) {
+                    missedChunks.remove(chunkIndex);
+                }
+            }
+        }
+        if (chunkIndex != lastChunk) {
+            lastChunk = chunkIndex;
+            chunks.prefetchAround(chunkIndex, chunkCount);
+        }
+        int offset = index - chunkIndex * chunkSize;
+        return chunk == null || offset >= chunk.size() ? null : chunk.get(offset);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    private void chunkLoaded(int chunkIndex) {
+        boolean missed;
+        synchronized (missedChunks) {
+            missed = missedChunks.remove(chunkIndex);
+        }
+        if (missed) {
+            onChunkLoaded.accept(chunkIndex);
+        }
+    }
+
+    /**
+     * Gets the number of chunks currently loaded.
+     *
+     * @return the number of chunks loaded
+     */
+    public int loadedChunks() {
+        return chunks.size();
+    }
+}
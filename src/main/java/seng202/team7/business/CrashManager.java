@@ -1,18 +1,40 @@
 package seng202.team7.business;
 
+import javafx.application.Platform;
 import javafx.concurrent.Task;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import seng202.team7.business.ViewUpdateScheduler.View;
 import seng202.team7.controller.GraphController;
 import seng202.team7.controller.MainController;
 import seng202.team7.controller.MapController;
 import seng202.team7.controller.TableViewController;
+import seng202.team7.io.CrashCSVImporter;
+import seng202.team7.io.CrashRecord;
+import seng202.team7.io.ImportListener;
+import seng202.team7.io.ImportProgress;
 import seng202.team7.io.Importable;
+import seng202.team7.map.LocalGeocoder;
 import seng202.team7.map.Position;
+import seng202.team7.metrics.MetricsRegistry;
+import seng202.team7.metrics.Timer;
 import seng202.team7.model.Crash;
 import seng202.team7.repository.CrashDAO;
+import seng202.team7.repository.CrashQuery;
+import seng202.team7.repository.ImportSummary;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Singleton class to handle and store all actions for current crashes and queries.
@@ -24,29 +46,64 @@ import java.util.List;
  * @author Bella Hill
  */
 public class CrashManager {
+    private static final Logger log = LogManager.getLogger(CrashManager.class);
+    private static final MetricsRegistry metrics = MetricsRegistry.getInstance();
+    // Crashes parsed before being handed on to be inserted, and so committed together
+    private static final int IMPORT_BATCH_SIZE = 10000;
+    private static final Timer APPLY_FILTERS_TIMER = metrics.timer("crashManager.applyFilters");
+    private static final Timer MAP_UPDATE_TIMER = metrics.timer("mapController.update");
+    private static final Timer TABLE_UPDATE_TIMER = metrics.timer("tableViewController.update");
+    private static final Timer LOCATION_INDEXES_TIMER = metrics.timer("crashManager.rebuildLocationIndexes");
+    private static final Timer GRAPH_UPDATE_TIMER = metrics.timer("graphController.update");
+    private static final Timer MAIN_UPDATE_TIMER = metrics.timer("mainController.update");
 
     private final CrashDAO crashDAO; // The database access object
-    private List<Crash> queryCrashes = new ArrayList<>(); // The crashes from the current query
-    private List<Crash> currentCrashes = new ArrayList<>(); // The current stored crashes from filters
+    private List<Crash> queryCrashes = List.of(); // The crashes from the current query
+    // The current stored crashes from filters. They are replaced whole rather than changed in place, so pages can be
+    // read from them on other threads while they change
+    private volatile CurrentCrashes current = new CurrentCrashes(List.of(), 0);
+    // The search the query crashes came from, so filters can be added to it in the database, or null if it is not
+    // a search the database can repeat
+    private CrashQuery querySearch = null;
+    private final CrashSorter crashSorter = new CrashSorter(); // Sorts the current crashes for the table
+    // The column the table is sorted by, or null if it is not sorted, read by pages loading in the background
+    private volatile String sortColumn = null;
+    private volatile boolean sortAscending = true;
+    // Locations suggested as the user types, and found without the remote geocoder, replaced whole whenever the
+    // crashes change
+    private volatile LocationTrie locationTrie = LocationTrie.EMPTY;
+    private volatile LocalGeocoder localGeocoder = LocalGeocoder.EMPTY;
 
     // The controllers of each view to update
     private MapController mapController;
     private TableViewController tableViewController;
     private GraphController graphController;
     private final MainController mainController;
+    private final ViewUpdateScheduler viewUpdateScheduler;
+    private final Executor searchRunner; // Runs filtered searches of the database
+    private final Executor resultDispatcher; // Hands the results of the searches back to update the views
+    private long latestFilter = 0; // Counts the filters applied, so only the latest one's results are shown
 
     /**
      * CrashManager constructor, which creates a private CrashDAO object it will later use for all database interactions.
+     * View updates are coalesced and run on the JavaFX application thread, and filtered searches of the database run
+     * on the IO pool.
      *
      * @param mainController The controller of main.fxml, useful to CrashManager for informing the user of error.
      */
     public CrashManager(MainController mainController) {
         crashDAO = new CrashDAO();
         this.mainController = mainController;
+        this.viewUpdateScheduler = new ViewUpdateScheduler(Platform::runLater, this::updateView);
+        // A search still waiting to run is replaced by a newer one, as only the latest filters are shown
+        this.searchRunner = search -> BackgroundExecutor.getInstance().submitLatestIO("applyFilters",
+                new FutureTask<>(search, null));
+        this.resultDispatcher = Platform::runLater;
     }
 
     /**
      * CrashManager constructor for when given a crashDAO.
+     * View updates and filtered searches run straight away on the calling thread.
      *
      * @param crashDAO The CrashDAO
      * @param mainController The controller of main.fxml, useful to CrashManager for informing the user of error.
@@ -54,6 +111,9 @@ public class CrashManager {
     public CrashManager(CrashDAO crashDAO, MainController mainController) {
         this.crashDAO = crashDAO;
         this.mainController = mainController;
+        this.viewUpdateScheduler = new ViewUpdateScheduler(Runnable::run, this::updateView);
+        this.searchRunner = Runnable::run;
+        this.resultDispatcher = Runnable::run;
     }
 
     /**
@@ -62,7 +122,26 @@ public class CrashManager {
      * @return List of crashes to display.
      */
     public List<Crash> getCurrentCrashes() {
-        return currentCrashes;
+        return current.crashes;
+    }
+
+    /**
+     * Gets the version of the current crashes, which goes up each time they change.
+     *
+     * @return the version of the current crashes
+     */
+    public long getCurrentVersion() {
+        return current.version;
+    }
+
+    /**
+     * Replaces the current crashes. The list is kept rather than copied, so crashes loaded from the column store are
+     * only made into objects as they are read, and so must not be changed afterwards.
+     *
+     * @param crashes the new current crashes
+     */
+    private void setCurrentCrashes(List<Crash> crashes) {
+        current = new CurrentCrashes(Collections.unmodifiableList(crashes), current.version + 1);
     }
 
     /**
@@ -84,10 +163,55 @@ public class CrashManager {
     }
 
     /**
-     * Calls a function in crashDAO that clears the database
+     * Calls a function in crashDAO that clears the database, shrinking the database file as well
      */
     public void clearDatabase() {
-        crashDAO.clearDatabase();
+        crashDAO.clearDatabase(true);
+        refreshLocationIndexes();
+    }
+
+    /**
+     * Suggests locations starting with some text, from the roads and districts of the crashes in the database,
+     * most crashes first. Answered from memory, so it is fast enough to call on every keystroke.
+     *
+     * @param text the text typed so far
+     * @return the suggested locations, or an empty list if there are none
+     */
+    public List<String> suggestLocations(String text) {
+        return locationTrie.suggest(text, LocationTrie.MAX_SUGGESTIONS);
+    }
+
+    /**
+     * Rebuilds the location suggestions and local geocoder from the database in the background, replacing any
+     * rebuild still running. The old ones are used until the new ones are ready.
+     */
+    public void refreshLocationIndexes() {
+        BackgroundExecutor.getInstance().submitLatestIO("locationIndexes",
+                new FutureTask<>(this::rebuildLocationIndexes, null));
+    }
+
+    /**
+     * Rebuilds the location suggestions and local geocoder from the database on the calling thread.
+     */
+    public void rebuildLocationIndexes() {
+        long start = LOCATION_INDEXES_TIMER.start();
+        Map<String, Integer> counts = crashDAO.getLocationCounts();
+        locationTrie = counts == null ? LocationTrie.EMPTY : new LocationTrie(counts);
+        Map<String, Position> centroids = crashDAO.getLocationCentroids();
+        Map<String, Position> gazetteer = LocalGeocoder.readGazetteer(crashDAO.getGazetteerFile());
+        localGeocoder = new LocalGeocoder(centroids == null ? Map.of() : centroids, gazetteer);
+        LOCATION_INDEXES_TIMER.stop(start);
+        log.info("Built location indexes from " + locationTrie.size() + " locations and " + gazetteer.size()
+                + " gazetteer places");
+    }
+
+    /**
+     * Gets the local geocoder, built from the positions of the crashes in the database and the optional gazetteer.
+     *
+     * @return the current local geocoder
+     */
+    public LocalGeocoder getLocalGeocoder() {
+        return localGeocoder;
     }
 
     /**
@@ -96,8 +220,16 @@ public class CrashManager {
      * @param crashes the new current crashes
      */
     public void setCrashes(List<Crash> crashes) {
-        this.queryCrashes.addAll(crashes);
-        this.currentCrashes.addAll(crashes);
+        this.querySearch = null;
+        this.queryCrashes = concat(queryCrashes, crashes);
+        setCurrentCrashes(concat(current.crashes, crashes));
+    }
+
+    private static List<Crash> concat(List<Crash> first, List<Crash> second) {
+        List<Crash> both = new ArrayList<>(first.size() + second.size());
+        both.addAll(first);
+        both.addAll(second);
+        return Collections.unmodifiableList(both);
     }
 
     /**
@@ -114,64 +246,254 @@ public class CrashManager {
     }
 
     /**
-     * Updates the map, table, graph, and main controllers
+     * Schedules an update of the map, table, graph, and main controllers.
+     * Repeated calls before the update runs are combined into one, and views that are hidden are only updated
+     * once they are shown again.
      */
     public void updateControllers() {
-        mapController.update();
-        tableViewController.update();
-        graphController.update();
-        mainController.update();
+        viewUpdateScheduler.requestUpdate();
+    }
+
+    /**
+     * Records which of the map, table or graph views has been brought to the front, updating it if it has missed
+     * any updates while hidden.
+     *
+     * @param view the view now shown
+     */
+    public void showView(View view) {
+        viewUpdateScheduler.showView(view);
+    }
+
+    /**
+     * Updates the controller of a single view, timing how long it takes.
+     *
+     * @param view the view to update
+     */
+    private void updateView(View view) {
+        switch (view) {
+            case MAP -> {
+                long start = MAP_UPDATE_TIMER.start();
+                mapController.update();
+                MAP_UPDATE_TIMER.stop(start);
+            }
+            case TABLE -> {
+                long start = TABLE_UPDATE_TIMER.start();
+                tableViewController.update();
+                TABLE_UPDATE_TIMER.stop(start);
+            }
+            case GRAPH -> {
+                long start = GRAPH_UPDATE_TIMER.start();
+                graphController.update();
+                GRAPH_UPDATE_TIMER.stop(start);
+            }
+            case MAIN -> {
+                long start = MAIN_UPDATE_TIMER.start();
+                mainController.update();
+                MAIN_UPDATE_TIMER.stop(start);
+            }
+        }
     }
 
     /**
      * Imports a list of crashes from a file using the provided importer and adds them to the database asynchronously.
+     * The returned task reports the import's progress and can be cancelled, which keeps the crashes already added.
      *
      * @param importer The importable object.
      * @param file     The file to import.
-     * @param callback The threading call back function.
+     * @param callback The threading call back function, run when the import finishes or is cancelled.
+     * @return The task running the import.
      */
-    public void addAllCrashesFromFile(Importable<Crash> importer, File file, Runnable callback) {
-        Task<Void> task = new Task<Void>() {
+    public Task<Void> addAllCrashesFromFile(Importable<Crash> importer, File file, Runnable callback) {
+        Task<Void> task = new ImportTask<Void>() {
             @Override
-            protected Void call() {
-                // Get crashes from file
-                List<Crash> crashes = importer.readFromFile(file);
-
-                // Process each crash and update progress
-                crashDAO.addBatch(crashes);
+            protected Void call() throws IOException {
+                // The file is parsed on its own thread while the crashes already parsed are inserted a batch at a
+                // time, and parsing waits if it gets more than a couple of batches ahead
+                try (Stream<Crash> crashes = importer.streamFromFile(file, this);
+                     PrefetchingIterator<List<Crash>> batches = new PrefetchingIterator<>(
+                             batchesOf(crashes.iterator(), IMPORT_BATCH_SIZE), 2, "crash-import-parser")) {
+                    crashDAO.addBatches(batches, -1, this);
+                } catch (UncheckedIOException e) {
+                    log.error("Error reading " + file, e.getCause());
+                    // Fails the task, so the import is not reported as finished
+                    throw e.getCause();
+                }
                 return null;
             }
         };
 
         // Set up a callback for when the task is completed
         task.setOnSucceeded(e -> {
+            refreshLocationIndexes();
+            if (callback != null) {
+                callback.run();
+            }
+        });
+        task.setOnCancelled(e -> {
+            refreshLocationIndexes();
+            if (callback != null) {
+                callback.run();
+            }
+        });
+        // Batches are committed as they are added, so a failed import keeps the crashes added before it failed
+        task.setOnFailed(e -> {
+            log.error("Error importing crashes from " + file, task.getException());
+            refreshLocationIndexes();
             if (callback != null) {
                 callback.run();
             }
         });
 
-        // Start the task in a new thread
-        new Thread(task).start();
+        // Parsing the file keeps a core busy, so it runs on the CPU pool
+        BackgroundExecutor.getInstance().submitCPU(task);
+        return task;
+    }
+
+    /**
+     * Imports only what has changed in a file since it was last imported, asynchronously, inserting new crashes,
+     * updating changed ones and deleting those no longer in the file.
+     * The returned task reports the import's progress and can be cancelled, which leaves the database unchanged.
+     *
+     * @param importer The csv importer.
+     * @param file     The file to import.
+     * @param callback The threading call back function, given what the import changed, or null if it failed or was
+     *                 cancelled.
+     * @return The task running the import.
+     */
+    public Task<ImportSummary> importChangesFromFile(CrashCSVImporter importer, File file,
+                                                     Consumer<ImportSummary> callback) {
+        Task<ImportSummary> task = new ImportTask<ImportSummary>() {
+            @Override
+            protected ImportSummary call() {
+                List<CrashRecord> records = importer.readRecordsFromFile(file, this);
+                // The changes are applied in a single transaction, so are only started if the read was not cancelled
+                if (isCancelled()) {
+                    return null;
+                }
+                ImportSummary summary = crashDAO.importChanges(records);
+                updateProgress(1, 1);
+                return summary;
+            }
+        };
+
+        task.setOnSucceeded(e -> {
+            refreshLocationIndexes();
+            if (callback != null) {
+                callback.accept(task.getValue());
+            }
+        });
+        task.setOnCancelled(e -> {
+            if (callback != null) {
+                callback.accept(null);
+            }
+        });
+        // The changes are applied in a single transaction, so a failed import has left the database unchanged
+        task.setOnFailed(e -> {
+            log.error("Error importing changes from " + file, task.getException());
+            if (callback != null) {
+                callback.accept(null);
+            }
+        });
+
+        BackgroundExecutor.getInstance().submitCPU(task);
+        return task;
+    }
+
+    /**
+     * Groups items into lists of a fixed size, the last possibly smaller, reading them only as each list is asked for.
+     *
+     * @param items the items to group
+     * @param size the number of items in each list
+     * @return the lists of items, in order
+     */
+    private static <T> Iterator<List<T>> batchesOf(Iterator<T> items, int size) {
+        return new Iterator<List<T>>() {
+            @Override
+            public boolean hasNext() {
+                return items.hasNext();
+            }
+
+            @Override
+            public List<T> next() {
+                List<T> batch = new ArrayList<>(size);
+                while (batch.size() < size && items.hasNext()) {
+                    batch.add(items.next());
+                }
+                return batch;
+            }
+        };
+    }
+
+    /**
+     * Task running an import, which shows the import's progress as its own. Crashes are inserted close behind the
+     * file being read, so the progress is how far through the file the import has read, while the message is the
+     * latest report from either stage. Cancelling the task cancels the import.
+     *
+     * @param <V> the result of the import
+     */
+    private abstract static class ImportTask<V> extends Task<V> implements ImportListener {
+        @Override
+        public void onProgress(ImportProgress progress) {
+            if (progress.getStage() == ImportProgress.Stage.READING) {
+                updateProgress(progress.getFraction(), 1);
+            }
+            updateMessage(progress.toString());
+        }
     }
 
     /**
      * Sets crashes to all crashes stored in the database and updates all the views.
      */
     public void setAllCrashes() {
-        queryCrashes = crashDAO.getAll();
-        currentCrashes.clear();
-        currentCrashes.addAll(queryCrashes);
+        queryCrashes = Collections.unmodifiableList(crashDAO.getAll());
+        querySearch = new CrashQuery();
+        setCurrentCrashes(queryCrashes);
         updateControllers();
     }
 
     /**
-     * Gets a specific page of crashes from the current list.
+     * Sets the column that pages of the current crashes are sorted by. The current crashes themselves are left in
+     * their original order.
+     *
+     * @param column the name of the column to sort by, or null to leave the pages unsorted
+     * @param ascending true to sort in ascending order, false for descending
+     */
+    public void setSortOrder(String column, boolean ascending) {
+        this.sortColumn = column != null && CrashSorter.isSortable(column) ? column : null;
+        this.sortAscending = ascending;
+    }
+
+    /**
+     * Gets a specific page of crashes from the current list, in the order set by {@link #setSortOrder}.
      *
      * @param pageNumber   The page number (starting from 0).
      * @param itemsPerPage The number of crashes to fetch per page.
      * @return A list of Crash objects for the specified page.
      */
     public List<Crash> getPage(int pageNumber, int itemsPerPage) {
+        return getPage(current, pageNumber, itemsPerPage);
+    }
+
+    /**
+     * Gets a specific page of crashes from a version of the current list, in the order set by {@link #setSortOrder}.
+     * Safe to call from any thread.
+     *
+     * @param version      The version of the current crashes the page is for.
+     * @param pageNumber   The page number (starting from 0).
+     * @param itemsPerPage The number of crashes to fetch per page.
+     * @return A list of Crash objects for the specified page, or null if the current crashes have changed since that
+     *         version.
+     */
+    public List<Crash> getPage(long version, int pageNumber, int itemsPerPage) {
+        CurrentCrashes crashes = current;
+        if (crashes.version != version) {
+            return null;
+        }
+        return getPage(crashes, pageNumber, itemsPerPage);
+    }
+
+    private List<Crash> getPage(CurrentCrashes crashes, int pageNumber, int itemsPerPage) {
+        List<Crash> currentCrashes = crashes.crashes;
         // Make the page list
         List<Crash> pageCrashes = new ArrayList<>();
 
@@ -181,7 +503,16 @@ public class CrashManager {
 
         // Ensure that startIndex and endIndex are within bounds
         if (startIndex >= 0 && startIndex < currentCrashes.size() && endIndex > startIndex) {
-            pageCrashes.addAll(currentCrashes.subList(startIndex, endIndex));
+            String column = sortColumn;
+            if (column == null) {
+                pageCrashes.addAll(currentCrashes.subList(startIndex, endIndex));
+            } else {
+                // The list never changes, so its sorted orders are cached for as long as it is current
+                int[] sortedIndexes = crashSorter.sortedIndexes(currentCrashes, column, sortAscending);
+                for (int i = startIndex; i < endIndex; i++) {
+                    pageCrashes.add(currentCrashes.get(sortedIndexes[i]));
+                }
+            }
         }
 
         // Return the page
@@ -196,9 +527,9 @@ public class CrashManager {
      */
     public void doRTreeCircleSearch(Position centre, double radius) {
         // Performs K-Tree search
-        queryCrashes = crashDAO.rTreeCircleSearch(centre.lat, centre.lng, radius);
-        currentCrashes.clear();
-        currentCrashes.addAll(queryCrashes);
+        queryCrashes = Collections.unmodifiableList(crashDAO.rTreeCircleSearch(centre.lat, centre.lng, radius));
+        querySearch = new CrashQuery().withinCircle(centre.lat, centre.lng, radius);
+        setCurrentCrashes(queryCrashes);
 
         // Updates controllers
         updateControllers();
@@ -219,10 +550,11 @@ public class CrashManager {
         Position bottomLeft = new Position(Double.parseDouble(minLat), Double.parseDouble(minLng));
         Position topRight = new Position(Double.parseDouble(maxLat), Double.parseDouble(maxLng));
 
-        currentCrashes = crashDAO.rTreeRectangleSearch(bottomLeft, topRight);
+        setCurrentCrashes(crashDAO.rTreeRectangleSearch(bottomLeft, topRight));
+        querySearch = null;
 
         List<Double> crashCoordsForJS = new ArrayList<>();
-        for (Crash crash : currentCrashes) {
+        for (Crash crash : current.crashes) {
             crashCoordsForJS.add((double) crash.getLat());
             crashCoordsForJS.add((double) crash.getLng());
         }
@@ -245,17 +577,14 @@ public class CrashManager {
      */
     public void getCrashesOnRouteFromJS(String jsCrashIndexesString) {
         String[] indexStrings = jsCrashIndexesString.split(",");
-        queryCrashes.clear();
+        List<Crash> boundsCrashes = current.crashes;
+        List<Crash> routeCrashes = new ArrayList<>(indexStrings.length);
         for (String indexString : indexStrings) {
             int index = Integer.parseInt(indexString);
-            queryCrashes.add(currentCrashes.get(index));
-        }
-        currentCrashes.clear();
-        currentCrashes.addAll(queryCrashes);
-        if(currentCrashes.isEmpty()) {
-            mapController.setLoadingIndicatorVisible(false);
-            updateControllers();
+            routeCrashes.add(boundsCrashes.get(index));
         }
+        queryCrashes = Collections.unmodifiableList(routeCrashes);
+        setCurrentCrashes(queryCrashes);
 
         try {
             mapController.setLoadingIndicatorVisible(false);
@@ -266,7 +595,10 @@ public class CrashManager {
     }
 
     /**
-     * Applies user-oriented simple filters that act on the current pool of crashes
+     * Applies user-oriented simple filters that act on the current pool of crashes.
+     * Crashes from an area search are searched for again in the database with the filters added, in the background,
+     * and the views are updated once the search finishes. Other crashes are already all in memory, so are filtered
+     * straight away.
      * @param showCars true if crashes involving a car are desired
      * @param showBikes true if crashes involving a bike are desired
      * @param showPedestrian true if crashes involving a pedestrian are desired
@@ -277,39 +609,55 @@ public class CrashManager {
      * @param endYear the upper bound of the year filter
      */
     public void applyFilters(boolean showCars, boolean showBikes, boolean showPedestrian, boolean showFatal, boolean showSerious, boolean showMinor, int startYear, int endYear) {
-        // Clear the current filters
-        currentCrashes.clear();
-
-        // Run the car type filters
-        if (showCars || showBikes || showPedestrian) {
+        long start = APPLY_FILTERS_TIMER.start();
+        long filter = ++latestFilter;
+        long version = current.version;
+
+        CrashQuery filtered = (querySearch != null ? querySearch.copy() : new CrashQuery())
+                .involving(showCars, showBikes, showPedestrian)
+                .withSeverity(showFatal, showSerious, showMinor)
+                .inYears(startYear, endYear);
+        if (filtered.hasCircle() && !queryCrashes.isEmpty() && startYear <= endYear) {
+            // Runs the search again with the filters added, so only the matching crashes are read
+            searchRunner.execute(() -> {
+                List<Crash> found = crashDAO.search(filtered);
+                APPLY_FILTERS_TIMER.stop(start);
+                resultDispatcher.execute(() -> {
+                    // Results are dropped if newer filters were applied, or the crashes changed, while searching
+                    if (filter != latestFilter || version != current.version) {
+                        return;
+                    }
+                    if (found == null) {
+                        mainController.showMessage("The filters could not be applied, as the crashes could not be "
+                                + "read from the database.");
+                    } else {
+                        showFilteredCrashes(found, startYear, endYear);
+                    }
+                });
+            });
+        } else {
+            // Crashes along a route were picked by map.js, and the rest are already in memory, so are filtered here
+            List<Crash> currentCrashes = new ArrayList<>();
             for (Crash crash : queryCrashes) {
-                // Check if the crash matches the selected criteria
-                boolean match = (showCars && (crash.getSuv() > 0 || crash.getCarStationWagon() > 0)) ||
-                        (showBikes && (crash.getBicycle() > 0)) ||
-                        (showPedestrian && (crash.getPedestrian() > 0));
-
-                if (match) {
+                if (filtered.matchesFilters(crash)) {
                     currentCrashes.add(crash);
                 }
             }
-        } else {
-            currentCrashes.addAll(queryCrashes);
-        }
-
-        // Run the severity filters
-        if (showFatal || showSerious || showMinor) {
-            currentCrashes.removeIf(crash -> {
-                // Define the matching criteria
-
-                return !(showFatal && crash.getSeverity().equals("Fatal Crash")) &&
-                        !(showSerious && crash.getSeverity().equals("Serious Crash")) &&
-                        !(showMinor && (crash.getSeverity().equals("Minor Crash") || crash.getSeverity().equals("Non-Injury Crash")));
-            });
-
+            APPLY_FILTERS_TIMER.stop(start);
+            showFilteredCrashes(currentCrashes, startYear, endYear);
         }
+    }
 
-        // Run the year filters
-        currentCrashes.removeIf(crash -> crash.getYear() < startYear || crash.getYear() > endYear);
+    /**
+     * Makes the crashes that passed the filters the current crashes, then updates the views, or tells the user why
+     * there are none to show.
+     *
+     * @param currentCrashes the crashes that passed the filters
+     * @param startYear the lower bound of the year filter
+     * @param endYear the upper bound of the year filter
+     */
+    private void showFilteredCrashes(List<Crash> currentCrashes, int startYear, int endYear) {
+        setCurrentCrashes(currentCrashes);
 
         // Check for errors and show user
         if (queryCrashes.isEmpty()) {
@@ -323,4 +671,17 @@ public class CrashManager {
             updateControllers();
         }
     }
+
+    /**
+     * The current crashes, which never change, and the version they were published as.
+     */
+    private static final class CurrentCrashes {
+        private final List<Crash> crashes;
+        private final long version;
+
+        private CurrentCrashes(List<Crash> crashes, long version) {
+            this.crashes = crashes;
+            this.version = version;
+        }
+    }
 }
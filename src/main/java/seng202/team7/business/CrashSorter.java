@@ -0,0 +1,235 @@
+package seng202.team7.business;
+
+import seng202.team7.model.Crash;
+import seng202.team7.model.CrashCount;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Sorts a list of crashes by any of the table's columns without sorting, or even boxing, the crashes themselves.
+ * Each column's values are read once into an array of unsigned int keys, which are then radix sorted into a
+ * permutation of the list's indexes. Counts and categories fit in a byte and so take a single counting sort pass.
+ * Strings are first replaced by their rank in a dictionary of the column's distinct values.
+ * Permutations are cached per column and direction for the list they were sorted from. Sorting a different list,
+ * or the same list after its size changes, empties the cache first, so a sort still running for an old list can
+ * never leave its order behind for a new one. {@link #clear()} must still be called whenever the list is changed in
+ * place.
+ * The ordering matches the table's default comparator: numbers and strings in natural order, categories in the
+ * order they are declared, and nulls first. Ties keep their order in the list, or the reverse of it when sorting in
+ * descending order.
+ */
+public class CrashSorter {
+    private static final Map<String, ToIntFunction<Crash>> KEY_COLUMNS = new HashMap<>();
+    private static final Map<String, Function<Crash, String>> STRING_COLUMNS = new HashMap<>();
+
+    static {
+        KEY_COLUMNS.put("id", Crash::getId);
+        KEY_COLUMNS.put("year", Crash::getYear);
+        KEY_COLUMNS.put("lat", crash -> sortableFloat(crash.getLat()));
+        KEY_COLUMNS.put("lng", crash -> sortableFloat(crash.getLng()));
+        for (CrashCount field : CrashCount.values()) {
+            KEY_COLUMNS.put(toColumnName(field), crash -> crash.getCount(field));
+        }
+
+        KEY_COLUMNS.put("severity", crash -> categoryKey(crash.getSeverity()));
+        KEY_COLUMNS.put("flatHill", crash -> categoryKey(crash.getFlatHill()));
+        KEY_COLUMNS.put("holiday", crash -> categoryKey(crash.getHoliday()));
+        KEY_COLUMNS.put("light", crash -> categoryKey(crash.getLight()));
+        KEY_COLUMNS.put("roadCharacter", crash -> categoryKey(crash.getRoadCharacter()));
+        KEY_COLUMNS.put("roadLane", crash -> categoryKey(crash.getRoadLane()));
+        KEY_COLUMNS.put("roadSurface", crash -> categoryKey(crash.getRoadSurface()));
+        KEY_COLUMNS.put("streetLight", crash -> categoryKey(crash.getStreetLight()));
+        KEY_COLUMNS.put("trafficControl", crash -> categoryKey(crash.getTrafficControl()));
+        KEY_COLUMNS.put("urban", crash -> categoryKey(crash.getUrban()));
+        KEY_COLUMNS.put("weatherA", crash -> categoryKey(crash.getWeatherA()));
+        KEY_COLUMNS.put("weatherB", crash -> categoryKey(crash.getWeatherB()));
+
+        STRING_COLUMNS.put("location1", Crash::getLocation1);
+        STRING_COLUMNS.put("location2", Crash::getLocation2);
+        STRING_COLUMNS.put("intersection", Crash::getIntersection);
+        STRING_COLUMNS.put("tlaName", Crash::getTlaName);
+    }
+
+    private final Map<String, int[]> permutations = new HashMap<>();
+    // The list the cached permutations were sorted from, and its size at the time
+    private List<Crash> sortedList = null;
+    private int sortedSize = -1;
+
+    /**
+     * Checks whether a column can be sorted.
+     *
+     * @param column the name of the column, the same as the crash property and database column
+     * @return true if the column can be sorted
+     */
+    public static boolean isSortable(String column) {
+        return KEY_COLUMNS.containsKey(column) || STRING_COLUMNS.containsKey(column);
+    }
+
+    /**
+     * Gets the order of a list of crashes when sorted by a column.
+     * The returned array is shared with the cache, so must not be modified.
+     *
+     * @param crashes the crashes to sort, which must not be changed in place without clearing the cache
+     * @param column the name of the column to sort by
+     * @param ascending true to sort in ascending order, false for descending
+     * @return the indexes of the crashes in the list, in sorted order
+     * @throws IllegalArgumentException if the column cannot be sorted
+     */
+    public synchronized int[] sortedIndexes(List<Crash> crashes, String column, boolean ascending) {
+        if (!isSortable(column)) {
+            throw new IllegalArgumentException("Cannot sort by column " + column);
+        }
+        if (crashes != sortedList || crashes.size() != sortedSize) {
+            permutations.clear();
+            sortedList = crashes;
+            sortedSize = crashes.size();
+        }
+        String cacheKey = column + (ascending ? " ASC" : " DESC");
+        int[] permutation = permutations.get(cacheKey);
+        if (permutation != null) {
+            return permutation;
+        }
+
+        int[] ascendingPermutation = permutations.get(column + " ASC");
+        if (ascendingPermutation == null) {
+            ascendingPermutation = radixSort(readKeys(crashes, column));
+            permutations.put(column + " ASC", ascendingPermutation);
+        }
+        if (ascending) {
+            return ascendingPermutation;
+        }
+        permutation = reversed(ascendingPermutation);
+        permutations.put(cacheKey, permutation);
+        return permutation;
+    }
+
+    /**
+     * Removes every cached permutation. Called whenever the crashes being sorted change.
+     */
+    public synchronized void clear() {
+        permutations.clear();
+        sortedList = null;
+        sortedSize = -1;
+    }
+
+    /**
+     * Sorts unsigned int keys with a stable least significant digit radix sort, a byte at a time. Only as many
+     * passes are made as there are bytes in the largest key, so keys under 256 are sorted by a single counting sort.
+     *
+     * @param keys the keys to sort, treated as unsigned
+     * @return the indexes of the keys in ascending order
+     */
+    private static int[] radixSort(int[] keys) {
+        int n = keys.length;
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        int allBits = 0;
+        for (int key : keys) {
+            allBits |= key;
+        }
+
+        int[] buffer = new int[n];
+        int[] counts = new int[257];
+        for (int shift = 0; shift < 32 && (allBits >>> shift) != 0; shift += 8) {
+            Arrays.fill(counts, 0);
+            for (int key : keys) {
+                counts[((key >>> shift) & 0xFF) + 1]++;
+            }
+            for (int digit = 0; digit < 256; digit++) {
+                counts[digit + 1] += counts[digit];
+            }
+            for (int index : order) {
+                buffer[counts[(keys[index] >>> shift) & 0xFF]++] = index;
+            }
+            int[] swap = order;
+            order = buffer;
+            buffer = swap;
+        }
+        return order;
+    }
+
+    private static int[] readKeys(List<Crash> crashes, String column) {
+        int n = crashes.size();
+        int[] keys = new int[n];
+        ToIntFunction<Crash> keyColumn = KEY_COLUMNS.get(column);
+        if (keyColumn != null) {
+            int min = Integer.MAX_VALUE;
+            for (int i = 0; i < n; i++) {
+                keys[i] = keyColumn.applyAsInt(crashes.get(i));
+                min = Math.min(min, keys[i]);
+            }
+            // Shifting the keys to start at zero makes them unsigned and keeps the number of radix passes down
+            for (int i = 0; i < n; i++) {
+                keys[i] -= min;
+            }
+            return keys;
+        }
+
+        // Strings are ranked in a dictionary of the distinct values, with rank 0 kept for null
+        Function<Crash, String> stringColumn = STRING_COLUMNS.get(column);
+        String[] values = new String[n];
+        Map<String, Integer> ranks = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            values[i] = stringColumn.apply(crashes.get(i));
+            if (values[i] != null) {
+                ranks.put(values[i], 0);
+            }
+        }
+        List<String> dictionary = new ArrayList<>(ranks.keySet());
+        Collections.sort(dictionary);
+        for (int rank = 0; rank < dictionary.size(); rank++) {
+            ranks.put(dictionary.get(rank), rank + 1);
+        }
+        for (int i = 0; i < n; i++) {
+            keys[i] = values[i] == null ? 0 : ranks.get(values[i]);
+        }
+        return keys;
+    }
+
+    private static int[] reversed(int[] permutation) {
+        int n = permutation.length;
+        int[] reversed = new int[n];
+        for (int i = 0; i < n; i++) {
+            reversed[i] = permutation[n - 1 - i];
+        }
+        return reversed;
+    }
+
+    /**
+     * Maps a float to an int whose signed order matches the float's order.
+     */
+    private static int sortableFloat(float value) {
+        int bits = Float.floatToIntBits(value);
+        return bits ^ ((bits >> 31) & 0x7FFFFFFF);
+    }
+
+    private static int categoryKey(Enum<?> value) {
+        return value == null ? 0 : value.ordinal() + 1;
+    }
+
+    /**
+     * Converts a count field's name to its column name, such as SPEED_LIMIT to speedLimit.
+     */
+    private static String toColumnName(CrashCount field) {
+        StringBuilder name = new StringBuilder();
+        boolean upper = false;
+        for (char c : field.name().toCharArray()) {
+            if (c == '_') {
+                upper = true;
+            } else {
+                name.append(upper ? c : Character.toLowerCase(c));
+                upper = false;
+            }
+        }
+        return name.toString();
+    }
+}
@@ -0,0 +1,199 @@
+package seng202.team7.business;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable compressed prefix trie of location names, used to suggest locations as the user types without asking
+ * the geocoder. Each node's edge holds a run of characters rather than a single one, so chains of nodes with only
+ * one child are merged. Every node keeps the best names below it, ranked by weight, so a suggestion only walks the
+ * characters typed and then copies a list, however many names share the prefix.
+ * Matching ignores case. Being immutable, a trie can be read by any number of threads while a new one is built.
+ */
+public class LocationTrie {
+    // The most suggestions kept at each node, and so the most one call can return
+    public static final int MAX_SUGGESTIONS = 10;
+    private static final int[] NO_NAMES = new int[0];
+
+    /**
+     * A trie with no names, which suggests nothing.
+     */
+    public static final LocationTrie EMPTY = new LocationTrie(Map.of());
+
+    /**
+     * A node of the trie, reached from its parent by the characters of its label.
+     */
+    private static class Node {
+        private String label;
+        private final List<Node> children = new ArrayList<>(2);
+        // The index of the name ending at this node, or -1 if none does
+        private int name = -1;
+        // Indexes of the best names at or below this node, best first
+        private int[] best = NO_NAMES;
+
+        private Node(String label) {
+            this.label = label;
+        }
+
+        /**
+         * Finds the child whose label starts with a character, as no two children start with the same one.
+         */
+        private Node child(char first) {
+            for (Node child : children) {
+                if (child.label.charAt(0) == first) {
+                    return child;
+                }
+            }
+            return null;
+        }
+    }
+
+    private final String[] names;
+    private final long[] weights;
+    private final Node root = new Node("");
+
+    /**
+     * Builds a trie of names. Names differing only in case are merged, keeping the spelling with the larger weight.
+     *
+     * @param nameWeights the weight of each name, such as its number of crashes; higher weights are suggested first
+     */
+    public LocationTrie(Map<String, ? extends Number> nameWeights) {
+        Map<String, Integer> indexes = new HashMap<>();
+        List<String> nameList = new ArrayList<>();
+        List<Long> weightList = new ArrayList<>();
+        List<Long> spellingWeights = new ArrayList<>();
+        for (Map.Entry<String, ? extends Number> entry : nameWeights.entrySet()) {
+            String name = entry.getKey().strip();
+            if (name.isEmpty()) {
+                continue;
+            }
+            long weight = entry.getValue().longValue();
+            String key = name.toLowerCase(Locale.ROOT);
+            Integer index = indexes.get(key);
+            if (index == null) {
+                indexes.put(key, nameList.size());
+                nameList.add(name);
+                weightList.add(weight);
+                spellingWeights.add(weight);
+                insert(key, nameList.size() - 1);
+            } else {
+                weightList.set(index, weightList.get(index) + weight);
+                if (weight > spellingWeights.get(index)) {
+                    nameList.set(index, name);
+                    spellingWeights.set(index, weight);
+                }
+            }
+        }
+        names = nameList.toArray(new String[0]);
+        weights = new long[names.length];
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = weightList.get(i);
+        }
+        rank(root);
+    }
+
+    /**
+     * Gets the number of distinct names in the trie.
+     *
+     * @return the number of names
+     */
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * Suggests names starting with some text, ignoring case.
+     *
+     * @param prefix the text typed so far
+     * @param limit the most suggestions to return, up to {@link #MAX_SUGGESTIONS}
+     * @return the matching names, highest weight first, or an empty list if the prefix is blank or nothing matches
+     */
+    public List<String> suggest(String prefix, int limit) {
+        String remaining = prefix.stripLeading().toLowerCase(Locale.ROOT);
+        if (remaining.isBlank()) {
+            return Collections.emptyList();
+        }
+        Node node = root;
+        while (!remaining.isEmpty()) {
+            Node child = node.child(remaining.charAt(0));
+            if (child == null) {
+                return Collections.emptyList();
+            }
+            if (remaining.startsWith(child.label)) {
+                remaining = remaining.substring(child.label.length());
+            } else if (child.label.startsWith(remaining)) {
+                remaining = "";
+            } else {
+                return Collections.emptyList();
+            }
+            node = child;
+        }
+        int count = Math.min(limit, node.best.length);
+        List<String> suggestions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            suggestions.add(names[node.best[i]]);
+        }
+        return suggestions;
+    }
+
+    /**
+     * Adds a key to the trie, splitting an edge where the key leaves it part way.
+     */
+    private void insert(String key, int name) {
+        Node node = root;
+        String remaining = key;
+        while (!remaining.isEmpty()) {
+            Node child = node.child(remaining.charAt(0));
+            if (child == null) {
+                child = new Node(remaining);
+                node.children.add(child);
+                child.name = name;
+                return;
+            }
+            int common = commonPrefixLength(child.label, remaining);
+            if (common < child.label.length()) {
+                // Splits the edge, moving the child below a new node holding the shared characters
+                Node split = new Node(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                split.children.add(child);
+                node.children.set(node.children.indexOf(child), split);
+                child = split;
+            }
+            remaining = remaining.substring(common);
+            node = child;
+        }
+        node.name = name;
+    }
+
+    /**
+     * Works out the best names at and below each node, from the best names of its children.
+     */
+    private void rank(Node node) {
+        List<Integer> candidates = new ArrayList<>();
+        if (node.name >= 0) {
+            candidates.add(node.name);
+        }
+        for (Node child : node.children) {
+            rank(child);
+            for (int name : child.best) {
+                candidates.add(name);
+            }
+        }
+        candidates.sort(Comparator.<Integer>comparingLong(name -> -weights[name]).thenComparing(name -> names[name]));
+        node.best = candidates.stream().limit(MAX_SUGGESTIONS).mapToInt(Integer::intValue).toArray();
+    }
+
+    private static int commonPrefixLength(String a, String b) {
+        int length = Math.min(a.length(), b.length());
+        int i = 0;
+        while (i < length && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        return i;
+    }
+}
@@ -0,0 +1,187 @@
+package seng202.team7.business;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.FutureTask;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+
+/**
+ * Least recently used cache of the pages shown by a paginated view, which also loads the pages either side of the
+ * one being shown in the background, so flicking through pages rarely has to wait for a load.
+ * The cache is emptied with {@link #invalidate()} whenever the data behind the pages changes; pages still being
+ * loaded for the old data are thrown away when they finish. If the prefetcher drops or cancels a load, that page is
+ * simply loaded when it is shown instead, and can be prefetched again.
+ *
+ * @param <T> the type of item on each page
+ */
+public class PageCache<T> {
+    private final IntFunction<List<T>> loader;
+    private final Consumer<FutureTask<?>> prefetcher;
+    private final IntConsumer onPrefetched;
+    private final int prefetchDistance;
+    private final Map<Integer, List<T>> pages;
+    private final Set<Integer> loading = new HashSet<>();
+    private long generation = 0;
+
+    /**
+     * Creates an empty page cache.
+     *
+     * @param loader loads the page with the given index, returning null if it could not be loaded
+     * @param prefetcher runs the background loads of neighbouring pages, such as {@link BackgroundExecutor#submitIO}
+     * @param capacity the most pages kept, which should be more than twice the prefetch distance
+     * @param prefetchDistance how many pages either side of the shown page to load in the background
+     */
+    public PageCache(IntFunction<List<T>> loader, Consumer<FutureTask<?>> prefetcher, int capacity,
+                     int prefetchDistance) {
+        this(loader, prefetcher, capacity, prefetchDistance, page -> { });
+    }
+
+    /**
+     * Creates an empty page cache that reports each page loaded in the background.
+     *
+     * @param loader loads the page with the given index, returning null if it could not be loaded
+     * @param prefetcher runs the background loads of neighbouring pages, such as {@link BackgroundExecutor#submitIO}
+     * @param capacity the most pages kept, which should be more than twice the prefetch distance
+     * @param prefetchDistance how many pages either side of the shown page to load in the background
+     * @param onPrefetched given the index of each page cached by a background load, on the thread that loaded it
+     */
+    public PageCache(IntFunction<List<T>> loader, Consumer<FutureTask<?>> prefetcher, int capacity,
+                     int prefetchDistance, IntConsumer onPrefetched) {
+        this.loader = loader;
+        this.prefetcher = prefetcher;
+        this.onPrefetched = onPrefetched;
+        this.prefetchDistance = prefetchDistance;
+        this.pages = new LinkedHashMap<>(capacity, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, List<T>> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Gets a page if it is already cached, marking it as the most recently used.
+     *
+     * @param page the index of the page
+     * @return the page, or null if it is not cached
+     */
+    public synchronized List<T> getIfPresent(int page) {
+        return pages.get(page);
+    }
+
+    /**
+     * Loads a page on the calling thread and caches it, unless the cache is invalidated while it loads.
+     *
+     * @param page the index of the page
+     * @return the page, or null if it could not be loaded
+     */
+    public List<T> load(int page) {
+        long startGeneration;
+        synchronized (this) {
+            startGeneration = generation;
+        }
+        return load(page, startGeneration);
+    }
+
+    /**
+     * Loads a page and caches it if the cache has not been invalidated since the load was asked for.
+     *
+     * @param page the index of the page
+     * @param startGeneration the generation of the cache when the load was asked for
+     * @return the page, or null if it could not be loaded
+     */
+    private List<T> load(int page, long startGeneration) {
+        List<T> loaded = loader.apply(page);
+        if (loaded == null) {
+            return null;
+        }
+        loaded = Collections.unmodifiableList(loaded);
+        synchronized (this) {
+            if (generation == startGeneration) {
+                pages.put(page, loaded);
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Starts background loads of the pages within the prefetch distance of a page, nearest first, skipping any
+     * that are already cached or loading.
+     *
+     * @param page the index of the page being shown
+     * @param pageCount the number of pages, so no load is started past the last page
+     */
+    public void prefetchAround(int page, int pageCount) {
+        for (int distance = 1; distance <= prefetchDistance; distance++) {
+            prefetch(page + distance, pageCount);
+            prefetch(page - distance, pageCount);
+        }
+    }
+
+    /**
+     * Empties the cache. Called whenever the data behind the pages changes.
+     */
+    public synchronized void invalidate() {
+        generation++;
+        pages.clear();
+        loading.clear();
+    }
+
+    /**
+     * Gets the number of pages cached.
+     *
+     * @return the number of pages cached
+     */
+    public synchronized int size() {
+        return pages.size();
+    }
+
+    /**
+     * Starts a background load of a page, unless it is already cached or loading or is past the last page.
+     *
+     * @param page the index of the page
+     * @param pageCount the number of pages
+     */
+    public void prefetch(int page, int pageCount) {
+        long prefetchGeneration;
+        synchronized (this) {
+            if (page < 0 || page >= pageCount || pages.containsKey(page) || !loading.add(page)) {
+                return;
+            }
+            prefetchGeneration = generation;
+        }
+        FutureTask<Void> task = new FutureTask<>(() -> {
+            if (load(page, prefetchGeneration) != null && isGeneration(prefetchGeneration)) {
+                onPrefetched.accept(page);
+            }
+        }, null) {
+            @Override
+            protected void done() {
+                // Runs however the load ends, including when a full pool cancels it before it starts
+                finishPrefetch(page, prefetchGeneration);
+            }
+        };
+        try {
+            prefetcher.accept(task);
+        } catch (RuntimeException e) {
+            finishPrefetch(page, prefetchGeneration);
+            throw e;
+        }
+    }
+
+    private synchronized boolean isGeneration(long prefetchGeneration) {
+        return generation == prefetchGeneration;
+    }
+
+    private synchronized void finishPrefetch(int page, long prefetchGeneration) {
+        if (generation == prefetchGeneration) {
+            loading.remove(page);
+        }
+    }
+}
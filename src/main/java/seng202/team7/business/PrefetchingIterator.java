@@ -0,0 +1,98 @@
+package seng202.team7.business;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Iterator that reads ahead of its consumer on its own thread, so producing each item overlaps with consuming the
+ * one before it. At most a fixed number of items are read ahead; once that many are waiting, the producing thread
+ * blocks until the consumer takes one, so a slow consumer never has the whole source buffered in memory.
+ * An exception thrown by the source is rethrown to the consumer in place of the item it failed to produce.
+ * Closing the iterator stops the producing thread, so it must be closed even if it is not read to the end.
+ *
+ * @param <T> the type of item
+ */
+public class PrefetchingIterator<T> implements Iterator<T>, AutoCloseable {
+    private static final Object END = new Object();
+
+    private final BlockingQueue<Object> queue;
+    private final Thread producer;
+    private volatile RuntimeException failure;
+    private Object next;
+
+    /**
+     * Creates the iterator and starts reading ahead of it.
+     *
+     * @param source the items to read, which is only used by the producing thread from now on
+     * @param capacity the most items read ahead of the consumer
+     * @param threadName the name of the producing thread
+     */
+    public PrefetchingIterator(Iterator<T> source, int capacity, String threadName) {
+        queue = new ArrayBlockingQueue<>(capacity);
+        // The producer gets a thread of its own rather than a place on the CPU pool. The consumer is usually running
+        // on that pool, so if the pool were full the producer would be queued behind a consumer waiting on it.
+        producer = BackgroundExecutor.daemonThreadFactory(threadName).newThread(() -> {
+            try {
+                try {
+                    while (source.hasNext()) {
+                        queue.put(source.next());
+                    }
+                } catch (RuntimeException e) {
+                    failure = e;
+                }
+                queue.put(END);
+            } catch (InterruptedException e) {
+                // Closed by the consumer, which is no longer reading
+            }
+        });
+        producer.start();
+    }
+
+    /**
+     * Checks whether there is another item, waiting for the producing thread if it has not read one yet.
+     * If the waiting thread is interrupted, the iterator ends early and the interrupt is kept.
+     *
+     * @return true if there is another item
+     */
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            try {
+                next = queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                next = END;
+            }
+            if (next == END && failure != null) {
+                throw failure;
+            }
+        }
+        return next != END;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        T item = (T) next;
+        next = null;
+        return item;
+    }
+
+    /**
+     * Stops the producing thread and waits for it to finish with the source, so the source can then be closed.
+     */
+    @Override
+    public void close() {
+        producer.interrupt();
+        try {
+            producer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package seng202.team7.business;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * Schedules refreshes of the views that display the current crashes.
+ * Requests only mark the views as dirty; a burst of requests is coalesced into a single refresh, run through the
+ * dispatcher (the JavaFX application thread in the app). Only views that are currently shown are refreshed then,
+ * and a hidden view stays dirty until it is next shown, so switching to it is the only time it does the work.
+ */
+public class ViewUpdateScheduler {
+
+    /**
+     * The views kept up to date with the current crashes.
+     */
+    public enum View {
+        /**
+         * The map view.
+         */
+        MAP,
+
+        /**
+         * The table view.
+         */
+        TABLE,
+
+        /**
+         * The graph view.
+         */
+        GRAPH,
+
+        /**
+         * The main window's side panel, which shows the advice cards. It is always shown.
+         */
+        MAIN
+    }
+
+    // The views that share the main area of the window, only one of which is shown at a time
+    private static final EnumSet<View> SWITCHABLE_VIEWS = EnumSet.of(View.MAP, View.TABLE, View.GRAPH);
+
+    private final Executor dispatcher;
+    private final Consumer<View> updater;
+    private final EnumSet<View> dirtyViews = EnumSet.noneOf(View.class);
+    private final EnumSet<View> hiddenViews = EnumSet.noneOf(View.class);
+    private boolean refreshPending = false;
+
+    /**
+     * Creates a scheduler. Every view counts as shown until {@link #showView(View)} is first called.
+     *
+     * @param dispatcher runs the coalesced refresh, such as Platform::runLater, or Runnable::run to refresh at once
+     * @param updater refreshes a single view
+     */
+    public ViewUpdateScheduler(Executor dispatcher, Consumer<View> updater) {
+        this.dispatcher = dispatcher;
+        this.updater = updater;
+    }
+
+    /**
+     * Marks every view as needing a refresh, and schedules a refresh of the shown views if one is not already
+     * waiting to run.
+     */
+    public void requestUpdate() {
+        synchronized (this) {
+            dirtyViews.addAll(EnumSet.allOf(View.class));
+            if (refreshPending) {
+                return;
+            }
+            refreshPending = true;
+        }
+        dispatcher.execute(this::refreshShownViews);
+    }
+
+    /**
+     * Records that one of the switchable views (map, table or graph) has been brought to the front, hiding the
+     * others. If the view missed any updates while hidden it is refreshed straight away.
+     *
+     * @param view the view now shown
+     */
+    public void showView(View view) {
+        boolean needsUpdate;
+        synchronized (this) {
+            if (SWITCHABLE_VIEWS.contains(view)) {
+                hiddenViews.addAll(SWITCHABLE_VIEWS);
+                hiddenViews.remove(view);
+            }
+            needsUpdate = dirtyViews.remove(view);
+        }
+        if (needsUpdate) {
+            updater.accept(view);
+        }
+    }
+
+    /**
+     * Checks whether a view is waiting for a refresh.
+     *
+     * @param view the view to check
+     * @return true if the view has missed an update
+     */
+    public synchronized boolean isDirty(View view) {
+        return dirtyViews.contains(view);
+    }
+
+    /**
+     * Refreshes every dirty view that is shown. Views are refreshed outside the lock so an update may request
+     * another one.
+     */
+    private void refreshShownViews() {
+        List<View> toUpdate = new ArrayList<>();
+        synchronized (this) {
+            refreshPending = false;
+            for (View view : View.values()) {
+                if (!hiddenViews.contains(view) && dirtyViews.remove(view)) {
+                    toUpdate.add(view);
+                }
+            }
+        }
+        for (View view : toUpdate) {
+            updater.accept(view);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package seng202.team7.controller;
+
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.collections.FXCollections;
+import javafx.fxml.FXML;
+import javafx.scene.control.Button;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.stage.Stage;
+import javafx.util.Duration;
+import seng202.team7.metrics.MetricsRegistry;
+import seng202.team7.metrics.TimerSnapshot;
+
+/**
+ * FXML controller class for diagnostics.fxml.
+ * Shows the timings recorded in the MetricsRegistry, refreshing every couple of seconds while open.
+ */
+public class DiagnosticsController {
+    @FXML
+    private TableView<TimerSnapshot> timersTableView;
+    @FXML
+    private TableColumn<TimerSnapshot, String> nameCol;
+    @FXML
+    private TableColumn<TimerSnapshot, Long> countCol;
+    @FXML
+    private TableColumn<TimerSnapshot, Double> meanCol;
+    @FXML
+    private TableColumn<TimerSnapshot, Double> p50Col;
+    @FXML
+    private TableColumn<TimerSnapshot, Double> p90Col;
+    @FXML
+    private TableColumn<TimerSnapshot, Double> p99Col;
+    @FXML
+    private TableColumn<TimerSnapshot, Double> maxCol;
+    @FXML
+    private Button closeButton;
+    private Timeline refreshTimeline;
+
+    /**
+     * The init function for the diagnostics panel.
+     * Sets up the table and starts refreshing it until the panel is closed.
+     *
+     * @param stage The stage the panel is shown in.
+     */
+    public void init(Stage stage) {
+        nameCol.setCellValueFactory(new PropertyValueFactory<>("name"));
+        countCol.setCellValueFactory(new PropertyValueFactory<>("count"));
+        meanCol.setCellValueFactory(new PropertyValueFactory<>("meanMillis"));
+        p50Col.setCellValueFactory(new PropertyValueFactory<>("p50Millis"));
+        p90Col.setCellValueFactory(new PropertyValueFactory<>("p90Millis"));
+        p99Col.setCellValueFactory(new PropertyValueFactory<>("p99Millis"));
+        maxCol.setCellValueFactory(new PropertyValueFactory<>("maxMillis"));
+
+        refresh();
+        refreshTimeline = new Timeline(new KeyFrame(Duration.seconds(2), e -> refresh()));
+        refreshTimeline.setCycleCount(Animation.INDEFINITE);
+        refreshTimeline.play();
+        stage.setOnHidden(e -> refreshTimeline.stop());
+    }
+
+    /**
+     * Reloads the table from the current timer values.
+     */
+    @FXML
+    private void refresh() {
+        timersTableView.setItems(FXCollections.observableArrayList(MetricsRegistry.getInstance().snapshot()));
+    }
+
+    /**
+     * Clears every timer, so the table only shows timings from here on.
+     */
+    @FXML
+    private void resetButtonClicked() {
+        MetricsRegistry.getInstance().reset();
+        refresh();
+    }
+
+    /**
+     * Function to close the panel.
+     */
+    @FXML
+    private void closeScene() {
+        Stage stage = (Stage) closeButton.getScene().getWindow();
+        stage.close();
+    }
+}
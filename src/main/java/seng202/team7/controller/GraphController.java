@@ -7,7 +7,11 @@ import javafx.scene.chart.*;
 import javafx.stage.Stage;
 import seng202.team7.business.CrashManager;
 import seng202.team7.model.Crash;
+import seng202.team7.model.Severity;
+import seng202.team7.model.WeatherA;
+import seng202.team7.model.WeatherB;
 
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -111,16 +115,16 @@ public class GraphController {
     private void severityPieChart() {
 
         // Initialize a data structure to store crash counts by year
-        Map<String, Integer> crashCountsBySeverity = new HashMap<>();
+        Map<Severity, Integer> crashCountsBySeverity = new EnumMap<>(Severity.class);
 
         // Iterate through the crashes and count them by year
         for (Crash crash : crashManager.getCurrentCrashes()) {
 
             // Get crash severity
-            String severity = crash.getSeverity();
+            Severity severity = crash.getSeverity();
 
             // Add severity if not null
-            if (!Objects.equals(severity, "Null")) {
+            if (severity != null) {
                 crashCountsBySeverity.put(severity, crashCountsBySeverity.getOrDefault(severity, 0) + 1);
             }
         }
@@ -132,8 +136,8 @@ public class GraphController {
         ObservableList<PieChart.Data> pieChartData = FXCollections.observableArrayList();
 
         // Add the data to the list
-        for (Map.Entry<String, Integer> entry : crashCountsBySeverity.entrySet()) {
-            String severity = entry.getKey();
+        for (Map.Entry<Severity, Integer> entry : crashCountsBySeverity.entrySet()) {
+            String severity = entry.getKey().toString();
             int count = entry.getValue();
             pieChartData.add(new PieChart.Data(severity, count));
         }
@@ -155,16 +159,17 @@ public class GraphController {
         for (Crash crash : crashManager.getCurrentCrashes()) {
 
             // Get weather with preference to weather b
-            String weather;
-            if (!Objects.equals(crash.getWeatherB(), "Null")) {
+            Enum<?> weather;
+            if (crash.getWeatherB() != WeatherB.NULL) {
                 weather = crash.getWeatherB();
             } else {
                 weather = crash.getWeatherA();
             }
 
             // Add weather if not null
-            if (!Objects.equals(weather, "Null")) {
-                crashCountsByWeather.put(weather, crashCountsByWeather.getOrDefault(weather, 0) + 1);
+            if (weather != WeatherA.NULL) {
+                String weatherStr = Objects.toString(weather, null);
+                crashCountsByWeather.put(weatherStr, crashCountsByWeather.getOrDefault(weatherStr, 0) + 1);
             }
         }
 
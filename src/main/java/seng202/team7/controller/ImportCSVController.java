@@ -41,6 +41,8 @@ public class ImportCSVController {
     private HBox fileInfoContainer;
     @FXML
     private Text fileNameLabel;
+    @FXML
+    private CheckBox onlyChangesCheckBox;
     private File selectedFile;
     private MainController mainController;
 
@@ -159,7 +161,7 @@ public class ImportCSVController {
     @FXML
     private void confirmButtonClicked(){
         if(selectedFile != null){
-            mainController.importData(selectedFile);
+            mainController.importData(selectedFile, onlyChangesCheckBox.isSelected());
         }
         closeScene();
     }
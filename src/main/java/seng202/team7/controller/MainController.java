@@ -2,9 +2,9 @@ package seng202.team7.controller;
 
 import javafx.animation.RotateTransition;
 import javafx.application.Platform;
+import javafx.concurrent.Task;
 import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableValue;
-import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
@@ -18,8 +18,11 @@ import javafx.util.Duration;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.controlsfx.control.Notifications;
+import org.controlsfx.control.action.Action;
+import org.controlsfx.control.textfield.TextFields;
 import seng202.team7.business.AdviceLogic;
 import seng202.team7.business.CrashManager;
+import seng202.team7.business.ViewUpdateScheduler.View;
 import seng202.team7.exceptions.GeolocatorFailedException;
 import seng202.team7.exceptions.InvalidUserInputException;
 import seng202.team7.io.CrashCSVImporter;
@@ -87,6 +90,7 @@ public class MainController {
     private StackPane mainStackPane;
     @FXML
     private ProgressIndicator progressIndicator;
+    private Task<?> importTask;
     @FXML
     private Button goButton;
     @FXML
@@ -195,8 +199,16 @@ public class MainController {
         importButton.setTooltip(importTooltip);
 
 
+        // Suggest locations from the crashes in the database as they are typed, so fewer go to the geocoder
+        crashManager.refreshLocationIndexes();
+        for (TextField locationTextField : List.of(startLocationTextField, endLocationTextField, areaTextField)) {
+            TextFields.bindAutoCompletion(locationTextField,
+                    request -> crashManager.suggestLocations(request.getUserText()));
+        }
+
         // Set the crash manager controllers
         crashManager.setControllers(mapController, tableViewController, graphController);
+        crashManager.showView(View.MAP);
 
         // Set size and check for prompts
         //stage.sizeToScene();
@@ -353,11 +365,10 @@ public class MainController {
 
             String transportVehicle = ((ToggleButton) transports.getSelectedToggle()).getId();
 
-            mapController.setRoute(startLocationTextField.getText(), endLocationTextField.getText(), transportVehicle);
+            mapController.setRoute(startLocationTextField.getText(), endLocationTextField.getText(), transportVehicle,
+                    e -> showMessage("Sorry, but \"" + e.getAddress() + "\" is not a valid address within Aotearoa"));
         } catch (InvalidUserInputException e) {
             showMessage(e.getMessage());
-        } catch (GeolocatorFailedException e) {
-            showMessage("Sorry, but \"" + e.getAddress() + "\" is not a valid address within Aotearoa");
         }
     }
 
@@ -404,6 +415,7 @@ public class MainController {
     private void showMap() {
         tableView.toBack();
         graphView.toBack();
+        crashManager.showView(View.MAP);
     }
 
     /**
@@ -413,6 +425,7 @@ public class MainController {
     private void showTable() {
         mapView.toBack();
         graphView.toBack();
+        crashManager.showView(View.TABLE);
     }
 
     /**
@@ -422,6 +435,7 @@ public class MainController {
     private void showGraph() {
         mapView.toBack();
         tableView.toBack();
+        crashManager.showView(View.GRAPH);
     }
 
     /**
@@ -519,6 +533,29 @@ public class MainController {
         }
     }
 
+    /**
+     * Opens the diagnostics panel, which shows how long the app has been spending in each timed operation.
+     * It is not modal, so the timings can be watched while using the app.
+     */
+    public void showDiagnosticsPopup() {
+        try {
+            FXMLLoader diagnosticsLoader = new FXMLLoader(getClass().getResource("/fxml/diagnostics.fxml"));
+            BorderPane root = diagnosticsLoader.load();
+
+            Stage diagnosticsStage = new Stage();
+            diagnosticsStage.setScene(new Scene(root));
+            diagnosticsStage.setTitle("Diagnostics");
+            diagnosticsStage.initOwner(stage);
+
+            DiagnosticsController diagnosticsController = diagnosticsLoader.getController();
+            diagnosticsController.init(diagnosticsStage);
+
+            diagnosticsStage.show();
+        } catch (IOException e) {
+            log.error(e.getMessage());
+        }
+    }
+
     /**
      * Imports the data into the database using the crash manager.
      *
@@ -526,51 +563,89 @@ public class MainController {
      */
     @FXML
     public void importData(File selectedFile) {
+        importData(selectedFile, false);
+    }
+
+    /**
+     * Imports the data into the database using the crash manager.
+     *
+     * @param selectedFile The file to get the data from.
+     * @param onlyChanges  True to only apply what has changed since the file was last imported.
+     */
+    public void importData(File selectedFile, boolean onlyChanges) {
         RotateTransition rotateTransition = new RotateTransition(Duration.seconds(2), progressIndicator);
         rotateTransition.setByAngle(360);
         rotateTransition.setCycleCount(RotateTransition.INDEFINITE);
-        Task<Void> task = new Task<Void>() {
-            @Override
-            protected Void call() throws Exception {
-                Platform.runLater(() -> {
-
-                    rotateTransition.play();
-                    progressIndicator.setVisible(true);
-                    isLoadingData = true;
-                    Notifications.create()
-                            .title("Importing CSV")
-                            .owner(stage)
-                            .text("DriveWise is currently importing \nthe crash data from " + selectedFile.getName() + "\nWe will let you know when its done")
-                            .hideAfter(Duration.millis(20000))
-                            .showInformation();
-                });
-
-                // Perform the actual import
-                crashManager.addAllCrashesFromFile(new CrashCSVImporter(), selectedFile, () -> {
-                    // This code runs on the JavaFX Application Thread
-                    Platform.runLater(() -> {
-                        Notifications.create()
-                                .title("Finished Importing")
-                                .owner(stage)
-                                .text("DriveWise has loaded all the crashes from: " + selectedFile.getName())
-                                .hideAfter(Duration.millis(5000))
-                                .show();
-                        crashManager.updateControllers();
-                        rotateTransition.stop();
-                        progressIndicator.setVisible(false);
-                        isLoadingData = false;
-                    });
-                });
-                return null;
-            }
-        };
 
-        // Set up a callback for when the task is completed
-        task.setOnSucceeded(e -> {
-            // Additional actions after the import is completed, if needed
+        // Perform the actual import, which the crash manager runs in the background
+        if (onlyChanges) {
+            importTask = crashManager.importChangesFromFile(new CrashCSVImporter(), selectedFile, summary -> {
+                String text = summary != null
+                        ? "DriveWise has applied the changes from: " + selectedFile.getName() + "\n" + summary
+                        : importTask.isCancelled()
+                        ? "The import of " + selectedFile.getName() + " was cancelled, so nothing was changed"
+                        : "DriveWise could not apply the changes from: " + selectedFile.getName();
+                finishImport(rotateTransition, text);
+            });
+        } else {
+            importTask = crashManager.addAllCrashesFromFile(new CrashCSVImporter(), selectedFile, () ->
+                    finishImport(rotateTransition, importTask.isCancelled()
+                            ? "The import of " + selectedFile.getName() + " was cancelled, keeping the crashes already added"
+                            : importTask.getException() != null
+                            ? "DriveWise could not read all of: " + selectedFile.getName()
+                                    + ", keeping the crashes already added"
+                            : "DriveWise has loaded all the crashes from: " + selectedFile.getName()));
+        }
+
+        Task<?> task = importTask;
+        Platform.runLater(() -> {
+            // Spins until the import reports how far through it is, then fills up as it goes
+            progressIndicator.progressProperty().bind(task.progressProperty());
+            task.progressProperty().addListener((observable, oldValue, newValue) -> {
+                if (newValue.doubleValue() >= 0) {
+                    rotateTransition.stop();
+                    progressIndicator.setRotate(0);
+                }
+            });
+            progressIndicator.setTooltip(new Tooltip());
+            progressIndicator.getTooltip().textProperty().bind(task.messageProperty());
+            rotateTransition.play();
+            progressIndicator.setVisible(true);
+            isLoadingData = true;
+            Notifications.create()
+                    .title("Importing CSV")
+                    .owner(stage)
+                    .text("DriveWise is currently importing \nthe crash data from " + selectedFile.getName() + "\nWe will let you know when its done")
+                    .action(new Action("Cancel", event -> task.cancel()))
+                    .hideAfter(Duration.millis(20000))
+                    .showInformation();
+        });
+    }
+
+    /**
+     * Tells the user an import has finished and shows the imported crashes.
+     *
+     * @param rotateTransition The loading animation to stop.
+     * @param text             The text of the notification.
+     */
+    private void finishImport(RotateTransition rotateTransition, String text) {
+        // This code runs on the JavaFX Application Thread
+        Platform.runLater(() -> {
+            Notifications.create()
+                    .title("Finished Importing")
+                    .owner(stage)
+                    .text(text)
+                    .hideAfter(Duration.millis(5000))
+                    .show();
+            crashManager.updateControllers();
+            rotateTransition.stop();
+            progressIndicator.progressProperty().unbind();
+            progressIndicator.setProgress(ProgressIndicator.INDETERMINATE_PROGRESS);
+            progressIndicator.setTooltip(null);
+            progressIndicator.setVisible(false);
+            isLoadingData = false;
+            importTask = null;
         });
-        // Start the task in a new thread
-        new Thread(task).start();
     }
 
     /**
@@ -7,17 +7,30 @@ import javafx.scene.control.ProgressIndicator;
 import javafx.scene.web.WebEngine;
 import javafx.scene.web.WebView;
 import javafx.stage.Stage;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import seng202.team7.business.BackgroundExecutor;
 import seng202.team7.business.CrashManager;
 import seng202.team7.exceptions.GeolocatorFailedException;
 import seng202.team7.map.Geolocator;
+import seng202.team7.map.LocalRoute;
+import seng202.team7.map.MapServer;
 import seng202.team7.map.Position;
 import seng202.team7.map.Route;
+import seng202.team7.map.RoutingEngine;
+import seng202.team7.map.TravelMode;
 import netscape.javascript.JSObject;
+import seng202.team7.metrics.MetricsRegistry;
+import seng202.team7.metrics.Timer;
 import seng202.team7.model.Crash;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
+import java.util.concurrent.FutureTask;
+import java.util.function.Consumer;
 
 /**
  * FXML controller class for map.fxml.
@@ -29,6 +42,7 @@ import java.util.Objects;
  * @author Kendra van Loon
  */
 public class MapController {
+    private static final Logger log = LogManager.getLogger(MapController.class);
     @FXML
     private WebView webView;
     @FXML
@@ -36,11 +50,14 @@ public class MapController {
     private WebEngine webEngine;
     private JSObject javaScriptConnector;
     private Geolocator geolocator;
+    // Counts the routes asked for on the JavaFX thread, so a route found after a newer one was asked for is dropped
+    private long routeRequest;
     private CrashManager crashManager;
     private Position centre;
     private String mapViewMode;
     private double radius;
     private String centreStr;
+    private final Map<String, Timer> jsTimers = new HashMap<>(); // Timers for each map.js function called
 
     /**
      * Initialises the map with a specific AnalysisViewController to allow for communication between these two
@@ -55,7 +72,11 @@ public class MapController {
         this.crashManager = crashManager;
         this.mapViewMode = "Empty";
 
-        geolocator = new Geolocator();
+        // Addresses of places in the crash data are found locally, so they work offline
+        geolocator = new Geolocator(crashManager::getLocalGeocoder);
+
+        // The road graph can take a while to load, so routes are found remotely until it is ready
+        BackgroundExecutor.getInstance().submitIO(new FutureTask<>(RoutingEngine.getInstance()::load, null));
 
         // Initialise the map.
         initMap();
@@ -68,7 +89,7 @@ public class MapController {
     private void initMap() {
         webEngine = webView.getEngine();
         webEngine.setJavaScriptEnabled(true);
-        webEngine.load(Objects.requireNonNull(MapController.class.getResource("/html/map.html")).toExternalForm());
+        loadMap();
 
         webEngine.getLoadWorker().stateProperty().addListener(
                 (ov, oldState, newState) -> {
@@ -81,11 +102,29 @@ public class MapController {
                         // get a reference to the js object that has a reference to the js methods we need to use in java
                         javaScriptConnector = (JSObject) webEngine.executeScript("jsConnector");
                         // call the javascript function to initialise the map
-                        javaScriptConnector.call("initMap");
+                        callJS("initMap");
                     }
                 });
     }
 
+    /**
+     * Loads the map page. The map is served by the local map server, which caches tiles and libraries on disk so
+     * the map loads without the internet. If the server cannot start, the page is loaded from the jar instead, with
+     * tiles and any library not bundled with the app fetched from the internet.
+     */
+    private void loadMap() {
+        try {
+            MapServer.getInstance().start();
+            webEngine.load(MapServer.getInstance().getUrl("/html/map.html"));
+        } catch (IOException e) {
+            log.error("Could not start the map server, loading the map without its cache", e);
+            String page = MapServer.getFallbackPage();
+            if (page != null) {
+                webEngine.loadContent(page);
+            }
+        }
+    }
+
     /**
      * Sets the loading indicator to not visible.
      *
@@ -105,15 +144,17 @@ public class MapController {
     }
 
     /**
-     * Sets the relevant values for a route analysis.
+     * Sets the relevant values for a route analysis. Finding the addresses and planning the route can take a while,
+     * so they are done in the background and the route is shown once they are done. Only the latest route asked for
+     * is ever shown.
      *
      * @param startStr a string of the start location
      * @param endStr a string of the end location
      * @param transportMode the transport mode ("bike", "car", "walk")
-     *
-     * @throws GeolocatorFailedException If a location can not be found
+     * @param onNotFound run on the JavaFX thread with the failure if a location can not be found
      */
-    public void setRoute(String startStr, String endStr, String transportMode) throws GeolocatorFailedException {
+    public void setRoute(String startStr, String endStr, String transportMode,
+                         Consumer<GeolocatorFailedException> onNotFound) {
         // Set map modes
         mapViewMode = "Empty";
 
@@ -121,13 +162,30 @@ public class MapController {
         clearMap();
 
         // Shows the loading wheel
-        Position A = geolocator.queryAddress(startStr);
-        Position B = geolocator.queryAddress(endStr);
-        Route route = new Route(A, B);
-
         loadingIndicator.setVisible(true);
-        // Generate and display map points and get route
-        displayRoute(route, transportMode, startStr, endStr);
+        long request = ++routeRequest;
+        BackgroundExecutor.getInstance().submitLatestIO("route", new FutureTask<>(() -> {
+            try {
+                Position A = geolocator.queryAddress(startStr);
+                Position B = geolocator.queryAddress(endStr);
+                Route route = new Route(A, B);
+                // Plan the route locally if the road graph is loaded, otherwise map.js asks the remote routing API
+                LocalRoute localRoute = RoutingEngine.getInstance().route(A, B, TravelMode.fromId(transportMode));
+                Platform.runLater(() -> {
+                    if (request == routeRequest) {
+                        // Generate and display map points and get route
+                        displayRoute(route, transportMode, startStr, endStr, localRoute);
+                    }
+                });
+            } catch (GeolocatorFailedException e) {
+                Platform.runLater(() -> {
+                    if (request == routeRequest) {
+                        loadingIndicator.setVisible(false);
+                        onNotFound.accept(e);
+                    }
+                });
+            }
+        }, null));
     }
 
     /**
@@ -234,22 +292,26 @@ public class MapController {
      * @param crashes crashes to be added to map
      */
     private void addCrashMarkers(List<Double> crashes) {
-        javaScriptConnector.call("addCrashMarkers", crashes); }
+        callJS("addCrashMarkers", crashes); }
     /**
      * Calls the JS function that adds a heat marker to the map.
      *
      * @param crash crash to be added to heatmap
      */
     private void addHeatMarker(Crash crash) {
-        javaScriptConnector.call("addHeatMarker", crash.toMarkerString(), crash.getLat(), crash.getLng(), crash.getSeverity());
+        callJS("addHeatMarker", crash.toMarkerString(), crash.getLat(), crash.getLng(),
+                String.valueOf(crash.getSeverity()));
     }
 
     /**
      * Calls the JS function which displays the given route on the map.
      * @param newRoute route to be displayed, made up of 2 or more Positions
+     * @param localRoute the route planned locally along the roads, or null to plan it remotely
      */
-    private void displayRoute(Route newRoute, String transportMode, String startStr, String endStr) {
-        javaScriptConnector.call("displayRoute", newRoute.toJSONArray(), transportMode, startStr, endStr);
+    private void displayRoute(Route newRoute, String transportMode, String startStr, String endStr,
+                              LocalRoute localRoute) {
+        callJS("displayRoute", newRoute.toJSONArray(), transportMode, startStr, endStr,
+                localRoute == null ? null : localRoute.toJSON());
     }
 
     /**
@@ -260,7 +322,7 @@ public class MapController {
      * @param centreStr string name of the centre of the search circle
      */
     private void displayAreaCircle(Position centre, double radius, String centreStr) {
-        javaScriptConnector.call("displayAreaCircle", centre, radius, centreStr);
+        callJS("displayAreaCircle", centre, radius, centreStr);
         Platform.runLater(() -> {
             loadingIndicator.setVisible(false);
         });
@@ -268,41 +330,58 @@ public class MapController {
     /**
      * Calls the JS function that displays the crash marker clustering of the area being analysed on the map.
      */
-    private void displayCrashMarkers() { javaScriptConnector.call("displayCrashMarkers");}
+    private void displayCrashMarkers() { callJS("displayCrashMarkers");}
     /**
      * Calls the JS function that displays the heatmap of the area being analysed on the map.
      */
-    private void displayHeatMap(Position centre, double radius) { javaScriptConnector.call("displayHeatMap", centre, radius); }
+    private void displayHeatMap(Position centre, double radius) { callJS("displayHeatMap", centre, radius); }
 
     /**
      * Calls the JS function that removes the current route generated from the map.
      */
-    private void removeRoute() {javaScriptConnector.call("removeRoute");}
+    private void removeRoute() {callJS("removeRoute");}
 
     /**
      * Calls the JS function that removes the visual indicator of the area being analysed from the map.
      */
-    private void removeAreaCircle() { javaScriptConnector.call("removeAreaCircle"); }
+    private void removeAreaCircle() { callJS("removeAreaCircle"); }
 
     /**
      * Calls the JS function that removes the crash markers of the area being analysed from the map.
      */
-    private void removeCrashMarkers() { javaScriptConnector.call("removeCrashMarkers"); }
+    private void removeCrashMarkers() { callJS("removeCrashMarkers"); }
     /**
      * Calls the JS function that removes the heatmap of the area being analysed from the map.
      */
-    private void removeHeatMap() { javaScriptConnector.call("removeHeatMap"); }
+    private void removeHeatMap() { callJS("removeHeatMap"); }
 
     /**
      * Called by CrashManager, and sends a list of crashes that are inside just the bounding rectangle of the route.
      * @param crashes list of coordinates of the form {lat1, lng1, lat2, lng2, ...}
      */
     public void sendCrashesInBounds(List<Double> crashes) {
-        javaScriptConnector.call("receiveCrashesInBounds", crashes);
+        callJS("receiveCrashesInBounds", crashes);
         loadingIndicator.setVisible(false);
     }
 
 
+    /**
+     * Calls a function in map.js, recording how long it takes under a timer named after the function.
+     *
+     * @param function the name of the function in jsConnector
+     * @param args the arguments to pass to the function
+     * @return the value returned by the function
+     */
+    private Object callJS(String function, Object... args) {
+        Timer timer = jsTimers.computeIfAbsent(function, name -> MetricsRegistry.getInstance().timer("js." + name));
+        long start = timer.start();
+        try {
+            return javaScriptConnector.call(function, args);
+        } finally {
+            timer.stop(start);
+        }
+    }
+
     /**
      * A single function to clear all points on the map
      */
@@ -8,10 +8,15 @@ import javafx.fxml.FXML;
 import javafx.scene.Node;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
+import seng202.team7.business.BackgroundExecutor;
+import seng202.team7.business.ChunkedList;
 import seng202.team7.business.CrashManager;
+import seng202.team7.business.PageCache;
 import seng202.team7.exceptions.InvalidUserInputException;
-import seng202.team7.model.Crash;
+import seng202.team7.model.*;
 import javafx.util.Callback;
 
 import java.util.List;
@@ -36,10 +41,24 @@ public class TableViewController {
     private TextArea infoPanelTextArea;
     @FXML
     private TextField pageNumTextField;
+    @FXML
+    private HBox pageControls;
+    @FXML
+    private CheckBox scrollAllRowsCheckBox;
     private final int rowsPerPage = 50;
+    private final int cachedPages = 16; // Pages kept in the page cache, including those prefetched
+    private final int prefetchDistance = 2; // Pages either side of the current page loaded in the background
+    private final int rowsPerChunk = 256; // Rows loaded at a time when scrolling through all rows
+    private final int cachedChunks = 32; // Chunks of rows kept when scrolling through all rows
+    private boolean scrollAllRows = false;
+    private String sortColumn = null; // The column the crashes are sorted by, or null if they are not sorted
+    private boolean sortAscending = true;
     private int currentPage;
     private ObservableList<Crash> data;
     private Task<List<Crash>> currentLoadDataTask;
+    private PageCache<Crash> pageCache;
+    // The version of the crash manager's current crashes that the table is showing
+    private volatile long crashesVersion;
     private int highlightedRowIndex = -1;
 
     /**
@@ -55,13 +74,16 @@ public class TableViewController {
         this.mainController = mainController;
 
         // Initiate the page variables
-        int numCrashes = crashManager.getCurrentCrashes().size();
-        int pageCount = (int) Math.ceil(numCrashes / (double) rowsPerPage);
+        int pageCount = getPageCount();
         this.data = FXCollections.observableArrayList();
         this.currentPage = 0;
+        this.pageCache = new PageCache<>(this::getPage,
+                BackgroundExecutor.getInstance()::submitIO,
+                cachedPages, prefetchDistance);
 
         // Initiate table and start loading pages
         initCrashesTable();
+        crashesTableView.setSortPolicy(table -> sortAllCrashes());
         update();
         pagination.setPageCount(pageCount);
         pagination.setPageFactory(createPageFactory());
@@ -85,7 +107,7 @@ public class TableViewController {
      * @param rowIndex The index of the row to highlight.
      */
     private void highlightRow(int rowIndex) {
-        if (rowIndex >= 0 && rowIndex < data.size()) {
+        if (rowIndex >= 0 && rowIndex < crashesTableView.getItems().size()) {
             crashesTableView.getSelectionModel().clearAndSelect(rowIndex);
             crashesTableView.scrollTo(rowIndex);
 
@@ -112,7 +134,7 @@ public class TableViewController {
                     + "Year: " + highlightedCrash.getYear() + "\n"
                     + "Spped limit: " + highlightedCrash.getSpeedLimit() +"\n";
 
-            if (!Objects.equals(highlightedCrash.getHoliday(), "")) {
+            if (highlightedCrash.getHoliday() != Holiday.NONE) {
                 crashData += "Holiday: " + highlightedCrash.getHoliday() +"\n";
             }
             crashData += "\n";
@@ -181,17 +203,17 @@ public class TableViewController {
                 crashData += (vehiclesInvolved + "\n");
             }
 
-            if (!Objects.equals(highlightedCrash.getTrafficControl(), "Nil") && !Objects.equals(highlightedCrash.getTrafficControl(), "Unknown")) {
+            if (highlightedCrash.getTrafficControl() != TrafficControl.NIL && highlightedCrash.getTrafficControl() != TrafficControl.UNKNOWN) {
                 crashData += "Traffic control: " +highlightedCrash.getTrafficControl() +"\n\n";
             }
 
-            if (!Objects.equals(highlightedCrash.getLight(), "Null")) {
+            if (highlightedCrash.getLight() != null) {
                 crashData += "Light: " +highlightedCrash.getLight() +"\n";
             }
-            if (!Objects.equals(highlightedCrash.getWeatherA(), "Null")) {
+            if (highlightedCrash.getWeatherA() != WeatherA.NULL) {
                 crashData += "WeatherA: " +highlightedCrash.getWeatherA() +"\n";
             }
-            if (!Objects.equals(highlightedCrash.getWeatherB(), "Null")) {
+            if (highlightedCrash.getWeatherB() != WeatherB.NULL) {
                 crashData += "WeatherB: " +highlightedCrash.getWeatherB() +"\n";
             }
             crashData += "\n";
@@ -216,7 +238,7 @@ public class TableViewController {
             }
 
             currentPage = pageNum - 1;
-            update();
+            showPage();
         } catch (NumberFormatException e) {
             mainController.showMessage("Please enter a valid integer");
         } catch (InvalidUserInputException e) {
@@ -228,8 +250,99 @@ public class TableViewController {
      * Updates the current table values to those in crash manager.
      */
     public void update() {
-        pagination.setCurrentPageIndex(currentPage);
-        loadNextPageAsync();
+        // The crashes have changed, so every cached page is out of date
+        crashesVersion = crashManager.getCurrentVersion();
+        pageCache.invalidate();
+        if (scrollAllRows) {
+            showAllRows();
+        } else {
+            showPage();
+        }
+    }
+
+    /**
+     * Called when the "Scroll All Rows" check box is toggled. Switches between showing the crashes a page at a time
+     * and showing them all in one table that loads rows as they are scrolled to. Either way they are shown in the
+     * order of the table's sort columns.
+     */
+    @FXML
+    public void toggleScrollAllRows() {
+        scrollAllRows = scrollAllRowsCheckBox.isSelected();
+        VBox tableArea = (VBox) pagination.getParent();
+        pagination.setVisible(!scrollAllRows);
+        pagination.setManaged(!scrollAllRows);
+        pageControls.setVisible(!scrollAllRows);
+        pageControls.setManaged(!scrollAllRows);
+
+        if (scrollAllRows) {
+            // The table normally sits inside the pagination, so it is moved out to be shown on its own
+            tableArea.getChildren().add(tableArea.getChildren().indexOf(pagination) + 1, crashesTableView);
+            showAllRows();
+        } else {
+            tableArea.getChildren().remove(crashesTableView);
+            // Recreating the page factory puts the table back inside the pagination
+            pagination.setPageFactory(createPageFactory());
+            showPage();
+        }
+    }
+
+    /**
+     * Sort policy for the table. Rather than sorting the rows shown, sorts all the current crashes by the table's
+     * first sort column in crash manager, then shows the first page of them in that order.
+     *
+     * @return true, as the sort is always carried out
+     */
+    private boolean sortAllCrashes() {
+        String column = null;
+        boolean ascending = true;
+        if (!crashesTableView.getSortOrder().isEmpty()) {
+            TableColumn<Crash, ?> sortBy = crashesTableView.getSortOrder().get(0);
+            if (sortBy.getCellValueFactory() instanceof PropertyValueFactory<?, ?> factory) {
+                column = factory.getProperty();
+            }
+            ascending = sortBy.getSortType() == TableColumn.SortType.ASCENDING;
+        }
+
+        // The table asks to be sorted again whenever its rows change, which is ignored if the order is the same
+        if (Objects.equals(column, sortColumn) && ascending == sortAscending) {
+            return true;
+        }
+        sortColumn = column;
+        sortAscending = ascending;
+        crashManager.setSortOrder(column, ascending);
+
+        currentPage = 0;
+        update();
+        return true;
+    }
+
+    /**
+     * Shows every current crash in the table, in sorted order. Rows are loaded in chunks in the background as they
+     * are scrolled to, so only the rows on screen and a few chunks around them are held by the table. Rows are left
+     * blank until their chunk has loaded.
+     */
+    private void showAllRows() {
+        List<Crash> allRows = new ChunkedList<>(crashManager.getCurrentCrashes().size(), rowsPerChunk,
+                chunk -> getRows(chunk, rowsPerChunk),
+                BackgroundExecutor.getInstance()::submitIO,
+                cachedChunks,
+                chunk -> Platform.runLater(this::refreshAllRows));
+        crashesTableView.setItems(FXCollections.observableList(allRows));
+        highlightRow(0);
+    }
+
+    /**
+     * Redraws the rows on screen once a chunk of them has loaded, in place of the blank rows shown while it loaded.
+     */
+    private void refreshAllRows() {
+        if (!scrollAllRows) {
+            return;
+        }
+        crashesTableView.refresh();
+        // The highlighted row may have been blank when it was selected, so it is selected again to show its data
+        if (highlightedRowIndex >= 0 && crashesTableView.getSelectionModel().getSelectedItem() == null) {
+            crashesTableView.getSelectionModel().clearAndSelect(highlightedRowIndex);
+        }
     }
 
     /**
@@ -244,11 +357,9 @@ public class TableViewController {
             // Load the data only when navigating to a new page
             if (pageIndex != currentPage) {
 
-                // Load the data for the current page
-                loadNextPageAsync();
-
-                // Update current page
+                // Update current page and show its data
                 currentPage = pageIndex;
+                showPage();
 
                 highlightRow(0);
             }
@@ -257,57 +368,99 @@ public class TableViewController {
     }
 
     /**
-     * Asynchronously loads data for the current page.
-     * Cancels current tasks to prevent multiple simultaneous data requests.
+     * Shows the current page, straight away if it is cached and otherwise once it has loaded.
+     * The pages either side of it are then loaded in the background, ready for the next page flip.
      */
-    private void loadNextPageAsync() {
+    private void showPage() {
+        pagination.setCurrentPageIndex(currentPage);
 
-        // Cancel the ongoing task if it exists
-        if (currentLoadDataTask != null && currentLoadDataTask.isRunning()) {
-            currentLoadDataTask.cancel();
+        List<Crash> cachedPage = pageCache.getIfPresent(currentPage);
+        if (cachedPage != null) {
+            displayPage(cachedPage);
+        } else {
+            loadPageAsync(currentPage);
         }
+        pageCache.prefetchAround(currentPage, getPageCount());
+    }
+
+    /**
+     * Asynchronously loads data for a page, showing it if it is still the current page once loaded.
+     * Cancels current tasks to prevent multiple simultaneous data requests.
+     *
+     * @param page the index of the page to load
+     */
+    private void loadPageAsync(int page) {
 
         // Create a new task for loading data
         currentLoadDataTask = new Task<List<Crash>>() {
             @Override
             protected List<Crash> call() throws Exception {
-                try {
-                    return crashManager.getPage(currentPage, rowsPerPage);
-                } catch (Exception e) {
-                    // Handle exceptions if needed
-                    return null;
-                }
+                return pageCache.load(page);
             }
         };
+        Task<List<Crash>> loadDataTask = currentLoadDataTask;
 
         // Replaces current data with loaded data on success
-        currentLoadDataTask.setOnSucceeded(event -> {
-            List<Crash> nextPageData = currentLoadDataTask.getValue();
-
-            // Synchronize the data update
-            Platform.runLater(() -> {
-                // Clear the data before adding new data
-                data.clear();
-                data.addAll(nextPageData);
-                crashesTableView.setItems(data);
-                // Update the page count based on the new data
-                int numCrashes = crashManager.getCurrentCrashes().size();
-                int pageCount = (int) Math.ceil(numCrashes / (double) rowsPerPage);
-                pagination.setPageCount(pageCount);
-                highlightRow(0);
-            });
+        loadDataTask.setOnSucceeded(event -> {
+            List<Crash> nextPageData = loadDataTask.getValue();
+            if (nextPageData != null && page == currentPage && !scrollAllRows) {
+                displayPage(nextPageData);
+            }
         });
 
         // Handle the failure, for example, by logging an error
-        currentLoadDataTask.setOnFailed(event -> {
-            Throwable exception = currentLoadDataTask.getException();
+        loadDataTask.setOnFailed(event -> {
+            Throwable exception = loadDataTask.getException();
             exception.printStackTrace();
         });
 
-        // Sets a thread to run the task
-        Thread thread = new Thread(currentLoadDataTask);
-        thread.setDaemon(true);
-        thread.start();
+        // Runs the task, cancelling any page load still in progress
+        BackgroundExecutor.getInstance().submitLatestIO("tablePage", loadDataTask);
+    }
+
+    /**
+     * Replaces the rows in the table with a page of crashes, in a single change to the table's items.
+     *
+     * @param page the crashes to show
+     */
+    private void displayPage(List<Crash> page) {
+        data.setAll(page);
+        crashesTableView.setItems(data);
+        // Update the page count based on the new data
+        pagination.setPageCount(getPageCount());
+        highlightRow(0);
+    }
+
+    /**
+     * Gets the number of pages needed to show all the current crashes.
+     *
+     * @return the number of pages
+     */
+    private int getPageCount() {
+        int numCrashes = crashManager.getCurrentCrashes().size();
+        return (int) Math.ceil(numCrashes / (double) rowsPerPage);
+    }
+
+    /**
+     * Loads a page of the current crashes, for the page cache.
+     *
+     * @param page the index of the page
+     * @return the page, or null if it could not be loaded
+     */
+    private List<Crash> getPage(int page) {
+        return getRows(page, rowsPerPage);
+    }
+
+    /**
+     * Loads a block of rows of the current crashes.
+     *
+     * @param block the index of the block
+     * @param rowsPerBlock the number of rows in each block
+     * @return the rows, or null if the crashes have changed since the table was last updated
+     */
+    private List<Crash> getRows(int block, int rowsPerBlock) {
+        // Pages for the old crashes are not cached; the table is updated again for the new ones
+        return crashManager.getPage(crashesVersion, block, rowsPerBlock);
     }
 
     /**
@@ -338,7 +491,7 @@ public class TableViewController {
         TableColumn<Crash, String> location2Col = new TableColumn<>("Location 2");
         location2Col.setCellValueFactory(new PropertyValueFactory<>("location2"));
 
-        TableColumn<Crash, String> severityCol = new TableColumn<>("Severity");
+        TableColumn<Crash, Severity> severityCol = new TableColumn<>("Severity");
         severityCol.setCellValueFactory(new PropertyValueFactory<>("severity"));
 
         TableColumn<Crash, Integer> yearCol = new TableColumn<>("Year");
@@ -353,13 +506,13 @@ public class TableViewController {
         TableColumn<Crash, Integer> fenceCol = new TableColumn<>("Fence");
         fenceCol.setCellValueFactory(new PropertyValueFactory<>("fence"));
 
-        TableColumn<Crash, String> flatHillCol = new TableColumn<>("Flat Hill");
+        TableColumn<Crash, FlatHill> flatHillCol = new TableColumn<>("Flat Hill");
         flatHillCol.setCellValueFactory(new PropertyValueFactory<>("flatHill"));
 
         TableColumn<Crash, Integer> guardRailCol = new TableColumn<>("Guard Rail");
         guardRailCol.setCellValueFactory(new PropertyValueFactory<>("guardRail"));
 
-        TableColumn<Crash, String> holidayCol = new TableColumn<>("Holiday");
+        TableColumn<Crash, Holiday> holidayCol = new TableColumn<>("Holiday");
         holidayCol.setCellValueFactory(new PropertyValueFactory<>("holiday"));
 
         TableColumn<Crash, Integer> houseOrBuildingCol = new TableColumn<>("House or Building");
@@ -371,7 +524,7 @@ public class TableViewController {
         TableColumn<Crash, Integer> kerbCol = new TableColumn<>("Kerb");
         kerbCol.setCellValueFactory(new PropertyValueFactory<>("kerb"));
 
-        TableColumn<Crash, String> lightCol = new TableColumn<>("Light");
+        TableColumn<Crash, Light> lightCol = new TableColumn<>("Light");
         lightCol.setCellValueFactory(new PropertyValueFactory<>("light"));
 
         TableColumn<Crash, Integer> minorInjuryCountCol = new TableColumn<>("Minor Injury Count");
@@ -410,13 +563,13 @@ public class TableViewController {
         TableColumn<Crash, Integer> postOrPoleCol = new TableColumn<>("Post or Pole");
         postOrPoleCol.setCellValueFactory(new PropertyValueFactory<>("postOrPole"));
 
-        TableColumn<Crash, String> roadCharacterCol = new TableColumn<>("Road Character");
+        TableColumn<Crash, RoadCharacter> roadCharacterCol = new TableColumn<>("Road Character");
         roadCharacterCol.setCellValueFactory(new PropertyValueFactory<>("roadCharacter"));
 
-        TableColumn<Crash, String> roadLaneCol = new TableColumn<>("Road Lane");
+        TableColumn<Crash, RoadLane> roadLaneCol = new TableColumn<>("Road Lane");
         roadLaneCol.setCellValueFactory(new PropertyValueFactory<>("roadLane"));
 
-        TableColumn<Crash, String> roadSurfaceCol = new TableColumn<>("Road Surface");
+        TableColumn<Crash, RoadSurface> roadSurfaceCol = new TableColumn<>("Road Surface");
         roadSurfaceCol.setCellValueFactory(new PropertyValueFactory<>("roadSurface"));
 
         TableColumn<Crash, Integer> roadworksCol = new TableColumn<>("Roadworks");
@@ -437,7 +590,7 @@ public class TableViewController {
         TableColumn<Crash, Integer> strayAnimalCol = new TableColumn<>("Stray Animal");
         strayAnimalCol.setCellValueFactory(new PropertyValueFactory<>("strayAnimal"));
 
-        TableColumn<Crash, Integer> streetLightCol = new TableColumn<>("Street Light");
+        TableColumn<Crash, StreetLight> streetLightCol = new TableColumn<>("Street Light");
         streetLightCol.setCellValueFactory(new PropertyValueFactory<>("streetLight"));
 
         TableColumn<Crash, Integer> suvCol = new TableColumn<>("SUV");
@@ -452,7 +605,7 @@ public class TableViewController {
         TableColumn<Crash, Integer> temporarySpeedLimitCol = new TableColumn<>("Temporary Speed Limit");
         temporarySpeedLimitCol.setCellValueFactory(new PropertyValueFactory<>("temporarySpeedLimit"));
 
-        TableColumn<Crash, String> trafficControlCol = new TableColumn<>("Traffic Control");
+        TableColumn<Crash, TrafficControl> trafficControlCol = new TableColumn<>("Traffic Control");
         trafficControlCol.setCellValueFactory(new PropertyValueFactory<>("trafficControl"));
 
         TableColumn<Crash, Integer> trafficIslandCol = new TableColumn<>("Traffic Island");
@@ -473,7 +626,7 @@ public class TableViewController {
         TableColumn<Crash, Integer> unknownVehicleTypeCol = new TableColumn<>("Unknown Vehicle Type");
         unknownVehicleTypeCol.setCellValueFactory(new PropertyValueFactory<>("unknownVehicleType"));
 
-        TableColumn<Crash, String> urbanCol = new TableColumn<>("Urban");
+        TableColumn<Crash, Urban> urbanCol = new TableColumn<>("Urban");
         urbanCol.setCellValueFactory(new PropertyValueFactory<>("urban"));
 
         TableColumn<Crash, Integer> vanOrUtilityCol = new TableColumn<>("Van or Utility");
@@ -485,10 +638,10 @@ public class TableViewController {
         TableColumn<Crash, Integer> waterRiverCol = new TableColumn<>("Water River");
         waterRiverCol.setCellValueFactory(new PropertyValueFactory<>("waterRiver"));
 
-        TableColumn<Crash, String> weatherACol = new TableColumn<>("Weather A");
+        TableColumn<Crash, WeatherA> weatherACol = new TableColumn<>("Weather A");
         weatherACol.setCellValueFactory(new PropertyValueFactory<>("weatherA"));
 
-        TableColumn<Crash, String> weatherBCol = new TableColumn<>("Weather B");
+        TableColumn<Crash, WeatherB> weatherBCol = new TableColumn<>("Weather B");
         weatherBCol.setCellValueFactory(new PropertyValueFactory<>("weatherB"));
 
         TableColumn<Crash, Float> latCol = new TableColumn<>("Latitude");
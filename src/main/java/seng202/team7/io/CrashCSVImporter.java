@@ -4,15 +4,28 @@ import com.opencsv.CSVReader;
 import com.opencsv.exceptions.CsvValidationException;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import seng202.team7.model.Crash;
+import seng202.team7.metrics.MetricsRegistry;
+import seng202.team7.metrics.Timer;
+import seng202.team7.model.*;
 
 import java.io.File;
-import java.io.FileReader;
+import java.io.FileInputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Implementation of Importable for crashes from a csv file.
@@ -23,19 +36,77 @@ import java.util.List;
  */
 public class CrashCSVImporter implements Importable<Crash> {
     private static final Logger log = LogManager.getLogger(CrashCSVImporter.class);
+    private static final Timer READ_FILE_TIMER = MetricsRegistry.getInstance().timer("csvImporter.readFromFile");
+    private static final Timer PARSE_LINE_TIMER = MetricsRegistry.getInstance().timer("csvImporter.parseLine");
+    // How many lines are read between progress reports
+    private static final int PROGRESS_INTERVAL_LINES = 5000;
+    private static final int MAX_SPEED_VALUE = 110;
+    private static final int MAX_OBJ_VALUE = 100;
+    // The columns of the CAS crash data that are read, by their index in each line
+    private static final CsvSchema SCHEMA = new CsvSchema()
+            .integer(1, "advisorySpeed", 0, MAX_SPEED_VALUE)
+            .integer(2, "bicycle", 0, MAX_OBJ_VALUE)
+            .integer(3, "bridge", 0, MAX_OBJ_VALUE)
+            .integer(4, "bus", 0, MAX_OBJ_VALUE)
+            .integer(5, "carStationWagon", 0, MAX_OBJ_VALUE)
+            .integer(6, "cliffBank", 0, MAX_OBJ_VALUE)
+            .text(9, "location1")
+            .text(10, "location2")
+            .category(12, "severity", Severity::valueFromStr)
+            .integer(14, "year", 2000, 2023)
+            .integer(17, "ditch", 0, MAX_OBJ_VALUE)
+            .integer(18, "fatalCount", 0, MAX_OBJ_VALUE)
+            .integer(19, "fence", 0, MAX_OBJ_VALUE)
+            .category(20, "flatHill", FlatHill::valueFromStr)
+            .integer(21, "guardRail", 0, MAX_OBJ_VALUE)
+            .category(22, "holiday", Holiday::valueFromStr)
+            .integer(23, "houseOrBuilding", 0, MAX_OBJ_VALUE)
+            .text(24, "intersection")
+            .integer(25, "kerb", 0, MAX_OBJ_VALUE)
+            .category(26, "light", Light::valueFromStr)
+            .integer(27, "minorInjuryCount", 0, MAX_OBJ_VALUE)
+            .integer(28, "moped", 0, MAX_OBJ_VALUE)
+            .integer(29, "motorcycle", 0, MAX_OBJ_VALUE)
+            .integer(30, "numberOfLanes", 0, MAX_OBJ_VALUE)
+            .integer(31, "objectThrownOrDropped", 0, MAX_OBJ_VALUE)
+            .integer(32, "otherObject", 0, MAX_OBJ_VALUE)
+            .integer(33, "otherVehicleType", 0, MAX_OBJ_VALUE)
+            .integer(34, "overBank", 0, MAX_OBJ_VALUE)
+            .integer(35, "parkedVehicle", 0, MAX_OBJ_VALUE)
+            .integer(36, "pedestrian", 0, MAX_OBJ_VALUE)
+            .integer(37, "phoneBoxEtc", 0, MAX_OBJ_VALUE)
+            .integer(38, "postOrPole", 0, MAX_OBJ_VALUE)
+            .category(40, "roadCharacter", RoadCharacter::valueFromStr)
+            .category(41, "roadLane", RoadLane::valueFromStr)
+            .category(42, "roadSurface", RoadSurface::valueFromStr)
+            .integer(43, "roadworks", 0, MAX_OBJ_VALUE)
+            .integer(44, "schoolBus", 0, MAX_OBJ_VALUE)
+            .integer(45, "seriousInjuryCount", 0, MAX_OBJ_VALUE)
+            .integer(46, "slipOrFlood", 0, MAX_OBJ_VALUE)
+            .integer(47, "speedLimit", 0, MAX_SPEED_VALUE)
+            .integer(48, "strayAnimal", 0, MAX_OBJ_VALUE)
+            .category(49, "streetLight", StreetLight::valueFromStr)
+            .integer(50, "suv", 0, MAX_OBJ_VALUE)
+            .integer(51, "taxi", 0, MAX_OBJ_VALUE)
+            .integer(52, "temporarySpeedLimit", 0, MAX_SPEED_VALUE)
+            .text(53, "tlaName")
+            .category(54, "trafficControl", TrafficControl::valueFromStr)
+            .integer(55, "trafficIsland", 0, MAX_OBJ_VALUE)
+            .integer(56, "trafficSign", 0, MAX_OBJ_VALUE)
+            .integer(57, "train", 0, MAX_OBJ_VALUE)
+            .integer(58, "tree", 0, MAX_OBJ_VALUE)
+            .integer(59, "truck", 0, MAX_OBJ_VALUE)
+            .integer(60, "unknownVehicleType", 0, MAX_OBJ_VALUE)
+            .category(61, "urban", Urban::valueFromStr)
+            .integer(62, "vanOrUtility", 0, MAX_OBJ_VALUE)
+            .integer(63, "vehicle", 0, MAX_OBJ_VALUE)
+            .integer(64, "waterRiver", 0, MAX_OBJ_VALUE)
+            .category(65, "weatherA", WeatherA::valueFromStr)
+            .category(66, "weatherB", WeatherB::valueFromStr)
+            .decimal(67, "lng")
+            .decimal(68, "lat");
+    private final CsvRow row = SCHEMA.newRow();
     private int malformedLineCount = 0;
-    private final String[] SEVERITY_LIST = {"Fatal Crash", "Serious Crash", "Minor Crash", "Non-Injury Crash"};
-    private final String[] FLAT_HILL_LIST = {"Flat", "Hill Road", "Null"};
-    private final String[] HOLIDAY_LIST = {"Christmas New Year", "Easter", "Queens Birthday", "Labour Weekend", ""};
-    private final String[] LIGHT_LIST = {"Bright sun", "Overcast", "Twilight", "Dark", "Unknown"};
-    private final String[] ROAD_CHARACTER_LIST = {"Bridge", "Motorway ramp", "Overpass", "Rail xing", "Speed hump", "Tunnel", "Tram lines", "Nil", "Underpass", "Null"};
-    private final String[] ROAD_LANE_LIST = {"1-way", "2-way", "Off road", "Null"};
-    private final String[] ROAD_SURFACE_LIST = {"Sealed", "Unsealed", "End of seal", "Null"};
-    private final String[] STR_LIGHT_LIST = {"On", "Off", "None", "Null"};
-    private final String[] TRAFFIC_CTRL_LIST = {"Traffic Signals", "Stop", "Give way", "Pointsman", "School Patrol/warden", "Nil", "Isolated Pedestrian signal (non-intersection)", "Unknown"};
-    private final String[] URBAN_LIST = {"Urban", "Open"};
-    private final String[] WEATHER_CON_A_LIST = {"Fine", "Mist or Fog", "Light rain", "Heavy rain", "Snow", "Hail or Sleet", "Null"};
-    private final String[] WEATHER_CON_B_LIST = {"Frost", "Strong wind", "None", "Null"};
 
     /**
      * Read Crashes from csv file.
@@ -45,256 +116,223 @@ public class CrashCSVImporter implements Importable<Crash> {
      */
     @Override
     public List<Crash> readFromFile(File file) {
-        ArrayList<Crash> crashes = new ArrayList<>();
-        try (CSVReader reader = new CSVReader(new FileReader(file))) {
-            reader.skip(1);
-            String[] line = null;
-            while((line = reader.readNext()) != null){
-                if(line.length > 1){
-                    Crash crash = readCrashFromLine(line);
-                    if (crash != null) {
-                        crashes.add(crash);
-                    }else{
-                        malformedLineCount++;
-                    }
-                }
-            }
-            log.info("Number of malformed lines: " + malformedLineCount);
-            log.info("Number of correct lines: " + crashes.size());
-            return crashes;
-        } catch (IOException | CsvValidationException e) {
-            log.error(e);
-        }
-        return Collections.emptyList();
+        return readFromFile(file, null, (line, crash) -> crash);
+    }
+
+    /**
+     * Read Crashes from csv file, reporting progress every few thousand lines.
+     *
+     * @param file File to read from
+     * @param listener Listener to report progress to, which can stop the read part way
+     * @return List of crashes in csv file, up to where it was stopped if it was cancelled
+     */
+    @Override
+    public List<Crash> readFromFile(File file, ImportListener listener) {
+        return readFromFile(file, listener, (line, crash) -> crash);
+    }
+
+    /**
+     * Read Crashes from csv file, along with the key and fingerprint of each row, for an incremental import.
+     *
+     * @param file File to read from
+     * @param listener Listener to report progress to, which can stop the read part way, or null
+     * @return List of crash records in csv file, up to where it was stopped if it was cancelled
+     */
+    public List<CrashRecord> readRecordsFromFile(File file, ImportListener listener) {
+        return readFromFile(file, listener, CrashRecord::fromLine);
+    }
+
+    /**
+     * Streams Crashes from csv file, parsing each line only when the stream reaches it.
+     *
+     * @param file File to read from
+     * @param listener Listener to report progress to, which can end the stream part way
+     * @return Stream of crashes in csv file, which must be closed
+     */
+    @Override
+    public Stream<Crash> streamFromFile(File file, ImportListener listener) {
+        return streamFromFile(file, listener, (line, crash) -> crash);
     }
 
     /**
-     * Checks if an integer column value is within a specified range.
+     * Reads every well-formed line of a csv file.
      *
-     * @param value     The integer value to check.
-     * @param min       The minimum allowed value (inclusive).
-     * @param max       The maximum allowed value (inclusive).
-     * @throws IllegalArgumentException if the value is not within the specified range.
+     * @param file File to read from
+     * @param listener Listener to report progress to, or null
+     * @param toResult converts each line and the crash parsed from it into a result
+     * @return List of results, one per well-formed line
      */
-    private void checkIntInRange(int value, int min, int max) {
-        if (value < min || value > max) {
-            throw new IllegalArgumentException("Value is not within the specified range: " + value);
+    private <R> List<R> readFromFile(File file, ImportListener listener, BiFunction<String[], Crash, R> toResult) {
+        try (Stream<R> results = streamFromFile(file, listener, toResult)) {
+            return results.collect(Collectors.toCollection(ArrayList::new));
+        } catch (UncheckedIOException e) {
+            log.error(e.getCause());
         }
+        return Collections.emptyList();
     }
 
     /**
-     * Checks if a string column value is in a list of valid values.
+     * Streams every well-formed line of a csv file, reporting progress every few thousand lines and ending early
+     * if the listener cancels. Errors reading the file are thrown from the stream as UncheckedIOExceptions.
      *
-     * @param value             The string value to check.
-     * @param validValues       A list of valid string values.
-     * @throws IllegalArgumentException if the value is not in the list of valid values.
+     * @param file File to read from
+     * @param listener Listener to report progress to, or null
+     * @param toResult converts each line and the crash parsed from it into a result
+     * @return Stream of results, one per well-formed line, which must be closed
      */
-    private void checkStringInList(String value, List<String> validValues) {
-        if (!validValues.contains(value)) {
-            throw new IllegalArgumentException("Value is not in the list of valid values: " + value + validValues);
+    private <R> Stream<R> streamFromFile(File file, ImportListener listener, BiFunction<String[], Crash, R> toResult) {
+        long readStart = READ_FILE_TIMER.start();
+        long totalBytes = file.length();
+        CountingInputStream in;
+        CSVReader reader;
+        try {
+            in = new CountingInputStream(new FileInputStream(file));
+            reader = new CSVReader(new InputStreamReader(in));
+            reader.skip(1);
+        } catch (IOException e) {
+            log.error(e);
+            READ_FILE_TIMER.stop(readStart);
+            return Stream.empty();
         }
+
+        Spliterator<R> lines = new Spliterators.AbstractSpliterator<R>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            private int lineCount = 0;
+            private int resultCount = 0;
+            private boolean finished = false;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super R> action) {
+                try {
+                    String[] line;
+                    while (!finished && (line = reader.readNext()) != null) {
+                        R result = null;
+                        if(line.length > 1){
+                            long parseStart = PARSE_LINE_TIMER.start();
+                            Crash crash = readCrashFromLine(line);
+                            PARSE_LINE_TIMER.stop(parseStart);
+                            if (crash != null) {
+                                result = toResult.apply(line, crash);
+                            }else{
+                                malformedLineCount++;
+                            }
+                        }
+                        if (listener != null && ++lineCount % PROGRESS_INTERVAL_LINES == 0) {
+                            listener.onProgress(new ImportProgress(ImportProgress.Stage.READING, in.getCount(),
+                                    totalBytes, lineCount, System.nanoTime() - readStart));
+                            if (listener.isCancelled()) {
+                                log.info("Reading " + file.getName() + " cancelled after " + lineCount + " lines");
+                                finished = true;
+                            }
+                        }
+                        if (result != null) {
+                            resultCount++;
+                            action.accept(result);
+                            return true;
+                        }
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                } catch (CsvValidationException e) {
+                    throw new UncheckedIOException(new IOException(e));
+                }
+                if (!finished) {
+                    finished = true;
+                    if (listener != null) {
+                        listener.onProgress(new ImportProgress(ImportProgress.Stage.READING, in.getCount(),
+                                totalBytes, lineCount, System.nanoTime() - readStart));
+                    }
+                    log.info("Number of malformed lines: " + malformedLineCount);
+                    if (malformedLineCount > 0) {
+                        log.info("Malformed lines by first invalid column: " + row.getErrorCounts());
+                    }
+                    log.info("Number of correct lines: " + resultCount);
+                }
+                return false;
+            }
+        };
+
+        return StreamSupport.stream(lines, false).onClose(() -> {
+            try {
+                reader.close();
+            } catch (IOException e) {
+                log.error(e);
+            } finally {
+                READ_FILE_TIMER.stop(readStart);
+            }
+        });
     }
 
     /**
      * Simple helper function to read crash from line of csv.
      *
      * @param line current line of csv to parse for a Crash object
-     * @return Crash object parsed from line
+     * @return Crash object parsed from line, or null if the line is malformed
      */
     private Crash readCrashFromLine(String[] line) {
-        try {
-            int advisorySpeed = (line[1].isEmpty()) ? 0 : Integer.parseInt(line[1]);
-            int MAX_SPEED_VALUE = 110;
-            checkIntInRange(advisorySpeed,0, MAX_SPEED_VALUE);
-
-            int bicycle = (line[2].isEmpty()) ? 0 : Integer.parseInt(line[2]);
-            int MAX_OBJ_VALUE = 100;
-            checkIntInRange(bicycle,0, MAX_OBJ_VALUE);
-
-            int bridge = (line[3].isEmpty()) ? 0 : Integer.parseInt(line[3]);
-            checkIntInRange(bridge, 0, MAX_OBJ_VALUE); // Adjust the range as needed
-
-            int bus = (line[4].isEmpty()) ? 0 : Integer.parseInt(line[4]);
-            checkIntInRange(bus, 0, MAX_OBJ_VALUE); // Adjust the range as needed
-
-            int carStationWagon = (line[5].isEmpty()) ? 0 : Integer.parseInt(line[5]);
-            checkIntInRange(carStationWagon, 0, MAX_OBJ_VALUE); // Adjust the range as needed
-
-            int cliffBank = (line[6].isEmpty()) ? 0 : Integer.parseInt(line[6]);
-            checkIntInRange(cliffBank, 0, MAX_OBJ_VALUE); // Adjust the range as needed
-
-            String crashLocation1 = line[9];
-            String crashLocation2 = line[10];
-
-            String crashSeverity = line[12];
-            checkStringInList(crashSeverity, Arrays.asList(SEVERITY_LIST));
-
-            int crashYear = (line[14].isEmpty()) ? 0 : Integer.parseInt(line[14]);
-            checkIntInRange(crashYear, 2000, 2023); // Adjust the range as needed
-
-            int ditch = (line[17].isEmpty()) ? 0 : Integer.parseInt(line[17]);
-            checkIntInRange(ditch, 0, MAX_OBJ_VALUE); // Adjust the range as needed
-
-            int fatalCount = (line[18].isEmpty()) ? 0 : Integer.parseInt(line[18]);
-            checkIntInRange(fatalCount, 0, MAX_OBJ_VALUE); // Adjust the range as needed
-
-            int fence = (line[19].isEmpty()) ? 0 : Integer.parseInt(line[19]);
-            checkIntInRange(fence, 0, MAX_OBJ_VALUE); // Adjust the range as needed
-
-            String flatHill = line[20];
-            checkStringInList(flatHill, Arrays.asList(FLAT_HILL_LIST));
-
-            int guardRail = (line[21].isEmpty()) ? 0 : Integer.parseInt(line[21]);
-            checkIntInRange(guardRail, 0, MAX_OBJ_VALUE); // Adjust the range as needed
-
-            String holiday = line[22];
-            checkStringInList(holiday, Arrays.asList(HOLIDAY_LIST));
-
-            int houseOrBuilding = (line[23].isEmpty()) ? 0 : Integer.parseInt(line[23]);
-            checkIntInRange(houseOrBuilding, 0, MAX_OBJ_VALUE); // Adjust the range as needed
-
-            String intersection = line[24];
-
-            int kerb = (line[25].isEmpty()) ? 0 : Integer.parseInt(line[25]);
-            checkIntInRange(kerb, 0, MAX_OBJ_VALUE); // Adjust the range as needed
-
-            String light = line[26];
-            checkStringInList(light, Arrays.asList(LIGHT_LIST));
-
-            int minorInjuryCount = (line[27].isEmpty()) ? 0 : Integer.parseInt(line[27]);
-            checkIntInRange(minorInjuryCount, 0, MAX_OBJ_VALUE); // Adjust the range as needed
-
-            int moped = (line[28].isEmpty()) ? 0 : Integer.parseInt(line[28]);
-            checkIntInRange(moped, 0, MAX_OBJ_VALUE); // Adjust the range as needed
-
-            int motorcycle = (line[29].isEmpty()) ? 0 : Integer.parseInt(line[29]);
-            checkIntInRange(motorcycle, 0, MAX_OBJ_VALUE); // Adjust the range as needed
-
-            int numberOfLanes = (line[30].isEmpty()) ? 0 : Integer.parseInt(line[30]);
-            checkIntInRange(numberOfLanes, 0, MAX_OBJ_VALUE); // Adjust the range as needed
-
-            int objectThrownOrDropped = (line[31].isEmpty()) ? 0 : Integer.parseInt(line[31]);
-            checkIntInRange(objectThrownOrDropped, 0, MAX_OBJ_VALUE); // Adjust the range as needed
-
-            int otherObject = (line[32].isEmpty()) ? 0 : Integer.parseInt(line[32]);
-            checkIntInRange(otherObject, 0, MAX_OBJ_VALUE); // Adjust the range as needed
-
-            int otherVehicleType = (line[33].isEmpty()) ? 0 : Integer.parseInt(line[33]);
-            checkIntInRange(otherVehicleType, 0, MAX_OBJ_VALUE); // Adjust the range as needed
-
-            int overBank = (line[34].isEmpty()) ? 0 : Integer.parseInt(line[34]);
-            checkIntInRange(overBank, 0, MAX_OBJ_VALUE); // Adjust the range as needed
-
-            int parkedVehicle = (line[35].isEmpty()) ? 0 : Integer.parseInt(line[35]);
-            checkIntInRange(parkedVehicle, 0, MAX_OBJ_VALUE); // Adjust the range as needed
-
-            int pedestrian = (line[36].isEmpty()) ? 0 : Integer.parseInt(line[36]);
-            checkIntInRange(pedestrian, 0, MAX_OBJ_VALUE); // Adjust the range as needed
-
-            int phoneBoxEtc = (line[37].isEmpty()) ? 0 : Integer.parseInt(line[37]);
-            checkIntInRange(phoneBoxEtc, 0, MAX_OBJ_VALUE); // Adjust the range as needed
-
-            int postOrPole = (line[38].isEmpty()) ? 0 : Integer.parseInt(line[38]);
-            checkIntInRange(postOrPole, 0, MAX_OBJ_VALUE); // Adjust the range as needed
-
-            String roadCharacter = line[40];
-            checkStringInList(roadCharacter, Arrays.asList(ROAD_CHARACTER_LIST));
-
-            String roadLane = line[41];
-            checkStringInList(roadLane, Arrays.asList(ROAD_LANE_LIST));
-
-            String roadSurface = line[42];
-            checkStringInList(roadSurface, Arrays.asList(ROAD_SURFACE_LIST));
-
-            int roadworks = (line[43].isEmpty()) ? 0 : Integer.parseInt(line[43]);
-            checkIntInRange(roadworks, 0, MAX_OBJ_VALUE); // Adjust the range as needed
-
-            int schoolBus = (line[44].isEmpty()) ? 0 : Integer.parseInt(line[44]);
-            checkIntInRange(schoolBus, 0, MAX_OBJ_VALUE); // Adjust the range as needed
-
-            int seriousInjuryCount = (line[45].isEmpty()) ? 0 : Integer.parseInt(line[45]);
-            checkIntInRange(seriousInjuryCount, 0, MAX_OBJ_VALUE); // Adjust the range as needed
-
-            int slipOrFlood = (line[46].isEmpty()) ? 0 : Integer.parseInt(line[46]);
-            checkIntInRange(slipOrFlood, 0, MAX_OBJ_VALUE); // Adjust the range as needed
-
-            int speedLimit = (line[47].isEmpty()) ? 0 : Integer.parseInt(line[47]);
-            checkIntInRange(speedLimit, 0, MAX_SPEED_VALUE);
-
-            int strayAnimal = (line[48].isEmpty()) ? 0 : Integer.parseInt(line[48]);
-            checkIntInRange(strayAnimal, 0, MAX_OBJ_VALUE); // Adjust the range as needed
-
-            String streetLight = line[49];
-            checkStringInList(streetLight, Arrays.asList(STR_LIGHT_LIST));
-
-            int suv = (line[50].isEmpty()) ? 0 : Integer.parseInt(line[50]);
-            checkIntInRange(suv, 0, MAX_OBJ_VALUE); // Adjust the range as needed
-
-            int taxi = (line[51].isEmpty()) ? 0 : Integer.parseInt(line[51]);
-            checkIntInRange(taxi, 0, MAX_OBJ_VALUE); // Adjust the range as needed
-
-            int temporarySpeedLimit = (line[52].isEmpty()) ? 0 : Integer.parseInt(line[52]);
-            checkIntInRange(temporarySpeedLimit, 0, MAX_SPEED_VALUE);
-
-            String tlaName = line[53];
-
-            String trafficControl = line[54];
-            checkStringInList(trafficControl, Arrays.asList(TRAFFIC_CTRL_LIST));
-
-            int trafficIsland = (line[55].isEmpty()) ? 0 : Integer.parseInt(line[55]);
-            checkIntInRange(trafficIsland, 0, MAX_OBJ_VALUE); // Adjust the range as needed
-
-            int trafficSign = (line[56].isEmpty()) ? 0 : Integer.parseInt(line[56]);
-            checkIntInRange(trafficSign, 0, MAX_OBJ_VALUE); // Adjust the range as needed
-
-            int train = (line[57].isEmpty()) ? 0 : Integer.parseInt(line[57]);
-            checkIntInRange(train, 0, MAX_OBJ_VALUE); // Adjust the range as needed
-
-            int tree = (line[58].isEmpty()) ? 0 : Integer.parseInt(line[58]);
-            checkIntInRange(tree, 0, MAX_OBJ_VALUE); // Adjust the range as needed
-
-            int truck = (line[59].isEmpty()) ? 0 : Integer.parseInt(line[59]);
-            checkIntInRange(truck, 0, MAX_OBJ_VALUE); // Adjust the range as needed
-
-            int unknownVehicleType = (line[60].isEmpty()) ? 0 : Integer.parseInt(line[60]);
-            checkIntInRange(unknownVehicleType, 0, MAX_OBJ_VALUE); // Adjust the range as needed
-
-            String urban = line[61];
-            checkStringInList(urban, Arrays.asList(URBAN_LIST));
+        if (!SCHEMA.parse(line, row)) {
+            return null;
+        }
+        return new Crash(-1, row.getInt(1), row.getInt(2), row.getInt(3), row.getInt(4), row.getInt(5),
+                row.getInt(6), row.getValue(9), row.getValue(10),
+                row.getValue(12), row.getInt(14), row.getInt(17), row.getInt(18), row.getInt(19),
+                row.getValue(20), row.getInt(21), row.getValue(22), row.getInt(23), row.getValue(24),
+                row.getInt(25), row.getValue(26), row.getInt(27), row.getInt(28), row.getInt(29),
+                row.getInt(30), row.getInt(31), row.getInt(32), row.getInt(33), row.getInt(34),
+                row.getInt(35), row.getInt(36), row.getInt(37), row.getInt(38), row.getValue(40),
+                row.getValue(41), row.getValue(42), row.getInt(43), row.getInt(44), row.getInt(45),
+                row.getInt(46), row.getInt(47), row.getInt(48), row.getValue(49), row.getInt(50),
+                row.getInt(51), row.getValue(53), row.getInt(52), row.getValue(54), row.getInt(55),
+                row.getInt(56), row.getInt(57), row.getInt(58), row.getInt(59), row.getInt(60),
+                row.getValue(61), row.getInt(62), row.getInt(63), row.getInt(64), row.getValue(65),
+                row.getValue(66), row.getFloat(67), row.getFloat(68));
+    }
 
-            int vanOrUtility = (line[62].isEmpty()) ? 0 : Integer.parseInt(line[62]);
-            checkIntInRange(vanOrUtility, 0, MAX_OBJ_VALUE); // Adjust the range as needed
+    /**
+     * Gets how many malformed lines have failed on each column so far.
+     *
+     * @return the number of malformed lines for each column name
+     */
+    public Map<String, Integer> getColumnErrorCounts() {
+        return row.getErrorCounts();
+    }
 
-            int vehicle = (line[63].isEmpty()) ? 0 : Integer.parseInt(line[63]);
-            checkIntInRange(vehicle, 0, MAX_OBJ_VALUE); // Adjust the range as needed
+    /**
+     * Input stream that counts the bytes read through it, so progress can be reported through the file.
+     */
+    private static class CountingInputStream extends FilterInputStream {
+        private long count = 0;
 
-            int waterRiver = (line[64].isEmpty()) ? 0 : Integer.parseInt(line[64]);
-            checkIntInRange(waterRiver, 0, MAX_OBJ_VALUE);
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
 
-            String weatherA = line[65];
-            checkStringInList(weatherA, Arrays.asList(WEATHER_CON_A_LIST));
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                count++;
+            }
+            return b;
+        }
 
-            String weatherB = line[66];
-            checkStringInList(weatherB, Arrays.asList(WEATHER_CON_B_LIST));
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
 
-            float lng = Float.parseFloat(line[67]);
-            float lat = Float.parseFloat(line[68]);
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
 
-            return new Crash(advisorySpeed, bicycle, bridge, bus, carStationWagon, cliffBank,
-                    crashLocation1, crashLocation2,
-                    crashSeverity, crashYear, ditch, fatalCount, fence, flatHill, guardRail,
-                    holiday, houseOrBuilding, intersection, kerb, light, minorInjuryCount, moped,
-                    motorcycle, numberOfLanes, objectThrownOrDropped, otherObject, otherVehicleType,
-                    overBank, parkedVehicle, pedestrian, phoneBoxEtc, postOrPole, roadCharacter,
-                    roadLane, roadSurface, roadworks, schoolBus, seriousInjuryCount, slipOrFlood,
-                    speedLimit, strayAnimal, streetLight, suv, taxi, tlaName, temporarySpeedLimit,
-                    trafficControl, trafficIsland, trafficSign, train, tree, truck, unknownVehicleType,
-                    urban, vanOrUtility, vehicle, waterRiver, weatherA, weatherB, lng, lat);
-        } catch (NumberFormatException e) {
-            log.warn("NumberFormatException occurred. Check the line indexes.");
-        } catch (IllegalArgumentException e){
-            log.warn(e);
+        long getCount() {
+            return count;
         }
-        return null;
     }
 }
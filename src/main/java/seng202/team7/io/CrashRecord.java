@@ -0,0 +1,80 @@
+package seng202.team7.io;
+
+import seng202.team7.model.Crash;
+
+/**
+ * A crash read from a csv file along with what is needed to import it incrementally: a key identifying which row of
+ * the source data it came from, and a fingerprint of the row's contents, so a later import of an updated file can
+ * tell whether the row is new, changed, or the same as before.
+ */
+public class CrashRecord {
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final char FIELD_SEPARATOR = '\u001F';
+
+    private final long sourceKey;
+    private final long fingerprint;
+    private final Crash crash;
+
+    /**
+     * Creates a crash record.
+     *
+     * @param sourceKey the key of the row in the source data
+     * @param fingerprint the fingerprint of the row's contents
+     * @param crash the crash read from the row
+     */
+    public CrashRecord(long sourceKey, long fingerprint, Crash crash) {
+        this.sourceKey = sourceKey;
+        this.fingerprint = fingerprint;
+        this.crash = crash;
+    }
+
+    /**
+     * Creates a crash record from a line of a CAS csv file.
+     * The row's OBJECTID, in the first column, is its key. Files without one are keyed by a hash of the fields that
+     * identify a crash instead, its location, year and severity, which only works as long as those are not corrected.
+     *
+     * @param line the line of the csv the crash was read from
+     * @param crash the crash read from the line
+     * @return the crash record
+     */
+    public static CrashRecord fromLine(String[] line, Crash crash) {
+        long sourceKey;
+        try {
+            sourceKey = Long.parseLong(line[0].trim());
+        } catch (NumberFormatException e) {
+            sourceKey = hash(line[67], line[68], line[14], line[12], line[9], line[10]);
+        }
+        return new CrashRecord(sourceKey, hash(line), crash);
+    }
+
+    /**
+     * Hashes a sequence of fields with 64-bit FNV-1a. Fields are separated before hashing so that moving text from
+     * one field to the next changes the hash.
+     *
+     * @param fields the fields to hash
+     * @return the hash of the fields
+     */
+    public static long hash(String... fields) {
+        long hash = FNV_OFFSET_BASIS;
+        for (String field : fields) {
+            for (int i = 0; i < field.length(); i++) {
+                hash = (hash ^ field.charAt(i)) * FNV_PRIME;
+            }
+            hash = (hash ^ FIELD_SEPARATOR) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    public long getSourceKey() {
+        return sourceKey;
+    }
+
+    public long getFingerprint() {
+        return fingerprint;
+    }
+
+    public Crash getCrash() {
+        return crash;
+    }
+}
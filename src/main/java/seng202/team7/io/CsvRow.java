@@ -0,0 +1,106 @@
+package seng202.team7.io;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The values of one line of a csv file parsed by a {@link CsvSchema}, indexed by column, along with how many lines
+ * have failed on each column. A reader parses each of its lines into the same row, so a row is not thread safe and
+ * its values must be read before the next line is parsed.
+ */
+public class CsvRow {
+    /**
+     * The error index used for lines with fewer columns than the schema.
+     */
+    static final int TOO_FEW_COLUMNS = -1;
+
+    private final String[] names;
+    private final int[] ints;
+    private final float[] floats;
+    private final Object[] values;
+    private final int[] errorCounts;
+    private int tooFewColumnsCount = 0;
+
+    /**
+     * Creates an empty row.
+     *
+     * @param names the name of each column, by index, or null for columns not in the schema
+     */
+    CsvRow(String[] names) {
+        this.names = names;
+        this.ints = new int[names.length];
+        this.floats = new float[names.length];
+        this.values = new Object[names.length];
+        this.errorCounts = new int[names.length];
+    }
+
+    /**
+     * Gets the value of an integer column.
+     *
+     * @param index the index of the column
+     * @return the value of the column
+     */
+    public int getInt(int index) {
+        return ints[index];
+    }
+
+    /**
+     * Gets the value of a decimal column.
+     *
+     * @param index the index of the column
+     * @return the value of the column
+     */
+    public float getFloat(int index) {
+        return floats[index];
+    }
+
+    /**
+     * Gets the value of a categorical or text column, as the type its schema looks it up as.
+     *
+     * @param index the index of the column
+     * @param <V> the type of the value
+     * @return the value of the column
+     */
+    @SuppressWarnings("unchecked")
+    public <V> V getValue(int index) {
+        return (V) values[index];
+    }
+
+    /**
+     * Gets how many lines have failed on each column, in column order, leaving out columns with no errors.
+     *
+     * @return the number of errors for each column name
+     */
+    public Map<String, Integer> getErrorCounts() {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        if (tooFewColumnsCount > 0) {
+            counts.put("too few columns", tooFewColumnsCount);
+        }
+        for (int i = 0; i < errorCounts.length; i++) {
+            if (errorCounts[i] > 0) {
+                counts.put(names[i], errorCounts[i]);
+            }
+        }
+        return counts;
+    }
+
+    void setInt(int index, int value) {
+        ints[index] = value;
+    }
+
+    void setFloat(int index, float value) {
+        floats[index] = value;
+    }
+
+    void setValue(int index, Object value) {
+        values[index] = value;
+    }
+
+    void recordError(int index) {
+        if (index == TOO_FEW_COLUMNS) {
+            tooFewColumnsCount++;
+        } else {
+            errorCounts[index]++;
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package seng202.team7.io;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Declarative description of the columns of a csv file that are read, used to validate and convert each line
+ * without throwing exceptions. Each column is an integer within a range, a decimal, a category looked up from its
+ * string, or free text, and must be present in every line.
+ * A line is parsed into a {@link CsvRow}; parsing stops at the first invalid column, which is counted against that
+ * column in the row's error statistics, so a file with many malformed lines costs little more than a clean one.
+ * The schema is built once and can then be shared by any number of readers, each with its own row.
+ */
+public class CsvSchema {
+    private static final long INVALID = Long.MIN_VALUE;
+    // The most digits parsed as an integer, few enough that they cannot overflow a long
+    private static final int MAX_INT_DIGITS = 9;
+
+    private enum Kind { INTEGER, DECIMAL, CATEGORY, TEXT }
+
+    /**
+     * A column to read, and how to validate it.
+     */
+    private static class Column {
+        private final int index;
+        private final String name;
+        private final Kind kind;
+        private final int min;
+        private final int max;
+        private final Function<String, ?> lookup;
+
+        private Column(int index, String name, Kind kind, int min, int max, Function<String, ?> lookup) {
+            this.index = index;
+            this.name = name;
+            this.kind = kind;
+            this.min = min;
+            this.max = max;
+            this.lookup = lookup;
+        }
+    }
+
+    private final List<Column> columns = new ArrayList<>();
+    private int width = 0;
+
+    /**
+     * Adds an integer column. An empty value is read as 0.
+     *
+     * @param index the index of the column in the line
+     * @param name the name of the column, used in the error statistics
+     * @param min the smallest valid value
+     * @param max the largest valid value
+     * @return this schema
+     */
+    public CsvSchema integer(int index, String name, int min, int max) {
+        return add(new Column(index, name, Kind.INTEGER, min, max, null));
+    }
+
+    /**
+     * Adds a decimal column, which must not be empty.
+     *
+     * @param index the index of the column in the line
+     * @param name the name of the column, used in the error statistics
+     * @return this schema
+     */
+    public CsvSchema decimal(int index, String name) {
+        return add(new Column(index, name, Kind.DECIMAL, 0, 0, null));
+    }
+
+    /**
+     * Adds a categorical column, whose value is looked up from its string.
+     *
+     * @param index the index of the column in the line
+     * @param name the name of the column, used in the error statistics
+     * @param lookup gets the value for a string, or null if the string is not a valid value
+     * @return this schema
+     */
+    public CsvSchema category(int index, String name, Function<String, ?> lookup) {
+        return add(new Column(index, name, Kind.CATEGORY, 0, 0, lookup));
+    }
+
+    /**
+     * Adds a free text column, which is read as it is.
+     *
+     * @param index the index of the column in the line
+     * @param name the name of the column, used in the error statistics
+     * @return this schema
+     */
+    public CsvSchema text(int index, String name) {
+        return add(new Column(index, name, Kind.TEXT, 0, 0, null));
+    }
+
+    /**
+     * Creates a row to parse lines of this schema into.
+     *
+     * @return an empty row
+     */
+    public CsvRow newRow() {
+        String[] names = new String[width];
+        for (Column column : columns) {
+            names[column.index] = column.name;
+        }
+        return new CsvRow(names);
+    }
+
+    /**
+     * Validates a line and converts its columns into a row, stopping at the first invalid column.
+     *
+     * @param line the values of the line
+     * @param row the row to parse into, created by this schema, whose values are only meaningful if this succeeds
+     * @return true if every column was valid, false if the line was counted as an error
+     */
+    public boolean parse(String[] line, CsvRow row) {
+        if (line.length < width) {
+            row.recordError(CsvRow.TOO_FEW_COLUMNS);
+            return false;
+        }
+        for (Column column : columns) {
+            String value = line[column.index];
+            switch (column.kind) {
+                case INTEGER:
+                    long number = value.isEmpty() ? 0 : parseInt(value);
+                    if (number == INVALID || number < column.min || number > column.max) {
+                        row.recordError(column.index);
+                        return false;
+                    }
+                    row.setInt(column.index, (int) number);
+                    break;
+                case DECIMAL:
+                    if (!isDecimal(value)) {
+                        row.recordError(column.index);
+                        return false;
+                    }
+                    row.setFloat(column.index, Float.parseFloat(value));
+                    break;
+                case CATEGORY:
+                    Object category = column.lookup.apply(value);
+                    if (category == null) {
+                        row.recordError(column.index);
+                        return false;
+                    }
+                    row.setValue(column.index, category);
+                    break;
+                default:
+                    row.setValue(column.index, value);
+                    break;
+            }
+        }
+        return true;
+    }
+
+    private CsvSchema add(Column column) {
+        columns.add(column);
+        width = Math.max(width, column.index + 1);
+        return this;
+    }
+
+    /**
+     * Parses a whole number of up to nine digits, with an optional sign, without throwing.
+     *
+     * @param value the string to parse
+     * @return the number, or INVALID if the string is not one
+     */
+    private static long parseInt(String value) {
+        int start = value.charAt(0) == '-' || value.charAt(0) == '+' ? 1 : 0;
+        int length = value.length();
+        if (start == length || length - start > MAX_INT_DIGITS) {
+            return INVALID;
+        }
+        long number = 0;
+        for (int i = start; i < length; i++) {
+            int digit = value.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return INVALID;
+            }
+            number = number * 10 + digit;
+        }
+        return value.charAt(0) == '-' ? -number : number;
+    }
+
+    /**
+     * Checks a string is a plain decimal, such as -43.5 or 172, so it can be parsed without an exception.
+     *
+     * @param value the string to check
+     * @return true if the string is a decimal
+     */
+    private static boolean isDecimal(String value) {
+        int length = value.length();
+        int i = length > 0 && (value.charAt(0) == '-' || value.charAt(0) == '+') ? 1 : 0;
+        boolean digits = false;
+        boolean point = false;
+        for (; i < length; i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits = true;
+            } else if (c == '.' && !point) {
+                point = true;
+            } else {
+                return false;
+            }
+        }
+        return digits;
+    }
+}
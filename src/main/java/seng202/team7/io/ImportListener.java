@@ -0,0 +1,22 @@
+package seng202.team7.io;
+
+/**
+ * Listens to an import as it runs, and can stop it part way through.
+ */
+public interface ImportListener {
+
+    /**
+     * Called every few thousand rows with how far through the import is. Called on the thread running the import.
+     *
+     * @param progress the progress of the import
+     */
+    void onProgress(ImportProgress progress);
+
+    /**
+     * Checked as often as progress is reported. Once this returns true the import stops as soon as it can, keeping
+     * whatever it had already finished.
+     *
+     * @return true if the import should stop
+     */
+    boolean isCancelled();
+}
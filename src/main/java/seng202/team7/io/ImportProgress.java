@@ -0,0 +1,75 @@
+package seng202.team7.io;
+
+/**
+ * How far through an import is, reported as the file is read and again as its rows are inserted.
+ */
+public class ImportProgress {
+    /**
+     * The stages of an import, in order.
+     */
+    public enum Stage { READING, INSERTING }
+
+    private final Stage stage;
+    private final long done;
+    private final long total;
+    private final long rows;
+    private final long elapsedNanos;
+
+    /**
+     * Creates a progress report.
+     *
+     * @param stage the stage the import is in
+     * @param done how much of the stage is done, in bytes read when reading and rows inserted when inserting
+     * @param total how much there is to do in the stage, in the same units as done, or -1 if it is not known
+     * @param rows the number of rows read or inserted so far in the stage
+     * @param elapsedNanos the time spent in the stage so far
+     */
+    public ImportProgress(Stage stage, long done, long total, long rows, long elapsedNanos) {
+        this.stage = stage;
+        this.done = done;
+        this.total = total;
+        this.rows = rows;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public Stage getStage() {
+        return stage;
+    }
+
+    public long getDone() {
+        return done;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    /**
+     * Gets how much of the stage is done.
+     *
+     * @return the fraction of the stage done, from 0 to 1
+     */
+    public double getFraction() {
+        return total <= 0 ? 0 : Math.min(1, (double) done / total);
+    }
+
+    /**
+     * Gets how quickly rows have been read or inserted so far in the stage.
+     *
+     * @return the number of rows per second
+     */
+    public double getRowsPerSecond() {
+        return elapsedNanos <= 0 ? 0 : rows * 1e9 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        String percent = total > 0 ? Math.round(getFraction() * 100) + "%, " : "";
+        return (stage == Stage.READING ? "Read " : "Inserted ") + rows + " rows (" + percent
+                + Math.round(getRowsPerSecond()) + " rows/s)";
+    }
+}
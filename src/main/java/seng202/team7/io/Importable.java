@@ -2,6 +2,7 @@ package seng202.team7.io;
 
 import java.io.File;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Simple interface for reading objects from file.
@@ -17,4 +18,29 @@ public interface Importable<T> {
      * @return List of objects type T that are read from the file
      */
     List<T> readFromFile(File file);
+
+    /**
+     * Reads objects of type T from file, reporting progress to a listener, which can stop the read part way.
+     * Importers that cannot report progress just read the whole file.
+     *
+     * @param file File to read from
+     * @param listener Listener to report progress to
+     * @return List of objects type T that are read from the file, up to where it was stopped if it was cancelled
+     */
+    default List<T> readFromFile(File file, ImportListener listener) {
+        return readFromFile(file);
+    }
+
+    /**
+     * Streams objects of type T from file, reading only as far as the stream is consumed, so the whole file never
+     * has to be held at once. The stream must be closed, which closes the file.
+     * Importers that cannot stream just read the whole file up front.
+     *
+     * @param file File to read from
+     * @param listener Listener to report progress to, which can end the stream part way
+     * @return Stream of the objects of type T in the file, in order
+     */
+    default Stream<T> streamFromFile(File file, ImportListener listener) {
+        return readFromFile(file, listener).stream();
+    }
 }
@@ -0,0 +1,212 @@
+package seng202.team7.map;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Cache of files on disk, such as map tiles, that removes the least recently used files once the total size goes
+ * over a limit. Each entry is stored as a file at its key, a relative path, so a directory of files copied in before
+ * the app starts seeds the cache. The order files were used in is kept in their modified times, so it carries over
+ * between runs of the app.
+ */
+public class DiskCache {
+    private static final Logger log = LogManager.getLogger(DiskCache.class);
+    // Keys are relative paths of plain names, so an entry can never be written outside the cache directory
+    private static final Pattern KEY_PATTERN = Pattern.compile("[A-Za-z0-9_@.-]+(/[A-Za-z0-9_@.-]+)*");
+    private static final String TEMP_SUFFIX = ".part";
+
+    private final Path directory;
+    private final long maxBytes;
+    // The size of each file by key, least recently used first
+    private final LinkedHashMap<String, Long> sizes = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+
+    /**
+     * Opens a cache in a directory, creating the directory if needed and indexing any files already in it.
+     *
+     * @param directory the directory the cached files are kept in
+     * @param maxBytes the most bytes of files to keep
+     */
+    public DiskCache(File directory, long maxBytes) {
+        this.directory = directory.toPath().toAbsolutePath().normalize();
+        this.maxBytes = maxBytes;
+        try {
+            Files.createDirectories(this.directory);
+            List<Path> files;
+            try (Stream<Path> walk = Files.walk(this.directory)) {
+                files = walk.filter(Files::isRegularFile)
+                        .sorted(Comparator.comparingLong(path -> path.toFile().lastModified()))
+                        .collect(Collectors.toList());
+            }
+            for (Path file : files) {
+                if (file.toString().endsWith(TEMP_SUFFIX)) {
+                    // Left behind by a write that never finished
+                    Files.deleteIfExists(file);
+                    continue;
+                }
+                String key = this.directory.relativize(file).toString().replace(File.separatorChar, '/');
+                long size = Files.size(file);
+                sizes.put(key, size);
+                totalBytes += size;
+            }
+        } catch (IOException e) {
+            log.error("Error opening cache at " + directory, e);
+        }
+        synchronized (this) {
+            evict();
+        }
+    }
+
+    /**
+     * Checks whether a key can be stored in the cache.
+     *
+     * @param key the key to check
+     * @return true if the key is a relative path of plain names without "." or ".." parts, else false
+     */
+    public static boolean isValidKey(String key) {
+        if (key == null || !KEY_PATTERN.matcher(key).matches()) {
+            return false;
+        }
+        for (String part : key.split("/")) {
+            if (part.equals(".") || part.equals("..") || part.endsWith(TEMP_SUFFIX)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets a cached file's contents, marking it as the most recently used. The file is read without holding the
+     * cache's lock, so several files can be read at once.
+     *
+     * @param key the relative path of the file
+     * @return the file's contents, or null if it is not cached
+     */
+    public byte[] get(String key) {
+        synchronized (this) {
+            if (!isValidKey(key) || sizes.get(key) == null) {
+                return null;
+            }
+        }
+        File file = directory.resolve(key).toFile();
+        try {
+            byte[] bytes = Files.readAllBytes(file.toPath());
+            file.setLastModified(System.currentTimeMillis());
+            return bytes;
+        } catch (IOException e) {
+            // Also happens if the file was evicted while being read, which only costs fetching it again
+            log.error("Error reading cached " + key, e);
+            forget(key);
+            return null;
+        }
+    }
+
+    /**
+     * Stores a file in the cache, replacing any file with the same key, then removes the least recently used files
+     * until the cache is back under its size limit. The file is written in full before it replaces the old one, so
+     * a crash part way through never leaves a broken file behind, and it is written without holding the cache's
+     * lock, so several files can be written at once.
+     *
+     * @param key the relative path of the file
+     * @param bytes the file's contents
+     */
+    public void put(String key, byte[] bytes) {
+        if (!isValidKey(key) || bytes.length > maxBytes) {
+            return;
+        }
+        Path file = directory.resolve(key);
+        Path temp = null;
+        try {
+            Files.createDirectories(file.getParent());
+            // Each write has its own temporary file, as two threads may store the same key at once
+            temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), TEMP_SUFFIX);
+            Files.write(temp, bytes);
+            try {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            log.error("Error caching " + key, e);
+            deleteTemp(temp);
+            return;
+        }
+        synchronized (this) {
+            Long previous = sizes.put(key, (long) bytes.length);
+            totalBytes += bytes.length - (previous == null ? 0 : previous);
+            evict();
+        }
+    }
+
+    /**
+     * Gets the number of files in the cache.
+     *
+     * @return the number of files
+     */
+    public synchronized int size() {
+        return sizes.size();
+    }
+
+    /**
+     * Gets the total size of the files in the cache.
+     *
+     * @return the size in bytes
+     */
+    public synchronized long getTotalBytes() {
+        return totalBytes;
+    }
+
+    /**
+     * Removes a file from the cache's records after it could not be read.
+     */
+    private synchronized void forget(String key) {
+        Long size = sizes.remove(key);
+        if (size != null) {
+            totalBytes -= size;
+        }
+    }
+
+    private static void deleteTemp(Path temp) {
+        if (temp == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(temp);
+        } catch (IOException e) {
+            // Deleted when the cache is next opened instead
+            log.error("Error removing " + temp, e);
+        }
+    }
+
+    /**
+     * Deletes the least recently used files until the cache is under its size limit.
+     */
+    private void evict() {
+        Iterator<Map.Entry<String, Long>> eldest = sizes.entrySet().iterator();
+        while (totalBytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<String, Long> entry = eldest.next();
+            try {
+                Files.deleteIfExists(directory.resolve(entry.getKey()));
+            } catch (IOException e) {
+                log.error("Error removing cached " + entry.getKey(), e);
+            }
+            totalBytes -= entry.getValue();
+            eldest.remove();
+        }
+    }
+}
@@ -13,15 +13,48 @@ import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
 
 /**
- * Class to handle requesting location from Nominatim Geolocation API.
+ * Class to handle finding the location of an address. Addresses are looked up in order:
+ * <ol>
+ *     <li>in the local index of places, which works offline</li>
+ *     <li>among the addresses this geolocator has already found remotely</li>
+ *     <li>with a request to the Nominatim Geolocation API</li>
+ * </ol>
  *
  * @author Morgan English
  */
 public class Geolocator {
 
     private static final Logger log = LogManager.getLogger(Geolocator.class);
+    private static final int CACHE_SIZE = 256;
+
+    private final Supplier<LocalGeocoder> localGeocoder;
+    private final Map<String, Position> cache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Position> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    /**
+     * Creates a geolocator that only finds addresses remotely.
+     */
+    public Geolocator() {
+        this(() -> LocalGeocoder.EMPTY);
+    }
+
+    /**
+     * Creates a geolocator that finds addresses locally where it can.
+     *
+     * @param localGeocoder gets the current local index of places, which can be replaced as the data changes
+     */
+    public Geolocator(Supplier<LocalGeocoder> localGeocoder) {
+        this.localGeocoder = localGeocoder;
+    }
 
     /**
      * Runs a query with the address given and finds the most applicable lat, lng co-ordinates.
@@ -31,6 +64,32 @@ public class Geolocator {
      * @throws GeolocatorFailedException error for when the address is not a valid location in Aotearoa or for when the geolocator fails for any reason at all
      */
     public Position queryAddress(String address) throws GeolocatorFailedException {
+        Position local = localGeocoder.get().find(address);
+        if (local != null) {
+            return local;
+        }
+        String key = LocalGeocoder.normalise(address);
+        synchronized (cache) {
+            Position cached = cache.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        Position remote = queryRemote(address);
+        synchronized (cache) {
+            cache.put(key, remote);
+        }
+        return remote;
+    }
+
+    /**
+     * Asks the Nominatim Geolocation API for the position of an address.
+     *
+     * @param address address to find lat, lng for
+     * @return The position of the address
+     * @throws GeolocatorFailedException if the address was not found or the request failed
+     */
+    private Position queryRemote(String address) throws GeolocatorFailedException {
         String addressForUrl = address.replace(' ', '+');
         try {
             // Creating the http request
@@ -0,0 +1,122 @@
+package seng202.team7.map;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable index of New Zealand place names and their positions, used to find an address without asking the
+ * remote geocoder. Names are matched after normalising, which ignores case, macrons, punctuation, extra spaces and
+ * a trailing "New Zealand", so "T&#257;maki Drive, Auckland" matches "TAMAKI DRIVE, Auckland".
+ * Places come from the centres of the crashes on each road and in each district, and optionally from a gazetteer
+ * file, whose positions take priority as they are surveyed rather than averaged.
+ */
+public class LocalGeocoder {
+    private static final Logger log = LogManager.getLogger(LocalGeocoder.class);
+
+    /**
+     * A geocoder that knows no places.
+     */
+    public static final LocalGeocoder EMPTY = new LocalGeocoder(Map.of(), Map.of());
+
+    private final Map<String, Position> places = new HashMap<>();
+
+    /**
+     * Builds an index of places.
+     *
+     * @param centroids the centre of the crashes at each road and district, by name
+     * @param gazetteer surveyed positions of places by name, which replace centroids of the same name
+     */
+    public LocalGeocoder(Map<String, Position> centroids, Map<String, Position> gazetteer) {
+        for (Map<String, Position> source : List.of(centroids, gazetteer)) {
+            for (Map.Entry<String, Position> place : source.entrySet()) {
+                String key = normalise(place.getKey());
+                if (!key.isEmpty()) {
+                    places.put(key, place.getValue());
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the number of places in the index.
+     *
+     * @return the number of places
+     */
+    public int size() {
+        return places.size();
+    }
+
+    /**
+     * Finds the position of an address if it is one of the places in the index.
+     *
+     * @param address the address to find
+     * @return the position of the place, or null if it is not known
+     */
+    public Position find(String address) {
+        return places.get(normalise(address));
+    }
+
+    /**
+     * Normalises a place name so that different ways of writing it match.
+     *
+     * @param name the name of a place
+     * @return the name in lower case, without macrons or punctuation, with single spaces between words and without a
+     *         trailing "New Zealand"
+     */
+    public static String normalise(String name) {
+        String plain = Normalizer.normalize(name, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        String words = plain.toLowerCase(Locale.ROOT).replaceAll("[^\\p{L}\\p{N}]+", " ").strip();
+        if (words.endsWith(" new zealand")) {
+            words = words.substring(0, words.length() - " new zealand".length());
+        }
+        return words;
+    }
+
+    /**
+     * Reads a gazetteer file, with one place per line written as its name, latitude and longitude separated by
+     * commas. The name may itself contain commas. Lines that cannot be read are logged and skipped.
+     *
+     * @param file the gazetteer file
+     * @return the position of each place by name, or an empty map if the file does not exist or cannot be read
+     */
+    public static Map<String, Position> readGazetteer(File file) {
+        Map<String, Position> gazetteer = new HashMap<>();
+        if (file == null || !file.isFile()) {
+            return gazetteer;
+        }
+        try (BufferedReader reader = new BufferedReader(new FileReader(file, StandardCharsets.UTF_8))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                int lngComma = line.lastIndexOf(',');
+                int latComma = lngComma > 0 ? line.lastIndexOf(',', lngComma - 1) : -1;
+                try {
+                    if (latComma <= 0) {
+                        throw new NumberFormatException();
+                    }
+                    double lat = Double.parseDouble(line.substring(latComma + 1, lngComma).strip());
+                    double lng = Double.parseDouble(line.substring(lngComma + 1).strip());
+                    gazetteer.put(line.substring(0, latComma), new Position(lat, lng));
+                } catch (NumberFormatException e) {
+                    log.error("Skipping gazetteer line " + lineNumber + ", which is not a name, latitude and longitude");
+                }
+            }
+        } catch (IOException e) {
+            log.error("Error reading gazetteer " + file, e);
+            gazetteer.clear();
+        }
+        return gazetteer;
+    }
+}
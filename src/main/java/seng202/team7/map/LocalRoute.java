@@ -0,0 +1,72 @@
+package seng202.team7.map;
+
+import java.util.Locale;
+
+/**
+ * A route planned by the {@link RoutingEngine}, with the path it follows along the roads and how far and how long it
+ * is.
+ */
+public class LocalRoute {
+    private final Route path;
+    private final double distance;
+    private final double duration;
+
+    /**
+     * Creates a planned route.
+     *
+     * @param path the positions along the route, first to last
+     * @param distance the length of the route in metres
+     * @param duration how long the route takes in seconds
+     */
+    public LocalRoute(Route path, double distance, double duration) {
+        this.path = path;
+        this.distance = distance;
+        this.duration = duration;
+    }
+
+    /**
+     * Gets the positions along the route.
+     *
+     * @return the path of the route
+     */
+    public Route getPath() {
+        return path;
+    }
+
+    /**
+     * Gets the length of the route.
+     *
+     * @return the length in metres
+     */
+    public double getDistance() {
+        return distance;
+    }
+
+    /**
+     * Gets how long the route takes.
+     *
+     * @return the time in seconds
+     */
+    public double getDuration() {
+        return duration;
+    }
+
+    /**
+     * Returns the route as a JSON object for map.js, holding its distance, its duration and its coordinates as
+     * [lat, lng] pairs.
+     *
+     * @return route object as JSON string
+     */
+    public String toJSON() {
+        StringBuilder stringBuilder = new StringBuilder();
+        stringBuilder.append(String.format(Locale.ROOT, "{\"distance\": %.1f, \"time\": %.1f, \"coordinates\": [",
+                distance, duration));
+        path.getRoute().forEach(pos -> stringBuilder.append(
+                String.format(Locale.ROOT, "[%.7f, %.7f], ", pos.lat, pos.lng)));
+        if (!path.getRoute().isEmpty()) {
+            stringBuilder.setLength(stringBuilder.length() - 2);
+        }
+        stringBuilder.append("]}");
+        return stringBuilder.toString();
+    }
+}
@@ -0,0 +1,314 @@
+package seng202.team7.map;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import seng202.team7.business.BackgroundExecutor;
+import seng202.team7.metrics.MetricsRegistry;
+import seng202.team7.metrics.Timer;
+import seng202.team7.repository.DatabaseManager;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Singleton HTTP server on the loopback address that the map's WebView loads everything through, so the map loads
+ * from disk instead of the internet wherever it can:
+ * <ul>
+ *     <li>{@code /tiles/z/x/y.png} serves base map tiles from a disk cache, fetching and keeping those not cached</li>
+ *     <li>{@code /vendor/...} serves the third party scripts and stylesheets the map uses, from those bundled in the
+ *     jar at pinned versions, or otherwise from a disk cache in the same way as tiles</li>
+ *     <li>{@code /html}, {@code /javascript}, {@code /stylesheets} and {@code /img} serve the app's own resources</li>
+ * </ul>
+ * Both caches live in a directory next to the database, so they last between runs and can be seeded by copying a
+ * cache from another machine, after which the map works fully offline.
+ * If the server cannot start, {@link #getFallbackPage()} gives a copy of the map page that loads without it.
+ */
+public class MapServer {
+    private static final Logger log = LogManager.getLogger(MapServer.class);
+    private static final MetricsRegistry metrics = MetricsRegistry.getInstance();
+    private static final Timer CACHED_TIMER = metrics.timer("mapServer.cached");
+    private static final Timer FETCH_TIMER = metrics.timer("mapServer.fetch");
+    private static final String TILE_URL = "https://tile.csse.canterbury.ac.nz/hot/";
+    private static final String ASSET_URL = "https://unpkg.com/";
+    private static final long MAX_TILE_BYTES = 256L * 1024 * 1024;
+    private static final long MAX_ASSET_BYTES = 32L * 1024 * 1024;
+    private static final Pattern TILE_PATTERN = Pattern.compile("\\d{1,2}/\\d{1,7}/\\d{1,7}\\.png");
+    // A script or stylesheet the map page loads relative to itself
+    private static final Pattern PAGE_LINK_PATTERN = Pattern.compile("(src|href)=\"\\.\\./([^\"]+)\"");
+    private static final Set<String> RESOURCE_DIRECTORIES = Set.of("html", "javascript", "stylesheets", "img");
+    private static final int THREADS = 4;
+    // Tiles change rarely, so the WebView can keep them for a day without asking again
+    private static final String CACHE_CONTROL = "max-age=86400";
+    private static MapServer instance = null;
+
+    private final String tileUrl;
+    private final String assetUrl;
+    private final DiskCache tileCache;
+    private final DiskCache assetCache;
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .build();
+    private HttpServer server;
+    private ExecutorService executor;
+
+    /**
+     * Creates a server, which must be started before use.
+     *
+     * @param cacheDirectory the directory tiles and third party files are cached in
+     * @param tileUrl the URL tiles not cached are fetched from, which z/x/y.png is added to
+     * @param assetUrl the URL third party files not cached are fetched from, which their paths are added to
+     */
+    public MapServer(File cacheDirectory, String tileUrl, String assetUrl) {
+        this.tileUrl = tileUrl;
+        this.assetUrl = assetUrl;
+        tileCache = new DiskCache(new File(cacheDirectory, "tiles"), MAX_TILE_BYTES);
+        assetCache = new DiskCache(new File(cacheDirectory, "vendor"), MAX_ASSET_BYTES);
+    }
+
+    /**
+     * Singleton method to get the map server, creating it with its cache next to the database if it does not exist
+     * yet.
+     *
+     * @return the single instance of MapServer
+     */
+    public static synchronized MapServer getInstance() {
+        if (instance == null) {
+            File databaseDirectory = DatabaseManager.getInstance().getDatabaseFile().getAbsoluteFile().getParentFile();
+            instance = new MapServer(new File(databaseDirectory, "map_cache"), TILE_URL, ASSET_URL);
+        }
+        return instance;
+    }
+
+    /**
+     * Starts the server on a free port of the loopback address, if it is not already running. Requests are handled
+     * on daemon threads so the server never keeps the app open.
+     *
+     * @throws IOException if the server could not be started
+     */
+    public synchronized void start() throws IOException {
+        if (server != null) {
+            return;
+        }
+        HttpServer httpServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        httpServer.createContext("/tiles/", exchange -> handle(exchange, "/tiles/", tileCache, tileUrl));
+        httpServer.createContext("/vendor/", exchange -> handle(exchange, "/vendor/", assetCache, assetUrl));
+        httpServer.createContext("/", this::handleResource);
+        // Requests get their own threads, as a page load fetches many tiles at once and would fill the I/O pool
+        executor = Executors.newFixedThreadPool(THREADS, BackgroundExecutor.daemonThreadFactory("map-server"));
+        httpServer.setExecutor(executor);
+        httpServer.start();
+        server = httpServer;
+        log.info("Map server started at " + getUrl("/"));
+    }
+
+    /**
+     * Stops the server, if it is running.
+     */
+    public synchronized void stop() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+            server = null;
+        }
+    }
+
+    /**
+     * Gets the address of a path on the server.
+     *
+     * @param path the path, starting with "/"
+     * @return the URL of the path
+     * @throws IllegalStateException if the server is not running
+     */
+    public synchronized String getUrl(String path) {
+        if (server == null) {
+            throw new IllegalStateException("Map server is not running");
+        }
+        return "http://127.0.0.1:" + server.getAddress().getPort() + path;
+    }
+
+    /**
+     * Serves a file from a cache, fetching it and adding it to the cache if it is not there.
+     *
+     * @param exchange the request and response
+     * @param context the path the handler is registered at
+     * @param cache the cache to serve from
+     * @param upstream the URL to fetch files not cached from
+     */
+    private void handle(HttpExchange exchange, String context, DiskCache cache, String upstream) throws IOException {
+        try {
+            String key = exchange.getRequestURI().getPath().substring(context.length());
+            boolean valid = cache == tileCache ? TILE_PATTERN.matcher(key).matches() : DiskCache.isValidKey(key);
+            if (!valid) {
+                sendEmpty(exchange, 404);
+                return;
+            }
+            long start = CACHED_TIMER.start();
+            // Libraries bundled with the app are never fetched, so the map loads offline on its first run
+            byte[] bytes = cache == assetCache ? readResource("vendor/" + key) : null;
+            if (bytes == null) {
+                bytes = cache.get(key);
+            }
+            if (bytes != null) {
+                CACHED_TIMER.stop(start);
+            } else {
+                start = FETCH_TIMER.start();
+                bytes = fetch(upstream + key);
+                FETCH_TIMER.stop(start);
+                if (bytes == null) {
+                    // Offline and not cached, so the map shows a blank tile or goes without the file
+                    sendEmpty(exchange, 404);
+                    return;
+                }
+                cache.put(key, bytes);
+            }
+            send(exchange, key, bytes);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Serves one of the app's own resources from the class path.
+     *
+     * @param exchange the request and response
+     */
+    private void handleResource(HttpExchange exchange) throws IOException {
+        try {
+            String path = exchange.getRequestURI().getPath().substring(1);
+            int slash = path.indexOf('/');
+            if (slash < 0 || !RESOURCE_DIRECTORIES.contains(path.substring(0, slash)) || !DiskCache.isValidKey(path)) {
+                sendEmpty(exchange, 404);
+                return;
+            }
+            byte[] bytes = readResource(path);
+            if (bytes == null) {
+                sendEmpty(exchange, 404);
+                return;
+            }
+            send(exchange, path, bytes);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Reads one of the resources on the class path.
+     *
+     * @param path the path of the resource, without a leading "/"
+     * @return the resource's contents, or null if there is no such resource
+     */
+    private static byte[] readResource(String path) throws IOException {
+        try (InputStream resource = MapServer.class.getResourceAsStream("/" + path)) {
+            return resource == null ? null : resource.readAllBytes();
+        }
+    }
+
+    /**
+     * Gets the map page rewritten to load without the server, for when it cannot start. The page's links are
+     * relative to the server, so each is pointed at the resource in the jar instead, or at the internet for a
+     * library not bundled with the app. The page's script fetches tiles from the internet when it is not served.
+     *
+     * @return the rewritten page, or null if it could not be read
+     */
+    public static String getFallbackPage() {
+        try {
+            byte[] page = readResource("html/map.html");
+            if (page == null) {
+                log.error("Map page is missing from the app");
+                return null;
+            }
+            Matcher link = PAGE_LINK_PATTERN.matcher(new String(page, StandardCharsets.UTF_8));
+            StringBuilder rewritten = new StringBuilder();
+            while (link.find()) {
+                String path = link.group(2);
+                URL resource = MapServer.class.getResource("/" + path);
+                String url;
+                if (resource != null) {
+                    url = resource.toExternalForm();
+                } else if (path.startsWith("vendor/")) {
+                    url = ASSET_URL + path.substring("vendor/".length());
+                } else {
+                    log.error("Map page links to missing resource " + path);
+                    url = path;
+                }
+                link.appendReplacement(rewritten, Matcher.quoteReplacement(link.group(1) + "=\"" + url + "\""));
+            }
+            link.appendTail(rewritten);
+            return rewritten.toString();
+        } catch (IOException e) {
+            log.error("Error reading map page", e);
+            return null;
+        }
+    }
+
+    /**
+     * Fetches a file from the internet.
+     *
+     * @param url the URL of the file
+     * @return the file's contents, or null if it could not be fetched
+     */
+    private byte[] fetch(String url) {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(10)).build();
+            HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() != 200) {
+                log.error("Fetching " + url + " returned " + response.statusCode());
+                return null;
+            }
+            return response.body();
+        } catch (IOException e) {
+            log.error("Could not fetch " + url + ": " + e);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private static void send(HttpExchange exchange, String path, byte[] bytes) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType(path));
+        exchange.getResponseHeaders().set("Cache-Control", CACHE_CONTROL);
+        exchange.sendResponseHeaders(200, bytes.length == 0 ? -1 : bytes.length);
+        try (OutputStream body = exchange.getResponseBody()) {
+            body.write(bytes);
+        }
+    }
+
+    private static void sendEmpty(HttpExchange exchange, int status) throws IOException {
+        exchange.sendResponseHeaders(status, -1);
+    }
+
+    private static String contentType(String path) {
+        if (path.endsWith(".png")) {
+            return "image/png";
+        } else if (path.endsWith(".js")) {
+            return "application/javascript; charset=utf-8";
+        } else if (path.endsWith(".css")) {
+            return "text/css; charset=utf-8";
+        } else if (path.endsWith(".html")) {
+            return "text/html; charset=utf-8";
+        } else if (path.endsWith(".svg")) {
+            return "image/svg+xml";
+        }
+        return "application/octet-stream";
+    }
+}
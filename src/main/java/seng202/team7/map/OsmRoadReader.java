@@ -0,0 +1,331 @@
+package seng202.team7.map;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Builds a {@link RoadGraph} from an OpenStreetMap extract in OSM XML form, such as one exported for a region from
+ * openstreetmap.org or converted from a .pbf extract with osmium. Only ways tagged as roads or paths are kept, and
+ * only the nodes they use. Which travel modes may use each way, in which directions, and how fast cars may go are
+ * read from its tags, falling back to New Zealand's defaults.
+ */
+public class OsmRoadReader {
+    private static final int CAR = TravelMode.CAR.getBit();
+    private static final int BIKE = TravelMode.BIKE.getBit();
+    private static final int FOOT = TravelMode.FOOT.getBit();
+    private static final int ALL = CAR | BIKE | FOOT;
+    private static final Set<String> YES = Set.of("yes", "designated", "permissive");
+    private static final Set<String> NO = Set.of("no", "private");
+    // The speed limit for cars on each kind of road where none is tagged, in km/h
+    private static final Map<String, Integer> DEFAULT_SPEEDS = Map.ofEntries(
+            Map.entry("motorway", 100), Map.entry("motorway_link", 80),
+            Map.entry("trunk", 100), Map.entry("trunk_link", 60),
+            Map.entry("primary", 80), Map.entry("primary_link", 50),
+            Map.entry("secondary", 70), Map.entry("secondary_link", 50),
+            Map.entry("tertiary", 60), Map.entry("tertiary_link", 50),
+            Map.entry("unclassified", 50), Map.entry("residential", 50), Map.entry("road", 50),
+            Map.entry("living_street", 10), Map.entry("service", 20));
+    // The travel modes allowed on each kind of road or path unless its tags say otherwise
+    private static final Map<String, Integer> DEFAULT_MODES = Map.ofEntries(
+            Map.entry("motorway", CAR), Map.entry("motorway_link", CAR),
+            Map.entry("cycleway", BIKE | FOOT), Map.entry("path", BIKE | FOOT), Map.entry("track", BIKE | FOOT),
+            Map.entry("footway", FOOT), Map.entry("pedestrian", FOOT), Map.entry("steps", FOOT));
+
+    // The OSM nodes of every road way, one way after another; way i uses wayNodes[wayStart[i]] up to wayStart[i + 1]
+    private long[] wayNodes = new long[1024];
+    private int wayNodeCount;
+    private int[] wayStart = new int[256];
+    // The modes that may use each road way forwards and backwards, and its speed limit for cars
+    private byte[] forwardModes = new byte[256];
+    private byte[] backwardModes = new byte[256];
+    private int[] speeds = new int[256];
+    private int wayCount;
+    // The OSM id of every node used by a road, sorted, with its coordinates once read
+    private long[] roadNodeIds;
+    private int[] roadNodeLats;
+    private int[] roadNodeLngs;
+    private boolean[] roadNodeFound;
+    private final RoadGraph.Builder builder = new RoadGraph.Builder();
+
+    /**
+     * Opens the OSM XML, once for each pass the reader makes over it.
+     */
+    @FunctionalInterface
+    public interface Source {
+        /**
+         * Opens the OSM XML from the start.
+         *
+         * @return the OSM XML
+         * @throws IOException if it could not be opened
+         */
+        InputStream open() throws IOException;
+    }
+
+    private OsmRoadReader() {
+    }
+
+    /**
+     * Reads the roads in an OSM XML file.
+     *
+     * @param file the OSM XML file
+     * @return the road graph
+     * @throws IOException if the file could not be read or is not OSM XML
+     */
+    public static RoadGraph read(File file) throws IOException {
+        return read(() -> new BufferedInputStream(new FileInputStream(file)));
+    }
+
+    /**
+     * Reads the roads in OSM XML. Extracts list every node before the ways that use them, and most nodes belong to
+     * buildings and other things that are not roads, so the ways are read first to find which nodes roads use, and
+     * only those nodes' positions are kept on a second pass. This lets a whole country's extract be read without
+     * holding every node in it.
+     *
+     * @param source opens the OSM XML for each pass
+     * @return the road graph
+     * @throws IOException if the XML could not be read or is not OSM XML
+     */
+    public static RoadGraph read(Source source) throws IOException {
+        OsmRoadReader reader = new OsmRoadReader();
+        try {
+            try (InputStream in = source.open()) {
+                XMLStreamReader xml = createReader(in);
+                try {
+                    reader.readWays(xml);
+                } finally {
+                    xml.close();
+                }
+            }
+            reader.collectRoadNodes();
+            try (InputStream in = source.open()) {
+                XMLStreamReader xml = createReader(in);
+                try {
+                    reader.readNodes(xml);
+                } finally {
+                    xml.close();
+                }
+            }
+        } catch (XMLStreamException | NumberFormatException e) {
+            throw new IOException("Error reading OSM XML", e);
+        }
+        reader.addRoads();
+        return reader.builder.build();
+    }
+
+    private static XMLStreamReader createReader(InputStream in) throws XMLStreamException {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory.createXMLStreamReader(in);
+    }
+
+    /**
+     * Reads every way, keeping the nodes and travel modes of those that are roads or paths.
+     */
+    private void readWays(XMLStreamReader xml) throws XMLStreamException {
+        Map<String, String> tags = new HashMap<>();
+        boolean inWay = false;
+        while (xml.hasNext()) {
+            int event = xml.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                switch (xml.getLocalName()) {
+                    case "way" -> {
+                        inWay = true;
+                        wayNodeCount = wayStart[wayCount];
+                        tags.clear();
+                    }
+                    case "nd" -> {
+                        if (inWay) {
+                            addWayNode(Long.parseLong(xml.getAttributeValue(null, "ref")));
+                        }
+                    }
+                    case "tag" -> {
+                        if (inWay) {
+                            tags.put(xml.getAttributeValue(null, "k"), xml.getAttributeValue(null, "v"));
+                        }
+                    }
+                    default -> {
+                    }
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT && xml.getLocalName().equals("way")) {
+                inWay = false;
+                addWay(tags);
+            }
+        }
+        wayNodeCount = wayStart[wayCount];
+    }
+
+    private void addWayNode(long id) {
+        if (wayNodeCount == wayNodes.length) {
+            wayNodes = Arrays.copyOf(wayNodes, wayNodeCount * 2);
+        }
+        wayNodes[wayNodeCount++] = id;
+    }
+
+    /**
+     * Finds the distinct nodes used by roads, sorted by id so they can be found by binary search.
+     */
+    private void collectRoadNodes() {
+        long[] ids = Arrays.copyOf(wayNodes, wayNodeCount);
+        Arrays.sort(ids);
+        int count = 0;
+        for (int i = 0; i < ids.length; i++) {
+            if (i == 0 || ids[i] != ids[i - 1]) {
+                ids[count++] = ids[i];
+            }
+        }
+        roadNodeIds = Arrays.copyOf(ids, count);
+        roadNodeLats = new int[count];
+        roadNodeLngs = new int[count];
+        roadNodeFound = new boolean[count];
+    }
+
+    /**
+     * Reads the positions of the nodes used by roads, skipping every other node. Nodes are listed before ways, so
+     * reading stops at the first way.
+     */
+    private void readNodes(XMLStreamReader xml) throws XMLStreamException {
+        while (xml.hasNext()) {
+            if (xml.next() != XMLStreamConstants.START_ELEMENT) {
+                continue;
+            }
+            String name = xml.getLocalName();
+            if (name.equals("way")) {
+                return;
+            }
+            if (name.equals("node")) {
+                int index = Arrays.binarySearch(roadNodeIds, Long.parseLong(xml.getAttributeValue(null, "id")));
+                if (index >= 0) {
+                    double lat = Double.parseDouble(xml.getAttributeValue(null, "lat"));
+                    double lng = Double.parseDouble(xml.getAttributeValue(null, "lon"));
+                    roadNodeLats[index] = (int) Math.round(lat * 1e7);
+                    roadNodeLngs[index] = (int) Math.round(lng * 1e7);
+                    roadNodeFound[index] = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds a graph node for each road node in the extract, in order of id, then the edges along every road.
+     */
+    private void addRoads() {
+        int[] graphNodes = new int[roadNodeIds.length];
+        for (int i = 0; i < roadNodeIds.length; i++) {
+            graphNodes[i] = roadNodeFound[i] ? builder.addNode(roadNodeLats[i] / 1e7, roadNodeLngs[i] / 1e7) : -1;
+        }
+        for (int way = 0; way < wayCount; way++) {
+            int previous = -1;
+            for (int i = wayStart[way]; i < wayStart[way + 1]; i++) {
+                int node = graphNodes[Arrays.binarySearch(roadNodeIds, wayNodes[i])];
+                if (node >= 0 && previous >= 0 && node != previous) {
+                    builder.addEdge(previous, node, forwardModes[way], speeds[way]);
+                    builder.addEdge(node, previous, backwardModes[way], speeds[way]);
+                }
+                // A node missing from the extract breaks the way, rather than joining the nodes either side of it
+                previous = node;
+            }
+        }
+    }
+
+    /**
+     * Keeps the way just read, whose nodes are the last ones added, if it is a road or path, along with the modes
+     * that may use it in each direction.
+     */
+    private void addWay(Map<String, String> tags) {
+        String highway = tags.get("highway");
+        // Squares and car parks drawn as areas have no direction to route along
+        if (highway == null || "yes".equals(tags.get("area"))) {
+            return;
+        }
+        int modes = modes(highway, tags);
+        if (modes == 0) {
+            return;
+        }
+        // Cars and bikes keep to one way roads, people walking do not
+        int forward = modes;
+        int backward = modes;
+        String oneway = tags.getOrDefault("oneway", "");
+        boolean impliedOneway = highway.startsWith("motorway") || "roundabout".equals(tags.get("junction"));
+        if (oneway.equals("-1")) {
+            forward &= FOOT;
+        } else if (oneway.equals("yes") || oneway.equals("true") || oneway.equals("1")
+                || (impliedOneway && !oneway.equals("no"))) {
+            backward &= FOOT;
+        }
+        if ("no".equals(tags.get("oneway:bicycle"))) {
+            forward |= modes & BIKE;
+            backward |= modes & BIKE;
+        }
+
+        if (wayCount + 1 == wayStart.length) {
+            wayStart = Arrays.copyOf(wayStart, wayStart.length * 2);
+            forwardModes = Arrays.copyOf(forwardModes, wayStart.length);
+            backwardModes = Arrays.copyOf(backwardModes, wayStart.length);
+            speeds = Arrays.copyOf(speeds, wayStart.length);
+        }
+        forwardModes[wayCount] = (byte) forward;
+        backwardModes[wayCount] = (byte) backward;
+        speeds[wayCount] = speed(highway, tags.get("maxspeed"));
+        wayCount++;
+        wayStart[wayCount] = wayNodeCount;
+    }
+
+    /**
+     * Works out which travel modes may use a way from its kind and its access tags.
+     */
+    private static int modes(String highway, Map<String, String> tags) {
+        int modes;
+        if (DEFAULT_MODES.containsKey(highway)) {
+            modes = DEFAULT_MODES.get(highway);
+        } else if (DEFAULT_SPEEDS.containsKey(highway)) {
+            modes = ALL;
+        } else {
+            return 0;
+        }
+        if (NO.contains(tags.getOrDefault("access", ""))) {
+            modes = 0;
+        }
+        modes = applyAccess(modes, CAR, tags.getOrDefault("motor_vehicle", ""));
+        modes = applyAccess(modes, CAR, tags.getOrDefault("motorcar", ""));
+        modes = applyAccess(modes, BIKE, tags.getOrDefault("bicycle", ""));
+        return applyAccess(modes, FOOT, tags.getOrDefault("foot", ""));
+    }
+
+    private static int applyAccess(int modes, int mode, String access) {
+        if (YES.contains(access)) {
+            return modes | mode;
+        } else if (NO.contains(access)) {
+            return modes & ~mode;
+        }
+        return modes;
+    }
+
+    /**
+     * Works out the speed limit for cars from a way's maxspeed tag, such as "50" or "50 km/h", or its kind.
+     */
+    private static int speed(String highway, String maxspeed) {
+        if (maxspeed != null) {
+            int digits = 0;
+            while (digits < maxspeed.length() && Character.isDigit(maxspeed.charAt(digits))) {
+                digits++;
+            }
+            if (digits > 0 && digits <= 3) {
+                int speed = Integer.parseInt(maxspeed.substring(0, digits));
+                return maxspeed.contains("mph") ? (int) Math.round(speed * 1.609) : speed;
+            }
+        }
+        return DEFAULT_SPEEDS.getOrDefault(highway, 20);
+    }
+}
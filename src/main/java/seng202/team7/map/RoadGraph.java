@@ -0,0 +1,476 @@
+package seng202.team7.map;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+
+/**
+ * Immutable graph of the road network that routes are planned over, stored in compressed sparse row form: the
+ * edges leaving each node sit next to each other in flat arrays, found through the index of the node's first edge.
+ * This keeps a whole region's roads in a few arrays of primitives, which load quickly and are fast to search.
+ * Each edge records its length, the travel modes that may use it and, for cars, its speed limit. Nodes are indexed
+ * in a grid so the road nearest to an address can be found without checking every node.
+ */
+public class RoadGraph {
+    private static final int MAGIC = 0x44575247; // "DWRG"
+    private static final int VERSION = 1;
+    // Coordinates are stored in ten millionths of a degree, about a centimetre
+    private static final double E7 = 1e7;
+    // The size of a cell of the grid index in degrees, a little over a kilometre
+    private static final double CELL_DEGREES = 0.01;
+    // The furthest rows and columns of cells from the equator and the prime meridian
+    private static final int MAX_ROW = (int) Math.round(90 / CELL_DEGREES);
+    private static final int MAX_COLUMN = (int) Math.round(180 / CELL_DEGREES);
+    private static final double EARTH_RADIUS_METRES = 6371008.8;
+
+    private final int[] latE7;
+    private final int[] lngE7;
+    // The edges leaving node i are firstEdge[i] up to firstEdge[i + 1]
+    private final int[] firstEdge;
+    private final int[] edgeTarget;
+    private final float[] edgeLength;
+    private final byte[] edgeModes;
+    private final byte[] edgeSpeed;
+    // The modes that may use any edge into or out of each node
+    private final byte[] nodeModes;
+    private final int maxSpeed;
+    // Grid index: cell cellKeys[i] holds the nodes cellNodes[cellStart[i]] up to cellNodes[cellStart[i + 1]]
+    private final int[] cellKeys;
+    private final int[] cellStart;
+    private final int[] cellNodes;
+
+    /**
+     * Builds a road graph one node and edge at a time.
+     */
+    public static class Builder {
+        private int[] lats = new int[16];
+        private int[] lngs = new int[16];
+        private int nodeCount;
+        private int[] sources = new int[16];
+        private int[] targets = new int[16];
+        private float[] lengths = new float[16];
+        private byte[] modes = new byte[16];
+        private byte[] speeds = new byte[16];
+        private int edgeCount;
+
+        /**
+         * Adds a node.
+         *
+         * @param lat the latitude of the node
+         * @param lng the longitude of the node
+         * @return the index of the node, for adding edges
+         */
+        public int addNode(double lat, double lng) {
+            if (nodeCount == lats.length) {
+                lats = Arrays.copyOf(lats, nodeCount * 2);
+                lngs = Arrays.copyOf(lngs, nodeCount * 2);
+            }
+            lats[nodeCount] = (int) Math.round(lat * E7);
+            lngs[nodeCount] = (int) Math.round(lng * E7);
+            return nodeCount++;
+        }
+
+        /**
+         * Adds an edge in one direction between two nodes, with its length worked out from their positions.
+         *
+         * @param from the index of the node the edge leaves
+         * @param to the index of the node the edge arrives at
+         * @param modeBits the bits of the {@link TravelMode}s that may use the edge
+         * @param carSpeed the speed limit for cars in km/h, up to 255
+         */
+        public void addEdge(int from, int to, int modeBits, int carSpeed) {
+            addEdge(from, to, distance(lats[from] / E7, lngs[from] / E7, lats[to] / E7, lngs[to] / E7),
+                    modeBits, carSpeed);
+        }
+
+        /**
+         * Adds an edge in one direction between two nodes.
+         *
+         * @param from the index of the node the edge leaves
+         * @param to the index of the node the edge arrives at
+         * @param length the length of the edge in metres, which must be at least the straight line distance
+         * @param modeBits the bits of the {@link TravelMode}s that may use the edge
+         * @param carSpeed the speed limit for cars in km/h, up to 255
+         */
+        public void addEdge(int from, int to, double length, int modeBits, int carSpeed) {
+            if (modeBits == 0) {
+                return;
+            }
+            if (edgeCount == sources.length) {
+                sources = Arrays.copyOf(sources, edgeCount * 2);
+                targets = Arrays.copyOf(targets, edgeCount * 2);
+                lengths = Arrays.copyOf(lengths, edgeCount * 2);
+                modes = Arrays.copyOf(modes, edgeCount * 2);
+                speeds = Arrays.copyOf(speeds, edgeCount * 2);
+            }
+            sources[edgeCount] = from;
+            targets[edgeCount] = to;
+            lengths[edgeCount] = (float) length;
+            modes[edgeCount] = (byte) modeBits;
+            speeds[edgeCount] = (byte) Math.max(1, Math.min(255, carSpeed));
+            edgeCount++;
+        }
+
+        /**
+         * Builds the graph from the nodes and edges added so far.
+         *
+         * @return the road graph
+         */
+        public RoadGraph build() {
+            // Counting sort of the edges by the node they leave
+            int[] firstEdge = new int[nodeCount + 1];
+            for (int i = 0; i < edgeCount; i++) {
+                firstEdge[sources[i] + 1]++;
+            }
+            for (int i = 0; i < nodeCount; i++) {
+                firstEdge[i + 1] += firstEdge[i];
+            }
+            int[] next = Arrays.copyOf(firstEdge, nodeCount);
+            int[] edgeTarget = new int[edgeCount];
+            float[] edgeLength = new float[edgeCount];
+            byte[] edgeModes = new byte[edgeCount];
+            byte[] edgeSpeed = new byte[edgeCount];
+            for (int i = 0; i < edgeCount; i++) {
+                int slot = next[sources[i]]++;
+                edgeTarget[slot] = targets[i];
+                edgeLength[slot] = lengths[i];
+                edgeModes[slot] = modes[i];
+                edgeSpeed[slot] = speeds[i];
+            }
+            return new RoadGraph(Arrays.copyOf(lats, nodeCount), Arrays.copyOf(lngs, nodeCount), firstEdge,
+                    edgeTarget, edgeLength, edgeModes, edgeSpeed);
+        }
+    }
+
+    private RoadGraph(int[] latE7, int[] lngE7, int[] firstEdge, int[] edgeTarget, float[] edgeLength,
+                      byte[] edgeModes, byte[] edgeSpeed) {
+        this.latE7 = latE7;
+        this.lngE7 = lngE7;
+        this.firstEdge = firstEdge;
+        this.edgeTarget = edgeTarget;
+        this.edgeLength = edgeLength;
+        this.edgeModes = edgeModes;
+        this.edgeSpeed = edgeSpeed;
+
+        nodeModes = new byte[latE7.length];
+        int fastest = 1;
+        for (int node = 0; node < latE7.length; node++) {
+            for (int edge = firstEdge[node]; edge < firstEdge[node + 1]; edge++) {
+                nodeModes[node] |= edgeModes[edge];
+                nodeModes[edgeTarget[edge]] |= edgeModes[edge];
+                if ((edgeModes[edge] & TravelMode.CAR.getBit()) != 0) {
+                    fastest = Math.max(fastest, getCarSpeed(edge));
+                }
+            }
+        }
+        maxSpeed = fastest;
+
+        // Sorts the nodes by grid cell, so each cell's nodes sit together. Each node's cell and index are packed into
+        // one long, so they sort as primitives without a comparator
+        long[] sorted = new long[latE7.length];
+        for (int node = 0; node < sorted.length; node++) {
+            sorted[node] = (long) cellKey(cell(getLat(node)), cell(getLng(node))) << 32 | node;
+        }
+        Arrays.sort(sorted);
+        cellNodes = new int[sorted.length];
+        int[] keys = new int[sorted.length];
+        int[] starts = new int[sorted.length + 1];
+        int cells = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            int key = (int) (sorted[i] >> 32);
+            cellNodes[i] = (int) sorted[i];
+            if (cells == 0 || keys[cells - 1] != key) {
+                keys[cells] = key;
+                starts[cells] = i;
+                cells++;
+            }
+        }
+        starts[cells] = sorted.length;
+        cellKeys = Arrays.copyOf(keys, cells);
+        cellStart = Arrays.copyOf(starts, cells + 1);
+    }
+
+    /**
+     * Gets the number of nodes.
+     *
+     * @return the number of nodes
+     */
+    public int getNodeCount() {
+        return latE7.length;
+    }
+
+    /**
+     * Gets the number of edges, counting each direction of a two way road separately.
+     *
+     * @return the number of edges
+     */
+    public int getEdgeCount() {
+        return edgeTarget.length;
+    }
+
+    /**
+     * Gets the latitude of a node.
+     *
+     * @param node the index of the node
+     * @return the latitude
+     */
+    public double getLat(int node) {
+        return latE7[node] / E7;
+    }
+
+    /**
+     * Gets the longitude of a node.
+     *
+     * @param node the index of the node
+     * @return the longitude
+     */
+    public double getLng(int node) {
+        return lngE7[node] / E7;
+    }
+
+    /**
+     * Gets the index of the first edge leaving a node.
+     *
+     * @param node the index of the node
+     * @return the index of the node's first edge
+     */
+    public int getFirstEdge(int node) {
+        return firstEdge[node];
+    }
+
+    /**
+     * Gets the index after the last edge leaving a node.
+     *
+     * @param node the index of the node
+     * @return the index after the node's last edge
+     */
+    public int getEndEdge(int node) {
+        return firstEdge[node + 1];
+    }
+
+    /**
+     * Gets the node an edge arrives at.
+     *
+     * @param edge the index of the edge
+     * @return the index of the node
+     */
+    public int getTarget(int edge) {
+        return edgeTarget[edge];
+    }
+
+    /**
+     * Gets the length of an edge.
+     *
+     * @param edge the index of the edge
+     * @return the length in metres
+     */
+    public double getLength(int edge) {
+        return edgeLength[edge];
+    }
+
+    /**
+     * Checks whether a travel mode may use an edge.
+     *
+     * @param edge the index of the edge
+     * @param mode the travel mode
+     * @return true if the mode may use the edge, else false
+     */
+    public boolean allows(int edge, TravelMode mode) {
+        return (edgeModes[edge] & mode.getBit()) != 0;
+    }
+
+    /**
+     * Gets the speed limit for cars on an edge.
+     *
+     * @param edge the index of the edge
+     * @return the speed limit in km/h
+     */
+    public int getCarSpeed(int edge) {
+        return edgeSpeed[edge] & 0xFF;
+    }
+
+    /**
+     * Gets the highest speed limit for cars on any edge, which no route can beat.
+     *
+     * @return the highest speed limit in km/h
+     */
+    public int getMaxCarSpeed() {
+        return maxSpeed;
+    }
+
+    /**
+     * Finds the node nearest to a position that a travel mode can reach, searching outwards through the grid one
+     * ring of cells at a time until no closer node can remain.
+     *
+     * @param lat the latitude of the position
+     * @param lng the longitude of the position
+     * @param mode the travel mode
+     * @param maxDistance the furthest in metres the node may be
+     * @return the index of the nearest node, or -1 if none is close enough
+     */
+    public int findNearest(double lat, double lng, TravelMode mode, double maxDistance) {
+        int row = cell(lat);
+        int column = cell(lng);
+        // The shortest distance across a cell, east to west, as lines of longitude meet towards the poles
+        double cellMetres = distance(lat, lng, lat, lng + CELL_DEGREES);
+        int maxRing = (int) Math.ceil(maxDistance / cellMetres) + 1;
+        int best = -1;
+        double bestDistance = maxDistance;
+        for (int ring = 0; ring <= maxRing; ring++) {
+            for (int r = row - ring; r <= row + ring; r++) {
+                for (int c = column - ring; c <= column + ring; c++) {
+                    if (Math.max(Math.abs(r - row), Math.abs(c - column)) != ring) {
+                        continue;
+                    }
+                    int key = cellKey(r, c);
+                    int index = key < 0 ? -1 : Arrays.binarySearch(cellKeys, key);
+                    if (index < 0) {
+                        continue;
+                    }
+                    for (int i = cellStart[index]; i < cellStart[index + 1]; i++) {
+                        int node = cellNodes[i];
+                        if ((nodeModes[node] & mode.getBit()) == 0) {
+                            continue;
+                        }
+                        double d = distance(lat, lng, getLat(node), getLng(node));
+                        if (d <= bestDistance) {
+                            best = node;
+                            bestDistance = d;
+                        }
+                    }
+                }
+            }
+            // Every cell in later rings is at least this far away
+            if (best >= 0 && bestDistance <= ring * cellMetres) {
+                break;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Writes the graph to a file in a compact binary form, which {@link #read(File)} loads far faster than the map
+     * data it was built from. The graph is written in full before it replaces the file, so a crash part way through
+     * never leaves a broken graph behind.
+     *
+     * @param file the file to write
+     * @throws IOException if the file could not be written
+     */
+    public void write(File file) throws IOException {
+        File temp = new File(file.getPath() + ".part");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(latE7.length);
+            out.writeInt(edgeTarget.length);
+            for (int node = 0; node < latE7.length; node++) {
+                out.writeInt(latE7[node]);
+                out.writeInt(lngE7[node]);
+                out.writeInt(firstEdge[node + 1] - firstEdge[node]);
+            }
+            for (int edge = 0; edge < edgeTarget.length; edge++) {
+                out.writeInt(edgeTarget[edge]);
+                out.writeFloat(edgeLength[edge]);
+                out.writeByte(edgeModes[edge]);
+                out.writeByte(edgeSpeed[edge]);
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(temp.toPath());
+            throw e;
+        }
+        try {
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Reads a graph written by {@link #write(File)}.
+     *
+     * @param file the file to read
+     * @return the road graph
+     * @throws IOException if the file could not be read or is not a road graph
+     */
+    public static RoadGraph read(File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException(file + " is not a road graph");
+            }
+            int nodeCount = in.readInt();
+            int edgeCount = in.readInt();
+            if (nodeCount < 0 || edgeCount < 0) {
+                throw new IOException(file + " is not a road graph");
+            }
+            int[] lats = new int[nodeCount];
+            int[] lngs = new int[nodeCount];
+            int[] firstEdge = new int[nodeCount + 1];
+            for (int node = 0; node < nodeCount; node++) {
+                lats[node] = in.readInt();
+                lngs[node] = in.readInt();
+                firstEdge[node + 1] = firstEdge[node] + in.readInt();
+            }
+            if (firstEdge[nodeCount] != edgeCount) {
+                throw new IOException(file + " is not a road graph");
+            }
+            int[] edgeTarget = new int[edgeCount];
+            float[] edgeLength = new float[edgeCount];
+            byte[] edgeModes = new byte[edgeCount];
+            byte[] edgeSpeed = new byte[edgeCount];
+            for (int edge = 0; edge < edgeCount; edge++) {
+                edgeTarget[edge] = in.readInt();
+                if (edgeTarget[edge] < 0 || edgeTarget[edge] >= nodeCount) {
+                    throw new IOException(file + " is not a road graph");
+                }
+                edgeLength[edge] = in.readFloat();
+                edgeModes[edge] = in.readByte();
+                edgeSpeed[edge] = in.readByte();
+            }
+            return new RoadGraph(lats, lngs, firstEdge, edgeTarget, edgeLength, edgeModes, edgeSpeed);
+        }
+    }
+
+    /**
+     * Works out the great circle distance between two positions.
+     *
+     * @param lat1 the latitude of the first position
+     * @param lng1 the longitude of the first position
+     * @param lat2 the latitude of the second position
+     * @param lng2 the longitude of the second position
+     * @return the distance in metres
+     */
+    public static double distance(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2) + Math.cos(Math.toRadians(lat1))
+                * Math.cos(Math.toRadians(lat2)) * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_METRES * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private static int cell(double degrees) {
+        return (int) Math.floor(degrees / CELL_DEGREES);
+    }
+
+    /**
+     * Numbers a cell of the grid by its row and then its column, offset so every cell on Earth has a number from 0
+     * that fits in an int.
+     *
+     * @return the number of the cell, or -1 if it is off the Earth
+     */
+    private static int cellKey(int row, int column) {
+        if (Math.abs(row) > MAX_ROW || Math.abs(column) > MAX_COLUMN) {
+            return -1;
+        }
+        return (row + MAX_ROW) << 16 | (column + MAX_COLUMN);
+    }
+}
@@ -0,0 +1,289 @@
+package seng202.team7.map;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import seng202.team7.metrics.MetricsRegistry;
+import seng202.team7.metrics.Timer;
+import seng202.team7.repository.DatabaseManager;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Singleton class that plans the fastest route between two positions by car, bike or on foot over a local
+ * {@link RoadGraph}, so routes are found in milliseconds without the remote routing API. Routes are searched with
+ * A*, guided towards the destination by the time it would take at the fastest speed possible.
+ * The graph is loaded from road_graph.bin next to the database, or built from an OpenStreetMap extract saved as
+ * roads.osm next to the database and then saved as road_graph.bin for next time. Until a graph is loaded, no routes
+ * are found locally.
+ */
+public class RoutingEngine {
+    private static final Logger log = LogManager.getLogger(RoutingEngine.class);
+    private static final MetricsRegistry metrics = MetricsRegistry.getInstance();
+    private static final Timer ROUTE_TIMER = metrics.timer("routingEngine.route");
+    private static final Timer LOAD_TIMER = metrics.timer("routingEngine.load");
+    private static final String GRAPH_FILE = "road_graph.bin";
+    private static final String OSM_FILE = "roads.osm";
+    // The furthest an address may be from a road the travel mode can use
+    private static final double MAX_SNAP_METRES = 5000;
+    // The speed assumed getting between an address and the nearest road by car, in km/h
+    private static final double CAR_ACCESS_SPEED = 20;
+    private static RoutingEngine instance = null;
+
+    private final File directory;
+    private volatile RoadGraph graph;
+
+    // Search state, kept between routes so each search only touches the nodes it reaches
+    private double[] times = new double[0];
+    private double[] distances = new double[0];
+    private int[] previous = new int[0];
+    private int[] reached = new int[0];
+    private int[] settled = new int[0];
+    private int search;
+    private int[] heapNodes = new int[16];
+    private double[] heapKeys = new double[16];
+    private int heapSize;
+
+    /**
+     * Creates a routing engine that loads its graph from a directory.
+     *
+     * @param directory the directory holding road_graph.bin or roads.osm
+     */
+    public RoutingEngine(File directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Creates a routing engine over a graph already loaded.
+     *
+     * @param graph the road graph to route over
+     */
+    public RoutingEngine(RoadGraph graph) {
+        this.directory = null;
+        this.graph = graph;
+    }
+
+    /**
+     * Singleton method to get the routing engine, creating it to load its graph from next to the database if it does
+     * not exist yet.
+     *
+     * @return the single instance of RoutingEngine
+     */
+    public static synchronized RoutingEngine getInstance() {
+        if (instance == null) {
+            instance = new RoutingEngine(DatabaseManager.getInstance().getDatabaseFile().getAbsoluteFile()
+                    .getParentFile());
+        }
+        return instance;
+    }
+
+    /**
+     * Loads the road graph, building it from the OpenStreetMap extract if it has not been built yet, is older than
+     * the extract or cannot be read. Building a large region takes a while, so this should be run in the background.
+     */
+    public void load() {
+        if (directory == null) {
+            return;
+        }
+        File graphFile = new File(directory, GRAPH_FILE);
+        File osmFile = new File(directory, OSM_FILE);
+        long start = LOAD_TIMER.start();
+        try {
+            RoadGraph loaded = null;
+            if (graphFile.isFile() && graphFile.lastModified() >= osmFile.lastModified()) {
+                try {
+                    loaded = RoadGraph.read(graphFile);
+                } catch (IOException e) {
+                    // Rebuilt below if the extract is still there
+                    log.error("Error reading road graph " + graphFile, e);
+                }
+            }
+            if (loaded == null && osmFile.isFile()) {
+                loaded = OsmRoadReader.read(osmFile);
+                try {
+                    loaded.write(graphFile);
+                } catch (IOException e) {
+                    // The graph is still usable, it just has to be built again next time
+                    log.error("Error saving road graph " + graphFile, e);
+                }
+            }
+            if (loaded == null) {
+                log.info("No road graph at " + graphFile + ", so routes will be found remotely");
+                return;
+            }
+            graph = loaded;
+            log.info("Loaded road graph of " + graph.getNodeCount() + " nodes and " + graph.getEdgeCount() + " edges");
+        } catch (IOException e) {
+            log.error("Error building road graph", e);
+        } finally {
+            LOAD_TIMER.stop(start);
+        }
+    }
+
+    /**
+     * Checks whether a road graph has been loaded to route over.
+     *
+     * @return true if routes can be found locally, else false
+     */
+    public boolean isLoaded() {
+        return graph != null;
+    }
+
+    /**
+     * Finds the fastest route between two positions.
+     *
+     * @param from the start of the route
+     * @param to the end of the route
+     * @param mode the way of travelling
+     * @return the route, or null if no graph is loaded, either position is too far from a road the mode can use, or
+     *         the roads near each position are not connected
+     */
+    public synchronized LocalRoute route(Position from, Position to, TravelMode mode) {
+        RoadGraph roads = graph;
+        if (roads == null || mode == null) {
+            return null;
+        }
+        long start = ROUTE_TIMER.start();
+        try {
+            int source = roads.findNearest(from.lat, from.lng, mode, MAX_SNAP_METRES);
+            int target = roads.findNearest(to.lat, to.lng, mode, MAX_SNAP_METRES);
+            if (source < 0 || target < 0 || !search(roads, source, target, mode)) {
+                return null;
+            }
+            List<Position> nodes = new ArrayList<>();
+            for (int node = target; node != source; node = previous[node]) {
+                nodes.add(new Position(roads.getLat(node), roads.getLng(node)));
+            }
+            nodes.add(new Position(roads.getLat(source), roads.getLng(source)));
+            Collections.reverse(nodes);
+
+            Route path = new Route(from);
+            nodes.forEach(path::append);
+            path.append(to);
+            double access = RoadGraph.distance(from.lat, from.lng, roads.getLat(source), roads.getLng(source))
+                    + RoadGraph.distance(to.lat, to.lng, roads.getLat(target), roads.getLng(target));
+            double accessSpeed = (mode == TravelMode.CAR ? CAR_ACCESS_SPEED : mode.getSpeed()) / 3.6;
+            return new LocalRoute(path, distances[target] + access, times[target] + access / accessSpeed);
+        } finally {
+            ROUTE_TIMER.stop(start);
+        }
+    }
+
+    /**
+     * Searches with A* for the fastest path from one node to another, leaving the path in the previous node array.
+     *
+     * @return true if a path was found, else false
+     */
+    private boolean search(RoadGraph roads, int source, int target, TravelMode mode) {
+        prepare(roads.getNodeCount());
+        double fastest = (mode == TravelMode.CAR ? roads.getMaxCarSpeed() : mode.getSpeed()) / 3.6;
+        double targetLat = roads.getLat(target);
+        double targetLng = roads.getLng(target);
+
+        reach(source, 0, 0, source);
+        push(source, 0);
+        while (heapSize > 0) {
+            int node = pop();
+            if (settled[node] == search) {
+                continue;
+            }
+            settled[node] = search;
+            if (node == target) {
+                return true;
+            }
+            for (int edge = roads.getFirstEdge(node); edge < roads.getEndEdge(node); edge++) {
+                if (!roads.allows(edge, mode)) {
+                    continue;
+                }
+                int next = roads.getTarget(edge);
+                if (settled[next] == search) {
+                    continue;
+                }
+                double speed = (mode == TravelMode.CAR ? roads.getCarSpeed(edge) : mode.getSpeed()) / 3.6;
+                double time = times[node] + roads.getLength(edge) / speed;
+                if (reached[next] != search || time < times[next]) {
+                    reach(next, time, distances[node] + roads.getLength(edge), node);
+                    double remaining = RoadGraph.distance(roads.getLat(next), roads.getLng(next), targetLat, targetLng);
+                    push(next, time + remaining / fastest);
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Readies the search state for a new search over a graph with some number of nodes. Nodes are marked with the
+     * number of the search that reached them, so nothing needs clearing between searches.
+     */
+    private void prepare(int nodeCount) {
+        if (times.length < nodeCount) {
+            times = new double[nodeCount];
+            distances = new double[nodeCount];
+            previous = new int[nodeCount];
+            reached = new int[nodeCount];
+            settled = new int[nodeCount];
+            search = 0;
+        }
+        if (++search == Integer.MAX_VALUE) {
+            Arrays.fill(reached, 0);
+            Arrays.fill(settled, 0);
+            search = 1;
+        }
+        heapSize = 0;
+    }
+
+    private void reach(int node, double time, double distance, int from) {
+        reached[node] = search;
+        times[node] = time;
+        distances[node] = distance;
+        previous[node] = from;
+    }
+
+    /**
+     * Adds a node to the binary heap of nodes to visit. A node may be added again with a lower key, and the stale
+     * entry is skipped once the node is settled.
+     */
+    private void push(int node, double key) {
+        if (heapSize == heapNodes.length) {
+            heapNodes = Arrays.copyOf(heapNodes, heapSize * 2);
+            heapKeys = Arrays.copyOf(heapKeys, heapSize * 2);
+        }
+        int i = heapSize++;
+        while (i > 0 && heapKeys[(i - 1) / 2] > key) {
+            heapNodes[i] = heapNodes[(i - 1) / 2];
+            heapKeys[i] = heapKeys[(i - 1) / 2];
+            i = (i - 1) / 2;
+        }
+        heapNodes[i] = node;
+        heapKeys[i] = key;
+    }
+
+    /**
+     * Removes the node with the lowest key from the binary heap.
+     */
+    private int pop() {
+        int top = heapNodes[0];
+        int node = heapNodes[--heapSize];
+        double key = heapKeys[heapSize];
+        int i = 0;
+        while (2 * i + 1 < heapSize) {
+            int child = 2 * i + 1;
+            if (child + 1 < heapSize && heapKeys[child + 1] < heapKeys[child]) {
+                child++;
+            }
+            if (heapKeys[child] >= key) {
+                break;
+            }
+            heapNodes[i] = heapNodes[child];
+            heapKeys[i] = heapKeys[child];
+            i = child;
+        }
+        heapNodes[i] = node;
+        heapKeys[i] = key;
+        return top;
+    }
+}
@@ -0,0 +1,63 @@
+package seng202.team7.map;
+
+/**
+ * The ways of travelling a route can be planned for, each with the bit marking the roads it may use in a
+ * {@link RoadGraph}.
+ */
+public enum TravelMode {
+    CAR("car", 1, 0),
+    BIKE("bike", 2, 18),
+    FOOT("foot", 4, 5);
+
+    private final String id;
+    private final int bit;
+    private final double speed;
+
+    TravelMode(String id, int bit, double speed) {
+        this.id = id;
+        this.bit = bit;
+        this.speed = speed;
+    }
+
+    /**
+     * Gets the id of the mode, as used by the transport buttons and the map.
+     *
+     * @return the id of the mode
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Gets the bit marking the edges of a road graph this mode may use.
+     *
+     * @return the bit of this mode
+     */
+    public int getBit() {
+        return bit;
+    }
+
+    /**
+     * Gets the speed this mode travels at on every road, or 0 for cars, whose speed depends on the road.
+     *
+     * @return the speed in km/h
+     */
+    public double getSpeed() {
+        return speed;
+    }
+
+    /**
+     * Finds the mode with an id.
+     *
+     * @param id the id of the mode, such as "car"
+     * @return the mode, or null if no mode has the id
+     */
+    public static TravelMode fromId(String id) {
+        for (TravelMode mode : values()) {
+            if (mode.id.equals(id)) {
+                return mode;
+            }
+        }
+        return null;
+    }
+}
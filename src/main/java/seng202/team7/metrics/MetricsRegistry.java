@@ -0,0 +1,129 @@
+package seng202.team7.metrics;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Singleton class holding every timer in the app, so timings from the importer, database, filters, views and map
+ * can be seen in one place. Timers are reported in the diagnostics panel and periodically written to the log.
+ * Classes should get their timers once and keep them in static fields, so the hot path never looks them up.
+ */
+public class MetricsRegistry {
+    private static final Logger log = LogManager.getLogger(MetricsRegistry.class);
+    private static MetricsRegistry instance = null;
+
+    private final ConcurrentHashMap<String, Timer> timers = new ConcurrentHashMap<>();
+    private ScheduledExecutorService dumpExecutor;
+    private ScheduledFuture<?> dumpFuture;
+
+    /**
+     * Private constructor for singleton purposes
+     */
+    private MetricsRegistry() {
+    }
+
+    /**
+     * Singleton method to get the registry, creating it if it does not exist yet.
+     *
+     * @return the single instance of MetricsRegistry
+     */
+    public static synchronized MetricsRegistry getInstance() {
+        if (instance == null) {
+            instance = new MetricsRegistry();
+        }
+        return instance;
+    }
+
+    /**
+     * Gets the timer with the given name, creating it if it does not exist yet.
+     *
+     * @param name the name the timer is reported under, such as crashDAO.getAll
+     * @return the timer
+     */
+    public Timer timer(String name) {
+        Timer timer = timers.get(name);
+        if (timer == null) {
+            timer = timers.computeIfAbsent(name, Timer::new);
+        }
+        return timer;
+    }
+
+    /**
+     * Takes a snapshot of every timer that has recorded at least one duration.
+     *
+     * @return the snapshots, sorted by timer name
+     */
+    public List<TimerSnapshot> snapshot() {
+        List<TimerSnapshot> snapshots = new ArrayList<>();
+        for (Timer timer : timers.values()) {
+            TimerSnapshot snapshot = timer.snapshot();
+            if (snapshot.getCount() > 0) {
+                snapshots.add(snapshot);
+            }
+        }
+        snapshots.sort(Comparator.comparing(TimerSnapshot::getName));
+        return snapshots;
+    }
+
+    /**
+     * Removes all recorded durations from every timer.
+     */
+    public void reset() {
+        for (Timer timer : timers.values()) {
+            timer.reset();
+        }
+    }
+
+    /**
+     * Writes a snapshot of every timer to the log, one line per timer.
+     */
+    public void dump() {
+        for (TimerSnapshot snapshot : snapshot()) {
+            log.info(snapshot.toString());
+        }
+    }
+
+    /**
+     * Starts writing the timers to the log at a fixed rate, replacing any schedule already running.
+     * The dump runs on a daemon thread so it never keeps the app open.
+     *
+     * @param period the time between dumps
+     * @param unit the unit of the period
+     */
+    public synchronized void startPeriodicDump(long period, TimeUnit unit) {
+        stopPeriodicDump();
+        if (dumpExecutor == null) {
+            dumpExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "metrics-dump");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        dumpFuture = dumpExecutor.scheduleAtFixedRate(() -> {
+            try {
+                dump();
+            } catch (RuntimeException e) {
+                log.error("Error writing metrics to the log", e);
+            }
+        }, period, period, unit);
+    }
+
+    /**
+     * Stops the periodic dump, if one is running.
+     */
+    public synchronized void stopPeriodicDump() {
+        if (dumpFuture != null) {
+            dumpFuture.cancel(false);
+            dumpFuture = null;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package seng202.team7.metrics;
+
+/**
+ * Named timer that records durations into a {@link Histogram}.
+ * Timing a section of code does not allocate:
+ * <pre>
+ *     long start = timer.start();
+ *     try {
+ *         ...
+ *     } finally {
+ *         timer.stop(start);
+ *     }
+ * </pre>
+ */
+public class Timer {
+    private final String name;
+    private final Histogram histogram = new Histogram();
+
+    /**
+     * Creates a timer. Timers should be got from {@link MetricsRegistry#timer(String)} so they are reported.
+     *
+     * @param name the name the timer is reported under
+     */
+    Timer(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Gets the name the timer is reported under.
+     *
+     * @return the name of the timer
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Marks the start of a timed section.
+     *
+     * @return the start time to pass to {@link #stop(long)}
+     */
+    public long start() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Marks the end of a timed section and records how long it took.
+     *
+     * @param start the value returned from {@link #start()}
+     */
+    public void stop(long start) {
+        histogram.record(System.nanoTime() - start);
+    }
+
+    /**
+     * Records a duration that was measured elsewhere.
+     *
+     * @param nanos the duration in nanoseconds
+     */
+    public void record(long nanos) {
+        histogram.record(nanos);
+    }
+
+    /**
+     * Takes a snapshot of the durations recorded so far.
+     *
+     * @return the snapshot
+     */
+    public TimerSnapshot snapshot() {
+        return new TimerSnapshot(name, histogram.getCount(), histogram.getMean(),
+                histogram.getValueAtPercentile(50), histogram.getValueAtPercentile(90),
+                histogram.getValueAtPercentile(99), histogram.getMax());
+    }
+
+    /**
+     * Removes all recorded durations.
+     */
+    public void reset() {
+        histogram.reset();
+    }
+}
@@ -0,0 +1,116 @@
+package seng202.team7.metrics;
+
+import java.util.Locale;
+
+/**
+ * Summary of the durations recorded by a {@link Timer} at one point in time, in milliseconds.
+ * The getters are used by the diagnostics table.
+ */
+public class TimerSnapshot {
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final String name;
+    private final long count;
+    private final double meanMillis;
+    private final double p50Millis;
+    private final double p90Millis;
+    private final double p99Millis;
+    private final double maxMillis;
+
+    /**
+     * Creates a snapshot from durations in nanoseconds.
+     *
+     * @param name the name of the timer
+     * @param count the number of durations recorded
+     * @param meanNanos the mean duration
+     * @param p50Nanos the median duration
+     * @param p90Nanos the 90th percentile duration
+     * @param p99Nanos the 99th percentile duration
+     * @param maxNanos the longest duration
+     */
+    public TimerSnapshot(String name, long count, double meanNanos, long p50Nanos, long p90Nanos, long p99Nanos,
+                         long maxNanos) {
+        this.name = name;
+        this.count = count;
+        this.meanMillis = meanNanos / NANOS_PER_MILLI;
+        this.p50Millis = p50Nanos / NANOS_PER_MILLI;
+        this.p90Millis = p90Nanos / NANOS_PER_MILLI;
+        this.p99Millis = p99Nanos / NANOS_PER_MILLI;
+        this.maxMillis = maxNanos / NANOS_PER_MILLI;
+    }
+
+    /**
+     * Gets the name of the timer.
+     *
+     * @return the name of the timer
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the number of durations recorded.
+     *
+     * @return the number of durations
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Gets the mean duration.
+     *
+     * @return the mean duration in milliseconds
+     */
+    public double getMeanMillis() {
+        return meanMillis;
+    }
+
+    /**
+     * Gets the median duration.
+     *
+     * @return the median duration in milliseconds
+     */
+    public double getP50Millis() {
+        return p50Millis;
+    }
+
+    /**
+     * Gets the duration that 90% of recorded durations are within.
+     *
+     * @return the 90th percentile in milliseconds
+     */
+    public double getP90Millis() {
+        return p90Millis;
+    }
+
+    /**
+     * Gets the duration that 99% of recorded durations are within.
+     *
+     * @return the 99th percentile in milliseconds
+     */
+    public double getP99Millis() {
+        return p99Millis;
+    }
+
+    /**
+     * Gets the longest duration.
+     *
+     * @return the longest duration in milliseconds
+     */
+    public double getMaxMillis() {
+        return maxMillis;
+    }
+
+    /**
+     * Formats the snapshot as a single line of key=value pairs, with no quotes so it can sit inside the JSON log
+     * layout.
+     *
+     * @return the snapshot as a log line
+     */
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "timer=%s count=%d mean_ms=%.3f p50_ms=%.3f p90_ms=%.3f p99_ms=%.3f max_ms=%.3f",
+                name, count, meanMillis, p50Millis, p90Millis, p99Millis, maxMillis);
+    }
+}
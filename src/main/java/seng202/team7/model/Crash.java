@@ -10,65 +10,24 @@ import java.util.Objects;
  */
 public class Crash {
     private int id;
-    private final int advisorySpeed;
-    private final int bicycle;
-    private final int bridge;
-    private final int bus;
-    private final int carStationWagon;
-    private final int cliffBank;
+    private final byte[] counts; // The small count fields, packed and indexed by CrashCount
     private final String location1;
     private final String location2;
-    private final String severity;
+    private final Severity severity;
     private final int year;
-    private final int ditch;
-    private final int fatalCount;
-    private final int fence;
-    private final String flatHill;
-    private final int guardRail;
-    private final String holiday;
-    private final int houseOrBuilding;
+    private final FlatHill flatHill;
+    private final Holiday holiday;
     private final String intersection;
-    private final int kerb;
-    private final String light;
-    private final int minorInjuryCount;
-    private final int moped;
-    private final int motorcycle;
-    private final int numberOfLanes;
-    private final int objectThrownOrDropped;
-    private final int otherObject;
-    private final int otherVehicleType;
-    private final int overBank;
-    private final int parkedVehicle;
-    private final int phoneBoxEtc;
-    private final int pedestrian;
-    private final int postOrPole;
-    private final String roadCharacter;
-    private final String roadLane;
-    private final String roadSurface;
-    private final int roadworks;
-    private final int schoolBus;
-    private final int seriousInjuryCount;
-    private final int slipOrFlood;
-    private final int speedLimit;
-    private final int strayAnimal;
-    private final String streetLight;
-    private final int suv;
-    private final int taxi;
+    private final Light light;
+    private final RoadCharacter roadCharacter;
+    private final RoadLane roadLane;
+    private final RoadSurface roadSurface;
+    private final StreetLight streetLight;
     private final String tlaName;
-    private final int temporarySpeedLimit;
-    private final String trafficControl;
-    private final int trafficIsland;
-    private final int trafficSign;
-    private final int train;
-    private final int tree;
-    private final int truck;
-    private final int unknownVehicleType;
-    private final String urban;
-    private final int vanOrUtility;
-    private final int vehicle;
-    private final int waterRiver;
-    private final String weatherA;
-    private final String weatherB;
+    private final TrafficControl trafficControl;
+    private final Urban urban;
+    private final WeatherA weatherA;
+    private final WeatherB weatherB;
     private final float lat;
     private final float lng;
 
@@ -148,18 +107,18 @@ public class Crash {
             int cliffBank,
             String location1,
             String location2,
-            String severity,
+            Severity severity,
             int year,
             int ditch,
             int fatalCount,
             int fence,
-            String flatHill,
+            FlatHill flatHill,
             int guardRail,
-            String holiday,
+            Holiday holiday,
             int houseOrBuilding,
             String intersection,
             int kerb,
-            String light,
+            Light light,
             int minorInjuryCount,
             int moped,
             int motorcycle,
@@ -172,94 +131,95 @@ public class Crash {
             int phoneBoxEtc,
             int pedestrian,
             int postOrPole,
-            String roadCharacter,
-            String roadLane,
-            String roadSurface,
+            RoadCharacter roadCharacter,
+            RoadLane roadLane,
+            RoadSurface roadSurface,
             int roadworks,
             int schoolBus,
             int seriousInjuryCount,
             int slipOrFlood,
             int speedLimit,
             int strayAnimal,
-            String streetLight,
+            StreetLight streetLight,
             int suv,
             int taxi,
             String tlaName,
             int temporarySpeedLimit,
-            String trafficControl,
+            TrafficControl trafficControl,
             int trafficIsland,
             int trafficSign,
             int train,
             int tree,
             int truck,
             int unknownVehicleType,
-            String urban,
+            Urban urban,
             int vanOrUtility,
             int vehicle,
             int waterRiver,
-            String weatherA,
-            String weatherB,
+            WeatherA weatherA,
+            WeatherB weatherB,
             float lat,
             float lng
     ) {
         this.id = id;
-        this.advisorySpeed = advisorySpeed;
-        this.bicycle = bicycle;
-        this.bridge = bridge;
-        this.bus = bus;
-        this.carStationWagon = carStationWagon;
-        this.cliffBank = cliffBank;
+        this.counts = new byte[CrashCount.COUNT];
+        pack(CrashCount.ADVISORY_SPEED, advisorySpeed);
+        pack(CrashCount.BICYCLE, bicycle);
+        pack(CrashCount.BRIDGE, bridge);
+        pack(CrashCount.BUS, bus);
+        pack(CrashCount.CAR_STATION_WAGON, carStationWagon);
+        pack(CrashCount.CLIFF_BANK, cliffBank);
         this.location1 = location1;
         this.location2 = location2;
         this.severity = severity;
         this.year = year;
-        this.ditch = ditch;
-        this.fatalCount = fatalCount;
-        this.fence = fence;
+        pack(CrashCount.DITCH, ditch);
+        pack(CrashCount.FATAL_COUNT, fatalCount);
+        pack(CrashCount.FENCE, fence);
         this.flatHill = flatHill;
-        this.guardRail = guardRail;
+        pack(CrashCount.GUARD_RAIL, guardRail);
         this.holiday = holiday;
-        this.houseOrBuilding = houseOrBuilding;
+        pack(CrashCount.HOUSE_OR_BUILDING, houseOrBuilding);
         this.intersection = intersection;
-        this.kerb = kerb;
+        pack(CrashCount.KERB, kerb);
         this.light = light;
-        this.minorInjuryCount = minorInjuryCount;
-        this.moped = moped;
-        this.motorcycle = motorcycle;
-        this.numberOfLanes = numberOfLanes;
-        this.objectThrownOrDropped = objectThrownOrDropped;
-        this.otherObject = otherObject;
-        this.otherVehicleType = otherVehicleType;
-        this.overBank = overBank;
-        this.parkedVehicle = parkedVehicle;
-        this.phoneBoxEtc = phoneBoxEtc;
-        this.pedestrian = pedestrian;
-        this.postOrPole = postOrPole;
+        pack(CrashCount.MINOR_INJURY_COUNT, minorInjuryCount);
+        pack(CrashCount.MOPED, moped);
+        pack(CrashCount.MOTORCYCLE, motorcycle);
+        pack(CrashCount.NUMBER_OF_LANES, numberOfLanes);
+        pack(CrashCount.OBJECT_THROWN_OR_DROPPED, objectThrownOrDropped);
+        pack(CrashCount.OTHER_OBJECT, otherObject);
+        pack(CrashCount.OTHER_VEHICLE_TYPE, otherVehicleType);
+        pack(CrashCount.OVER_BANK, overBank);
+        pack(CrashCount.PARKED_VEHICLE, parkedVehicle);
+        pack(CrashCount.PHONE_BOX_ETC, phoneBoxEtc);
+        pack(CrashCount.PEDESTRIAN, pedestrian);
+        pack(CrashCount.POST_OR_POLE, postOrPole);
         this.roadCharacter = roadCharacter;
         this.roadLane = roadLane;
         this.roadSurface = roadSurface;
-        this.roadworks = roadworks;
-        this.schoolBus = schoolBus;
-        this.seriousInjuryCount = seriousInjuryCount;
-        this.slipOrFlood = slipOrFlood;
-        this.speedLimit = speedLimit;
-        this.strayAnimal = strayAnimal;
+        pack(CrashCount.ROADWORKS, roadworks);
+        pack(CrashCount.SCHOOL_BUS, schoolBus);
+        pack(CrashCount.SERIOUS_INJURY_COUNT, seriousInjuryCount);
+        pack(CrashCount.SLIP_OR_FLOOD, slipOrFlood);
+        pack(CrashCount.SPEED_LIMIT, speedLimit);
+        pack(CrashCount.STRAY_ANIMAL, strayAnimal);
         this.streetLight = streetLight;
-        this.suv = suv;
-        this.taxi = taxi;
+        pack(CrashCount.SUV, suv);
+        pack(CrashCount.TAXI, taxi);
         this.tlaName = tlaName;
-        this.temporarySpeedLimit = temporarySpeedLimit;
+        pack(CrashCount.TEMPORARY_SPEED_LIMIT, temporarySpeedLimit);
         this.trafficControl = trafficControl;
-        this.trafficIsland = trafficIsland;
-        this.trafficSign = trafficSign;
-        this.train = train;
-        this.tree = tree;
-        this.truck = truck;
-        this.unknownVehicleType = unknownVehicleType;
+        pack(CrashCount.TRAFFIC_ISLAND, trafficIsland);
+        pack(CrashCount.TRAFFIC_SIGN, trafficSign);
+        pack(CrashCount.TRAIN, train);
+        pack(CrashCount.TREE, tree);
+        pack(CrashCount.TRUCK, truck);
+        pack(CrashCount.UNKNOWN_VEHICLE_TYPE, unknownVehicleType);
         this.urban = urban;
-        this.vanOrUtility = vanOrUtility;
-        this.vehicle = vehicle;
-        this.waterRiver = waterRiver;
+        pack(CrashCount.VAN_OR_UTILITY, vanOrUtility);
+        pack(CrashCount.VEHICLE, vehicle);
+        pack(CrashCount.WATER_RIVER, waterRiver);
         this.weatherA = weatherA;
         this.weatherB = weatherB;
         this.lat = lat;
@@ -267,7 +227,35 @@ public class Crash {
     }
 
     /**
-     * Constructor that takes all parameters and creates a new Crash object.
+     * Constructor for subclasses that keep their values somewhere else, such as the rows of a {@link CrashColumns}.
+     * Subclasses using this must override {@link #getCount(CrashCount)} and every getter that is not a count.
+     */
+    protected Crash() {
+        this.counts = null;
+        this.location1 = null;
+        this.location2 = null;
+        this.severity = null;
+        this.year = 0;
+        this.flatHill = null;
+        this.holiday = null;
+        this.intersection = null;
+        this.light = null;
+        this.roadCharacter = null;
+        this.roadLane = null;
+        this.roadSurface = null;
+        this.streetLight = null;
+        this.tlaName = null;
+        this.trafficControl = null;
+        this.urban = null;
+        this.weatherA = null;
+        this.weatherB = null;
+        this.lat = 0;
+        this.lng = 0;
+    }
+
+    /**
+     * Constructor that takes all parameters as they appear in the crash data and creates a new Crash object
+     * without a database id. Categorical values that are not recognised are stored as null.
      *
      * @param advisorySpeed The advisory (adv) speed (spd) at the crash site at the time of the crash.
      * @param bicycle Derived variable to indicate how many bicycles were involved in the crash.
@@ -394,68 +382,17 @@ public class Crash {
             float lat,
             float lng
     ) {
-        this.id = -1;
-        this.advisorySpeed = advisorySpeed;
-        this.bicycle = bicycle;
-        this.bridge = bridge;
-        this.bus = bus;
-        this.carStationWagon = carStationWagon;
-        this.cliffBank = cliffBank;
-        this.location1 = location1;
-        this.location2 = location2;
-        this.severity = severity;
-        this.year = year;
-        this.ditch = ditch;
-        this.fatalCount = fatalCount;
-        this.fence = fence;
-        this.flatHill = flatHill;
-        this.guardRail = guardRail;
-        this.holiday = holiday;
-        this.houseOrBuilding = houseOrBuilding;
-        this.intersection = intersection;
-        this.kerb = kerb;
-        this.light = light;
-        this.minorInjuryCount = minorInjuryCount;
-        this.moped = moped;
-        this.motorcycle = motorcycle;
-        this.numberOfLanes = numberOfLanes;
-        this.objectThrownOrDropped = objectThrownOrDropped;
-        this.otherObject = otherObject;
-        this.otherVehicleType = otherVehicleType;
-        this.overBank = overBank;
-        this.parkedVehicle = parkedVehicle;
-        this.phoneBoxEtc = phoneBoxEtc;
-        this.pedestrian = pedestrian;
-        this.postOrPole = postOrPole;
-        this.roadCharacter = roadCharacter;
-        this.roadLane = roadLane;
-        this.roadSurface = roadSurface;
-        this.roadworks = roadworks;
-        this.schoolBus = schoolBus;
-        this.seriousInjuryCount = seriousInjuryCount;
-        this.slipOrFlood = slipOrFlood;
-        this.speedLimit = speedLimit;
-        this.strayAnimal = strayAnimal;
-        this.streetLight = streetLight;
-        this.suv = suv;
-        this.taxi = taxi;
-        this.tlaName = tlaName;
-        this.temporarySpeedLimit = temporarySpeedLimit;
-        this.trafficControl = trafficControl;
-        this.trafficIsland = trafficIsland;
-        this.trafficSign = trafficSign;
-        this.train = train;
-        this.tree = tree;
-        this.truck = truck;
-        this.unknownVehicleType = unknownVehicleType;
-        this.urban = urban;
-        this.vanOrUtility = vanOrUtility;
-        this.vehicle = vehicle;
-        this.waterRiver = waterRiver;
-        this.weatherA = weatherA;
-        this.weatherB = weatherB;
-        this.lat = lat;
-        this.lng = lng;
+        this(-1, advisorySpeed, bicycle, bridge, bus, carStationWagon, cliffBank, location1, location2,
+                Severity.valueFromStr(severity), year, ditch, fatalCount, fence, FlatHill.valueFromStr(flatHill),
+                guardRail, Holiday.valueFromStr(holiday), houseOrBuilding, intersection, kerb,
+                Light.valueFromStr(light), minorInjuryCount, moped, motorcycle, numberOfLanes, objectThrownOrDropped,
+                otherObject, otherVehicleType, overBank, parkedVehicle, phoneBoxEtc, pedestrian, postOrPole,
+                RoadCharacter.valueFromStr(roadCharacter), RoadLane.valueFromStr(roadLane),
+                RoadSurface.valueFromStr(roadSurface), roadworks, schoolBus, seriousInjuryCount, slipOrFlood,
+                speedLimit, strayAnimal, StreetLight.valueFromStr(streetLight), suv, taxi, tlaName,
+                temporarySpeedLimit, TrafficControl.valueFromStr(trafficControl), trafficIsland, trafficSign, train,
+                tree, truck, unknownVehicleType, Urban.valueFromStr(urban), vanOrUtility, vehicle, waterRiver,
+                WeatherA.valueFromStr(weatherA), WeatherB.valueFromStr(weatherB), lat, lng);
     }
 
     /**
@@ -466,6 +403,26 @@ public class Crash {
         this.id = id;
     }
 
+    /**
+     * Gets the value of one of the packed count fields.
+     *
+     * @param field the count field to get
+     * @return the value of the count
+     */
+    public int getCount(CrashCount field) {
+        return counts[field.ordinal()] & 0xFF;
+    }
+
+    /**
+     * Stores a count field as an unsigned byte, saturating values outside 0 to {@link CrashCount#MAX_VALUE}.
+     *
+     * @param field the count field to set
+     * @param value the value of the count
+     */
+    private void pack(CrashCount field, int value) {
+        counts[field.ordinal()] = (byte) Math.max(0, Math.min(value, CrashCount.MAX_VALUE));
+    }
+
     /**
      * Get the ID associated with this record.
      *
@@ -481,7 +438,7 @@ public class Crash {
      * @return The advisory speed.
      */
     public int getAdvisorySpeed() {
-        return advisorySpeed;
+        return getCount(CrashCount.ADVISORY_SPEED);
     }
 
     /**
@@ -490,7 +447,7 @@ public class Crash {
      * @return The count of bicycle-related incidents.
      */
     public int getBicycle() {
-        return bicycle;
+        return getCount(CrashCount.BICYCLE);
     }
 
     /**
@@ -499,7 +456,7 @@ public class Crash {
      * @return The count of incidents involving a bridge.
      */
     public int getBridge() {
-        return bridge;
+        return getCount(CrashCount.BRIDGE);
     }
 
     /**
@@ -508,7 +465,7 @@ public class Crash {
      * @return The count of incidents involving a bus.
      */
     public int getBus() {
-        return bus;
+        return getCount(CrashCount.BUS);
     }
 
     /**
@@ -517,7 +474,7 @@ public class Crash {
      * @return The count of car or station wagon-related incidents.
      */
     public int getCarStationWagon() {
-        return carStationWagon;
+        return getCount(CrashCount.CAR_STATION_WAGON);
     }
 
     /**
@@ -526,7 +483,7 @@ public class Crash {
      * @return The count of incidents involving a cliff or bank.
      */
     public int getCliffBank() {
-        return cliffBank;
+        return getCount(CrashCount.CLIFF_BANK);
     }
 
     /**
@@ -552,7 +509,7 @@ public class Crash {
      *
      * @return The severity level.
      */
-    public String getSeverity() {
+    public Severity getSeverity() {
         return severity;
     }
 
@@ -571,7 +528,7 @@ public class Crash {
      * @return The count of incidents involving a ditch.
      */
     public int getDitch() {
-        return ditch;
+        return getCount(CrashCount.DITCH);
     }
 
     /**
@@ -580,7 +537,7 @@ public class Crash {
      * @return The count of fatal injuries.
      */
     public int getFatalCount() {
-        return fatalCount;
+        return getCount(CrashCount.FATAL_COUNT);
     }
 
     /**
@@ -589,7 +546,7 @@ public class Crash {
      * @return The count of incidents involving a fence.
      */
     public int getFence() {
-        return fence;
+        return getCount(CrashCount.FENCE);
     }
 
     /**
@@ -597,7 +554,7 @@ public class Crash {
      *
      * @return The terrain information.
      */
-    public String getFlatHill() {
+    public FlatHill getFlatHill() {
         return flatHill;
     }
 
@@ -607,7 +564,7 @@ public class Crash {
      * @return The count of incidents involving a guardrail.
      */
     public int getGuardRail() {
-        return guardRail;
+        return getCount(CrashCount.GUARD_RAIL);
     }
 
     /**
@@ -615,7 +572,7 @@ public class Crash {
      *
      * @return The holiday information.
      */
-    public String getHoliday() {
+    public Holiday getHoliday() {
         return holiday;
     }
 
@@ -625,7 +582,7 @@ public class Crash {
      * @return The count of incidents involving a house or building.
      */
     public int getHouseOrBuilding() {
-        return houseOrBuilding;
+        return getCount(CrashCount.HOUSE_OR_BUILDING);
     }
 
     /**
@@ -643,7 +600,7 @@ public class Crash {
      * @return The count of incidents involving a kerb.
      */
     public int getKerb() {
-        return kerb;
+        return getCount(CrashCount.KERB);
     }
 
     /**
@@ -651,7 +608,7 @@ public class Crash {
      *
      * @return Information about lighting at the location.
      */
-    public String getLight() {
+    public Light getLight() {
         return light;
     }
 
@@ -661,7 +618,7 @@ public class Crash {
      * @return The count of minor injury incidents.
      */
     public int getMinorInjuryCount() {
-        return minorInjuryCount;
+        return getCount(CrashCount.MINOR_INJURY_COUNT);
     }
 
     /**
@@ -670,7 +627,7 @@ public class Crash {
      * @return The count of incidents involving a moped.
      */
     public int getMoped() {
-        return moped;
+        return getCount(CrashCount.MOPED);
     }
 
     /**
@@ -679,7 +636,7 @@ public class Crash {
      * @return The count of incidents involving a motorcycle.
      */
     public int getMotorcycle() {
-        return motorcycle;
+        return getCount(CrashCount.MOTORCYCLE);
     }
 
     /**
@@ -688,7 +645,7 @@ public class Crash {
      * @return The number of lanes on the road.
      */
     public int getNumberOfLanes() {
-        return numberOfLanes;
+        return getCount(CrashCount.NUMBER_OF_LANES);
     }
 
     /**
@@ -697,7 +654,7 @@ public class Crash {
      * @return The count of incidents involving an object thrown or dropped.
      */
     public int getObjectThrownOrDropped() {
-        return objectThrownOrDropped;
+        return getCount(CrashCount.OBJECT_THROWN_OR_DROPPED);
     }
 
     /**
@@ -706,7 +663,7 @@ public class Crash {
      * @return The count of incidents involving another type of object.
      */
     public int getOtherObject() {
-        return otherObject;
+        return getCount(CrashCount.OTHER_OBJECT);
     }
 
     /**
@@ -715,7 +672,7 @@ public class Crash {
      * @return The count of incidents involving other types of vehicles.
      */
     public int getOtherVehicleType() {
-        return otherVehicleType;
+        return getCount(CrashCount.OTHER_VEHICLE_TYPE);
     }
 
     /**
@@ -724,7 +681,7 @@ public class Crash {
      * @return The count of incidents involving going over a bank.
      */
     public int getOverBank() {
-        return overBank;
+        return getCount(CrashCount.OVER_BANK);
     }
 
     /**
@@ -733,7 +690,7 @@ public class Crash {
      * @return The count of incidents involving a parked vehicle.
      */
     public int getParkedVehicle() {
-        return parkedVehicle;
+        return getCount(CrashCount.PARKED_VEHICLE);
     }
 
     /**
@@ -742,7 +699,7 @@ public class Crash {
      * @return The count of incidents involving a phone box or similar structure.
      */
     public int getPhoneBoxEtc() {
-        return phoneBoxEtc;
+        return getCount(CrashCount.PHONE_BOX_ETC);
     }
 
     /**
@@ -751,7 +708,7 @@ public class Crash {
      * @return The count of pedestrian-related incidents.
      */
     public int getPedestrian() {
-        return pedestrian;
+        return getCount(CrashCount.PEDESTRIAN);
     }
 
     /**
@@ -760,7 +717,7 @@ public class Crash {
      * @return The count of incidents involving a post or pole.
      */
     public int getPostOrPole() {
-        return postOrPole;
+        return getCount(CrashCount.POST_OR_POLE);
     }
 
     /**
@@ -768,7 +725,7 @@ public class Crash {
      *
      * @return The description of the road character.
      */
-    public String getRoadCharacter() {
+    public RoadCharacter getRoadCharacter() {
         return roadCharacter;
     }
 
@@ -777,7 +734,7 @@ public class Crash {
      *
      * @return The description of the road lane.
      */
-    public String getRoadLane() {
+    public RoadLane getRoadLane() {
         return roadLane;
     }
 
@@ -786,7 +743,7 @@ public class Crash {
      *
      * @return The description of the road surface.
      */
-    public String getRoadSurface() {
+    public RoadSurface getRoadSurface() {
         return roadSurface;
     }
 
@@ -796,7 +753,7 @@ public class Crash {
      * @return The count of incidents involving roadworks.
      */
     public int getRoadworks() {
-        return roadworks;
+        return getCount(CrashCount.ROADWORKS);
     }
 
     /**
@@ -805,7 +762,7 @@ public class Crash {
      * @return The count of school bus-related incidents.
      */
     public int getSchoolBus() {
-        return schoolBus;
+        return getCount(CrashCount.SCHOOL_BUS);
     }
 
     /**
@@ -814,7 +771,7 @@ public class Crash {
      * @return The count of serious injury incidents.
      */
     public int getSeriousInjuryCount() {
-        return seriousInjuryCount;
+        return getCount(CrashCount.SERIOUS_INJURY_COUNT);
     }
 
     /**
@@ -823,7 +780,7 @@ public class Crash {
      * @return The count of incidents involving a slip or flood.
      */
     public int getSlipOrFlood() {
-        return slipOrFlood;
+        return getCount(CrashCount.SLIP_OR_FLOOD);
     }
 
     /**
@@ -832,7 +789,7 @@ public class Crash {
      * @return The speed limit at the location.
      */
     public int getSpeedLimit() {
-        return speedLimit;
+        return getCount(CrashCount.SPEED_LIMIT);
     }
 
     /**
@@ -841,7 +798,7 @@ public class Crash {
      * @return The count of incidents involving stray animals.
      */
     public int getStrayAnimal() {
-        return strayAnimal;
+        return getCount(CrashCount.STRAY_ANIMAL);
     }
 
     /**
@@ -849,7 +806,7 @@ public class Crash {
      *
      * @return Information about street lighting.
      */
-    public String getStreetLight() {
+    public StreetLight getStreetLight() {
         return streetLight;
     }
 
@@ -859,7 +816,7 @@ public class Crash {
      * @return The count of incidents involving SUVs.
      */
     public int getSuv() {
-        return suv;
+        return getCount(CrashCount.SUV);
     }
 
     /**
@@ -868,7 +825,7 @@ public class Crash {
      * @return The count of incidents involving taxis.
      */
     public int getTaxi() {
-        return taxi;
+        return getCount(CrashCount.TAXI);
     }
 
     /**
@@ -886,7 +843,7 @@ public class Crash {
      * @return The temporary speed limit at the location.
      */
     public int getTemporarySpeedLimit() {
-        return temporarySpeedLimit;
+        return getCount(CrashCount.TEMPORARY_SPEED_LIMIT);
     }
 
     /**
@@ -894,7 +851,7 @@ public class Crash {
      *
      * @return Information about traffic control at the location.
      */
-    public String getTrafficControl() {
+    public TrafficControl getTrafficControl() {
         return trafficControl;
     }
 
@@ -904,7 +861,7 @@ public class Crash {
      * @return The count of incidents involving traffic islands.
      */
     public int getTrafficIsland() {
-        return trafficIsland;
+        return getCount(CrashCount.TRAFFIC_ISLAND);
     }
 
     /**
@@ -913,7 +870,7 @@ public class Crash {
      * @return The count of incidents involving traffic signs.
      */
     public int getTrafficSign() {
-        return trafficSign;
+        return getCount(CrashCount.TRAFFIC_SIGN);
     }
 
     /**
@@ -922,7 +879,7 @@ public class Crash {
      * @return The count of incidents involving trains.
      */
     public int getTrain() {
-        return train;
+        return getCount(CrashCount.TRAIN);
     }
 
     /**
@@ -931,7 +888,7 @@ public class Crash {
      * @return The count of incidents involving trees.
      */
     public int getTree() {
-        return tree;
+        return getCount(CrashCount.TREE);
     }
 
     /**
@@ -940,7 +897,7 @@ public class Crash {
      * @return The count of incidents involving trucks.
      */
     public int getTruck() {
-        return truck;
+        return getCount(CrashCount.TRUCK);
     }
 
     /**
@@ -949,7 +906,7 @@ public class Crash {
      * @return The count of incidents involving unknown vehicle types.
      */
     public int getUnknownVehicleType() {
-        return unknownVehicleType;
+        return getCount(CrashCount.UNKNOWN_VEHICLE_TYPE);
     }
 
     /**
@@ -957,7 +914,7 @@ public class Crash {
      *
      * @return Information about whether the location is urban or rural.
      */
-    public String getUrban() {
+    public Urban getUrban() {
         return urban;
     }
 
@@ -967,7 +924,7 @@ public class Crash {
      * @return The count of incidents involving vans or utility vehicles.
      */
     public int getVanOrUtility() {
-        return vanOrUtility;
+        return getCount(CrashCount.VAN_OR_UTILITY);
     }
 
     /**
@@ -976,7 +933,7 @@ public class Crash {
      * @return The count of incidents involving vehicles.
      */
     public int getVehicle() {
-        return vehicle;
+        return getCount(CrashCount.VEHICLE);
     }
 
     /**
@@ -985,7 +942,7 @@ public class Crash {
      * @return The count of incidents involving water bodies or rivers.
      */
     public int getWaterRiver() {
-        return waterRiver;
+        return getCount(CrashCount.WATER_RIVER);
     }
 
     /**
@@ -993,7 +950,7 @@ public class Crash {
      *
      * @return Weather information (A) at the location.
      */
-    public String getWeatherA() {
+    public WeatherA getWeatherA() {
         return weatherA;
     }
 
@@ -1002,7 +959,7 @@ public class Crash {
      *
      * @return Weather information (B) at the location.
      */
-    public String getWeatherB() {
+    public WeatherB getWeatherB() {
         return weatherB;
     }
 
@@ -1033,11 +990,13 @@ public class Crash {
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
+        if (!(o instanceof Crash)) return false;
         Crash crash = (Crash) o;
-        return id == crash.id && Float.compare(crash.lat, lat) == 0 && Float.compare(crash.lng, lng) == 0
-                && Float.compare(crash.year, year) == 0 && Objects.equals(severity, crash.severity)
-                && Objects.equals(location1, crash.location1) && Objects.equals(location2, crash.location2);
+        return getId() == crash.getId() && Float.compare(crash.getLat(), getLat()) == 0
+                && Float.compare(crash.getLng(), getLng()) == 0 && crash.getYear() == getYear()
+                && Objects.equals(getSeverity(), crash.getSeverity())
+                && Objects.equals(getLocation1(), crash.getLocation1())
+                && Objects.equals(getLocation2(), crash.getLocation2());
     }
 
     /**
@@ -1047,7 +1006,9 @@ public class Crash {
      */
     @Override
     public int hashCode() {
-        return Objects.hash(id, lat, lng, year, severity, location1, location2);
+        // Hash the severity by its string, as enum hash codes are not stable between runs
+        return Objects.hash(getId(), getLat(), getLng(), getYear(), Objects.toString(getSeverity(), null), getLocation1(),
+                getLocation2());
     }
 
     /**
@@ -1065,17 +1026,11 @@ public class Crash {
      * @return the double value associated with the severity of the crash
      */
     public double getNumericSeverity() {
-        String severityStr = getSeverity();
-        if (Objects.equals(severityStr, "Non-Injury Crash")) {
-            return 0.8;
-        } else if (Objects.equals(severityStr, "Minor Crash")) {
-            return 0.85;
-        } else if (Objects.equals(severityStr, "Serious Crash")) {
-            return 0.9;
-        } else if (Objects.equals(severityStr, "Fatal Crash")) {
-            return 0.95;
+        Severity severity = getSeverity();
+        if (severity == null) {
+            return -1;
         }
-        return -1;
+        return severity.getNumericSeverity();
     }
 
     /**
@@ -0,0 +1,494 @@
+package seng202.team7.model;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * Column store for a large number of crashes. Each value is kept in a shared primitive array rather than in its own
+ * Crash object: counts are unsigned bytes, categorical values are enum ordinals, and strings are kept once in a
+ * dictionary and referenced by index. A stored row takes under 100 bytes, and is read through a lightweight
+ * {@link Crash} view that holds only the row number.
+ * Rows are appended by one thread; once filled, the columns can be read from any thread.
+ */
+public class CrashColumns {
+
+    // Positions of each categorical value within a row of the categories column
+    private static final int SEVERITY = 0;
+    private static final int FLAT_HILL = 1;
+    private static final int HOLIDAY = 2;
+    private static final int LIGHT = 3;
+    private static final int ROAD_CHARACTER = 4;
+    private static final int ROAD_LANE = 5;
+    private static final int ROAD_SURFACE = 6;
+    private static final int STREET_LIGHT = 7;
+    private static final int TRAFFIC_CONTROL = 8;
+    private static final int URBAN = 9;
+    private static final int WEATHER_A = 10;
+    private static final int WEATHER_B = 11;
+    private static final int CATEGORY_COUNT = 12;
+
+    // Positions of each string value within a row of the strings column
+    private static final int LOCATION_1 = 0;
+    private static final int LOCATION_2 = 1;
+    private static final int INTERSECTION = 2;
+    private static final int TLA_NAME = 3;
+    private static final int STRING_COUNT = 4;
+
+    // Cached copies of each enum's values, as values() creates a new array every call
+    private static final Severity[] SEVERITIES = Severity.values();
+    private static final FlatHill[] FLAT_HILLS = FlatHill.values();
+    private static final Holiday[] HOLIDAYS = Holiday.values();
+    private static final Light[] LIGHTS = Light.values();
+    private static final RoadCharacter[] ROAD_CHARACTERS = RoadCharacter.values();
+    private static final RoadLane[] ROAD_LANES = RoadLane.values();
+    private static final RoadSurface[] ROAD_SURFACES = RoadSurface.values();
+    private static final StreetLight[] STREET_LIGHTS = StreetLight.values();
+    private static final TrafficControl[] TRAFFIC_CONTROLS = TrafficControl.values();
+    private static final Urban[] URBANS = Urban.values();
+    private static final WeatherA[] WEATHER_AS = WeatherA.values();
+    private static final WeatherB[] WEATHER_BS = WeatherB.values();
+
+    private int size = 0;
+    private int[] ids;
+    private int[] years;
+    private float[] lats;
+    private float[] lngs;
+    private byte[] counts; // CrashCount.COUNT bytes per row
+    private byte[] categories; // CATEGORY_COUNT bytes per row, each enum ordinal + 1, or 0 for null
+    private int[] strings; // STRING_COUNT indexes into the dictionary per row, or -1 for null
+
+    private final List<String> dictionary = new ArrayList<>();
+    private final Map<String, Integer> dictionaryIndexes = new HashMap<>();
+
+    /**
+     * Creates an empty set of columns.
+     *
+     * @param initialCapacity the number of rows to make room for up front
+     */
+    public CrashColumns(int initialCapacity) {
+        int capacity = Math.max(initialCapacity, 16);
+        ids = new int[capacity];
+        years = new int[capacity];
+        lats = new float[capacity];
+        lngs = new float[capacity];
+        counts = new byte[capacity * CrashCount.COUNT];
+        categories = new byte[capacity * CATEGORY_COUNT];
+        strings = new int[capacity * STRING_COUNT];
+    }
+
+    /**
+     * Gets the number of rows stored.
+     *
+     * @return the number of rows
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Appends a crash as a new row, copying all of its values into the columns.
+     *
+     * @param crash the crash to add
+     * @return the row number of the added crash
+     */
+    public int add(Crash crash) {
+        ensureCapacity(size + 1);
+        int row = size;
+
+        ids[row] = crash.getId();
+        years[row] = crash.getYear();
+        lats[row] = crash.getLat();
+        lngs[row] = crash.getLng();
+
+        int countStart = row * CrashCount.COUNT;
+        for (CrashCount field : CrashCount.values()) {
+            // Crash already saturates counts to an unsigned byte
+            counts[countStart + field.ordinal()] = (byte) crash.getCount(field);
+        }
+
+        int categoryStart = row * CATEGORY_COUNT;
+        categories[categoryStart + SEVERITY] = encode(crash.getSeverity());
+        categories[categoryStart + FLAT_HILL] = encode(crash.getFlatHill());
+        categories[categoryStart + HOLIDAY] = encode(crash.getHoliday());
+        categories[categoryStart + LIGHT] = encode(crash.getLight());
+        categories[categoryStart + ROAD_CHARACTER] = encode(crash.getRoadCharacter());
+        categories[categoryStart + ROAD_LANE] = encode(crash.getRoadLane());
+        categories[categoryStart + ROAD_SURFACE] = encode(crash.getRoadSurface());
+        categories[categoryStart + STREET_LIGHT] = encode(crash.getStreetLight());
+        categories[categoryStart + TRAFFIC_CONTROL] = encode(crash.getTrafficControl());
+        categories[categoryStart + URBAN] = encode(crash.getUrban());
+        categories[categoryStart + WEATHER_A] = encode(crash.getWeatherA());
+        categories[categoryStart + WEATHER_B] = encode(crash.getWeatherB());
+
+        int stringStart = row * STRING_COUNT;
+        strings[stringStart + LOCATION_1] = intern(crash.getLocation1());
+        strings[stringStart + LOCATION_2] = intern(crash.getLocation2());
+        strings[stringStart + INTERSECTION] = intern(crash.getIntersection());
+        strings[stringStart + TLA_NAME] = intern(crash.getTlaName());
+
+        size++;
+        return row;
+    }
+
+    /**
+     * Gets a Crash view of a row. The view reads straight from the columns, so it holds no copy of the values.
+     *
+     * @param row the row number
+     * @return a crash backed by the row
+     */
+    public Crash get(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row " + row + " out of bounds for size " + size);
+        }
+        return new Row(this, row);
+    }
+
+    /**
+     * Gets a read-only list of views over every row.
+     *
+     * @return a list of crashes backed by these columns
+     */
+    public List<Crash> asList() {
+        return new RowList();
+    }
+
+    /**
+     * Gets a read-only list of views over every row of several blocks of columns, one after another. As with
+     * {@link #asList()}, a row's view is only made when it is read.
+     *
+     * @param blocks the blocks, in order, which must not have rows added afterwards
+     * @return a list of crashes backed by the blocks
+     */
+    public static List<Crash> asList(List<CrashColumns> blocks) {
+        return blocks.size() == 1 ? blocks.get(0).asList() : new BlockList(blocks);
+    }
+
+    /**
+     * Writes the columns in a compact binary form that {@link #readFrom(ByteBuffer)} can load without rebuilding
+     * any crashes. The layout of the columns is written first, so columns written by a version of the app with
+     * different fields or categories are not read back.
+     *
+     * @param out the stream to write to
+     * @throws IOException if the stream cannot be written to
+     */
+    public void writeTo(DataOutputStream out) throws IOException {
+        writeLayout(out);
+        out.writeInt(size);
+        writeInts(out, ids, size);
+        writeInts(out, years, size);
+        writeFloats(out, lats, size);
+        writeFloats(out, lngs, size);
+        out.write(counts, 0, size * CrashCount.COUNT);
+        out.write(categories, 0, size * CATEGORY_COUNT);
+        writeInts(out, strings, size * STRING_COUNT);
+
+        out.writeInt(dictionary.size());
+        for (String value : dictionary) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Reads columns written by {@link #writeTo(DataOutputStream)}, copying each column out of the buffer in bulk.
+     * The buffer is left positioned after the columns.
+     *
+     * @param in the buffer to read from, which may be memory-mapped
+     * @return the columns read
+     * @throws IOException if the columns were written with a different layout
+     */
+    public static CrashColumns readFrom(ByteBuffer in) throws IOException {
+        checkLayout(in);
+        int rows = in.getInt();
+        CrashColumns columns = new CrashColumns(rows);
+        columns.size = rows;
+        readInts(in, columns.ids, rows);
+        readInts(in, columns.years, rows);
+        in.asFloatBuffer().get(columns.lats, 0, rows);
+        in.position(in.position() + rows * Float.BYTES);
+        in.asFloatBuffer().get(columns.lngs, 0, rows);
+        in.position(in.position() + rows * Float.BYTES);
+        in.get(columns.counts, 0, rows * CrashCount.COUNT);
+        in.get(columns.categories, 0, rows * CATEGORY_COUNT);
+        readInts(in, columns.strings, rows * STRING_COUNT);
+
+        int dictionarySize = in.getInt();
+        for (int i = 0; i < dictionarySize; i++) {
+            byte[] bytes = new byte[in.getInt()];
+            in.get(bytes);
+            String value = new String(bytes, StandardCharsets.UTF_8);
+            columns.dictionary.add(value);
+            columns.dictionaryIndexes.put(value, i);
+        }
+        return columns;
+    }
+
+    /**
+     * Writes the number of each kind of field and of each category's values, which the stored values rely on.
+     */
+    private static void writeLayout(DataOutputStream out) throws IOException {
+        for (int value : layout()) {
+            out.writeInt(value);
+        }
+    }
+
+    private static void checkLayout(ByteBuffer in) throws IOException {
+        for (int expected : layout()) {
+            if (in.getInt() != expected) {
+                throw new IOException("Crash columns were written with a different layout");
+            }
+        }
+    }
+
+    private static int[] layout() {
+        return new int[] {CrashCount.COUNT, CATEGORY_COUNT, STRING_COUNT, SEVERITIES.length, FLAT_HILLS.length,
+                HOLIDAYS.length, LIGHTS.length, ROAD_CHARACTERS.length, ROAD_LANES.length, ROAD_SURFACES.length,
+                STREET_LIGHTS.length, TRAFFIC_CONTROLS.length, URBANS.length, WEATHER_AS.length, WEATHER_BS.length};
+    }
+
+    private static void writeInts(DataOutputStream out, int[] values, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length * Integer.BYTES);
+        buffer.asIntBuffer().put(values, 0, length);
+        out.write(buffer.array());
+    }
+
+    private static void writeFloats(DataOutputStream out, float[] values, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length * Float.BYTES);
+        buffer.asFloatBuffer().put(values, 0, length);
+        out.write(buffer.array());
+    }
+
+    private static void readInts(ByteBuffer in, int[] values, int length) {
+        in.asIntBuffer().get(values, 0, length);
+        in.position(in.position() + length * Integer.BYTES);
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= ids.length) {
+            return;
+        }
+        int capacity = Math.max(required, ids.length * 2);
+        ids = Arrays.copyOf(ids, capacity);
+        years = Arrays.copyOf(years, capacity);
+        lats = Arrays.copyOf(lats, capacity);
+        lngs = Arrays.copyOf(lngs, capacity);
+        counts = Arrays.copyOf(counts, capacity * CrashCount.COUNT);
+        categories = Arrays.copyOf(categories, capacity * CATEGORY_COUNT);
+        strings = Arrays.copyOf(strings, capacity * STRING_COUNT);
+    }
+
+    private static byte encode(Enum<?> value) {
+        return value == null ? 0 : (byte) (value.ordinal() + 1);
+    }
+
+    private static <E> E decode(E[] values, byte code) {
+        return code == 0 ? null : values[code - 1];
+    }
+
+    private int intern(String value) {
+        if (value == null) {
+            return -1;
+        }
+        return dictionaryIndexes.computeIfAbsent(value, key -> {
+            dictionary.add(key);
+            return dictionary.size() - 1;
+        });
+    }
+
+    private String string(int row, int position) {
+        int index = strings[row * STRING_COUNT + position];
+        return index < 0 ? null : dictionary.get(index);
+    }
+
+    private byte category(int row, int position) {
+        return categories[row * CATEGORY_COUNT + position];
+    }
+
+    /**
+     * List of row views, used so a whole column store can be handed to code expecting a list of crashes.
+     */
+    private class RowList extends AbstractList<Crash> implements RandomAccess {
+        @Override
+        public Crash get(int index) {
+            return CrashColumns.this.get(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    /**
+     * List of row views over several column stores, finding the store holding each index by binary search.
+     */
+    private static final class BlockList extends AbstractList<Crash> implements RandomAccess {
+        private final CrashColumns[] blocks;
+        private final int[] starts; // The index of the first row of each block, then the size of the list
+
+        private BlockList(List<CrashColumns> blocks) {
+            this.blocks = blocks.toArray(new CrashColumns[0]);
+            this.starts = new int[this.blocks.length + 1];
+            for (int i = 0; i < this.blocks.length; i++) {
+                starts[i + 1] = starts[i] + this.blocks[i].size;
+            }
+        }
+
+        @Override
+        public Crash get(int index) {
+            if (index < 0 || index >= size()) {
+                throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size());
+            }
+            int block = Arrays.binarySearch(starts, index);
+            // An index that is not the start of a block falls in the block before the insertion point, while empty
+            // blocks share their start with the block after them
+            block = block >= 0 ? lastBlockStartingAt(block) : -block - 2;
+            return blocks[block].get(index - starts[block]);
+        }
+
+        private int lastBlockStartingAt(int block) {
+            while (block + 1 < blocks.length && starts[block + 1] == starts[block]) {
+                block++;
+            }
+            return block;
+        }
+
+        @Override
+        public int size() {
+            return starts[blocks.length];
+        }
+    }
+
+    /**
+     * Flyweight Crash that reads its values from a row of the columns.
+     */
+    private static final class Row extends Crash {
+        private final CrashColumns columns;
+        private final int row;
+
+        private Row(CrashColumns columns, int row) {
+            this.columns = columns;
+            this.row = row;
+        }
+
+        @Override
+        public void setId(int id) {
+            columns.ids[row] = id;
+        }
+
+        @Override
+        public int getId() {
+            return columns.ids[row];
+        }
+
+        @Override
+        public int getCount(CrashCount field) {
+            return columns.counts[row * CrashCount.COUNT + field.ordinal()] & 0xFF;
+        }
+
+        @Override
+        public String getLocation1() {
+            return columns.string(row, LOCATION_1);
+        }
+
+        @Override
+        public String getLocation2() {
+            return columns.string(row, LOCATION_2);
+        }
+
+        @Override
+        public Severity getSeverity() {
+            return decode(SEVERITIES, columns.category(row, SEVERITY));
+        }
+
+        @Override
+        public int getYear() {
+            return columns.years[row];
+        }
+
+        @Override
+        public FlatHill getFlatHill() {
+            return decode(FLAT_HILLS, columns.category(row, FLAT_HILL));
+        }
+
+        @Override
+        public Holiday getHoliday() {
+            return decode(HOLIDAYS, columns.category(row, HOLIDAY));
+        }
+
+        @Override
+        public String getIntersection() {
+            return columns.string(row, INTERSECTION);
+        }
+
+        @Override
+        public Light getLight() {
+            return decode(LIGHTS, columns.category(row, LIGHT));
+        }
+
+        @Override
+        public RoadCharacter getRoadCharacter() {
+            return decode(ROAD_CHARACTERS, columns.category(row, ROAD_CHARACTER));
+        }
+
+        @Override
+        public RoadLane getRoadLane() {
+            return decode(ROAD_LANES, columns.category(row, ROAD_LANE));
+        }
+
+        @Override
+        public RoadSurface getRoadSurface() {
+            return decode(ROAD_SURFACES, columns.category(row, ROAD_SURFACE));
+        }
+
+        @Override
+        public StreetLight getStreetLight() {
+            return decode(STREET_LIGHTS, columns.category(row, STREET_LIGHT));
+        }
+
+        @Override
+        public String getTlaName() {
+            return columns.string(row, TLA_NAME);
+        }
+
+        @Override
+        public TrafficControl getTrafficControl() {
+            return decode(TRAFFIC_CONTROLS, columns.category(row, TRAFFIC_CONTROL));
+        }
+
+        @Override
+        public Urban getUrban() {
+            return decode(URBANS, columns.category(row, URBAN));
+        }
+
+        @Override
+        public WeatherA getWeatherA() {
+            return decode(WEATHER_AS, columns.category(row, WEATHER_A));
+        }
+
+        @Override
+        public WeatherB getWeatherB() {
+            return decode(WEATHER_BS, columns.category(row, WEATHER_B));
+        }
+
+        @Override
+        public float getLat() {
+            return columns.lats[row];
+        }
+
+        @Override
+        public float getLng() {
+            return columns.lngs[row];
+        }
+    }
+}
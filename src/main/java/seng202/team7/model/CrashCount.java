@@ -0,0 +1,227 @@
+package seng202.team7.model;
+
+/**
+ * Enum of the small count fields of a crash (vehicles involved, objects struck, speeds and so on). Every value in the
+ * crash data fits in a byte, so {@link Crash} stores these packed together and indexes them by this enum.
+ */
+public enum CrashCount {
+    /**
+     * The advisory (adv) speed (spd) at the crash site at the time of the crash.
+     */
+    ADVISORY_SPEED,
+
+    /**
+     * Derived variable to indicate how many bicycles were involved in the crash.
+     */
+    BICYCLE,
+
+    /**
+     * Derived variable to indicate how many times a bridge, tunnel, the abutments, handrails were struck in the crash.
+     */
+    BRIDGE,
+
+    /**
+     * Derived variable to indicate how many buses were involved in the crash (excluding school buses which are counted in the SCHOOL_BUS field).
+     */
+    BUS,
+
+    /**
+     * Derived variable to indicate how many cars or station wagons were involved in the crash.
+     */
+    CAR_STATION_WAGON,
+
+    /**
+     * Derived variable to indicate how many times a 'cliff' or 'bank' was struck in the crash. This includes retaining walls.
+     */
+    CLIFF_BANK,
+
+    /**
+     * Derived variable to indicate how many times a 'ditch' or 'waterable drainage channel' was struck in a crash.
+     */
+    DITCH,
+
+    /**
+     * A count of the number of fatal casualties associated with this crash.
+     */
+    FATAL_COUNT,
+
+    /**
+     * Derived variable to indicate how many times a 'fence' was struck in the crash. This includes letterbox(es), hoardings, private roadside furniture, hedges, sight rails, etc.
+     */
+    FENCE,
+
+    /**
+     * Derived variable to indicate how many times a guard or guard rail was struck in the crash. This includes 'New Jersey' barriers, 'ARMCO,' sand-filled barriers, wire catch fences, etc.
+     */
+    GUARD_RAIL,
+
+    /**
+     * Derived variable to indicate how many times houses, garages, sheds, or other buildings (Bldg) were struck in the crash.
+     */
+    HOUSE_OR_BUILDING,
+
+    /**
+     * Derived variable to indicate how many times a kerb was struck in the crash, contributing directly to the crash.
+     */
+    KERB,
+
+    /**
+     * A count of the number of minor injuries (inj) associated with this crash.
+     */
+    MINOR_INJURY_COUNT,
+
+    /**
+     * Derived variable to indicate how many mopeds were involved in the crash.
+     */
+    MOPED,
+
+    /**
+     * Derived variable to indicate how many motorcycles were involved in the crash.
+     */
+    MOTORCYCLE,
+
+    /**
+     * The number (num) of lanes on the crash road.
+     */
+    NUMBER_OF_LANES,
+
+    /**
+     * Derived variable to indicate how many times objects were thrown at or dropped on vehicles in the crash.
+     */
+    OBJECT_THROWN_OR_DROPPED,
+
+    /**
+     * Derived variable to indicate how many times an object was struck in a crash and the object struck was not pre-defined. This variable includes stockpiled materials, rubbish bins, fallen poles, fallen trees, etc.
+     */
+    OTHER_OBJECT,
+
+    /**
+     * Derived variable to indicate how many other vehicles (not included in any other category) were involved in the crash.
+     */
+    OTHER_VEHICLE_TYPE,
+
+    /**
+     * Derived variable to indicate how many times an embankment was struck or driven over during a crash. This variable includes other vertical drops driven over during a crash.
+     */
+    OVER_BANK,
+
+    /**
+     * Derived variable to indicate how many times a parked or unattended vehicle was struck in the crash. This variable can include trailers.
+     */
+    PARKED_VEHICLE,
+
+    /**
+     * Derived variable to indicate how many times a telephone kiosk, traffic signal controllers, bus shelters, or other public furniture were struck in the crash.
+     */
+    PHONE_BOX_ETC,
+
+    /**
+     * Derived variable to indicate how many pedestrians were involved in the crash. This includes pedestrians on skateboards, scooters, and wheelchairs.
+     */
+    PEDESTRIAN,
+
+    /**
+     * Derived variable to indicate how many times a post or pole was struck in the crash. This includes light, power, phone, utility poles, and objects practically forming part of a pole (i.e., 'Transformer Guy' wires).
+     */
+    POST_OR_POLE,
+
+    /**
+     * Derived variable to indicate how many times an object associated with 'roadworks' (including signs, cones, drums, barriers, but not roadwork vehicles) was struck during the crash.
+     */
+    ROADWORKS,
+
+    /**
+     * Derived variable to indicate how many school buses were involved in the crash.
+     */
+    SCHOOL_BUS,
+
+    /**
+     * A count of the number of serious injuries (inj) associated with this crash.
+     */
+    SERIOUS_INJURY_COUNT,
+
+    /**
+     * Derived variable to indicate how many times landslips, washouts, or floods (excluding rivers) were objects struck in the crash.
+     */
+    SLIP_OR_FLOOD,
+
+    /**
+     * The speed (spd) limit (lim) in force at the crash site at the time of the crash. May be a number or 'LSZ' for a limited speed zone.
+     */
+    SPEED_LIMIT,
+
+    /**
+     * Derived variable to indicate how many times a stray animal(s) was struck in the crash. This variable includes wild animals such as pigs, goats, deer, straying farm animals, house pets, and birds.
+     */
+    STRAY_ANIMAL,
+
+    /**
+     * Derived variable to indicate how many SUVs were involved in the crash.
+     */
+    SUV,
+
+    /**
+     * Derived variable to indicate how many taxis were involved in the crash.
+     */
+    TAXI,
+
+    /**
+     * The temporary (temp) speed (spd) limit (lim) at the crash site if one exists (e.g., for road works).
+     */
+    TEMPORARY_SPEED_LIMIT,
+
+    /**
+     * Derived variable to indicate how many times a traffic island, medians (excluding barriers) was struck in the crash.
+     */
+    TRAFFIC_ISLAND,
+
+    /**
+     * Derived variable to indicate how many times 'traffic signage' (including traffic signals, their poles, bollards, or roadside delineators) was struck in the crash.
+     */
+    TRAFFIC_SIGN,
+
+    /**
+     * Derived variable to indicate how many times a train, rolling stock, or jiggers was struck in the crash, whether stationary or moving.
+     */
+    TRAIN,
+
+    /**
+     * Derived variable to indicate how many times trees or other growing items were struck during the crash.
+     */
+    TREE,
+
+    /**
+     * Derived variable to indicate how many trucks were involved in the crash.
+     */
+    TRUCK,
+
+    /**
+     * Derived variable to indicate how many vehicles were involved in the crash (where the vehicle type is unknown).
+     */
+    UNKNOWN_VEHICLE_TYPE,
+
+    /**
+     * Derived variable to indicate how many vans or utes were involved in the crash.
+     */
+    VAN_OR_UTILITY,
+
+    /**
+     * Derived variable to indicate how many times a stationary attended vehicle was struck in the crash. This includes broken down vehicles, workmen's vehicles, taxis, buses.
+     */
+    VEHICLE,
+
+    /**
+     * Derived variable to indicate how many times a body of water (including rivers, streams, lakes, the sea, tidal flats, canals, watercourses, or swamps) was struck in the crash.
+     */
+    WATER_RIVER;
+
+    /**
+     * The number of packed count fields.
+     */
+    public static final int COUNT = values().length;
+
+    /**
+     * The largest value a packed count can hold. Larger values are saturated to this.
+     */
+    public static final int MAX_VALUE = 255;
+}
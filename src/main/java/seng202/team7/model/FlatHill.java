@@ -0,0 +1,63 @@
+package seng202.team7.model;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Enum of whether the road at the crash site is flat or sloped, as recorded in the crash data.
+ */
+public enum FlatHill {
+    /**
+     * Represents a flat road.
+     */
+    FLAT("Flat"),
+
+    /**
+     * Represents a sloped road.
+     */
+    HILL_ROAD("Hill Road"),
+
+    /**
+     * Represents an unrecorded road slope.
+     */
+    NULL("Null");
+
+    private static final Map<String, FlatHill> LOOKUP = new HashMap<>();
+
+    static {
+        for (FlatHill value : values()) {
+            LOOKUP.put(value.flatHillStr, value);
+        }
+    }
+
+    private final String flatHillStr;
+
+    /**
+     * Constructor for the FlatHill enum.
+     *
+     * @param flatHillStr The string used for this value in the crash data.
+     */
+    FlatHill(String flatHillStr) {
+        this.flatHillStr = flatHillStr;
+    }
+
+    /**
+     * Static method that returns the FlatHill enum with the associated string.
+     *
+     * @param flatHill the string from the crash data
+     * @return the relevant FlatHill, or null if the string is not a known value
+     */
+    public static FlatHill valueFromStr(String flatHill) {
+        return LOOKUP.get(flatHill);
+    }
+
+    /**
+     * Function to convert the value to the string used in the crash data.
+     *
+     * @return The string from the crash data.
+     */
+    @Override
+    public String toString() {
+        return flatHillStr;
+    }
+}
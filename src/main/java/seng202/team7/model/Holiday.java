@@ -0,0 +1,73 @@
+package seng202.team7.model;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Enum of the holiday period a crash occurred in, if any, as recorded in the crash data.
+ */
+public enum Holiday {
+    /**
+     * Represents the Christmas/New Year holiday period.
+     */
+    CHRISTMAS_NEW_YEAR("Christmas New Year"),
+
+    /**
+     * Represents the Easter holiday period.
+     */
+    EASTER("Easter"),
+
+    /**
+     * Represents the Queen's Birthday holiday period.
+     */
+    QUEENS_BIRTHDAY("Queens Birthday"),
+
+    /**
+     * Represents the Labour Weekend holiday period.
+     */
+    LABOUR_WEEKEND("Labour Weekend"),
+
+    /**
+     * Represents a crash outside of any holiday period.
+     */
+    NONE("");
+
+    private static final Map<String, Holiday> LOOKUP = new HashMap<>();
+
+    static {
+        for (Holiday value : values()) {
+            LOOKUP.put(value.holidayStr, value);
+        }
+    }
+
+    private final String holidayStr;
+
+    /**
+     * Constructor for the Holiday enum.
+     *
+     * @param holidayStr The string used for this value in the crash data.
+     */
+    Holiday(String holidayStr) {
+        this.holidayStr = holidayStr;
+    }
+
+    /**
+     * Static method that returns the Holiday enum with the associated string.
+     *
+     * @param holiday the string from the crash data
+     * @return the relevant Holiday, or null if the string is not a known value
+     */
+    public static Holiday valueFromStr(String holiday) {
+        return LOOKUP.get(holiday);
+    }
+
+    /**
+     * Function to convert the value to the string used in the crash data.
+     *
+     * @return The string from the crash data.
+     */
+    @Override
+    public String toString() {
+        return holidayStr;
+    }
+}
@@ -0,0 +1,73 @@
+package seng202.team7.model;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Enum of the natural light at the time and place of a crash, as recorded in the crash data.
+ */
+public enum Light {
+    /**
+     * Represents bright sunlight.
+     */
+    BRIGHT_SUN("Bright sun"),
+
+    /**
+     * Represents overcast light.
+     */
+    OVERCAST("Overcast"),
+
+    /**
+     * Represents twilight.
+     */
+    TWILIGHT("Twilight"),
+
+    /**
+     * Represents darkness.
+     */
+    DARK("Dark"),
+
+    /**
+     * Represents unknown light conditions.
+     */
+    UNKNOWN("Unknown");
+
+    private static final Map<String, Light> LOOKUP = new HashMap<>();
+
+    static {
+        for (Light value : values()) {
+            LOOKUP.put(value.lightStr, value);
+        }
+    }
+
+    private final String lightStr;
+
+    /**
+     * Constructor for the Light enum.
+     *
+     * @param lightStr The string used for this value in the crash data.
+     */
+    Light(String lightStr) {
+        this.lightStr = lightStr;
+    }
+
+    /**
+     * Static method that returns the Light enum with the associated string.
+     *
+     * @param light the string from the crash data
+     * @return the relevant Light, or null if the string is not a known value
+     */
+    public static Light valueFromStr(String light) {
+        return LOOKUP.get(light);
+    }
+
+    /**
+     * Function to convert the value to the string used in the crash data.
+     *
+     * @return The string from the crash data.
+     */
+    @Override
+    public String toString() {
+        return lightStr;
+    }
+}
@@ -0,0 +1,98 @@
+package seng202.team7.model;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Enum of the general nature of the road at the crash site, as recorded in the crash data.
+ */
+public enum RoadCharacter {
+    /**
+     * Represents a bridge.
+     */
+    BRIDGE("Bridge"),
+
+    /**
+     * Represents a motorway ramp.
+     */
+    MOTORWAY_RAMP("Motorway ramp"),
+
+    /**
+     * Represents an overpass.
+     */
+    OVERPASS("Overpass"),
+
+    /**
+     * Represents a rail crossing.
+     */
+    RAIL_CROSSING("Rail xing"),
+
+    /**
+     * Represents a speed hump.
+     */
+    SPEED_HUMP("Speed hump"),
+
+    /**
+     * Represents a tunnel.
+     */
+    TUNNEL("Tunnel"),
+
+    /**
+     * Represents tram lines.
+     */
+    TRAM_LINES("Tram lines"),
+
+    /**
+     * Represents a road with no special character.
+     */
+    NIL("Nil"),
+
+    /**
+     * Represents an underpass.
+     */
+    UNDERPASS("Underpass"),
+
+    /**
+     * Represents an unrecorded road character.
+     */
+    NULL("Null");
+
+    private static final Map<String, RoadCharacter> LOOKUP = new HashMap<>();
+
+    static {
+        for (RoadCharacter value : values()) {
+            LOOKUP.put(value.roadCharacterStr, value);
+        }
+    }
+
+    private final String roadCharacterStr;
+
+    /**
+     * Constructor for the RoadCharacter enum.
+     *
+     * @param roadCharacterStr The string used for this value in the crash data.
+     */
+    RoadCharacter(String roadCharacterStr) {
+        this.roadCharacterStr = roadCharacterStr;
+    }
+
+    /**
+     * Static method that returns the RoadCharacter enum with the associated string.
+     *
+     * @param roadCharacter the string from the crash data
+     * @return the relevant RoadCharacter, or null if the string is not a known value
+     */
+    public static RoadCharacter valueFromStr(String roadCharacter) {
+        return LOOKUP.get(roadCharacter);
+    }
+
+    /**
+     * Function to convert the value to the string used in the crash data.
+     *
+     * @return The string from the crash data.
+     */
+    @Override
+    public String toString() {
+        return roadCharacterStr;
+    }
+}
@@ -0,0 +1,68 @@
+package seng202.team7.model;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Enum of the lane configuration of the road at the crash site, as recorded in the crash data.
+ */
+public enum RoadLane {
+    /**
+     * Represents a one way road.
+     */
+    ONE_WAY("1-way"),
+
+    /**
+     * Represents a two way road.
+     */
+    TWO_WAY("2-way"),
+
+    /**
+     * Represents an off road lane configuration.
+     */
+    OFF_ROAD("Off road"),
+
+    /**
+     * Represents an unrecorded lane configuration.
+     */
+    NULL("Null");
+
+    private static final Map<String, RoadLane> LOOKUP = new HashMap<>();
+
+    static {
+        for (RoadLane value : values()) {
+            LOOKUP.put(value.roadLaneStr, value);
+        }
+    }
+
+    private final String roadLaneStr;
+
+    /**
+     * Constructor for the RoadLane enum.
+     *
+     * @param roadLaneStr The string used for this value in the crash data.
+     */
+    RoadLane(String roadLaneStr) {
+        this.roadLaneStr = roadLaneStr;
+    }
+
+    /**
+     * Static method that returns the RoadLane enum with the associated string.
+     *
+     * @param roadLane the string from the crash data
+     * @return the relevant RoadLane, or null if the string is not a known value
+     */
+    public static RoadLane valueFromStr(String roadLane) {
+        return LOOKUP.get(roadLane);
+    }
+
+    /**
+     * Function to convert the value to the string used in the crash data.
+     *
+     * @return The string from the crash data.
+     */
+    @Override
+    public String toString() {
+        return roadLaneStr;
+    }
+}
@@ -0,0 +1,68 @@
+package seng202.team7.model;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Enum of the road surface at the crash site, as recorded in the crash data.
+ */
+public enum RoadSurface {
+    /**
+     * Represents a sealed road.
+     */
+    SEALED("Sealed"),
+
+    /**
+     * Represents an unsealed road.
+     */
+    UNSEALED("Unsealed"),
+
+    /**
+     * Represents the end of a sealed section of road.
+     */
+    END_OF_SEAL("End of seal"),
+
+    /**
+     * Represents an unrecorded road surface.
+     */
+    NULL("Null");
+
+    private static final Map<String, RoadSurface> LOOKUP = new HashMap<>();
+
+    static {
+        for (RoadSurface value : values()) {
+            LOOKUP.put(value.roadSurfaceStr, value);
+        }
+    }
+
+    private final String roadSurfaceStr;
+
+    /**
+     * Constructor for the RoadSurface enum.
+     *
+     * @param roadSurfaceStr The string used for this value in the crash data.
+     */
+    RoadSurface(String roadSurfaceStr) {
+        this.roadSurfaceStr = roadSurfaceStr;
+    }
+
+    /**
+     * Static method that returns the RoadSurface enum with the associated string.
+     *
+     * @param roadSurface the string from the crash data
+     * @return the relevant RoadSurface, or null if the string is not a known value
+     */
+    public static RoadSurface valueFromStr(String roadSurface) {
+        return LOOKUP.get(roadSurface);
+    }
+
+    /**
+     * Function to convert the value to the string used in the crash data.
+     *
+     * @return The string from the crash data.
+     */
+    @Override
+    public String toString() {
+        return roadSurfaceStr;
+    }
+}
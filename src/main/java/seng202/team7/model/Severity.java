@@ -0,0 +1,80 @@
+package seng202.team7.model;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Enum of the severity of a crash, determined by the worst injury sustained, as recorded in the crash data.
+ */
+public enum Severity {
+    /**
+     * Represents a crash where at least one person was killed.
+     */
+    FATAL("Fatal Crash", 0.95),
+
+    /**
+     * Represents a crash where the worst injury was serious.
+     */
+    SERIOUS("Serious Crash", 0.9),
+
+    /**
+     * Represents a crash where the worst injury was minor.
+     */
+    MINOR("Minor Crash", 0.85),
+
+    /**
+     * Represents a crash where nobody was injured.
+     */
+    NON_INJURY("Non-Injury Crash", 0.8);
+
+    private static final Map<String, Severity> LOOKUP = new HashMap<>();
+
+    static {
+        for (Severity value : values()) {
+            LOOKUP.put(value.severityStr, value);
+        }
+    }
+
+    private final String severityStr;
+    private final double numericSeverity;
+
+    /**
+     * Constructor for the Severity enum.
+     *
+     * @param severityStr The string used for this value in the crash data.
+     * @param numericSeverity The value between 0 and 1 used for this severity in risk calculations.
+     */
+    Severity(String severityStr, double numericSeverity) {
+        this.severityStr = severityStr;
+        this.numericSeverity = numericSeverity;
+    }
+
+    /**
+     * Gets the numerical value (between 0 and 1) for this severity. 1=most severe (fatal).
+     *
+     * @return the double value associated with this severity
+     */
+    public double getNumericSeverity() {
+        return numericSeverity;
+    }
+
+    /**
+     * Static method that returns the Severity enum with the associated string.
+     *
+     * @param severity the string from the crash data
+     * @return the relevant Severity, or null if the string is not a known value
+     */
+    public static Severity valueFromStr(String severity) {
+        return LOOKUP.get(severity);
+    }
+
+    /**
+     * Function to convert the value to the string used in the crash data.
+     *
+     * @return The string from the crash data.
+     */
+    @Override
+    public String toString() {
+        return severityStr;
+    }
+}
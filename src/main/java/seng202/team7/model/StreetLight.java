@@ -0,0 +1,68 @@
+package seng202.team7.model;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Enum of the street lighting at the time of a crash, as recorded in the crash data.
+ */
+public enum StreetLight {
+    /**
+     * Represents street lights that were on.
+     */
+    ON("On"),
+
+    /**
+     * Represents street lights that were off.
+     */
+    OFF("Off"),
+
+    /**
+     * Represents a road without street lights.
+     */
+    NONE("None"),
+
+    /**
+     * Represents unrecorded street lighting.
+     */
+    NULL("Null");
+
+    private static final Map<String, StreetLight> LOOKUP = new HashMap<>();
+
+    static {
+        for (StreetLight value : values()) {
+            LOOKUP.put(value.streetLightStr, value);
+        }
+    }
+
+    private final String streetLightStr;
+
+    /**
+     * Constructor for the StreetLight enum.
+     *
+     * @param streetLightStr The string used for this value in the crash data.
+     */
+    StreetLight(String streetLightStr) {
+        this.streetLightStr = streetLightStr;
+    }
+
+    /**
+     * Static method that returns the StreetLight enum with the associated string.
+     *
+     * @param streetLight the string from the crash data
+     * @return the relevant StreetLight, or null if the string is not a known value
+     */
+    public static StreetLight valueFromStr(String streetLight) {
+        return LOOKUP.get(streetLight);
+    }
+
+    /**
+     * Function to convert the value to the string used in the crash data.
+     *
+     * @return The string from the crash data.
+     */
+    @Override
+    public String toString() {
+        return streetLightStr;
+    }
+}
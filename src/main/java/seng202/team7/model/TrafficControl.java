@@ -0,0 +1,88 @@
+package seng202.team7.model;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Enum of the traffic control at the crash site, as recorded in the crash data.
+ */
+public enum TrafficControl {
+    /**
+     * Represents traffic signals.
+     */
+    TRAFFIC_SIGNALS("Traffic Signals"),
+
+    /**
+     * Represents a stop sign.
+     */
+    STOP("Stop"),
+
+    /**
+     * Represents a give way sign.
+     */
+    GIVE_WAY("Give way"),
+
+    /**
+     * Represents a pointsman.
+     */
+    POINTSMAN("Pointsman"),
+
+    /**
+     * Represents a school patrol or warden.
+     */
+    SCHOOL_PATROL("School Patrol/warden"),
+
+    /**
+     * Represents no traffic control.
+     */
+    NIL("Nil"),
+
+    /**
+     * Represents a pedestrian signal away from an intersection.
+     */
+    ISOLATED_PEDESTRIAN_SIGNAL("Isolated Pedestrian signal (non-intersection)"),
+
+    /**
+     * Represents unknown traffic control.
+     */
+    UNKNOWN("Unknown");
+
+    private static final Map<String, TrafficControl> LOOKUP = new HashMap<>();
+
+    static {
+        for (TrafficControl value : values()) {
+            LOOKUP.put(value.trafficControlStr, value);
+        }
+    }
+
+    private final String trafficControlStr;
+
+    /**
+     * Constructor for the TrafficControl enum.
+     *
+     * @param trafficControlStr The string used for this value in the crash data.
+     */
+    TrafficControl(String trafficControlStr) {
+        this.trafficControlStr = trafficControlStr;
+    }
+
+    /**
+     * Static method that returns the TrafficControl enum with the associated string.
+     *
+     * @param trafficControl the string from the crash data
+     * @return the relevant TrafficControl, or null if the string is not a known value
+     */
+    public static TrafficControl valueFromStr(String trafficControl) {
+        return LOOKUP.get(trafficControl);
+    }
+
+    /**
+     * Function to convert the value to the string used in the crash data.
+     *
+     * @return The string from the crash data.
+     */
+    @Override
+    public String toString() {
+        return trafficControlStr;
+    }
+}
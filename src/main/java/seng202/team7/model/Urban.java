@@ -0,0 +1,58 @@
+package seng202.team7.model;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Enum of whether a crash occurred in an urban area or on the open road, as recorded in the crash data.
+ */
+public enum Urban {
+    /**
+     * Represents an urban area, where the speed limit is less than 80.
+     */
+    URBAN("Urban"),
+
+    /**
+     * Represents the open road, where the speed limit is 80 or above.
+     */
+    OPEN("Open");
+
+    private static final Map<String, Urban> LOOKUP = new HashMap<>();
+
+    static {
+        for (Urban value : values()) {
+            LOOKUP.put(value.urbanStr, value);
+        }
+    }
+
+    private final String urbanStr;
+
+    /**
+     * Constructor for the Urban enum.
+     *
+     * @param urbanStr The string used for this value in the crash data.
+     */
+    Urban(String urbanStr) {
+        this.urbanStr = urbanStr;
+    }
+
+    /**
+     * Static method that returns the Urban enum with the associated string.
+     *
+     * @param urban the string from the crash data
+     * @return the relevant Urban, or null if the string is not a known value
+     */
+    public static Urban valueFromStr(String urban) {
+        return LOOKUP.get(urban);
+    }
+
+    /**
+     * Function to convert the value to the string used in the crash data.
+     *
+     * @return The string from the crash data.
+     */
+    @Override
+    public String toString() {
+        return urbanStr;
+    }
+}
@@ -0,0 +1,83 @@
+package seng202.team7.model;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Enum of the primary weather at the time and place of a crash, as recorded in the crash data.
+ */
+public enum WeatherA {
+    /**
+     * Represents fine weather.
+     */
+    FINE("Fine"),
+
+    /**
+     * Represents mist or fog.
+     */
+    MIST_OR_FOG("Mist or Fog"),
+
+    /**
+     * Represents light rain.
+     */
+    LIGHT_RAIN("Light rain"),
+
+    /**
+     * Represents heavy rain.
+     */
+    HEAVY_RAIN("Heavy rain"),
+
+    /**
+     * Represents snow.
+     */
+    SNOW("Snow"),
+
+    /**
+     * Represents hail or sleet.
+     */
+    HAIL_OR_SLEET("Hail or Sleet"),
+
+    /**
+     * Represents unrecorded weather.
+     */
+    NULL("Null");
+
+    private static final Map<String, WeatherA> LOOKUP = new HashMap<>();
+
+    static {
+        for (WeatherA value : values()) {
+            LOOKUP.put(value.weatherAStr, value);
+        }
+    }
+
+    private final String weatherAStr;
+
+    /**
+     * Constructor for the WeatherA enum.
+     *
+     * @param weatherAStr The string used for this value in the crash data.
+     */
+    WeatherA(String weatherAStr) {
+        this.weatherAStr = weatherAStr;
+    }
+
+    /**
+     * Static method that returns the WeatherA enum with the associated string.
+     *
+     * @param weatherA the string from the crash data
+     * @return the relevant WeatherA, or null if the string is not a known value
+     */
+    public static WeatherA valueFromStr(String weatherA) {
+        return LOOKUP.get(weatherA);
+    }
+
+    /**
+     * Function to convert the value to the string used in the crash data.
+     *
+     * @return The string from the crash data.
+     */
+    @Override
+    public String toString() {
+        return weatherAStr;
+    }
+}
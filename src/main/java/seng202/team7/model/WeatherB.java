@@ -0,0 +1,68 @@
+package seng202.team7.model;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Enum of the secondary weather at the time and place of a crash, as recorded in the crash data.
+ */
+public enum WeatherB {
+    /**
+     * Represents frost.
+     */
+    FROST("Frost"),
+
+    /**
+     * Represents strong wind.
+     */
+    STRONG_WIND("Strong wind"),
+
+    /**
+     * Represents no secondary weather.
+     */
+    NONE("None"),
+
+    /**
+     * Represents unrecorded secondary weather.
+     */
+    NULL("Null");
+
+    private static final Map<String, WeatherB> LOOKUP = new HashMap<>();
+
+    static {
+        for (WeatherB value : values()) {
+            LOOKUP.put(value.weatherBStr, value);
+        }
+    }
+
+    private final String weatherBStr;
+
+    /**
+     * Constructor for the WeatherB enum.
+     *
+     * @param weatherBStr The string used for this value in the crash data.
+     */
+    WeatherB(String weatherBStr) {
+        this.weatherBStr = weatherBStr;
+    }
+
+    /**
+     * Static method that returns the WeatherB enum with the associated string.
+     *
+     * @param weatherB the string from the crash data
+     * @return the relevant WeatherB, or null if the string is not a known value
+     */
+    public static WeatherB valueFromStr(String weatherB) {
+        return LOOKUP.get(weatherB);
+    }
+
+    /**
+     * Function to convert the value to the string used in the crash data.
+     *
+     * @return The string from the crash data.
+     */
+    @Override
+    public String toString() {
+        return weatherBStr;
+    }
+}
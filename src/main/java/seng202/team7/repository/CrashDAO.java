@@ -2,12 +2,31 @@ package seng202.team7.repository;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import seng202.team7.business.BackgroundExecutor;
+import seng202.team7.io.CrashRecord;
+import seng202.team7.io.ImportListener;
+import seng202.team7.io.ImportProgress;
 import seng202.team7.map.Position;
-import seng202.team7.model.Crash;
+import seng202.team7.metrics.MetricsRegistry;
+import seng202.team7.metrics.Timer;
+import seng202.team7.model.*;
 
+import java.io.File;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.stream.IntStream;
 
 /**
  * Concrete implementation of Database Access Object that handles all crashes related actions to the database
@@ -17,13 +36,55 @@ import java.util.List;
  */
 public class CrashDAO {
     private static final Logger log = LogManager.getLogger(CrashDAO.class);
+    private static final MetricsRegistry metrics = MetricsRegistry.getInstance();
+    private static final Timer TABLE_LENGTH_TIMER = metrics.timer("crashDAO.getCrashesTableLength");
+    private static final Timer CIRCLE_SEARCH_TIMER = metrics.timer("crashDAO.rTreeCircleSearch");
+    private static final Timer CIRCLE_SEARCH_CACHED_TIMER = metrics.timer("crashDAO.rTreeCircleSearch.cached");
+    private static final Timer RECTANGLE_SEARCH_TIMER = metrics.timer("crashDAO.rTreeRectangleSearch");
+    private static final Timer RECTANGLE_SEARCH_CACHED_TIMER = metrics.timer("crashDAO.rTreeRectangleSearch.cached");
+    private static final Timer SEARCH_TIMER = metrics.timer("crashDAO.search");
+    private static final Timer LOCATION_SEARCH_TIMER = metrics.timer("crashDAO.searchLocations");
+    private static final Timer LOCATION_COUNTS_TIMER = metrics.timer("crashDAO.getLocationCounts");
+    private static final Timer LOCATION_CENTROIDS_TIMER = metrics.timer("crashDAO.getLocationCentroids");
+    private static final Timer GET_PAGE_TIMER = metrics.timer("crashDAO.getPage");
+    private static final Timer GET_ALL_TIMER = metrics.timer("crashDAO.getAll");
+    private static final Timer GET_ALL_SNAPSHOT_TIMER = metrics.timer("crashDAO.getAll.snapshot");
+    private static final Timer ADD_BATCH_TIMER = metrics.timer("crashDAO.addBatch");
+    private static final Timer IMPORT_CHANGES_TIMER = metrics.timer("crashDAO.importChanges");
+    private static final Timer DELETE_TIMER = metrics.timer("crashDAO.delete");
+    private static final Timer DELETE_ALL_TIMER = metrics.timer("crashDAO.deleteAll");
+    private static final Timer CLEAR_TIMER = metrics.timer("crashDAO.clearDatabase");
+    // Every column of the crashes table apart from id, in the order they are inserted
+    private static final String CRASH_COLUMNS = "advisorySpeed, bicycle, bridge, bus, carStationWagon, cliffBank, location1, location2, severity, year, ditch, fatalCount, fence, flatHill, guardRail, holiday, houseOrBuilding, intersection, kerb, light, minorInjuryCount, moped, motorcycle, numberOfLanes, objectThrownOrDropped, otherObject, otherVehicleType, overBank, parkedVehicle, phoneBoxEtc, pedestrian, postOrPole, roadCharacter, roadLane, roadSurface, roadworks, schoolBus, seriousInjuryCount, slipOrFlood, speedLimit, strayAnimal, streetLight, suv, taxi, tlaName, temporarySpeedLimit, trafficControl, trafficIsland, trafficSign, train, tree, truck, unknownVehicleType, urban, vanOrUtility, vehicle, waterRiver, weatherA, weatherB, lat, lng";
+    // Columns selected when reading crashes, in the order of the Crash constructor so they can be read by position
+    private static final String SELECT_COLUMNS = "id, " + CRASH_COLUMNS;
+    // The same columns qualified by table, for queries that join another table with columns of the same names
+    private static final String QUALIFIED_SELECT_COLUMNS = "crashes." + SELECT_COLUMNS.replace(", ", ", crashes.");
+    private static final Set<String> ORDERABLE_COLUMNS = new HashSet<>(Arrays.asList(SELECT_COLUMNS.split(", ")));
+    // Tables smaller than this are read by one thread, as splitting them costs more than it saves
+    private static final int PARALLEL_LOAD_MIN_ROWS = 20000;
+    private static final int MAX_LOAD_PARTITIONS = 8;
+    // Crashes added between commits, so a cancelled import keeps what it has done without a commit per crash
+    private static final int INSERT_CHUNK_SIZE = 10000;
+    // Ids deleted by one statement, well under the most parameters SQLite allows in a statement
+    private static final int DELETE_CHUNK_SIZE = 500;
+    // Columns the table is most often sorted by, indexed so a page of them can be read without sorting the table
+    private static final List<String> INDEXED_SORT_COLUMNS = List.of("speedLimit", "year", "severity", "tlaName");
+    // Vehicle columns the filters search on, each indexed over only the few crashes involving that vehicle
+    private static final List<String> INDEXED_VEHICLE_COLUMNS = List.of("suv", "carStationWagon", "bicycle", "pedestrian");
     private final DatabaseManager databaseManager;
+    private final SpatialQueryCache spatialCache = new SpatialQueryCache(16, 500000);
+    private final CrashSnapshot snapshot;
 
     /**
      * CrashDAO constructor, gets a reference to the database singleton
      */
     public CrashDAO() {
         databaseManager = DatabaseManager.getInstance();
+        snapshot = databaseManager.getSnapshot();
+        createFingerprintTable();
+        createLocationIndex();
+        createChangeCounter();
     }
 
     /**
@@ -34,11 +95,11 @@ public class CrashDAO {
     public int getCrashesTableLength() {
         // Makes the sql query
         String sql = "SELECT COUNT(*) FROM crashes";
+        long start = TABLE_LENGTH_TIMER.start();
 
         // Tries to connect to the database and run the query.
-        try (Connection conn = databaseManager.connect();
-             PreparedStatement ps = conn.prepareStatement(sql);
-             ResultSet rs = ps.executeQuery()) {
+        try (PooledConnection conn = databaseManager.borrowReader();
+             ResultSet rs = conn.prepare(sql).executeQuery()) {
 
             if (rs.next()) {
                 return rs.getInt(1); // Get the count from the first (and only) column
@@ -48,6 +109,8 @@ public class CrashDAO {
         } catch (SQLException sqlException) {
             log.error(sqlException);
             return -1; // Return -1 to indicate an error occurred
+        } finally {
+            TABLE_LENGTH_TIMER.stop(start);
         }
     }
 
@@ -55,8 +118,8 @@ public class CrashDAO {
      * Creates R-tree index (should be done once during schema setup)
      */
     private void createRtreeIndex() {
-        try (Connection conn = databaseManager.connect();
-             Statement statement = conn.createStatement()) {
+        try (PooledConnection conn = databaseManager.borrowWriter();
+             Statement statement = conn.getConnection().createStatement()) {
             String createIndexSql = "CREATE INDEX IF NOT EXISTS crashes_spatial_index ON crashes(lat, lng);";
             statement.execute(createIndexSql);
         } catch (SQLException sqlException) {
@@ -64,6 +127,113 @@ public class CrashDAO {
         }
     }
 
+    /**
+     * Creates the indexes used to read pages of the most common sort columns, for databases created before they
+     * were added to the schema
+     */
+    private void createSortIndexes() {
+        try (PooledConnection conn = databaseManager.borrowWriter();
+             Statement statement = conn.getConnection().createStatement()) {
+            for (String column : INDEXED_SORT_COLUMNS) {
+                statement.execute("CREATE INDEX IF NOT EXISTS crashes_" + column + "_index ON crashes(" + column + ", id);");
+            }
+        } catch (SQLException sqlException) {
+            log.error("Error creating sort indexes: " + sqlException.getMessage());
+        }
+    }
+
+    /**
+     * Creates the indexes used by filtered searches, for databases created before they were added to the schema
+     */
+    private void createFilterIndexes() {
+        try (PooledConnection conn = databaseManager.borrowWriter();
+             Statement statement = conn.getConnection().createStatement()) {
+            statement.execute("CREATE INDEX IF NOT EXISTS crashes_year_severity_index ON crashes(year, severity);");
+            for (String column : INDEXED_VEHICLE_COLUMNS) {
+                statement.execute("CREATE INDEX IF NOT EXISTS crashes_" + column + "_index ON crashes(id) WHERE " + column + " > 0;");
+            }
+        } catch (SQLException sqlException) {
+            log.error("Error creating filter indexes: " + sqlException.getMessage());
+        }
+    }
+
+    /**
+     * Creates the table of row fingerprints used by incremental imports, for databases created before it was added
+     * to the schema
+     */
+    private void createFingerprintTable() {
+        try (PooledConnection conn = databaseManager.borrowWriter();
+             Statement statement = conn.getConnection().createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS import_fingerprints (sourceKey INTEGER PRIMARY KEY, "
+                    + "crashId INTEGER NOT NULL, fingerprint INTEGER NOT NULL);");
+        } catch (SQLException sqlException) {
+            log.error("Error creating import fingerprint table: " + sqlException.getMessage());
+        }
+    }
+
+    /**
+     * Creates the full-text index of crash locations and the triggers that keep it up to date, for databases created
+     * before it was added to the schema, then fills it from the crashes already in the database
+     */
+    private void createLocationIndex() {
+        try (PooledConnection conn = databaseManager.borrowWriter();
+             Statement statement = conn.getConnection().createStatement()) {
+            try (ResultSet rs = statement.executeQuery(
+                    "SELECT 1 FROM sqlite_master WHERE type='table' AND name='crashes_fts'")) {
+                if (rs.next()) {
+                    return;
+                }
+            }
+            statement.execute("CREATE VIRTUAL TABLE crashes_fts USING fts5(location1, location2, tlaName, "
+                    + "content='crashes', content_rowid='id', prefix='2 3', tokenize='unicode61 remove_diacritics 2');");
+            statement.execute("CREATE TRIGGER IF NOT EXISTS crashes_fts_insert AFTER INSERT ON crashes BEGIN "
+                    + "INSERT INTO crashes_fts(rowid, location1, location2, tlaName) "
+                    + "VALUES (new.id, new.location1, new.location2, new.tlaName); END;");
+            statement.execute("CREATE TRIGGER IF NOT EXISTS crashes_fts_delete AFTER DELETE ON crashes BEGIN "
+                    + "INSERT INTO crashes_fts(crashes_fts, rowid, location1, location2, tlaName) "
+                    + "VALUES ('delete', old.id, old.location1, old.location2, old.tlaName); END;");
+            statement.execute("CREATE TRIGGER IF NOT EXISTS crashes_fts_update AFTER UPDATE OF location1, location2, "
+                    + "tlaName ON crashes BEGIN "
+                    + "INSERT INTO crashes_fts(crashes_fts, rowid, location1, location2, tlaName) "
+                    + "VALUES ('delete', old.id, old.location1, old.location2, old.tlaName); "
+                    + "INSERT INTO crashes_fts(rowid, location1, location2, tlaName) "
+                    + "VALUES (new.id, new.location1, new.location2, new.tlaName); END;");
+            statement.execute("INSERT INTO crashes_fts(crashes_fts) VALUES ('rebuild');");
+        } catch (SQLException sqlException) {
+            log.error("Error creating location index: " + sqlException.getMessage());
+        }
+    }
+
+    /**
+     * Creates the change count of the crashes table, for databases created before it was added to the schema, and
+     * drops the per-row triggers that used to keep it up to date, as writes now count themselves once per transaction
+     */
+    private void createChangeCounter() {
+        try (PooledConnection conn = databaseManager.borrowWriter();
+             Statement statement = conn.getConnection().createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS crash_changes (id INTEGER PRIMARY KEY CHECK (id = 0), "
+                    + "changeCount INTEGER NOT NULL);");
+            statement.execute("INSERT OR IGNORE INTO crash_changes (id, changeCount) VALUES (0, 0);");
+            for (String event : List.of("insert", "delete", "update")) {
+                statement.execute("DROP TRIGGER IF EXISTS crashes_changes_" + event + ";");
+            }
+        } catch (SQLException sqlException) {
+            log.error("Error creating change counter: " + sqlException.getMessage());
+        }
+    }
+
+    /**
+     * Adds one to the change count the crash snapshot is checked against. Must be run in every transaction that
+     * writes to the crashes table, before it commits, so the count changes exactly when the crashes do. Counting
+     * once per transaction rather than per row keeps it out of the way of large imports.
+     *
+     * @param conn the writer running the transaction
+     * @throws SQLException Exception to throw when error in sql
+     */
+    private void countChange(PooledConnection conn) throws SQLException {
+        conn.prepare("UPDATE crash_changes SET changeCount = changeCount + 1").executeUpdate();
+    }
+
     /**
      * Does a circular R-Tree search on the database with the given clat, clng, and radius.
      *
@@ -73,28 +243,38 @@ public class CrashDAO {
      * @return a list of all Crash instances that fall within the search
      */
     public List<Crash> rTreeCircleSearch(double clat, double clng, double radius) {
+        // Answers from the cache if this search, or one covering it, has been done since the data last changed
+        long start = CIRCLE_SEARCH_TIMER.start();
+        long dataVersion = databaseManager.getDataVersion();
+        List<Crash> cached = spatialCache.getCircle(clat, clng, radius, dataVersion);
+        if (cached != null) {
+            CIRCLE_SEARCH_CACHED_TIMER.stop(start);
+            return cached;
+        }
+
         // Creates the list and query
         List<Crash> results = new ArrayList<>();
-        String sql = "SELECT * " +
+        String sql = "SELECT " + SELECT_COLUMNS + " " +
                 "FROM crashes " +
                 "WHERE (6371 * acos(cos(radians(?)) * cos(radians(lat)) * cos(radians(lng) - radians(?)) + " +
                 "sin(radians(?)) * sin(radians(lat)))) <= ?";
 
         // Tries to connect to the database and run the query
-        try (Connection conn = databaseManager.connect();
-            PreparedStatement ps = conn.prepareStatement(sql)) {
+        try (PooledConnection conn = databaseManager.borrowReader()) {
+            PreparedStatement ps = conn.prepare(sql);
             ps.setDouble(1, clat);
             ps.setDouble(2, clng);
             ps.setDouble(3, clat);
             ps.setDouble(4, radius);
 
             try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    results.add(buildCrashFromResultSet(rs));
-                }
+                results.addAll(readCrashColumns(rs).asList());
             }
+            spatialCache.putCircle(clat, clng, radius, results, dataVersion);
         } catch (SQLException sqlException) {
             log.error(sqlException);
+        } finally {
+            CIRCLE_SEARCH_TIMER.stop(start);
         }
 
         // Returns the result
@@ -109,35 +289,191 @@ public class CrashDAO {
      * @return A list of crashes that fall inside the search rectangle
      */
     public List<Crash> rTreeRectangleSearch(Position bottomLeft, Position topRight) {
+        // Answers from the cache if this search, or one covering it, has been done since the data last changed
+        long start = RECTANGLE_SEARCH_TIMER.start();
+        long dataVersion = databaseManager.getDataVersion();
+        List<Crash> cached = spatialCache.getRectangle(bottomLeft, topRight, dataVersion);
+        if (cached != null) {
+            RECTANGLE_SEARCH_CACHED_TIMER.stop(start);
+            return cached;
+        }
 
         // Creates the list and makes the query
         List<Crash> results = new ArrayList<>();
-        String sql = "SELECT *" +
+        String sql = "SELECT " + SELECT_COLUMNS + " " +
                 "FROM crashes " +
                 "WHERE lat BETWEEN ? AND ? " +
                 "AND lng BETWEEN ? AND ?";
 
         // Tries to connect to the database and run the query
-        try (Connection conn = databaseManager.connect();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+        try (PooledConnection conn = databaseManager.borrowReader()) {
+            PreparedStatement ps = conn.prepare(sql);
             ps.setDouble(1, bottomLeft.lat);
             ps.setDouble(2, topRight.lat);
             ps.setDouble(3, bottomLeft.lng);
             ps.setDouble(4, topRight.lng);
 
             try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    results.add(buildCrashFromResultSet(rs));
-                }
+                results.addAll(readCrashColumns(rs).asList());
             }
+            spatialCache.putRectangle(bottomLeft, topRight, results, dataVersion);
         } catch (SQLException sqlException) {
             log.error(sqlException);
+        } finally {
+            RECTANGLE_SEARCH_TIMER.stop(start);
         }
 
         // Returns the result
         return results;
     }
 
+    /**
+     * Searches the database for the crashes matching a query, applying its search circle and filters together in a
+     * single statement so only the matching crashes are read.
+     *
+     * @param query the search to run
+     * @return the matching crashes, in id order, as a list that cannot be changed, or null if the search failed
+     */
+    public List<Crash> search(CrashQuery query) {
+        String sql = "SELECT " + SELECT_COLUMNS + " FROM crashes WHERE " + query.getWhereClause() + " ORDER BY id";
+        long start = SEARCH_TIMER.start();
+
+        // Tries to connect to the database and run the query
+        try (PooledConnection conn = databaseManager.borrowReader()) {
+            PreparedStatement ps = conn.prepare(sql);
+            List<Object> parameters = query.getParameters();
+            for (int i = 0; i < parameters.size(); i++) {
+                ps.setObject(i + 1, parameters.get(i));
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                return readCrashColumns(rs).asList();
+            }
+        } catch (SQLException sqlException) {
+            log.error(sqlException);
+        } finally {
+            SEARCH_TIMER.stop(start);
+        }
+        return null;
+    }
+
+    /**
+     * Searches the crashes by location, matching words of the text against the start of words in each crash's
+     * roads and district, so "riccarton ro" finds crashes on Riccarton Road. Every word must match. Crashes are ranked
+     * by how well they match, with a match on a road counting for more than a match on the district.
+     *
+     * @param text the words to search for
+     * @param limit the most crashes to return
+     * @return the matching crashes, best match first, or an empty list if the text has no words, as a list that
+     *         cannot be changed
+     */
+    public List<Crash> searchLocations(String text, int limit) {
+        String match = toLocationMatch(text);
+        if (match.isEmpty()) {
+            return List.of();
+        }
+        String sql = "SELECT " + QUALIFIED_SELECT_COLUMNS + " FROM crashes_fts "
+                + "JOIN crashes ON crashes.id = crashes_fts.rowid WHERE crashes_fts MATCH ? "
+                + "ORDER BY bm25(crashes_fts, 2.0, 2.0, 1.0), crashes.id LIMIT ?";
+        long start = LOCATION_SEARCH_TIMER.start();
+
+        try (PooledConnection conn = databaseManager.borrowReader()) {
+            PreparedStatement ps = conn.prepare(sql);
+            ps.setString(1, match);
+            ps.setInt(2, limit);
+            try (ResultSet rs = ps.executeQuery()) {
+                return readCrashColumns(rs).asList();
+            }
+        } catch (SQLException sqlException) {
+            log.error(sqlException);
+        } finally {
+            LOCATION_SEARCH_TIMER.stop(start);
+        }
+        return List.of();
+    }
+
+    /**
+     * Counts the crashes at each location, for suggesting locations as the user types. Roads are given with their
+     * district, as the same road name is used in many places, and each district is counted on its own as well.
+     *
+     * @return the number of crashes for each location, or an empty map if the query failed
+     */
+    public Map<String, Integer> getLocationCounts() {
+        String sql = "SELECT road || ', ' || tlaName, COUNT(*) FROM ("
+                + "SELECT location1 AS road, tlaName FROM crashes UNION ALL SELECT location2, tlaName FROM crashes) "
+                + "WHERE road <> '' AND tlaName <> '' GROUP BY road, tlaName "
+                + "UNION ALL SELECT tlaName, COUNT(*) FROM crashes WHERE tlaName <> '' GROUP BY tlaName";
+        Map<String, Integer> counts = new HashMap<>();
+        long start = LOCATION_COUNTS_TIMER.start();
+
+        try (PooledConnection conn = databaseManager.borrowReader();
+             ResultSet rs = conn.prepare(sql).executeQuery()) {
+            while (rs.next()) {
+                counts.merge(rs.getString(1), rs.getInt(2), Integer::sum);
+            }
+        } catch (SQLException sqlException) {
+            log.error(sqlException);
+            counts.clear();
+        } finally {
+            LOCATION_COUNTS_TIMER.stop(start);
+        }
+        return counts;
+    }
+
+    /**
+     * Gets the centre of the crashes at each location, for finding addresses without the remote geocoder. Roads are
+     * given with their district, the same as {@link #getLocationCounts()}, and each district on its own as well.
+     *
+     * @return the average position of the crashes at each location, or an empty map if the query failed
+     */
+    public Map<String, Position> getLocationCentroids() {
+        String sql = "SELECT road || ', ' || tlaName, AVG(lat), AVG(lng) FROM ("
+                + "SELECT location1 AS road, tlaName, lat, lng FROM crashes "
+                + "UNION ALL SELECT location2, tlaName, lat, lng FROM crashes) "
+                + "WHERE road <> '' AND tlaName <> '' GROUP BY road, tlaName "
+                + "UNION ALL SELECT tlaName, AVG(lat), AVG(lng) FROM crashes WHERE tlaName <> '' GROUP BY tlaName";
+        Map<String, Position> centroids = new HashMap<>();
+        long start = LOCATION_CENTROIDS_TIMER.start();
+
+        try (PooledConnection conn = databaseManager.borrowReader();
+             ResultSet rs = conn.prepare(sql).executeQuery()) {
+            while (rs.next()) {
+                centroids.put(rs.getString(1), new Position(rs.getDouble(2), rs.getDouble(3)));
+            }
+        } catch (SQLException sqlException) {
+            log.error(sqlException);
+            centroids.clear();
+        } finally {
+            LOCATION_CENTROIDS_TIMER.stop(start);
+        }
+        return centroids;
+    }
+
+    /**
+     * Gets the optional gazetteer of place positions kept next to the database, which may not exist.
+     *
+     * @return the gazetteer file
+     */
+    public File getGazetteerFile() {
+        return new File(databaseManager.getDatabaseFile().getAbsoluteFile().getParentFile(), "gazetteer.csv");
+    }
+
+    /**
+     * Turns search text into a full-text query matching each of its words as a prefix. Only letters and digits
+     * are kept, so nothing typed can be read as query syntax.
+     *
+     * @param text the text typed by the user
+     * @return the full-text query, or an empty string if the text has no words
+     */
+    private static String toLocationMatch(String text) {
+        StringBuilder match = new StringBuilder();
+        for (String word : text.split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty()) {
+                match.append(match.length() == 0 ? "" : " ").append('"').append(word).append("\"*");
+            }
+        }
+        return match.toString();
+    }
+
     /**
      * Gets a specific page of crashes from the database, used for pagination in the table.
      *
@@ -146,12 +482,35 @@ public class CrashDAO {
      * @return A list of Crash objects for the specified page.
      */
     public List<Crash> getPage(int pageNumber, int itemsPerPage) {
+        return getPage(pageNumber, itemsPerPage, "id", true);
+    }
+
+    /**
+     * Gets a specific page of crashes from the database when sorted by a column, for crashes not held in memory.
+     * Ties are ordered by id, in the same direction, so the common sort columns are read straight from their index.
+     *
+     * @param pageNumber   The page number (starting from 0).
+     * @param itemsPerPage The number of crashes to fetch per page.
+     * @param orderBy      The name of the column to sort by.
+     * @param ascending    true to sort in ascending order, false for descending.
+     * @return A list of Crash objects for the specified page.
+     * @throws IllegalArgumentException if orderBy is not a column of the crashes table
+     */
+    public List<Crash> getPage(int pageNumber, int itemsPerPage, String orderBy, boolean ascending) {
+        // The column is checked against the table's columns, as it cannot be passed as a parameter
+        if (!ORDERABLE_COLUMNS.contains(orderBy)) {
+            throw new IllegalArgumentException("Cannot order crashes by " + orderBy);
+        }
+        String direction = ascending ? "ASC" : "DESC";
+        String orderByClause = orderBy.equals("id") ? "id " + direction : orderBy + " " + direction + ", id " + direction;
+
         List<Crash> crashes = new ArrayList<>();
-        String sql =  "SELECT * FROM crashes ORDER BY id LIMIT ? OFFSET ?";
+        String sql =  "SELECT " + SELECT_COLUMNS + " FROM crashes ORDER BY " + orderByClause + " LIMIT ? OFFSET ?";
         int offset = pageNumber * itemsPerPage;
+        long start = GET_PAGE_TIMER.start();
 
-        try (Connection conn = databaseManager.connect();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+        try (PooledConnection conn = databaseManager.borrowReader()) {
+            PreparedStatement ps = conn.prepare(sql);
             ps.setInt(1, itemsPerPage);
             ps.setInt(2, offset);
 
@@ -164,30 +523,148 @@ public class CrashDAO {
         } catch (SQLException sqlException) {
             log.error(sqlException);
             return new ArrayList<>();
+        } finally {
+            GET_PAGE_TIMER.stop(start);
         }
     }
 
     /**
-     * Gets all crashes in database
+     * Gets all crashes in database.
+     * They are loaded from the binary snapshot if it is up to date. Otherwise large tables are split into ranges of
+     * ids that are read at the same time on the IO pool, each over its own read-only connection, so loading every
+     * crash scales with the number of cores; a new snapshot is then written in the background.
      *
-     * @return a list of all crashes
+     * @return a read-only list of all crashes
      */
     public List<Crash> getAll() {
-        // Create the list to add to and the sql query
-        List<Crash> crashes = new ArrayList<>();
-        String sql = "SELECT * FROM crashes";
+        long start = GET_ALL_TIMER.start();
+        long[] idRange = getIdRange();
+        long crashCount = idRange == null ? 0 : idRange[2];
 
-        // Tries to connect to the database and run the query
-        try (Connection conn = databaseManager.connect();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            while (rs.next()) {
-                crashes.add(buildCrashFromResultSet(rs));
+        // Answers from the snapshot if it was taken when the database was last at this change count
+        List<CrashColumns> snapshotBlocks = crashCount == 0 ? null
+                : snapshot.read(idRange[3], crashCount, idRange[1]);
+        if (snapshotBlocks != null) {
+            GET_ALL_SNAPSHOT_TIMER.stop(start);
+            return toCrashList(snapshotBlocks);
+        }
+
+        try {
+            if (idRange == null) {
+                return new ArrayList<>();
+            }
+            // Splits the range of ids between the partitions
+            long minId = idRange[0];
+            long maxId = idRange[1];
+            int partitions = crashCount < PARALLEL_LOAD_MIN_ROWS ? 1
+                    : Math.min(Runtime.getRuntime().availableProcessors(), MAX_LOAD_PARTITIONS);
+
+            // Reads each range of ids into its own columns, keeping the partitions in id order
+            long partitionSize = (maxId - minId) / partitions + 1;
+            List<FutureTask<CrashColumns>> tasks = new ArrayList<>();
+            for (int partition = 0; partition < partitions; partition++) {
+                long fromId = minId + partition * partitionSize;
+                long toId = Math.min(maxId, fromId + partitionSize - 1);
+                tasks.add(new FutureTask<>(() -> getCrashesInIdRange(fromId, toId)));
             }
-            return crashes;
+            // The first partition is read on this thread while the others are read on the IO pool
+            for (FutureTask<CrashColumns> task : tasks.subList(1, tasks.size())) {
+                BackgroundExecutor.getInstance().submitIO(task);
+            }
+            List<CrashColumns> results = new ArrayList<>();
+            for (int partition = 0; partition < partitions; partition++) {
+                long fromId = minId + partition * partitionSize;
+                results.add(joinPartition(tasks.get(partition), fromId, Math.min(maxId, fromId + partitionSize - 1)));
+            }
+
+            if (results.contains(null)) {
+                // A partition failed and has been logged, so no partial result is returned
+                return new ArrayList<>();
+            }
+            if (crashCount > 0) {
+                snapshot.writeInBackground(results, idRange[3], crashCount, maxId);
+            }
+            return toCrashList(results);
+        } finally {
+            GET_ALL_TIMER.stop(start);
+        }
+    }
+
+    /**
+     * Waits for a partition of {@link #getAll()} to be read. A partition no pool thread has started yet is read on
+     * the calling thread instead, so a busy pool can slow the load down but never stall it, even when the load is
+     * itself running on the pool.
+     *
+     * @param task the task reading the partition
+     * @param fromId the lowest id in the partition
+     * @param toId the highest id in the partition
+     * @return the partition's crashes, or null if reading them failed
+     */
+    private CrashColumns joinPartition(FutureTask<CrashColumns> task, long fromId, long toId) {
+        task.run();
+        try {
+            return task.get();
+        } catch (CancellationException e) {
+            // Turned away by a full pool, which cancels the task before it ever runs
+            return getCrashesInIdRange(fromId, toId);
+        } catch (ExecutionException e) {
+            log.error(e.getCause());
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    /**
+     * Joins blocks of columns into one list of crashes, without making an object for each crash up front.
+     *
+     * @param blocks the blocks, in order
+     * @return a read-only list of every crash in the blocks
+     */
+    private List<Crash> toCrashList(List<CrashColumns> blocks) {
+        return CrashColumns.asList(blocks);
+    }
+
+    /**
+     * Gets the smallest id, largest id and number of crashes in the database, along with its change count. They are
+     * read by one statement, so all four are from the same moment.
+     *
+     * @return the minimum id, maximum id, count and change count, or null if the query failed
+     */
+    private long[] getIdRange() {
+        String sql = "SELECT MIN(id), MAX(id), COUNT(*), (SELECT changeCount FROM crash_changes) FROM crashes";
+
+        try (PooledConnection conn = databaseManager.borrowReader();
+             ResultSet rs = conn.prepare(sql).executeQuery()) {
+            return rs.next() ? new long[] {rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getLong(4)} : null;
         } catch (SQLException sqlException) {
             log.error(sqlException);
-            return new ArrayList<>();
+            return null;
+        }
+    }
+
+    /**
+     * Reads the crashes with ids in a range, over a read-only connection of its own.
+     *
+     * @param fromId the smallest id to read
+     * @param toId the largest id to read
+     * @return the crashes in id order, or null if the query failed
+     */
+    private CrashColumns getCrashesInIdRange(long fromId, long toId) {
+        String sql = "SELECT " + SELECT_COLUMNS + " FROM crashes WHERE id BETWEEN ? AND ? ORDER BY id";
+
+        try (PooledConnection conn = databaseManager.borrowReader()) {
+            PreparedStatement ps = conn.prepare(sql);
+            ps.setLong(1, fromId);
+            ps.setLong(2, toId);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                return readCrashColumns(rs);
+            }
+        } catch (SQLException sqlException) {
+            log.error(sqlException);
+            return null;
         }
     }
 
@@ -198,28 +675,241 @@ public class CrashDAO {
      * @param toAdd list of crashes to add to the database
      */
     public void addBatch(List<Crash> toAdd) {
+        addBatch(toAdd, null);
+    }
+
+    /**
+     * Adds a batch of crashes to the database, committing every few thousand crashes and reporting progress after
+     * each commit. If the listener cancels the import, it stops after the current commit, so every crash is either
+     * fully added or not added at all.
+     *
+     * @param toAdd list of crashes to add to the database
+     * @param listener listener to report progress to, which can stop the import part way, or null
+     */
+    public void addBatch(List<Crash> toAdd, ImportListener listener) {
+        Iterator<List<Crash>> chunks = IntStream.range(0, (toAdd.size() + INSERT_CHUNK_SIZE - 1) / INSERT_CHUNK_SIZE)
+                .mapToObj(chunk -> toAdd.subList(chunk * INSERT_CHUNK_SIZE,
+                        Math.min((chunk + 1) * INSERT_CHUNK_SIZE, toAdd.size())))
+                .iterator();
+        addBatches(chunks, toAdd.size(), listener);
+    }
+
+    /**
+     * Adds crashes to the database a batch at a time as they arrive, committing each batch and reporting progress
+     * after each commit, so batches can still be being read while earlier ones are inserted. If the listener cancels
+     * the import, it stops after the current commit, so every crash is either fully added or not added at all.
+     *
+     * @param batches the batches of crashes to add, in order
+     * @param expectedCount the total number of crashes in the batches, or -1 if it is not known yet
+     * @param listener listener to report progress to, which can stop the import part way, or null
+     */
+    public void addBatches(Iterator<List<Crash>> batches, long expectedCount, ImportListener listener) {
         // Creates the sql query.
-        String sql = "INSERT OR IGNORE INTO crashes (advisorySpeed, bicycle, bridge, bus, carStationWagon, cliffBank, location1, location2, severity, year, ditch, fatalCount, fence, flatHill, guardRail, holiday, houseOrBuilding, intersection, kerb, light, minorInjuryCount, moped, motorcycle, numberOfLanes, objectThrownOrDropped, otherObject, otherVehicleType, overBank, parkedVehicle, phoneBoxEtc, pedestrian, postOrPole, roadCharacter, roadLane, roadSurface, roadworks, schoolBus, seriousInjuryCount, slipOrFlood, speedLimit, strayAnimal, streetLight, suv, taxi, tlaName, temporarySpeedLimit, trafficControl, trafficIsland, trafficSign, train, tree, truck, unknownVehicleType, urban, vanOrUtility, vehicle, waterRiver, weatherA, weatherB, lat, lng) values (?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?);";
+        String sql = "INSERT OR IGNORE INTO crashes (" + CRASH_COLUMNS + ") values (?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?);";
+
+        long start = ADD_BATCH_TIMER.start();
 
         // Tries to connect to the database and run the query
-        try (Connection conn = databaseManager.connect();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+        try (PooledConnection pooled = databaseManager.borrowWriter()) {
+            Connection conn = pooled.getConnection();
+            PreparedStatement ps = pooled.prepare(sql);
             conn.setAutoCommit(false);
-            for (Crash crash : toAdd) {
-                setCrash(ps, crash);
-            }
-            ps.executeBatch();
-            ResultSet rs = ps.getGeneratedKeys();
-            while (rs.next()){
-                log.info(rs.getLong(1));
+            int inserted = 0;
+            long done = 0;
+            while (batches.hasNext()) {
+                List<Crash> batch = batches.next();
+                for (Crash crash : batch) {
+                    setCrash(ps, crash);
+                }
+                for (int updateCount : ps.executeBatch()) {
+                    if (updateCount > 0) {
+                        inserted++;
+                    }
+                }
+                countChange(pooled);
+                conn.commit();
+                // Searches run during the import see each batch as soon as it is committed, not only at the end
+                databaseManager.markDataChanged();
+                done += batch.size();
+                if (listener != null) {
+                    listener.onProgress(new ImportProgress(ImportProgress.Stage.INSERTING, done, expectedCount, done,
+                            System.nanoTime() - start));
+                    if (listener.isCancelled()) {
+                        log.info("Import cancelled after " + done + " crashes");
+                        break;
+                    }
+                }
             }
-            conn.commit();
+            long rowsPerSecond = done * 1000000000L / Math.max(1, System.nanoTime() - start);
+            log.info("Inserted " + inserted + " of " + done + " crashes at " + rowsPerSecond + " rows/s");
         } catch (SQLException sqlException) {
             log.error(sqlException);
+        } finally {
+            ADD_BATCH_TIMER.stop(start);
         }
 
         // Complete a new r-tree index
         createRtreeIndex();
+        createSortIndexes();
+        createFilterIndexes();
+    }
+
+    /**
+     * Brings the database up to date with a new copy of a file imported before, writing only the rows that changed.
+     * Each row's fingerprint is compared with the one stored when its key was last imported: unchanged rows are
+     * skipped without touching the crashes table, changed rows update their crash, new rows are inserted, and the
+     * crashes of rows no longer in the file are deleted. The whole import is applied in one transaction.
+     * A new row at the location of a crash that no row owns, such as one added by a full import, takes that crash
+     * over rather than being dropped. Otherwise locations stay unique, so a row at another row's location is skipped.
+     *
+     * @param records every row of the file, with its key and fingerprint
+     * @return what the import changed, or null if it failed and nothing was changed
+     */
+    public ImportSummary importChanges(List<CrashRecord> records) {
+        String insertSql = "INSERT OR IGNORE INTO crashes (" + CRASH_COLUMNS + ") values (?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?);";
+        String updateSql = "UPDATE OR IGNORE crashes SET " + CRASH_COLUMNS.replace(", ", "=?, ") + "=? WHERE id=?";
+        String findSql = "SELECT id FROM crashes WHERE lat=? AND lng=?";
+        String saveFingerprintSql = "INSERT OR REPLACE INTO import_fingerprints (sourceKey, crashId, fingerprint) VALUES (?,?,?)";
+        String deleteSql = "DELETE FROM crashes WHERE id=?";
+        String deleteFingerprintSql = "DELETE FROM import_fingerprints WHERE sourceKey=?";
+        int inserted = 0;
+        int updated = 0;
+        int deleted = 0;
+        int unchanged = 0;
+        int skipped = 0;
+        long start = IMPORT_CHANGES_TIMER.start();
+
+        // These are only run by imports, so are prepared for this import alone rather than cached on the writer
+        try (PooledConnection pooled = databaseManager.borrowWriter();
+             PreparedStatement insert = pooled.getConnection().prepareStatement(insertSql, Statement.RETURN_GENERATED_KEYS);
+             PreparedStatement update = pooled.getConnection().prepareStatement(updateSql);
+             PreparedStatement find = pooled.getConnection().prepareStatement(findSql);
+             PreparedStatement saveFingerprint = pooled.getConnection().prepareStatement(saveFingerprintSql);
+             PreparedStatement delete = pooled.getConnection().prepareStatement(deleteSql);
+             PreparedStatement deleteFingerprint = pooled.getConnection().prepareStatement(deleteFingerprintSql)) {
+            Connection conn = pooled.getConnection();
+            conn.setAutoCommit(false);
+            // Crash id and fingerprint of each key from earlier imports; whatever is left at the end has been removed
+            Map<Long, long[]> previous = readFingerprints(conn);
+            // Crashes owned by a row, which a new row at the same location must not take over
+            Set<Long> ownedCrashes = new HashSet<>();
+            for (long[] crashAndFingerprint : previous.values()) {
+                ownedCrashes.add(crashAndFingerprint[0]);
+            }
+            Set<Long> seenKeys = new HashSet<>();
+
+            for (CrashRecord record : records) {
+                long key = record.getSourceKey();
+                if (!seenKeys.add(key)) {
+                    skipped++;
+                    continue;
+                }
+                long[] crashAndFingerprint = previous.remove(key);
+                if (crashAndFingerprint != null && crashAndFingerprint[1] == record.getFingerprint()) {
+                    unchanged++;
+                    continue;
+                }
+
+                long crashId = -1;
+                boolean isNew = crashAndFingerprint == null;
+                if (!isNew) {
+                    crashId = crashAndFingerprint[0];
+                } else if (insertCrash(insert, record.getCrash()) > 0) {
+                    try (ResultSet keys = insert.getGeneratedKeys()) {
+                        crashId = keys.next() ? keys.getLong(1) : -1;
+                    }
+                    inserted++;
+                } else {
+                    Long existing = findCrashAt(find, record.getCrash());
+                    if (existing == null || !ownedCrashes.add(existing)) {
+                        skipped++;
+                        continue;
+                    }
+                    crashId = existing;
+                    isNew = false;
+                }
+
+                if (!isNew) {
+                    if (updateCrash(update, record.getCrash(), crashId) == 0) {
+                        skipped++;
+                        continue;
+                    }
+                    updated++;
+                }
+                saveFingerprint.setLong(1, key);
+                saveFingerprint.setLong(2, crashId);
+                saveFingerprint.setLong(3, record.getFingerprint());
+                saveFingerprint.addBatch();
+            }
+            saveFingerprint.executeBatch();
+
+            for (Map.Entry<Long, long[]> removed : previous.entrySet()) {
+                delete.setLong(1, removed.getValue()[0]);
+                delete.addBatch();
+                deleteFingerprint.setLong(1, removed.getKey());
+                deleteFingerprint.addBatch();
+                deleted++;
+            }
+            delete.executeBatch();
+            deleteFingerprint.executeBatch();
+            if (inserted + updated + deleted > 0) {
+                countChange(pooled);
+            }
+            conn.commit();
+        } catch (SQLException sqlException) {
+            log.error(sqlException);
+            return null;
+        } finally {
+            IMPORT_CHANGES_TIMER.stop(start);
+        }
+
+        ImportSummary summary = new ImportSummary(inserted, updated, deleted, unchanged, skipped);
+        log.info("Imported changes: " + summary);
+        if (summary.hasChanges()) {
+            databaseManager.markDataChanged();
+            snapshot.delete();
+            createRtreeIndex();
+            createSortIndexes();
+            createFilterIndexes();
+        }
+        return summary;
+    }
+
+    /**
+     * Reads the crash id and fingerprint stored for each key by earlier incremental imports.
+     *
+     * @param conn the connection of the import
+     * @return the crash id and fingerprint of each key
+     * @throws SQLException Exception to throw when error in sql
+     */
+    private Map<Long, long[]> readFingerprints(Connection conn) throws SQLException {
+        Map<Long, long[]> fingerprints = new HashMap<>();
+        try (Statement statement = conn.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT sourceKey, crashId, fingerprint FROM import_fingerprints")) {
+            while (rs.next()) {
+                fingerprints.put(rs.getLong(1), new long[] {rs.getLong(2), rs.getLong(3)});
+            }
+        }
+        return fingerprints;
+    }
+
+    private int insertCrash(PreparedStatement insert, Crash crash) throws SQLException {
+        setCrashValues(insert, crash);
+        return insert.executeUpdate();
+    }
+
+    private int updateCrash(PreparedStatement update, Crash crash, long id) throws SQLException {
+        setCrashValues(update, crash);
+        update.setLong(62, id);
+        return update.executeUpdate();
+    }
+
+    private Long findCrashAt(PreparedStatement find, Crash crash) throws SQLException {
+        find.setFloat(1, crash.getLat());
+        find.setFloat(2, crash.getLng());
+        try (ResultSet rs = find.executeQuery()) {
+            return rs.next() ? rs.getLong(1) : null;
+        }
     }
 
     /**
@@ -230,116 +920,216 @@ public class CrashDAO {
     public void delete ( int id){
         // Creates the sql query
         String sql = "DELETE FROM crashes WHERE id=?";
+        String fingerprintSql = "DELETE FROM import_fingerprints WHERE crashId=?";
+        long start = DELETE_TIMER.start();
 
         // Connects to the database and runs the query
-        try (Connection conn = databaseManager.connect();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+        try (PooledConnection conn = databaseManager.borrowWriter()) {
+            PreparedStatement ps = conn.prepare(sql);
+            PreparedStatement fingerprintPs = conn.prepare(fingerprintSql);
+            conn.getConnection().setAutoCommit(false);
             ps.setInt(1, id);
             ps.executeUpdate();
+            // Otherwise the next incremental import would think the crash was still there
+            fingerprintPs.setInt(1, id);
+            fingerprintPs.executeUpdate();
+            countChange(conn);
+            conn.getConnection().commit();
         } catch (SQLException sqlException) {
             log.error(sqlException);
+        } finally {
+            databaseManager.markDataChanged();
+            DELETE_TIMER.stop(start);
         }
     }
 
     /**
-     * Clears sql database
+     * Deletes many crashes from the database at once, in a single transaction, so either all of them are deleted or
+     * none are. The ids are deleted a chunk at a time, with a statement per chunk rather than per crash.
+     *
+     * @param ids ids of the crashes to delete
+     * @return the number of crashes deleted, or 0 if the delete failed
      */
-    public void clearDatabase() {
-        // Creates the SQL query to delete all records from the crashes table
-        String sql = "DELETE FROM crashes";
+    public int deleteAll(Collection<Integer> ids) {
+        List<Integer> idList = new ArrayList<>(ids);
+        int deleted = 0;
+        long start = DELETE_ALL_TIMER.start();
 
-        // Connects to the database and runs the query
-        try (Connection conn = databaseManager.connect();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            // Executes the query to delete all records
-            ps.executeUpdate();
+        try (PooledConnection pooled = databaseManager.borrowWriter()) {
+            Connection conn = pooled.getConnection();
+            conn.setAutoCommit(false);
+            for (int from = 0; from < idList.size(); from += DELETE_CHUNK_SIZE) {
+                List<Integer> chunk = idList.subList(from, Math.min(from + DELETE_CHUNK_SIZE, idList.size()));
+                String placeholders = String.join(",", Collections.nCopies(chunk.size(), "?"));
+                PreparedStatement ps = pooled.prepare("DELETE FROM crashes WHERE id IN (" + placeholders + ")");
+                PreparedStatement fingerprintPs = pooled.prepare(
+                        "DELETE FROM import_fingerprints WHERE crashId IN (" + placeholders + ")");
+                for (int i = 0; i < chunk.size(); i++) {
+                    ps.setInt(i + 1, chunk.get(i));
+                    fingerprintPs.setInt(i + 1, chunk.get(i));
+                }
+                deleted += ps.executeUpdate();
+                fingerprintPs.executeUpdate();
+            }
+            countChange(pooled);
+            conn.commit();
         } catch (SQLException sqlException) {
-            // Handle any SQL exceptions (e.g., log or throw)
+            // The transaction is rolled back when the writer is given back
             log.error(sqlException);
+            deleted = 0;
+        } finally {
+            databaseManager.markDataChanged();
+            DELETE_ALL_TIMER.stop(start);
         }
+        return deleted;
     }
 
     /**
-     * Creates and returns the crash based on the result of a query
+     * Clears sql database
+     */
+    public void clearDatabase() {
+        clearDatabase(false);
+    }
+
+    /**
+     * Clears the database by dropping its tables and creating them again, with their indexes, from the
+     * initialisation script. This is much faster than deleting every crash and its index entries one row at a
+     * time. Ids start again from 1 afterwards.
+     *
+     * @param vacuum true to also shrink the database file down to the size of its empty tables
+     */
+    public void clearDatabase(boolean vacuum) {
+        long start = CLEAR_TIMER.start();
+        try {
+            databaseManager.resetDB();
+            if (vacuum) {
+                databaseManager.vacuum();
+            }
+        } finally {
+            CLEAR_TIMER.stop(start);
+        }
+    }
+
+    /**
+     * Reads every remaining row of a result into a column store, so large results are held as compact rows
+     * rather than as one full Crash object each.
      *
      * @param rs result of the search
+     * @return the columns holding the crashes, in the order they were returned
+     */
+    private CrashColumns readCrashColumns(ResultSet rs) throws SQLException {
+        CrashColumns columns = new CrashColumns(1024);
+        while (rs.next()) {
+            columns.add(buildCrashFromResultSet(rs));
+        }
+        return columns;
+    }
+
+    /**
+     * Creates and returns the crash based on the result of a query
+     *
+     * @param rs result of the search, which must have selected SELECT_COLUMNS
      * @return the created crash
      */
     private Crash buildCrashFromResultSet(ResultSet rs) throws SQLException {
+        // Columns are read by position rather than looked up by name for every value
+        int column = 1;
         return new Crash(
-                rs.getInt("id"),
-                rs.getInt("advisorySpeed"),
-                rs.getInt("bicycle"),
-                rs.getInt("bridge"),
-                rs.getInt("bus"),
-                rs.getInt("carStationWagon"),
-                rs.getInt("cliffBank"),
-                rs.getString("location1"),
-                rs.getString("location2"),
-                rs.getString("severity"),
-                rs.getInt("year"),
-                rs.getInt("ditch"),
-                rs.getInt("fatalCount"),
-                rs.getInt("fence"),
-                rs.getString("flatHill"),
-                rs.getInt("guardRail"),
-                rs.getString("holiday"),
-                rs.getInt("houseOrBuilding"),
-                rs.getString("intersection"),
-                rs.getInt("kerb"),
-                rs.getString("light"),
-                rs.getInt("minorInjuryCount"),
-                rs.getInt("moped"),
-                rs.getInt("motorcycle"),
-                rs.getInt("numberOfLanes"),
-                rs.getInt("objectThrownOrDropped"),
-                rs.getInt("otherObject"),
-                rs.getInt("otherVehicleType"),
-                rs.getInt("overBank"),
-                rs.getInt("parkedVehicle"),
-                rs.getInt("phoneBoxEtc"),
-                rs.getInt("pedestrian"),
-                rs.getInt("postOrPole"),
-                rs.getString("roadCharacter"),
-                rs.getString("roadLane"),
-                rs.getString("roadSurface"),
-                rs.getInt("roadworks"),
-                rs.getInt("schoolBus"),
-                rs.getInt("seriousInjuryCount"),
-                rs.getInt("slipOrFlood"),
-                rs.getInt("speedLimit"),
-                rs.getInt("strayAnimal"),
-                rs.getString("streetLight"),
-                rs.getInt("suv"),
-                rs.getInt("taxi"),
-                rs.getString("tlaName"),
-                rs.getInt("temporarySpeedLimit"),
-                rs.getString("trafficControl"),
-                rs.getInt("trafficIsland"),
-                rs.getInt("trafficSign"),
-                rs.getInt("train"),
-                rs.getInt("tree"),
-                rs.getInt("truck"),
-                rs.getInt("unknownVehicleType"),
-                rs.getString("urban"),
-                rs.getInt("vanOrUtility"),
-                rs.getInt("vehicle"),
-                rs.getInt("waterRiver"),
-                rs.getString("weatherA"),
-                rs.getString("weatherB"),
-                rs.getFloat("lat"),
-                rs.getFloat("lng")
+                rs.getInt(column++),
+                rs.getInt(column++),
+                rs.getInt(column++),
+                rs.getInt(column++),
+                rs.getInt(column++),
+                rs.getInt(column++),
+                rs.getInt(column++),
+                rs.getString(column++),
+                rs.getString(column++),
+                Severity.valueFromStr(rs.getString(column++)),
+                rs.getInt(column++),
+                rs.getInt(column++),
+                rs.getInt(column++),
+                rs.getInt(column++),
+                FlatHill.valueFromStr(rs.getString(column++)),
+                rs.getInt(column++),
+                Holiday.valueFromStr(rs.getString(column++)),
+                rs.getInt(column++),
+                rs.getString(column++),
+                rs.getInt(column++),
+                Light.valueFromStr(rs.getString(column++)),
+                rs.getInt(column++),
+                rs.getInt(column++),
+                rs.getInt(column++),
+                rs.getInt(column++),
+                rs.getInt(column++),
+                rs.getInt(column++),
+                rs.getInt(column++),
+                rs.getInt(column++),
+                rs.getInt(column++),
+                rs.getInt(column++),
+                rs.getInt(column++),
+                rs.getInt(column++),
+                RoadCharacter.valueFromStr(rs.getString(column++)),
+                RoadLane.valueFromStr(rs.getString(column++)),
+                RoadSurface.valueFromStr(rs.getString(column++)),
+                rs.getInt(column++),
+                rs.getInt(column++),
+                rs.getInt(column++),
+                rs.getInt(column++),
+                rs.getInt(column++),
+                rs.getInt(column++),
+                StreetLight.valueFromStr(rs.getString(column++)),
+                rs.getInt(column++),
+                rs.getInt(column++),
+                rs.getString(column++),
+                rs.getInt(column++),
+                TrafficControl.valueFromStr(rs.getString(column++)),
+                rs.getInt(column++),
+                rs.getInt(column++),
+                rs.getInt(column++),
+                rs.getInt(column++),
+                rs.getInt(column++),
+                rs.getInt(column++),
+                Urban.valueFromStr(rs.getString(column++)),
+                rs.getInt(column++),
+                rs.getInt(column++),
+                rs.getInt(column++),
+                WeatherA.valueFromStr(rs.getString(column++)),
+                WeatherB.valueFromStr(rs.getString(column++)),
+                rs.getFloat(column++),
+                rs.getFloat(column++)
         );
     }
 
     /**
-     * Sets the values of a crash to the values in the prepared statement.
+     * Converts a categorical value of a crash to the string stored in its column.
+     *
+     * @param value the categorical value, may be null
+     * @return the string for the column, or null if the value is null
+     */
+    private String toColumnValue(Enum<?> value) {
+        return value == null ? null : value.toString();
+    }
+
+    /**
+     * Sets the values of a crash to the values in the prepared statement and adds it to the statement's batch.
      *
      * @param ps statement to add data to
      * @param crash the crash to add
      * @throws SQLException Exception to throw when error in sql
      */
     private void setCrash(PreparedStatement ps, Crash crash) throws SQLException {
+        setCrashValues(ps, crash);
+        ps.addBatch();
+    }
+
+    /**
+     * Sets the values of a crash to the first 61 parameters of the prepared statement, in column order.
+     *
+     * @param ps statement to add data to
+     * @param crash the crash to add
+     * @throws SQLException Exception to throw when error in sql
+     */
+    private void setCrashValues(PreparedStatement ps, Crash crash) throws SQLException {
         ps.setInt(1, crash.getAdvisorySpeed());
         ps.setInt(2, crash.getBicycle());
         ps.setInt(3, crash.getBridge());
@@ -348,18 +1138,18 @@ public class CrashDAO {
         ps.setInt(6, crash.getCliffBank());
         ps.setString(7, crash.getLocation1());
         ps.setString(8, crash.getLocation2());
-        ps.setString(9, crash.getSeverity());
+        ps.setString(9, toColumnValue(crash.getSeverity()));
         ps.setInt(10, crash.getYear());
         ps.setInt(11, crash.getDitch());
         ps.setInt(12, crash.getFatalCount());
         ps.setInt(13, crash.getFence());
-        ps.setString(14, crash.getFlatHill());
+        ps.setString(14, toColumnValue(crash.getFlatHill()));
         ps.setInt(15, crash.getGuardRail());
-        ps.setString(16, crash.getHoliday());
+        ps.setString(16, toColumnValue(crash.getHoliday()));
         ps.setInt(17, crash.getHouseOrBuilding());
         ps.setString(18, crash.getIntersection());
         ps.setInt(19, crash.getKerb());
-        ps.setString(20, crash.getLight());
+        ps.setString(20, toColumnValue(crash.getLight()));
         ps.setInt(21, crash.getMinorInjuryCount());
         ps.setInt(22, crash.getMoped());
         ps.setInt(23, crash.getMotorcycle());
@@ -372,35 +1162,34 @@ public class CrashDAO {
         ps.setInt(30, crash.getPhoneBoxEtc());
         ps.setInt(31, crash.getPedestrian());
         ps.setInt(32, crash.getPostOrPole());
-        ps.setString(33, crash.getRoadCharacter());
-        ps.setString(34, crash.getRoadLane());
-        ps.setString(35, crash.getRoadSurface());
+        ps.setString(33, toColumnValue(crash.getRoadCharacter()));
+        ps.setString(34, toColumnValue(crash.getRoadLane()));
+        ps.setString(35, toColumnValue(crash.getRoadSurface()));
         ps.setInt(36, crash.getRoadworks());
         ps.setInt(37, crash.getSchoolBus());
         ps.setInt(38, crash.getSeriousInjuryCount());
         ps.setInt(39, crash.getSlipOrFlood());
         ps.setInt(40, crash.getSpeedLimit());
         ps.setInt(41, crash.getStrayAnimal());
-        ps.setString(42, crash.getStreetLight());
+        ps.setString(42, toColumnValue(crash.getStreetLight()));
         ps.setInt(43, crash.getSuv());
         ps.setInt(44, crash.getTaxi());
         ps.setString(45, crash.getTlaName());
         ps.setInt(46, crash.getTemporarySpeedLimit());
-        ps.setString(47, crash.getTrafficControl());
+        ps.setString(47, toColumnValue(crash.getTrafficControl()));
         ps.setInt(48, crash.getTrafficIsland());
         ps.setInt(49, crash.getTrafficSign());
         ps.setInt(50, crash.getTrain());
         ps.setInt(51, crash.getTree());
         ps.setInt(52, crash.getTruck());
         ps.setInt(53, crash.getUnknownVehicleType());
-        ps.setString(54, crash.getUrban());
+        ps.setString(54, toColumnValue(crash.getUrban()));
         ps.setInt(55, crash.getVanOrUtility());
         ps.setInt(56, crash.getVehicle());
         ps.setInt(57, crash.getWaterRiver());
-        ps.setString(58, crash.getWeatherA());
-        ps.setString(59, crash.getWeatherB());
+        ps.setString(58, toColumnValue(crash.getWeatherA()));
+        ps.setString(59, toColumnValue(crash.getWeatherB()));
         ps.setFloat(60, crash.getLat());
         ps.setFloat(61, crash.getLng());
-        ps.addBatch();
     }
 }
\ No newline at end of file
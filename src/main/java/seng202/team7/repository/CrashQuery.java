@@ -0,0 +1,233 @@
+package seng202.team7.repository;
+
+import seng202.team7.model.Crash;
+import seng202.team7.model.Severity;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Builder of a crash search that combines an optional search circle with the filters the user can apply, so the
+ * whole search can be run as a single SQL statement by {@link CrashDAO#search(CrashQuery)} rather than by filtering
+ * a list already loaded from the database.
+ * A filter left unset matches every crash. The vehicle filters match a crash involving any of the chosen vehicles,
+ * and choosing minor crashes also matches non-injury crashes, the same as the filters in the app.
+ */
+public class CrashQuery {
+    private static final double EARTH_RADIUS_KM = 6371;
+    private static final double KM_PER_DEGREE = EARTH_RADIUS_KM * Math.PI / 180;
+    // The bounding box is made slightly bigger than the circle, so rounding never cuts off a crash on its edge
+    private static final double BOX_MARGIN = 1.01;
+
+    private boolean hasCircle = false;
+    private double centreLat;
+    private double centreLng;
+    private double radius;
+    private boolean cars = false;
+    private boolean bikes = false;
+    private boolean pedestrians = false;
+    private final Set<Severity> severities = EnumSet.noneOf(Severity.class);
+    private int startYear = Integer.MIN_VALUE;
+    private int endYear = Integer.MAX_VALUE;
+
+    /**
+     * Creates a copy of this query, which can then be changed without changing this one.
+     *
+     * @return a copy of this query
+     */
+    public CrashQuery copy() {
+        CrashQuery copy = new CrashQuery();
+        copy.hasCircle = hasCircle;
+        copy.centreLat = centreLat;
+        copy.centreLng = centreLng;
+        copy.radius = radius;
+        copy.cars = cars;
+        copy.bikes = bikes;
+        copy.pedestrians = pedestrians;
+        copy.severities.addAll(severities);
+        copy.startYear = startYear;
+        copy.endYear = endYear;
+        return copy;
+    }
+
+    /**
+     * Limits the search to crashes within a circle.
+     *
+     * @param centreLat centre latitude
+     * @param centreLng centre longitude
+     * @param radius radius in kilometres
+     * @return this query
+     */
+    public CrashQuery withinCircle(double centreLat, double centreLng, double radius) {
+        this.hasCircle = true;
+        this.centreLat = centreLat;
+        this.centreLng = centreLng;
+        this.radius = radius;
+        return this;
+    }
+
+    /**
+     * Limits the search to crashes involving any of the chosen vehicles. Choosing none leaves the search unlimited.
+     *
+     * @param cars true to match crashes involving a car or SUV
+     * @param bikes true to match crashes involving a bicycle
+     * @param pedestrians true to match crashes involving a pedestrian
+     * @return this query
+     */
+    public CrashQuery involving(boolean cars, boolean bikes, boolean pedestrians) {
+        this.cars = cars;
+        this.bikes = bikes;
+        this.pedestrians = pedestrians;
+        return this;
+    }
+
+    /**
+     * Limits the search to crashes of any of the chosen severities. Choosing none leaves the search unlimited.
+     *
+     * @param fatal true to match fatal crashes
+     * @param serious true to match serious crashes
+     * @param minor true to match minor and non-injury crashes
+     * @return this query
+     */
+    public CrashQuery withSeverity(boolean fatal, boolean serious, boolean minor) {
+        severities.clear();
+        if (fatal) {
+            severities.add(Severity.FATAL);
+        }
+        if (serious) {
+            severities.add(Severity.SERIOUS);
+        }
+        if (minor) {
+            severities.add(Severity.MINOR);
+            severities.add(Severity.NON_INJURY);
+        }
+        return this;
+    }
+
+    /**
+     * Limits the search to crashes in a range of years.
+     *
+     * @param startYear the first year to match
+     * @param endYear the last year to match
+     * @return this query
+     */
+    public CrashQuery inYears(int startYear, int endYear) {
+        this.startYear = startYear;
+        this.endYear = endYear;
+        return this;
+    }
+
+    /**
+     * Checks whether the search is limited to a circle, which only the database can answer without every crash.
+     *
+     * @return true if the search has a circle
+     */
+    public boolean hasCircle() {
+        return hasCircle;
+    }
+
+    /**
+     * Checks whether a crash passes the filters of this query, ignoring its search circle. Used for crashes that
+     * were not found by a search the database can repeat, such as those along a route.
+     *
+     * @param crash the crash to check
+     * @return true if the crash passes every filter
+     */
+    public boolean matchesFilters(Crash crash) {
+        if ((cars || bikes || pedestrians)
+                && !(cars && (crash.getSuv() > 0 || crash.getCarStationWagon() > 0))
+                && !(bikes && crash.getBicycle() > 0)
+                && !(pedestrians && crash.getPedestrian() > 0)) {
+            return false;
+        }
+        if (!severities.isEmpty() && !severities.contains(crash.getSeverity())) {
+            return false;
+        }
+        return crash.getYear() >= startYear && crash.getYear() <= endYear;
+    }
+
+    /**
+     * Builds the WHERE clause of the query, with a ? for each of {@link #getParameters()}.
+     * The circle is first narrowed to its bounding box, which can be answered from the index on (lat, lng), before
+     * the exact distance is worked out for the crashes inside it.
+     *
+     * @return the conditions of the query, or "1" if it has none
+     */
+    String getWhereClause() {
+        List<String> conditions = new ArrayList<>();
+        if (hasCircle) {
+            conditions.add("lat BETWEEN ? AND ?");
+            if (lngDelta() < 180) {
+                conditions.add("lng BETWEEN ? AND ?");
+            }
+            conditions.add("(6371 * acos(cos(radians(?)) * cos(radians(lat)) * cos(radians(lng) - radians(?)) + "
+                    + "sin(radians(?)) * sin(radians(lat)))) <= ?");
+        }
+        if (cars || bikes || pedestrians) {
+            // Each of these matches one of the partial vehicle indexes, so SQLite can combine them
+            List<String> vehicles = new ArrayList<>();
+            if (cars) {
+                vehicles.add("suv > 0");
+                vehicles.add("carStationWagon > 0");
+            }
+            if (bikes) {
+                vehicles.add("bicycle > 0");
+            }
+            if (pedestrians) {
+                vehicles.add("pedestrian > 0");
+            }
+            conditions.add("(" + String.join(" OR ", vehicles) + ")");
+        }
+        if (startYear != Integer.MIN_VALUE || endYear != Integer.MAX_VALUE) {
+            conditions.add("year BETWEEN ? AND ?");
+        }
+        if (!severities.isEmpty()) {
+            conditions.add("severity IN (" + String.join(", ", Collections.nCopies(severities.size(), "?")) + ")");
+        }
+        return conditions.isEmpty() ? "1" : String.join(" AND ", conditions);
+    }
+
+    /**
+     * Gets the values of the ? in {@link #getWhereClause()}, in order.
+     *
+     * @return the parameters of the query
+     */
+    List<Object> getParameters() {
+        List<Object> parameters = new ArrayList<>();
+        if (hasCircle) {
+            double latDelta = radius / KM_PER_DEGREE * BOX_MARGIN;
+            parameters.add(centreLat - latDelta);
+            parameters.add(centreLat + latDelta);
+            double lngDelta = lngDelta();
+            if (lngDelta < 180) {
+                parameters.add(centreLng - lngDelta);
+                parameters.add(centreLng + lngDelta);
+            }
+            parameters.add(centreLat);
+            parameters.add(centreLng);
+            parameters.add(centreLat);
+            parameters.add(radius);
+        }
+        if (startYear != Integer.MIN_VALUE || endYear != Integer.MAX_VALUE) {
+            parameters.add(startYear);
+            parameters.add(endYear);
+        }
+        for (Severity severity : severities) {
+            parameters.add(severity.toString());
+        }
+        return parameters;
+    }
+
+    /**
+     * Gets how many degrees of longitude either side of the centre the circle can reach, which grows towards the
+     * poles.
+     */
+    private double lngDelta() {
+        double furthestLat = Math.min(90, Math.abs(centreLat) + radius / KM_PER_DEGREE);
+        double cos = Math.cos(Math.toRadians(furthestLat));
+        return cos <= 0 ? 180 : radius / (KM_PER_DEGREE * cos) * BOX_MARGIN;
+    }
+}
@@ -0,0 +1,213 @@
+package seng202.team7.repository;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import seng202.team7.business.BackgroundExecutor;
+import seng202.team7.metrics.MetricsRegistry;
+import seng202.team7.metrics.Timer;
+import seng202.team7.model.CrashColumns;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Binary snapshot of every crash in the database, kept in a file next to it so the app can load all crashes at
+ * startup without rebuilding them from SQLite row by row.
+ * The file holds a header, the crashes as one or more blocks of {@link CrashColumns}, and a CRC32 checksum of
+ * everything before it. It is read into memory in one go, and the columns are copied out of it in bulk.
+ * A snapshot is only used if its format version and checksum are right and it was taken when the database had the
+ * same change count, number of crashes and largest id. The change count is kept in the database and goes up with
+ * every transaction that writes to the crashes table, and is never reset, so a snapshot of older data never looks up
+ * to date.
+ * The snapshot is also deleted whenever the crashes change, and a write still running in the background when it is
+ * deleted is thrown away rather than moved into place.
+ */
+public class CrashSnapshot {
+    private static final Logger log = LogManager.getLogger(CrashSnapshot.class);
+    private static final MetricsRegistry metrics = MetricsRegistry.getInstance();
+    private static final Timer READ_TIMER = metrics.timer("crashSnapshot.read");
+    private static final Timer WRITE_TIMER = metrics.timer("crashSnapshot.write");
+    private static final int MAGIC = 0x44575343; // "DWSC"
+    private static final int FORMAT_VERSION = 2;
+    // The magic number, format version, change count, number of crashes and largest id
+    private static final int HEADER_BYTES = 2 * Integer.BYTES + 3 * Long.BYTES;
+
+    private final File file;
+    // Goes up every time the snapshot is deleted, so a write started before then knows not to replace it
+    private long generation;
+    // Writes go through one thread of their own, as two at once would share the temporary file
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(
+            BackgroundExecutor.daemonThreadFactory("crash-snapshot-writer"));
+
+    /**
+     * Creates a snapshot stored in the given file. Nothing is read or written until asked for.
+     *
+     * @param file the snapshot file
+     */
+    public CrashSnapshot(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Reads the snapshot, if it is up to date with the database.
+     *
+     * @param changeCount the change count now in the database
+     * @param crashCount the number of crashes now in the database
+     * @param maxId the largest crash id now in the database
+     * @return the blocks of crashes in the snapshot, in id order, or null if there is no usable snapshot
+     */
+    public List<CrashColumns> read(long changeCount, long crashCount, long maxId) {
+        if (!file.isFile()) {
+            return null;
+        }
+        long start = READ_TIMER.start();
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length < HEADER_BYTES + Long.BYTES || length > Integer.MAX_VALUE) {
+                return null;
+            }
+
+            // Checks the header first, as a stale snapshot is the usual case and needs no more of the file read
+            ByteBuffer header = readFully(channel, ByteBuffer.allocate(HEADER_BYTES));
+            if (header.getInt() != MAGIC || header.getInt() != FORMAT_VERSION || header.getLong() != changeCount
+                    || header.getLong() != crashCount || header.getLong() != maxId) {
+                return null;
+            }
+            // Read onto the heap rather than memory-mapped, as a mapping holds the file open until it is garbage
+            // collected, and on Windows the snapshot could not be deleted or replaced until then
+            ByteBuffer buffer = readFully(channel, ByteBuffer.allocate((int) length));
+            buffer.position(HEADER_BYTES);
+            CRC32 checksum = new CRC32();
+            checksum.update(buffer.duplicate().position(0).limit((int) (length - Long.BYTES)));
+            if (buffer.getLong((int) (length - Long.BYTES)) != checksum.getValue()) {
+                log.error("Crash snapshot " + file + " is corrupt, loading from the database instead");
+                return null;
+            }
+
+            int blockCount = buffer.getInt();
+            List<CrashColumns> blocks = new ArrayList<>(blockCount);
+            for (int i = 0; i < blockCount; i++) {
+                blocks.add(CrashColumns.readFrom(buffer));
+            }
+            return blocks;
+        } catch (IOException | BufferUnderflowException | IllegalArgumentException e) {
+            log.error("Error reading crash snapshot " + file + ": " + e.getMessage());
+            return null;
+        } finally {
+            READ_TIMER.stop(start);
+        }
+    }
+
+    /**
+     * Reads from the start of a file until a buffer is full.
+     *
+     * @return the buffer, flipped ready to be read
+     * @throws IOException if the file could not be read or is shorter than the buffer
+     */
+    private static ByteBuffer readFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, buffer.position()) < 0) {
+                throw new EOFException("Crash snapshot ended early");
+            }
+        }
+        return buffer.flip();
+    }
+
+    /**
+     * Writes a snapshot of the database, replacing any older one. The file is written under a temporary name and
+     * then moved into place, so a reader never sees a partly written snapshot.
+     *
+     * @param blocks every crash in the database, as blocks of columns in id order
+     * @param changeCount the change count in the database when they were read
+     * @param crashCount the number of crashes in the database when they were read
+     * @param maxId the largest crash id in the database when they were read
+     */
+    public void write(List<CrashColumns> blocks, long changeCount, long crashCount, long maxId) {
+        write(blocks, changeCount, crashCount, maxId, getGeneration());
+    }
+
+    /**
+     * Writes a snapshot of the database, unless the snapshot has been deleted since a generation.
+     */
+    private void write(List<CrashColumns> blocks, long changeCount, long crashCount, long maxId, long since) {
+        long start = WRITE_TIMER.start();
+        File temporary = new File(file.getPath() + ".tmp");
+        try {
+            CRC32 checksum = new CRC32();
+            try (DataOutputStream out = new DataOutputStream(new CheckedOutputStream(
+                    new BufferedOutputStream(new FileOutputStream(temporary), 1 << 16), checksum))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeLong(changeCount);
+                out.writeLong(crashCount);
+                out.writeLong(maxId);
+                out.writeInt(blocks.size());
+                for (CrashColumns block : blocks) {
+                    block.writeTo(out);
+                }
+                out.flush();
+                // Written last, and so not part of its own checksum
+                out.writeLong(checksum.getValue());
+            }
+            synchronized (this) {
+                if (generation != since) {
+                    // The crashes changed while this was being written
+                    temporary.delete();
+                    return;
+                }
+                Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            }
+        } catch (IOException e) {
+            log.error("Error writing crash snapshot " + file + ": " + e.getMessage());
+            temporary.delete();
+        } finally {
+            WRITE_TIMER.stop(start);
+        }
+    }
+
+    /**
+     * Writes a snapshot on a background thread, so whoever read the crashes is not kept waiting. If the snapshot is
+     * deleted before the write finishes, the write is thrown away.
+     *
+     * @param blocks every crash in the database, as blocks of columns in id order, which must not change after
+     * @param changeCount the change count in the database when they were read
+     * @param crashCount the number of crashes in the database when they were read
+     * @param maxId the largest crash id in the database when they were read
+     */
+    public void writeInBackground(List<CrashColumns> blocks, long changeCount, long crashCount, long maxId) {
+        long since = getGeneration();
+        writer.execute(() -> write(blocks, changeCount, crashCount, maxId, since));
+    }
+
+    /**
+     * Deletes the snapshot, so it is rebuilt from the database the next time all crashes are loaded. Any write
+     * still running is thrown away when it finishes.
+     */
+    public synchronized void delete() {
+        generation++;
+        if (file.exists() && !file.delete()) {
+            log.error("Error deleting crash snapshot " + file);
+        }
+    }
+
+    private synchronized long getGeneration() {
+        return generation;
+    }
+}
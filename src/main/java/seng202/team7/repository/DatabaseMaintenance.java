@@ -0,0 +1,204 @@
+package seng202.team7.repository;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import seng202.team7.business.BackgroundExecutor;
+import seng202.team7.metrics.MetricsRegistry;
+import seng202.team7.metrics.Timer;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Singleton class that keeps the database fast as data is imported and cleared, by running maintenance in the
+ * background once the database has not been used for a while:
+ * <ul>
+ *     <li>refreshing the statistics the query planner chooses indexes with, in full after the data has changed</li>
+ *     <li>giving free pages left by deletes and clears back to the file system</li>
+ *     <li>copying the write-ahead log into the database and truncating it</li>
+ * </ul>
+ * Each step is timed in the metrics registry, and each run is logged with the size of the database before and
+ * after. Maintenance holds the writer, so imports started during a run wait for it to finish.
+ */
+public class DatabaseMaintenance {
+    private static final Logger log = LogManager.getLogger(DatabaseMaintenance.class);
+    private static final MetricsRegistry metrics = MetricsRegistry.getInstance();
+    private static final Timer OPTIMIZE_TIMER = metrics.timer("databaseMaintenance.optimize");
+    private static final Timer VACUUM_TIMER = metrics.timer("databaseMaintenance.incrementalVacuum");
+    private static final Timer CHECKPOINT_TIMER = metrics.timer("databaseMaintenance.checkpoint");
+    // How long the database must go unused before maintenance runs
+    private static final long IDLE_NANOS = TimeUnit.SECONDS.toNanos(30);
+    // How often maintenance runs when the data has not changed, just for the statistics SQLite finds stale
+    private static final long UNCHANGED_INTERVAL_NANOS = TimeUnit.HOURS.toNanos(6);
+    // SQLite's value of auto_vacuum when free pages are only given back by an incremental vacuum
+    private static final int AUTO_VACUUM_INCREMENTAL = 2;
+    private static DatabaseMaintenance instance = null;
+
+    private final DatabaseManager databaseManager;
+    private ScheduledFuture<?> future;
+    private long maintainedVersion = -1;
+    private long lastRunNanos;
+    private MaintenanceReport lastReport;
+
+    /**
+     * Private constructor for singleton purposes
+     */
+    private DatabaseMaintenance() {
+        databaseManager = DatabaseManager.getInstance();
+        lastRunNanos = System.nanoTime();
+    }
+
+    /**
+     * Singleton method to get the maintenance service, creating it if it does not exist yet.
+     *
+     * @return the single instance of DatabaseMaintenance
+     */
+    public static synchronized DatabaseMaintenance getInstance() {
+        if (instance == null) {
+            instance = new DatabaseMaintenance();
+        }
+        return instance;
+    }
+
+    /**
+     * Starts checking at a fixed rate whether maintenance is due, replacing any schedule already running.
+     * The checks run on the background executor's I/O pool, so they never keep the app open.
+     *
+     * @param period the time between checks
+     * @param unit the unit of the period
+     */
+    public synchronized void start(long period, TimeUnit unit) {
+        stop();
+        future = BackgroundExecutor.getInstance().scheduleIO(() -> {
+            try {
+                runIfDue();
+            } catch (RuntimeException e) {
+                log.error("Error running database maintenance", e);
+            }
+        }, period, unit);
+    }
+
+    /**
+     * Stops checking whether maintenance is due. A run already underway finishes.
+     */
+    public synchronized void stop() {
+        if (future != null) {
+            future.cancel(false);
+            future = null;
+        }
+    }
+
+    /**
+     * Gets the report of the last maintenance run.
+     *
+     * @return the last report, or null if maintenance has not run yet
+     */
+    public synchronized MaintenanceReport getLastReport() {
+        return lastReport;
+    }
+
+    /**
+     * Runs maintenance if the database is idle and either its data has changed since the last run or the last run
+     * was long enough ago.
+     *
+     * @return the report of the run, or null if maintenance was not due
+     */
+    public synchronized MaintenanceReport runIfDue() {
+        if (databaseManager.getNanosSinceLastUse() < IDLE_NANOS) {
+            return null;
+        }
+        if (databaseManager.getDataVersion() == maintainedVersion
+                && System.nanoTime() - lastRunNanos < UNCHANGED_INTERVAL_NANOS) {
+            return null;
+        }
+        return runNow();
+    }
+
+    /**
+     * Runs every maintenance step straight away.
+     *
+     * @return the report of the run, or null if it failed
+     */
+    public synchronized MaintenanceReport runNow() {
+        File databaseFile = databaseManager.getDatabaseFile();
+        File walFile = new File(databaseFile.getPath() + "-wal");
+        long dataVersion = databaseManager.getDataVersion();
+        boolean analyze = dataVersion != maintainedVersion;
+        long fileSizeBefore = databaseFile.length();
+        long walSizeBefore = walFile.length();
+
+        try (PooledConnection conn = databaseManager.borrowWriter();
+             Statement statement = conn.getConnection().createStatement()) {
+            // Statistics are rebuilt in full after imports, as SQLite only refreshes those it has found stale
+            long start = OPTIMIZE_TIMER.start();
+            statement.execute(analyze ? "ANALYZE" : "PRAGMA optimize");
+            long optimizeNanos = System.nanoTime() - start;
+            OPTIMIZE_TIMER.stop(start);
+
+            start = VACUUM_TIMER.start();
+            long pagesFreed = vacuum(statement);
+            long vacuumNanos = System.nanoTime() - start;
+            VACUUM_TIMER.stop(start);
+
+            start = CHECKPOINT_TIMER.start();
+            statement.execute("PRAGMA wal_checkpoint(TRUNCATE)");
+            long checkpointNanos = System.nanoTime() - start;
+            CHECKPOINT_TIMER.stop(start);
+
+            lastReport = new MaintenanceReport(analyze, optimizeNanos, pagesFreed, vacuumNanos, checkpointNanos,
+                    fileSizeBefore, databaseFile.length(), walSizeBefore, walFile.length());
+            maintainedVersion = dataVersion;
+            lastRunNanos = System.nanoTime();
+            log.info("Database maintenance: " + lastReport);
+            return lastReport;
+        } catch (SQLException e) {
+            log.error("Error running database maintenance", e);
+            return null;
+        }
+    }
+
+    /**
+     * Gives the database's free pages back to the file system. A database created before incremental vacuuming
+     * was turned on is switched over with one full vacuum, which rewrites the whole file.
+     *
+     * @param statement statement on the writer
+     * @return the number of pages freed
+     * @throws SQLException if the vacuum failed
+     */
+    private long vacuum(Statement statement) throws SQLException {
+        long freePages = queryLong(statement, "PRAGMA freelist_count");
+        if (queryLong(statement, "PRAGMA auto_vacuum") != AUTO_VACUUM_INCREMENTAL) {
+            statement.execute("PRAGMA auto_vacuum=INCREMENTAL");
+            statement.execute("VACUUM");
+            return freePages;
+        }
+        if (freePages == 0) {
+            return 0;
+        }
+        // Each step of the pragma frees one page, and the driver only steps a statement without result columns
+        // once, so it is run once for each free page, all in one transaction
+        Connection connection = statement.getConnection();
+        long pagesFreed = 0;
+        connection.setAutoCommit(false);
+        try (PreparedStatement incrementalVacuum = connection.prepareStatement("PRAGMA incremental_vacuum")) {
+            for (; pagesFreed < freePages; pagesFreed++) {
+                incrementalVacuum.execute();
+            }
+        }
+        connection.commit();
+        connection.setAutoCommit(true);
+        return pagesFreed;
+    }
+
+    private static long queryLong(Statement statement, String sql) throws SQLException {
+        try (ResultSet rs = statement.executeQuery(sql)) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+}
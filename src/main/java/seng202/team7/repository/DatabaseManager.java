@@ -2,11 +2,18 @@ package seng202.team7.repository;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.sqlite.SQLiteConfig;
 
 import java.io.*;
 import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
 import java.sql.*;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Singleton class responsible for interaction with SQLite database.
@@ -16,7 +23,21 @@ import java.sql.*;
 public class DatabaseManager {
     private static DatabaseManager instance = null;
     private static final Logger log = LogManager.getLogger(DatabaseManager.class);
+    // The most idle readers kept open, enough for the parallel loads of every crash
+    private static final int MAX_IDLE_READERS = 8;
+    // The most readers borrowed at once, which also caps how many are ever open, as idle readers were all borrowed
+    private static final int MAX_BORROWED_READERS = 16;
+    private static final int STATEMENT_CACHE_SIZE = 32;
+    // How long a connection waits for a lock held by another connection before failing
+    private static final int BUSY_TIMEOUT_MILLIS = 10000;
     private final String url;
+    private final CrashSnapshot snapshot;
+    private final AtomicLong dataVersion = new AtomicLong();
+    private volatile long lastUsedNanos = System.nanoTime();
+    private final Deque<PooledConnection> idleReaders = new ArrayDeque<>();
+    private final Semaphore readerPermits = new Semaphore(MAX_BORROWED_READERS, true);
+    private final ReentrantLock writerLock = new ReentrantLock(true);
+    private PooledConnection writer;
 
     /**
      * Private constructor for singleton purposes
@@ -28,10 +49,12 @@ public class DatabaseManager {
         } else {
             this.url = urlIn;
         }
+        snapshot = new CrashSnapshot(new File(url.substring(12) + ".snapshot"));
         if(!checkDatabaseExists(url)){
             createDatabaseFile(url);
             resetDB();
         }
+        enableWriteAheadLog();
     }
 
     /**
@@ -63,18 +86,242 @@ public class DatabaseManager {
         return conn;
     }
 
+    /**
+     * Borrows the writer, the one connection every write to the database goes through, waiting for whoever has it
+     * to give it back first. Writes are queued this way rather than failing on a locked database, and as the
+     * database uses a write-ahead log, readers are never blocked by the writer, even during a long import.
+     * Statements prepared through it are kept for the next borrower. A thread that already has the writer gets it
+     * again, and it is only reset once the outermost borrowing gives it back.
+     * @return the writer connection, which must be closed to give it back
+     * @throws SQLException if the writer could not be opened
+     */
+    public PooledConnection borrowWriter() throws SQLException {
+        lastUsedNanos = System.nanoTime();
+        writerLock.lock();
+        try {
+            if (writer == null || writer.getConnection().isClosed()) {
+                writer = new PooledConnection(this, open(false), false, STATEMENT_CACHE_SIZE);
+            }
+            return writer;
+        } catch (SQLException e) {
+            writerLock.unlock();
+            throw e;
+        }
+    }
+
+    /**
+     * Borrows a read-only connection from the pool, opening a new one if none are idle. Each statement run on it
+     * reads the last data committed when it started, so it sees a consistent snapshot while an import commits.
+     * Only so many readers can be borrowed at once; past that, this waits for one to be given back, for up to as
+     * long as a connection waits for a lock.
+     * @return pooled read-only database connection, which must be closed to give it back
+     * @throws SQLException if a new connection could not be opened, or no reader was given back in time
+     */
+    public PooledConnection borrowReader() throws SQLException {
+        lastUsedNanos = System.nanoTime();
+        try {
+            if (!readerPermits.tryAcquire(BUSY_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                throw new SQLException("Timed out waiting for a database reader");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted waiting for a database reader", e);
+        }
+        try {
+            synchronized (idleReaders) {
+                if (!idleReaders.isEmpty()) {
+                    return idleReaders.pop();
+                }
+            }
+            return new PooledConnection(this, open(true), true, STATEMENT_CACHE_SIZE);
+        } catch (SQLException | RuntimeException e) {
+            readerPermits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Opens a new connection for the pool.
+     * @param readOnly true to open a reader, false to open the writer
+     * @return the open connection
+     * @throws SQLException if the connection could not be opened
+     */
+    private Connection open(boolean readOnly) throws SQLException {
+        SQLiteConfig config = new SQLiteConfig();
+        config.setBusyTimeout(BUSY_TIMEOUT_MILLIS);
+        if (readOnly) {
+            config.setReadOnly(true);
+        } else {
+            // With a write-ahead log a commit is still safe if the app crashes, and only waits for the disk when
+            // the log is written back to the database
+            config.setSynchronous(SQLiteConfig.SynchronousMode.NORMAL);
+        }
+        return DriverManager.getConnection(this.url, config.toProperties());
+    }
+
+    /**
+     * Takes back a borrowed connection. A transaction left open is rolled back, so the next borrower starts clean.
+     * A reader is closed if it is broken or the pool already has enough idle readers.
+     * @param pooled the connection being given back
+     */
+    void release(PooledConnection pooled) {
+        if (!pooled.isReadOnly()) {
+            try {
+                if (writerLock.getHoldCount() == 1 && !reset(pooled)) {
+                    writer = null;
+                }
+            } finally {
+                writerLock.unlock();
+            }
+            return;
+        }
+        try {
+            if (!reset(pooled)) {
+                return;
+            }
+            synchronized (idleReaders) {
+                if (idleReaders.size() < MAX_IDLE_READERS) {
+                    idleReaders.push(pooled);
+                    return;
+                }
+            }
+            pooled.closeConnection();
+        } finally {
+            readerPermits.release();
+        }
+    }
+
+    /**
+     * Rolls back anything a borrower left uncommitted.
+     * @param pooled the connection to reset
+     * @return true if the connection can be used again, false if it is closed or has now been closed
+     */
+    private boolean reset(PooledConnection pooled) {
+        Connection conn = pooled.getConnection();
+        try {
+            if (conn.isClosed()) {
+                return false;
+            }
+            if (!conn.getAutoCommit()) {
+                conn.rollback();
+                conn.setAutoCommit(true);
+            }
+            return true;
+        } catch (SQLException e) {
+            log.error("Error resetting pooled connection", e);
+            pooled.closeConnection();
+            return false;
+        }
+    }
+
+    /**
+     * Closes the writer and every idle reader, along with the statements prepared on them.
+     */
+    private void closeIdleConnections() {
+        synchronized (idleReaders) {
+            while (!idleReaders.isEmpty()) {
+                idleReaders.pop().closeConnection();
+            }
+        }
+        writerLock.lock();
+        try {
+            if (writer != null) {
+                writer.closeConnection();
+                writer = null;
+            }
+        } finally {
+            writerLock.unlock();
+        }
+    }
+
     /**
      * Initialises the database if it does not exist using the sql script included in resources
      */
     public void resetDB() {
+        // Statements prepared against the old tables are not worth keeping
+        closeIdleConnections();
         try {
             InputStream in = getClass().getResourceAsStream("/sql/initialise_database.sql");
             executeSQLScript(in);
+            // Also throws away a snapshot of the old data still being written
+            snapshot.delete();
         } catch (NullPointerException e) {
             log.error("Error loading database initialisation file", e);
+        } finally {
+            markDataChanged();
+        }
+    }
+
+    /**
+     * Rebuilds the database file without its free pages, so it shrinks after many crashes have been removed.
+     * This rewrites the whole file, so is only worth doing after a large delete.
+     */
+    public void vacuum() {
+        try (PooledConnection conn = borrowWriter();
+             Statement statement = conn.getConnection().createStatement()) {
+            statement.execute("VACUUM");
+        } catch (SQLException e) {
+            log.error("Error vacuuming database", e);
+        }
+    }
+
+    /**
+     * Gets a number that increases every time the data in the database changes, so anything cached from the
+     * database can tell when it is out of date.
+     *
+     * @return the current data version
+     */
+    public long getDataVersion() {
+        return dataVersion.get();
+    }
+
+    /**
+     * Gets how long it has been since a pooled connection was last borrowed, so background work can wait until the
+     * database is not being used.
+     *
+     * @return the time since the database was last used, in nanoseconds
+     */
+    public long getNanosSinceLastUse() {
+        return System.nanoTime() - lastUsedNanos;
+    }
+
+    /**
+     * Records that the data in the database has changed. Must be called after every write to the crashes table.
+     */
+    public void markDataChanged() {
+        dataVersion.incrementAndGet();
+    }
+
+    /**
+     * Switches the database to write-ahead logging, so readers no longer block writers or each other. The mode is
+     * stored in the database file, so this only changes anything the first time it is run on a database.
+     */
+    private void enableWriteAheadLog() {
+        try (PooledConnection conn = borrowWriter();
+             Statement statement = conn.getConnection().createStatement()) {
+            statement.execute("PRAGMA journal_mode=WAL");
+        } catch (SQLException e) {
+            log.error("Error enabling write-ahead logging", e);
         }
     }
 
+    /**
+     * Gets the binary snapshot of the crashes, kept in a file next to the database file. There is one snapshot per
+     * database, so deleting it also stops any write of it still running.
+     * @return the crash snapshot
+     */
+    public CrashSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Gets the database file itself.
+     * @return the database file
+     */
+    public File getDatabaseFile() {
+        return new File(url.substring(12));
+    }
+
     /**
      * Gets path to the database relative to the jar file
      * @return jdbc encoded url location of database
@@ -128,11 +375,14 @@ public class DatabaseManager {
             }
 
             String[] individualStatements = sb.toString().split("--SPLIT");
-            try (Connection conn = this.connect();
-                 Statement statement = conn.createStatement()) {
+            // Run as one transaction, so readers see the old tables until the new ones are complete
+            try (PooledConnection conn = borrowWriter();
+                 Statement statement = conn.getConnection().createStatement()) {
+                conn.getConnection().setAutoCommit(false);
                 for (String singleStatement : individualStatements) {
                     statement.executeUpdate(singleStatement);
                 }
+                conn.getConnection().commit();
             }
         } catch (FileNotFoundException e) {
             log.error("Error could not find specified database initialisation file", e);
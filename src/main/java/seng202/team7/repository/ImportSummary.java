@@ -0,0 +1,65 @@
+package seng202.team7.repository;
+
+/**
+ * What an incremental import changed in the database, compared with the file imported before it.
+ */
+public class ImportSummary {
+    private final int inserted;
+    private final int updated;
+    private final int deleted;
+    private final int unchanged;
+    private final int skipped;
+
+    /**
+     * Creates an import summary.
+     *
+     * @param inserted the number of crashes added
+     * @param updated the number of crashes whose row in the file changed and which were updated
+     * @param deleted the number of crashes removed because their row is no longer in the file
+     * @param unchanged the number of rows that were the same as last time and so not written at all
+     * @param skipped the number of rows that could not be applied, because another crash is at the same location
+     *                or the row appears in the file more than once
+     */
+    public ImportSummary(int inserted, int updated, int deleted, int unchanged, int skipped) {
+        this.inserted = inserted;
+        this.updated = updated;
+        this.deleted = deleted;
+        this.unchanged = unchanged;
+        this.skipped = skipped;
+    }
+
+    public int getInserted() {
+        return inserted;
+    }
+
+    public int getUpdated() {
+        return updated;
+    }
+
+    public int getDeleted() {
+        return deleted;
+    }
+
+    public int getUnchanged() {
+        return unchanged;
+    }
+
+    public int getSkipped() {
+        return skipped;
+    }
+
+    /**
+     * Checks whether the import changed the database at all.
+     *
+     * @return true if any crash was inserted, updated or deleted
+     */
+    public boolean hasChanges() {
+        return inserted + updated + deleted > 0;
+    }
+
+    @Override
+    public String toString() {
+        return inserted + " added, " + updated + " updated, " + deleted + " removed, " + unchanged + " unchanged, "
+                + skipped + " skipped";
+    }
+}
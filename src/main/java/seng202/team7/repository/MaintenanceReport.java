@@ -0,0 +1,88 @@
+package seng202.team7.repository;
+
+/**
+ * What a run of {@link DatabaseMaintenance} did, how long each step took, and the size of the database before and
+ * after it.
+ */
+public class MaintenanceReport {
+    private final boolean analyzed;
+    private final long optimizeNanos;
+    private final long pagesFreed;
+    private final long vacuumNanos;
+    private final long checkpointNanos;
+    private final long fileSizeBefore;
+    private final long fileSizeAfter;
+    private final long walSizeBefore;
+    private final long walSizeAfter;
+
+    /**
+     * Creates a maintenance report.
+     *
+     * @param analyzed true if the statistics were rebuilt in full, false if only those SQLite judged stale were
+     * @param optimizeNanos how long refreshing the statistics took
+     * @param pagesFreed the number of free pages given back to the file system
+     * @param vacuumNanos how long the vacuum took
+     * @param checkpointNanos how long copying the write-ahead log into the database took
+     * @param fileSizeBefore the size of the database file before, in bytes
+     * @param fileSizeAfter the size of the database file after, in bytes
+     * @param walSizeBefore the size of the write-ahead log before, in bytes
+     * @param walSizeAfter the size of the write-ahead log after, in bytes
+     */
+    public MaintenanceReport(boolean analyzed, long optimizeNanos, long pagesFreed, long vacuumNanos,
+                             long checkpointNanos, long fileSizeBefore, long fileSizeAfter, long walSizeBefore,
+                             long walSizeAfter) {
+        this.analyzed = analyzed;
+        this.optimizeNanos = optimizeNanos;
+        this.pagesFreed = pagesFreed;
+        this.vacuumNanos = vacuumNanos;
+        this.checkpointNanos = checkpointNanos;
+        this.fileSizeBefore = fileSizeBefore;
+        this.fileSizeAfter = fileSizeAfter;
+        this.walSizeBefore = walSizeBefore;
+        this.walSizeAfter = walSizeAfter;
+    }
+
+    public boolean isAnalyzed() {
+        return analyzed;
+    }
+
+    public long getOptimizeNanos() {
+        return optimizeNanos;
+    }
+
+    public long getPagesFreed() {
+        return pagesFreed;
+    }
+
+    public long getVacuumNanos() {
+        return vacuumNanos;
+    }
+
+    public long getCheckpointNanos() {
+        return checkpointNanos;
+    }
+
+    public long getFileSizeBefore() {
+        return fileSizeBefore;
+    }
+
+    public long getFileSizeAfter() {
+        return fileSizeAfter;
+    }
+
+    public long getWalSizeBefore() {
+        return walSizeBefore;
+    }
+
+    public long getWalSizeAfter() {
+        return walSizeAfter;
+    }
+
+    @Override
+    public String toString() {
+        return (analyzed ? "analyze " : "optimize ") + optimizeNanos / 1000000 + " ms, vacuum " + vacuumNanos / 1000000
+                + " ms (" + pagesFreed + " pages freed), checkpoint " + checkpointNanos / 1000000 + " ms, file "
+                + fileSizeBefore / 1024 + " KB to " + fileSizeAfter / 1024 + " KB, log " + walSizeBefore / 1024
+                + " KB to " + walSizeAfter / 1024 + " KB";
+    }
+}
@@ -0,0 +1,114 @@
+package seng202.team7.repository;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Database connection borrowed from the {@link DatabaseManager}'s pool, which keeps the statements prepared on it so
+ * the same SQL run again over any borrowing of the connection is not parsed and planned by SQLite again.
+ * The statements are cached by their SQL text and the least recently used ones are closed once there are too many.
+ * Closing a pooled connection gives it back to the pool rather than closing it, so it must be closed exactly once,
+ * and the statements it prepared must not be closed or used after that.
+ */
+public class PooledConnection implements AutoCloseable {
+    private static final Logger log = LogManager.getLogger(PooledConnection.class);
+
+    private final DatabaseManager pool;
+    private final Connection connection;
+    private final boolean readOnly;
+    private final Map<String, PreparedStatement> statements;
+
+    /**
+     * Wraps a newly opened connection.
+     *
+     * @param pool the pool the connection is given back to
+     * @param connection the open connection
+     * @param readOnly true if the connection was opened read-only
+     * @param cacheSize the most statements kept prepared
+     */
+    PooledConnection(DatabaseManager pool, Connection connection, boolean readOnly, int cacheSize) {
+        this.pool = pool;
+        this.connection = connection;
+        this.readOnly = readOnly;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                if (size() > cacheSize) {
+                    closeQuietly(eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Gets a prepared statement for some SQL, reusing the one prepared earlier on this connection if there is one.
+     * Its parameters and batch are cleared, so nothing set by its last use is carried over.
+     *
+     * @param sql the SQL of the statement
+     * @return the prepared statement, which belongs to this connection and must not be closed
+     * @throws SQLException if the statement could not be prepared
+     */
+    public PreparedStatement prepare(String sql) throws SQLException {
+        PreparedStatement statement = statements.get(sql);
+        if (statement == null || statement.isClosed()) {
+            statement = connection.prepareStatement(sql);
+            statements.put(sql, statement);
+        } else {
+            statement.clearParameters();
+            statement.clearBatch();
+        }
+        return statement;
+    }
+
+    /**
+     * Gets the underlying connection, for transactions and for statements that should not be cached.
+     *
+     * @return the connection
+     */
+    public Connection getConnection() {
+        return connection;
+    }
+
+    boolean isReadOnly() {
+        return readOnly;
+    }
+
+    /**
+     * Gives the connection back to the pool, rolling back anything left uncommitted.
+     */
+    @Override
+    public void close() {
+        pool.release(this);
+    }
+
+    /**
+     * Closes the cached statements and the connection itself, once the pool no longer wants it.
+     */
+    void closeConnection() {
+        for (PreparedStatement statement : statements.values()) {
+            closeQuietly(statement);
+        }
+        statements.clear();
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            log.error(e);
+        }
+    }
+
+    private static void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            log.error(e);
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package seng202.team7.repository;
+
+import seng202.team7.map.Position;
+import seng202.team7.model.Crash;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Least recently used cache of spatial search results, sitting in front of the circle and rectangle searches in
+ * {@link CrashDAO}. A search that exactly repeats a cached one is answered straight from the cache, and a search
+ * that lies completely inside a cached one of the same shape is answered by filtering the cached crashes with the
+ * same test the SQL query uses, which also keeps the database's result order.
+ * Entries are tagged with the {@link DatabaseManager#getDataVersion() data version} they were read at, and the whole
+ * cache is dropped as soon as that version changes.
+ */
+public class SpatialQueryCache {
+
+    // Coordinates and radii are rounded to this many units per degree or kilometre to build the lookup key
+    private static final double QUANTUM = 1e7;
+    private static final double EARTH_RADIUS_KM = 6371;
+
+    private final int maxEntries;
+    private final int maxCrashes;
+    private final LinkedHashMap<Query, List<Crash>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long version = Long.MIN_VALUE;
+    private int cachedCrashes = 0;
+
+    /**
+     * Creates an empty cache.
+     *
+     * @param maxEntries the most search results to keep
+     * @param maxCrashes the most crashes to keep across all cached results
+     */
+    public SpatialQueryCache(int maxEntries, int maxCrashes) {
+        this.maxEntries = maxEntries;
+        this.maxCrashes = maxCrashes;
+    }
+
+    /**
+     * Looks up the crashes within a circle.
+     *
+     * @param clat centre latitude
+     * @param clng centre longitude
+     * @param radius radius in kilometres
+     * @param dataVersion the current data version of the database
+     * @return a new list of the matching crashes, or null if the cache cannot answer the search
+     */
+    public synchronized List<Crash> getCircle(double clat, double clng, double radius, long dataVersion) {
+        return get(Query.circle(clat, clng, radius), dataVersion);
+    }
+
+    /**
+     * Stores the result of a circle search.
+     *
+     * @param clat centre latitude
+     * @param clng centre longitude
+     * @param radius radius in kilometres
+     * @param results the crashes the database returned
+     * @param dataVersion the data version of the database when the search was started
+     */
+    public synchronized void putCircle(double clat, double clng, double radius, List<Crash> results, long dataVersion) {
+        put(Query.circle(clat, clng, radius), results, dataVersion);
+    }
+
+    /**
+     * Looks up the crashes within a rectangle.
+     *
+     * @param bottomLeft the bottom left corner of the rectangle
+     * @param topRight the top right corner of the rectangle
+     * @param dataVersion the current data version of the database
+     * @return a new list of the matching crashes, or null if the cache cannot answer the search
+     */
+    public synchronized List<Crash> getRectangle(Position bottomLeft, Position topRight, long dataVersion) {
+        return get(Query.rectangle(bottomLeft, topRight), dataVersion);
+    }
+
+    /**
+     * Stores the result of a rectangle search.
+     *
+     * @param bottomLeft the bottom left corner of the rectangle
+     * @param topRight the top right corner of the rectangle
+     * @param results the crashes the database returned
+     * @param dataVersion the data version of the database when the search was started
+     */
+    public synchronized void putRectangle(Position bottomLeft, Position topRight, List<Crash> results,
+                                          long dataVersion) {
+        put(Query.rectangle(bottomLeft, topRight), results, dataVersion);
+    }
+
+    /**
+     * Removes every cached result.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        cachedCrashes = 0;
+    }
+
+    /**
+     * Gets the number of cached search results.
+     *
+     * @return the number of entries in the cache
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private List<Crash> get(Query query, long dataVersion) {
+        checkVersion(dataVersion);
+
+        List<Crash> exact = entries.get(query);
+        if (exact != null) {
+            return new ArrayList<>(exact);
+        }
+
+        // Find the smallest cached search of the same shape that covers this one
+        List<Crash> smallest = null;
+        for (Map.Entry<Query, List<Crash>> entry : entries.entrySet()) {
+            List<Crash> crashes = entry.getValue();
+            if (entry.getKey().contains(query) && (smallest == null || crashes.size() < smallest.size())) {
+                smallest = crashes;
+            }
+        }
+        if (smallest == null) {
+            return null;
+        }
+
+        List<Crash> filtered = new ArrayList<>();
+        for (Crash crash : smallest) {
+            if (query.matches(crash.getLat(), crash.getLng())) {
+                filtered.add(crash);
+            }
+        }
+        put(query, filtered, dataVersion);
+        return filtered;
+    }
+
+    private void put(Query query, List<Crash> results, long dataVersion) {
+        checkVersion(dataVersion);
+        if (dataVersion != version || results.size() > maxCrashes) {
+            return;
+        }
+
+        List<Crash> previous = entries.put(query, Collections.unmodifiableList(new ArrayList<>(results)));
+        if (previous != null) {
+            cachedCrashes -= previous.size();
+        }
+        cachedCrashes += results.size();
+
+        // Evict least recently used results until both limits are met
+        Iterator<List<Crash>> eldest = entries.values().iterator();
+        while (entries.size() > maxEntries || cachedCrashes > maxCrashes) {
+            cachedCrashes -= eldest.next().size();
+            eldest.remove();
+        }
+    }
+
+    /**
+     * Drops every entry if the database has changed since they were read. A result read before a change is
+     * never stored, as its version will be older than the one the cache has moved on to.
+     */
+    private void checkVersion(long dataVersion) {
+        if (dataVersion > version) {
+            clear();
+            version = dataVersion;
+        }
+    }
+
+    /**
+     * Key for a cached search. Circles and rectangles are both described by four values, and compare equal when
+     * every value rounds to the same quantum.
+     */
+    private static final class Query {
+        private final boolean circle;
+        private final double a;
+        private final double b;
+        private final double c;
+        private final double d;
+
+        private Query(boolean circle, double a, double b, double c, double d) {
+            this.circle = circle;
+            this.a = a;
+            this.b = b;
+            this.c = c;
+            this.d = d;
+        }
+
+        static Query circle(double clat, double clng, double radius) {
+            return new Query(true, clat, clng, radius, 0);
+        }
+
+        static Query rectangle(Position bottomLeft, Position topRight) {
+            return new Query(false, bottomLeft.lat, topRight.lat, bottomLeft.lng, topRight.lng);
+        }
+
+        /**
+         * Checks whether every crash matching the other search also matches this one.
+         */
+        boolean contains(Query other) {
+            if (circle != other.circle) {
+                return false;
+            }
+            if (circle) {
+                double centreDistance = distance(a, b, other.a, other.b);
+                // A small margin keeps rounding in the distance formula from admitting a circle on the boundary
+                return !Double.isNaN(centreDistance) && centreDistance + other.c <= c - 1e-9;
+            }
+            return other.a >= a && other.b <= b && other.c >= c && other.d <= d;
+        }
+
+        /**
+         * Tests a crash location the same way the SQL search for this query does.
+         */
+        boolean matches(double lat, double lng) {
+            if (circle) {
+                return distance(a, b, lat, lng) <= c;
+            }
+            return lat >= a && lat <= b && lng >= c && lng <= d;
+        }
+
+        /**
+         * Great circle distance in kilometres, using the same spherical law of cosines as the circle search.
+         */
+        private static double distance(double lat1, double lng1, double lat2, double lng2) {
+            return EARTH_RADIUS_KM * Math.acos(Math.cos(radians(lat1)) * Math.cos(radians(lat2))
+                    * Math.cos(radians(lng2) - radians(lng1)) + Math.sin(radians(lat1)) * Math.sin(radians(lat2)));
+        }
+
+        private static double radians(double degrees) {
+            return degrees * Math.PI / 180.0;
+        }
+
+        private static long quantize(double value) {
+            return Math.round(value * QUANTUM);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Query)) return false;
+            Query query = (Query) o;
+            return circle == query.circle && quantize(a) == quantize(query.a) && quantize(b) == quantize(query.b)
+                    && quantize(c) == quantize(query.c) && quantize(d) == quantize(query.d);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(circle, quantize(a), quantize(b), quantize(c), quantize(d));
+        }
+    }
+}
@@ -92,7 +92,10 @@ function initMap() {
         maxBounds: [[-50, 150], [-30, 200]]
     };
     map = new L.map('map', mapOptions);
-    new L.TileLayer('https://tile.csse.canterbury.ac.nz/hot/{z}/{x}/{y}.png', { // UCs tilemap server
+    // UCs tilemap server, through the app's tile cache when the map is served by the app
+    var tileUrl = location.protocol === 'http:' ? '/tiles/{z}/{x}/{y}.png'
+        : 'https://tile.csse.canterbury.ac.nz/hot/{z}/{x}/{y}.png';
+    new L.TileLayer(tileUrl, {
         attribution: '© OpenStreetMap contributors<br>Served by University of Canterbury'
     }).addTo(map);
 }
@@ -291,8 +294,9 @@ function removeAreaCircle() {
  * @param transportMode a string representation of the chosen transport mode.
  * @param startStr start address for route
  * @param endStr end address for route
+ * @param localRouteIn a string representation of the route planned by Java, or null to plan it with GraphHopper
  */
-function displayRoute(waypointsIn, transportMode, startStr, endStr) {
+function displayRoute(waypointsIn, transportMode, startStr, endStr, localRouteIn) {
     var waypointsArray = JSON.parse(waypointsIn);
     var waypoints = [];
     waypointsArray.forEach(element => waypoints.push(new L.latLng(element.lat, element.lng)));
@@ -323,14 +327,7 @@ function displayRoute(waypointsIn, transportMode, startStr, endStr) {
         lineOptions: {
             styles: [{color: "black"}]
         },
-        router: L.Routing.graphHopper('eac80048-7fe7-433d-9875-f83b424b76e0', {
-            urlParameters: {
-                vehicle: transportMode,
-                algorithm: "alternative_route",
-                'alternative_route.max_paths': 3,
-                'alternative_route.max_weight_factor': 2
-            }
-        }),
+        router: localRouteIn ? localRouter(JSON.parse(localRouteIn)) : remoteRouter(transportMode),
         createMarker: function() { return null; },
     });
 
@@ -355,6 +352,45 @@ function displayRoute(waypointsIn, transportMode, startStr, endStr) {
     displayCrashMarkers();
 }
 
+/**
+ * Creates a router for the routing control that asks GraphHopper's routing API for up to three routes
+ * @param transportMode the chosen transport mode ("car", "bike" or "foot")
+ * @returns {L.Routing.GraphHopper} a router for L.Routing.control
+ */
+function remoteRouter(transportMode) {
+    return L.Routing.graphHopper('eac80048-7fe7-433d-9875-f83b424b76e0', {
+        urlParameters: {
+            vehicle: transportMode,
+            algorithm: "alternative_route",
+            'alternative_route.max_paths': 3,
+            'alternative_route.max_weight_factor': 2
+        }
+    });
+}
+
+/**
+ * Creates a router for the routing control that gives back a route already planned by Java's routing engine,
+ * instead of asking a remote routing API
+ * @param localRoute the planned route, with its distance in metres, time in seconds and [lat, lng] coordinates
+ * @returns {{route: function}} a router for L.Routing.control
+ */
+function localRouter(localRoute) {
+    return {
+        route: function(waypoints, callback, context) {
+            let coordinates = localRoute.coordinates.map(coord => L.latLng(coord[0], coord[1]));
+            callback.call(context, null, [{
+                name: "",
+                coordinates: coordinates,
+                summary: {totalDistance: localRoute.distance, totalTime: localRoute.time},
+                inputWaypoints: waypoints,
+                waypoints: waypoints.map(waypoint => waypoint.latLng),
+                waypointIndices: [0, coordinates.length - 1],
+                instructions: []
+            }]);
+        }
+    };
+}
+
 /**
  * This function is called by Java, and uses turf.js to find what crashes in the crashesIn list are contained within
  * the "route polygon"
@@ -1,3 +1,5 @@
+PRAGMA auto_vacuum=INCREMENTAL;
+--SPLIT
 DROP TABLE IF EXISTS crashes;
 --SPLIT
 CREATE TABLE IF NOT EXISTS crashes (
@@ -65,4 +67,60 @@ CREATE TABLE IF NOT EXISTS crashes (
     lng REAL,
     UNIQUE (lat, lng));
 --SPLIT
-CREATE INDEX IF NOT EXISTS crashes_spatial_index ON crashes(lat, lng);
\ No newline at end of file
+CREATE INDEX IF NOT EXISTS crashes_spatial_index ON crashes(lat, lng);
+--SPLIT
+CREATE INDEX IF NOT EXISTS crashes_speedLimit_index ON crashes(speedLimit, id);
+--SPLIT
+CREATE INDEX IF NOT EXISTS crashes_year_index ON crashes(year, id);
+--SPLIT
+CREATE INDEX IF NOT EXISTS crashes_severity_index ON crashes(severity, id);
+--SPLIT
+CREATE INDEX IF NOT EXISTS crashes_tlaName_index ON crashes(tlaName, id);
+--SPLIT
+DROP TABLE IF EXISTS import_fingerprints;
+--SPLIT
+CREATE TABLE IF NOT EXISTS import_fingerprints (
+    sourceKey INTEGER PRIMARY KEY,
+    crashId INTEGER NOT NULL,
+    fingerprint INTEGER NOT NULL);
+--SPLIT
+CREATE INDEX IF NOT EXISTS crashes_year_severity_index ON crashes(year, severity);
+--SPLIT
+CREATE INDEX IF NOT EXISTS crashes_suv_index ON crashes(id) WHERE suv > 0;
+--SPLIT
+CREATE INDEX IF NOT EXISTS crashes_carStationWagon_index ON crashes(id) WHERE carStationWagon > 0;
+--SPLIT
+CREATE INDEX IF NOT EXISTS crashes_bicycle_index ON crashes(id) WHERE bicycle > 0;
+--SPLIT
+CREATE INDEX IF NOT EXISTS crashes_pedestrian_index ON crashes(id) WHERE pedestrian > 0;
+--SPLIT
+DROP TABLE IF EXISTS crashes_fts;
+--SPLIT
+CREATE VIRTUAL TABLE IF NOT EXISTS crashes_fts USING fts5(
+    location1, location2, tlaName,
+    content='crashes', content_rowid='id', prefix='2 3', tokenize='unicode61 remove_diacritics 2');
+--SPLIT
+CREATE TRIGGER IF NOT EXISTS crashes_fts_insert AFTER INSERT ON crashes BEGIN
+    INSERT INTO crashes_fts(rowid, location1, location2, tlaName)
+    VALUES (new.id, new.location1, new.location2, new.tlaName);
+END;
+--SPLIT
+CREATE TRIGGER IF NOT EXISTS crashes_fts_delete AFTER DELETE ON crashes BEGIN
+    INSERT INTO crashes_fts(crashes_fts, rowid, location1, location2, tlaName)
+    VALUES ('delete', old.id, old.location1, old.location2, old.tlaName);
+END;
+--SPLIT
+CREATE TRIGGER IF NOT EXISTS crashes_fts_update AFTER UPDATE OF location1, location2, tlaName ON crashes BEGIN
+    INSERT INTO crashes_fts(crashes_fts, rowid, location1, location2, tlaName)
+    VALUES ('delete', old.id, old.location1, old.location2, old.tlaName);
+    INSERT INTO crashes_fts(rowid, location1, location2, tlaName)
+    VALUES (new.id, new.location1, new.location2, new.tlaName);
+END;
+--SPLIT
+CREATE TABLE IF NOT EXISTS crash_changes (
+    id INTEGER PRIMARY KEY CHECK (id = 0),
+    changeCount INTEGER NOT NULL);
+--SPLIT
+INSERT OR IGNORE INTO crash_changes (id, changeCount) VALUES (0, 0);
+--SPLIT
+UPDATE crash_changes SET changeCount = changeCount + 1;
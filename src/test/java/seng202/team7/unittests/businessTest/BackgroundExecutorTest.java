@@ -0,0 +1,75 @@
+package seng202.team7.unittests.businessTest;
+
+import org.junit.jupiter.api.Test;
+import seng202.team7.business.BackgroundExecutor;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for BackgroundExecutor
+ */
+public class BackgroundExecutorTest {
+
+    private final BackgroundExecutor executor = BackgroundExecutor.getInstance();
+
+    @Test
+    public void checkTasksRunOnDaemonThreads() throws Exception {
+        FutureTask<Boolean> ioTask = new FutureTask<>(() -> Thread.currentThread().isDaemon());
+        FutureTask<String> cpuTask = new FutureTask<>(() -> Thread.currentThread().getName());
+        executor.submitIO(ioTask);
+        executor.submitCPU(cpuTask);
+        assertTrue(ioTask.get(5, TimeUnit.SECONDS));
+        assertTrue(cpuTask.get(5, TimeUnit.SECONDS).startsWith("drivewise-cpu"));
+    }
+
+    /**
+     * Tests that a newer task with the same key cancels one still running, interrupting it
+     */
+    @Test
+    public void checkLatestCancelsPrevious() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        FutureTask<Void> slowTask = new FutureTask<>(() -> {
+            started.countDown();
+            try {
+                Thread.sleep(10000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return null;
+        });
+        FutureTask<String> newTask = new FutureTask<>(() -> "done");
+
+        executor.submitLatestIO("backgroundExecutorTest", slowTask);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        executor.submitLatestIO("backgroundExecutorTest", newTask);
+
+        assertTrue(slowTask.isCancelled());
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        assertEquals("done", newTask.get(5, TimeUnit.SECONDS));
+    }
+
+    /**
+     * Tests that scheduled work runs repeatedly on the I/O pool and stops once its schedule is cancelled
+     */
+    @Test
+    public void checkScheduledRunsOnIOPool() throws Exception {
+        CountDownLatch runs = new CountDownLatch(3);
+        AtomicReference<String> threadName = new AtomicReference<>();
+        ScheduledFuture<?> schedule = executor.scheduleIO(() -> {
+            threadName.set(Thread.currentThread().getName());
+            runs.countDown();
+        }, 10, TimeUnit.MILLISECONDS);
+
+        assertTrue(runs.await(5, TimeUnit.SECONDS));
+        schedule.cancel(false);
+        assertTrue(threadName.get().startsWith("drivewise-io"));
+        assertTrue(schedule.isCancelled());
+    }
+}
@@ -0,0 +1,101 @@
+package seng202.team7.unittests.businessTest;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import seng202.team7.business.ChunkedList;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for ChunkedList
+ */
+public class ChunkedListTest {
+
+    private List<Integer> loadedChunks;
+    private List<Runnable> queued;
+    private List<Integer> reportedChunks;
+    private ChunkedList<Integer> list;
+
+    /**
+     * Sets up a list of the numbers 0 to 1049 in chunks of 100, keeping at most 4 chunks, whose loads wait in a queue
+     * standing in for the background threads
+     */
+    @BeforeEach
+    public void setUp() {
+        loadedChunks = new ArrayList<>();
+        queued = new ArrayList<>();
+        reportedChunks = new ArrayList<>();
+        list = new ChunkedList<>(1050, 100, chunk -> {
+            loadedChunks.add(chunk);
+            List<Integer> items = new ArrayList<>();
+            for (int i = chunk * 100; i < Math.min(chunk * 100 + 100, 1050); i++) {
+                items.add(i);
+            }
+            return items;
+        }, queued::add, 4, reportedChunks::add);
+    }
+
+    private void runQueued() {
+        List<Runnable> toRun = new ArrayList<>(queued);
+        queued.clear();
+        toRun.forEach(Runnable::run);
+    }
+
+    /**
+     * Tests that reading an item that is not loaded gives null and loads its chunk in the background, reporting it
+     * once it has loaded
+     */
+    @Test
+    public void checkGetLoadsChunkInBackground() {
+        assertEquals(1050, list.size());
+        assertNull(list.get(523));
+        assertTrue(loadedChunks.isEmpty());
+
+        runQueued();
+        assertEquals(List.of(5), reportedChunks);
+        assertEquals(523, (int) list.get(523));
+        assertEquals(599, (int) list.get(599));
+        assertEquals(List.of(5, 6, 4), loadedChunks);
+        assertNull(list.get(1049));
+    }
+
+    /**
+     * Tests that reading a chunk prefetches the chunks either side of it, which are not reported as they were never
+     * read before loading
+     */
+    @Test
+    public void checkNeighboursPrefetched() {
+        list.get(523);
+        assertEquals(3, queued.size());
+        runQueued();
+        assertEquals(List.of(5, 6, 4), loadedChunks);
+        assertEquals(List.of(5), reportedChunks);
+
+        assertEquals(601, (int) list.get(601));
+        assertEquals(450, (int) list.get(450));
+        assertEquals(List.of(5), reportedChunks);
+    }
+
+    /**
+     * Tests that scrolling through the whole list never keeps more than the maximum number of chunks
+     */
+    @Test
+    public void checkChunksBounded() {
+        for (int i = 0; i < list.size(); i++) {
+            if (list.get(i) == null) {
+                runQueued();
+            }
+            assertEquals(i, (int) list.get(i));
+        }
+        assertTrue(list.loadedChunks() <= 4);
+    }
+
+    @Test
+    public void checkOutOfBounds() {
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(1050));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(-1));
+    }
+}
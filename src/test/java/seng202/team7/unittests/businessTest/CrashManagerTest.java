@@ -14,7 +14,9 @@ import seng202.team7.controller.TableViewController;
 import seng202.team7.io.CrashCSVImporter;
 import seng202.team7.map.Position;
 import seng202.team7.model.Crash;
+import seng202.team7.model.Severity;
 import seng202.team7.repository.CrashDAO;
+import seng202.team7.repository.CrashQuery;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -155,6 +157,25 @@ public class CrashManagerTest {
         Assertions.assertTrue(page.isEmpty()); // Ensure that an empty list is returned for an out-of-bounds page
     }
 
+    @Test
+    public void testGetPage_withOldVersion() {
+        // Arrange
+        crashManager.setCrashes(createSampleCrashes(10));
+        long oldVersion = crashManager.getCurrentVersion();
+        List<Crash> oldCrashes = crashManager.getCurrentCrashes();
+        crashManager.setCrashes(createSampleCrashes(5));
+
+        // Act
+        List<Crash> oldPage = crashManager.getPage(oldVersion, 0, 10);
+        List<Crash> newPage = crashManager.getPage(crashManager.getCurrentVersion(), 1, 10);
+
+        // Assert that pages are never read from crashes that have been replaced, and those crashes are unchanged
+        Assertions.assertNull(oldPage);
+        Assertions.assertEquals(5, newPage.size());
+        Assertions.assertEquals(10, oldCrashes.size());
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> oldCrashes.add(oldCrashes.get(0)));
+    }
+
     @Test
     public void testGetPage_withValidPageNumberAndPartialPage() {
         // Arrange
@@ -344,7 +365,7 @@ public class CrashManagerTest {
         when(mockCrash.getCarStationWagon()).thenReturn(1);
         when(mockCrash.getBicycle()).thenReturn(1);
         when(mockCrash.getPedestrian()).thenReturn(1);
-        when(mockCrash.getSeverity()).thenReturn("Fatal Crash");
+        when(mockCrash.getSeverity()).thenReturn(Severity.FATAL);
 
         // Create a list of the mock and add it to the crash manager
         List<Crash> crashList = new ArrayList<>();
@@ -470,7 +491,7 @@ public class CrashManagerTest {
         when(mockCrash.getCarStationWagon()).thenReturn(1); // Matches showCars but not showPedestrian
         when(mockCrash.getBicycle()).thenReturn(0);
         when(mockCrash.getPedestrian()).thenReturn(0);
-        when(mockCrash.getSeverity()).thenReturn("Fatal Crash");
+        when(mockCrash.getSeverity()).thenReturn(Severity.FATAL);
 
         // Create a list of the mock and add it to the crash manager
         List<Crash> crashList = new ArrayList<>();
@@ -492,7 +513,7 @@ public class CrashManagerTest {
 
         // Define the behavior for the mock object
         when(mockCrash.getYear()).thenReturn(2016);
-        when(mockCrash.getSeverity()).thenReturn("Fatal Crash"); // Matches showFatal
+        when(mockCrash.getSeverity()).thenReturn(Severity.FATAL); // Matches showFatal
 
         // Create a list of the mock and add it to the crash manager
         List<Crash> crashList = new ArrayList<>();
@@ -535,7 +556,7 @@ public class CrashManagerTest {
 
         // Define the behavior for the mock object
         when(mockCrash.getYear()).thenReturn(2016);
-        when(mockCrash.getSeverity()).thenReturn("Serious Crash"); // Matches showSerious
+        when(mockCrash.getSeverity()).thenReturn(Severity.SERIOUS); // Matches showSerious
 
         // Create a list of the mock and add it to the crash manager
         List<Crash> crashList = new ArrayList<>();
@@ -557,7 +578,7 @@ public class CrashManagerTest {
 
         // Define the behavior for the mock object
         when(mockCrash.getYear()).thenReturn(2016);
-        when(mockCrash.getSeverity()).thenReturn("Fatal Crash"); // Matches showFatal
+        when(mockCrash.getSeverity()).thenReturn(Severity.FATAL); // Matches showFatal
 
         // Create a list of the mock and add it to the crash manager
         List<Crash> crashList = new ArrayList<>();
@@ -591,4 +612,53 @@ public class CrashManagerTest {
         // Assert that the mockCrash should still be in currentCrashes as year range is the only active criteria
         Assertions.assertTrue(crashManager.getCurrentCrashes().contains(mockCrash));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testApplyFilters_CircleSearchRunsInDatabase() {
+        // Arrange
+        List<Crash> circleCrashes = createSampleCrashes(5);
+        List<Crash> filteredCrashes = circleCrashes.subList(0, 2);
+        when(mockCrashDAO.rTreeCircleSearch(anyDouble(), anyDouble(), anyDouble())).thenReturn(circleCrashes);
+        when(mockCrashDAO.search(any(CrashQuery.class))).thenReturn(filteredCrashes);
+        crashManager.doRTreeCircleSearch(new Position(-43.5, 172.6), 5);
+
+        // Act
+        crashManager.applyFilters(true, false, false, true, false, false, 2000, 2022);
+
+        // Assert that the filtered crashes came from the database rather than filtering the circle's crashes
+        verify(mockCrashDAO).search(any(CrashQuery.class));
+        Assertions.assertEquals(filteredCrashes, crashManager.getCurrentCrashes());
+    }
+
+    @Test
+    void testApplyFilters_AllCrashesFilteredInMemory() {
+        // Arrange
+        List<Crash> allCrashes = createSampleCrashes(5);
+        when(mockCrashDAO.getAll()).thenReturn(allCrashes);
+        crashManager.setAllCrashes();
+
+        // Act, with a year range starting at 0 as the sample crashes have no year
+        crashManager.applyFilters(false, false, false, false, false, false, 0, 2022);
+
+        // Assert that the crashes already in memory were filtered rather than read again
+        verify(mockCrashDAO, never()).search(any(CrashQuery.class));
+        Assertions.assertEquals(allCrashes, crashManager.getCurrentCrashes());
+    }
+
+    @Test
+    void testApplyFilters_CircleSearchFails() {
+        // Arrange
+        List<Crash> circleCrashes = createSampleCrashes(5);
+        when(mockCrashDAO.rTreeCircleSearch(anyDouble(), anyDouble(), anyDouble())).thenReturn(circleCrashes);
+        when(mockCrashDAO.search(any(CrashQuery.class))).thenReturn(null);
+        crashManager.doRTreeCircleSearch(new Position(-43.5, 172.6), 5);
+
+        // Act
+        crashManager.applyFilters(true, false, false, true, false, false, 2000, 2022);
+
+        // Assert that the user is told the search failed, rather than that it found nothing
+        verify(mockMainController).showMessage(
+                "The filters could not be applied, as the crashes could not be read from the database.");
+        Assertions.assertEquals(circleCrashes, crashManager.getCurrentCrashes());
+    }
+}
@@ -0,0 +1,131 @@
+package seng202.team7.unittests.businessTest;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import seng202.team7.business.CrashSorter;
+import seng202.team7.model.Crash;
+import seng202.team7.model.Severity;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for CrashSorter
+ */
+public class CrashSorterTest {
+
+    private static final String[] SEVERITIES = {"Fatal Crash", "Serious Crash", "Minor Crash", "Non-Injury Crash"};
+    private static final String[] DISTRICTS = {"Waimakariri District", "Christchurch City", "Auckland", null};
+
+    private List<Crash> crashes;
+    private CrashSorter sorter;
+
+    /**
+     * Sets up 2000 crashes with random values, including negative latitudes, null districts and repeated values
+     */
+    @BeforeEach
+    public void setUp() {
+        Random random = new Random(202);
+        crashes = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            crashes.add(makeCrash(random.nextInt(300), SEVERITIES[random.nextInt(4)],
+                    DISTRICTS[random.nextInt(4)], random.nextFloat() * 180 - 90));
+        }
+        sorter = new CrashSorter();
+    }
+
+    private void assertMatchesStableSort(String column, Comparator<Crash> comparator) {
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < crashes.size(); i++) {
+            expected.add(i);
+        }
+        // List.sort is stable, so ties are left in list order
+        expected.sort((a, b) -> comparator.compare(crashes.get(a), crashes.get(b)));
+
+        int[] sorted = sorter.sortedIndexes(crashes, column, true);
+        for (int i = 0; i < sorted.length; i++) {
+            assertEquals((int) expected.get(i), sorted[i]);
+        }
+    }
+
+    @Test
+    public void checkSortByCount() {
+        assertMatchesStableSort("advisorySpeed", Comparator.comparingInt(Crash::getAdvisorySpeed));
+    }
+
+    @Test
+    public void checkSortByFloat() {
+        assertMatchesStableSort("lat", Comparator.comparing(Crash::getLat));
+    }
+
+    @Test
+    public void checkSortByCategory() {
+        assertMatchesStableSort("severity", Comparator.comparing(Crash::getSeverity));
+        assertSame(Severity.FATAL, crashes.get(sorter.sortedIndexes(crashes, "severity", true)[0]).getSeverity());
+    }
+
+    @Test
+    public void checkSortByString() {
+        assertMatchesStableSort("tlaName",
+                Comparator.comparing(Crash::getTlaName, Comparator.nullsFirst(Comparator.naturalOrder())));
+    }
+
+    /**
+     * Tests that a descending sort is the reverse of the ascending sort
+     */
+    @Test
+    public void checkDescending() {
+        int[] ascending = sorter.sortedIndexes(crashes, "year", true);
+        int[] descending = sorter.sortedIndexes(crashes, "advisorySpeed", false);
+        assertEquals(crashes.size(), ascending.length);
+        for (int i = 1; i < descending.length; i++) {
+            assertTrue(crashes.get(descending[i - 1]).getAdvisorySpeed()
+                    >= crashes.get(descending[i]).getAdvisorySpeed());
+        }
+    }
+
+    /**
+     * Tests that permutations are cached until the cache is cleared
+     */
+    @Test
+    public void checkCachedUntilCleared() {
+        int[] first = sorter.sortedIndexes(crashes, "advisorySpeed", true);
+        assertSame(first, sorter.sortedIndexes(crashes, "advisorySpeed", true));
+
+        crashes.remove(0);
+        sorter.clear();
+        assertEquals(crashes.size(), sorter.sortedIndexes(crashes, "advisorySpeed", true).length);
+    }
+
+    /**
+     * Tests that a permutation sorted from an old list, as a late prefetch can leave behind, is never used for a
+     * new list
+     */
+    @Test
+    public void checkNotReusedForOtherList() {
+        List<Crash> oldCrashes = new ArrayList<>(crashes.subList(0, 500));
+        sorter.clear();
+        sorter.sortedIndexes(oldCrashes, "advisorySpeed", true);
+
+        assertMatchesStableSort("advisorySpeed", Comparator.comparingInt(Crash::getAdvisorySpeed));
+    }
+
+    @Test
+    public void checkUnsortableColumn() {
+        assertTrue(CrashSorter.isSortable("speedLimit"));
+        assertFalse(CrashSorter.isSortable("id; DROP TABLE crashes"));
+        assertThrows(IllegalArgumentException.class, () -> sorter.sortedIndexes(crashes, "notAColumn", true));
+    }
+
+    private Crash makeCrash(int advisorySpeed, String severity, String tlaName, float lat) {
+        return new Crash(advisorySpeed, 0, 0, 0, 1, 0, "SH 1N", "MANUKAU OFF SBD", severity, 2001, 0, 0, 0,
+                "Flat", 0, "", 0, null, 0, "Overcast", 0, 0, 0, 3, 0, 0, 0, 0, 0, 0, 0, 0,
+                "Nil", "1-way", "Sealed", 0, 0, 0, 0, 100, 0, "On", 0, 0, tlaName, 0,
+                "Stop", 0, 0, 0, 0, 0, 0, "Open", 0, 0, 0, "Fine", "None",
+                lat, (float) 175.388698343564);
+    }
+}
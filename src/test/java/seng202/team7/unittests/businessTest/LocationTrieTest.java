@@ -0,0 +1,64 @@
+package seng202.team7.unittests.businessTest;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import seng202.team7.business.LocationTrie;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Test class for LocationTrie
+ */
+public class LocationTrieTest {
+
+    private static LocationTrie trie() {
+        Map<String, Integer> counts = new HashMap<>();
+        counts.put("RICCARTON ROAD, Christchurch City", 120);
+        counts.put("RICCARTON AVENUE, Christchurch City", 40);
+        counts.put("RICHMOND HILL ROAD, Christchurch City", 5);
+        counts.put("RIDDIFORD STREET, Wellington City", 60);
+        counts.put("Christchurch City", 900);
+        return new LocationTrie(counts);
+    }
+
+    @Test
+    public void suggestRankedByWeightTest() {
+        Assertions.assertEquals(List.of("RICCARTON ROAD, Christchurch City", "RIDDIFORD STREET, Wellington City",
+                "RICCARTON AVENUE, Christchurch City", "RICHMOND HILL ROAD, Christchurch City"),
+                trie().suggest("ri", 10));
+    }
+
+    @Test
+    public void suggestSplitEdgeTest() {
+        // "ricc" ends part way along the edge shared by both Riccarton names
+        Assertions.assertEquals(List.of("RICCARTON ROAD, Christchurch City", "RICCARTON AVENUE, Christchurch City"),
+                trie().suggest("Ricc", 10));
+        Assertions.assertEquals(List.of("RICCARTON AVENUE, Christchurch City"), trie().suggest("riccarton a", 10));
+    }
+
+    @Test
+    public void suggestLimitTest() {
+        Assertions.assertEquals(List.of("RICCARTON ROAD, Christchurch City"), trie().suggest("r", 1));
+    }
+
+    @Test
+    public void suggestNoMatchTest() {
+        Assertions.assertTrue(trie().suggest("ricx", 10).isEmpty());
+        Assertions.assertTrue(trie().suggest("riccarton roads", 10).isEmpty());
+        Assertions.assertTrue(trie().suggest("   ", 10).isEmpty());
+        Assertions.assertTrue(LocationTrie.EMPTY.suggest("r", 10).isEmpty());
+    }
+
+    @Test
+    public void mergesCaseTest() {
+        Map<String, Integer> counts = new HashMap<>();
+        counts.put("Main Street", 3);
+        counts.put("MAIN STREET", 5);
+        LocationTrie trie = new LocationTrie(counts);
+
+        Assertions.assertEquals(1, trie.size());
+        Assertions.assertEquals(List.of("MAIN STREET"), trie.suggest("main", 10));
+    }
+}
@@ -0,0 +1,118 @@
+package seng202.team7.unittests.businessTest;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import seng202.team7.business.PageCache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for PageCache
+ */
+public class PageCacheTest {
+
+    private List<Integer> loadedPages;
+    private List<Runnable> queued;
+    private PageCache<Integer> pageCache;
+
+    /**
+     * Sets up a cache of 5 pages whose prefetches wait in a queue, standing in for the background threads
+     */
+    @BeforeEach
+    public void setUp() {
+        loadedPages = new ArrayList<>();
+        queued = new ArrayList<>();
+        pageCache = new PageCache<>(page -> {
+            loadedPages.add(page);
+            return List.of(page * 10, page * 10 + 1);
+        }, queued::add, 5, 2);
+    }
+
+    private void runQueued() {
+        List<Runnable> toRun = new ArrayList<>(queued);
+        queued.clear();
+        toRun.forEach(Runnable::run);
+    }
+
+    @Test
+    public void checkLoadCaches() {
+        assertNull(pageCache.getIfPresent(3));
+        assertEquals(List.of(30, 31), pageCache.load(3));
+        assertEquals(List.of(30, 31), pageCache.getIfPresent(3));
+        assertEquals(List.of(3), loadedPages);
+    }
+
+    /**
+     * Tests that the pages either side of the current one are prefetched, nearest first, within the page count
+     */
+    @Test
+    public void checkPrefetchNeighbours() {
+        pageCache.load(1);
+        pageCache.prefetchAround(1, 3);
+        assertEquals(2, queued.size());
+        runQueued();
+
+        assertEquals(List.of(1, 2, 0), loadedPages);
+        assertNotNull(pageCache.getIfPresent(0));
+        assertNotNull(pageCache.getIfPresent(2));
+    }
+
+    @Test
+    public void checkNoDuplicatePrefetch() {
+        pageCache.prefetchAround(10, 20);
+        pageCache.prefetchAround(10, 20);
+        assertEquals(4, queued.size());
+        runQueued();
+        pageCache.prefetchAround(10, 20);
+        assertTrue(queued.isEmpty());
+    }
+
+    /**
+     * Tests that the least recently used page is evicted once the capacity is reached
+     */
+    @Test
+    public void checkLeastRecentlyUsedEvicted() {
+        for (int page = 0; page < 5; page++) {
+            pageCache.load(page);
+        }
+        pageCache.getIfPresent(0);
+        pageCache.load(5);
+
+        assertEquals(5, pageCache.size());
+        assertNotNull(pageCache.getIfPresent(0));
+        assertNull(pageCache.getIfPresent(1));
+    }
+
+    /**
+     * Tests that a prefetch still in flight when the cache is invalidated does not store an out-of-date page
+     */
+    @Test
+    public void checkInvalidateDiscardsInFlight() {
+        pageCache.load(0);
+        pageCache.prefetchAround(0, 10);
+        pageCache.invalidate();
+        runQueued();
+
+        assertEquals(0, pageCache.size());
+        pageCache.prefetchAround(0, 10);
+        assertEquals(2, queued.size());
+    }
+
+    /**
+     * Tests that a prefetch cancelled before it runs, as a full background pool does, can be prefetched again
+     */
+    @Test
+    public void checkCancelledPrefetchRetried() {
+        pageCache.prefetchAround(3, 10);
+        assertEquals(4, queued.size());
+        queued.forEach(task -> ((Future<?>) task).cancel(false));
+        queued.clear();
+
+        pageCache.prefetchAround(3, 10);
+        assertEquals(4, queued.size());
+    }
+}
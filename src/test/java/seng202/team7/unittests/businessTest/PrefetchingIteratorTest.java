@@ -0,0 +1,88 @@
+package seng202.team7.unittests.businessTest;
+
+import org.junit.jupiter.api.Test;
+import seng202.team7.business.PrefetchingIterator;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for PrefetchingIterator
+ */
+public class PrefetchingIteratorTest {
+
+    /**
+     * Counts how many items have been read from the source
+     */
+    private Iterator<Integer> counting(int size, AtomicInteger read) {
+        return IntStream.range(0, size).peek(i -> read.incrementAndGet()).iterator();
+    }
+
+    @Test
+    public void keepsOrderTest() {
+        List<Integer> items = new ArrayList<>();
+        try (PrefetchingIterator<Integer> iterator = new PrefetchingIterator<>(
+                IntStream.range(0, 1000).iterator(), 4, "test-producer")) {
+            iterator.forEachRemaining(items::add);
+        }
+        assertEquals(1000, items.size());
+        for (int i = 0; i < items.size(); i++) {
+            assertEquals(i, (int) items.get(i));
+        }
+    }
+
+    @Test
+    public void readsAheadBoundedTest() throws InterruptedException {
+        AtomicInteger read = new AtomicInteger();
+        try (PrefetchingIterator<Integer> iterator = new PrefetchingIterator<>(counting(100, read), 3, "test-producer")) {
+            assertEquals(0, (int) iterator.next());
+            Thread.sleep(200);
+            // The item taken, the 3 waiting in the queue, and 1 held by the producer waiting for room
+            assertTrue(read.get() <= 5);
+            assertTrue(read.get() >= 4);
+        }
+    }
+
+    @Test
+    public void sourceFailureIsRethrownTest() {
+        Iterator<Integer> failing = IntStream.range(0, 10).map(i -> {
+            if (i == 5) {
+                throw new IllegalStateException("broken source");
+            }
+            return i;
+        }).iterator();
+        try (PrefetchingIterator<Integer> iterator = new PrefetchingIterator<>(failing, 2, "test-producer")) {
+            for (int i = 0; i < 5; i++) {
+                assertEquals(i, (int) iterator.next());
+            }
+            assertThrows(IllegalStateException.class, iterator::hasNext);
+        }
+    }
+
+    @Test
+    public void closeStopsProducerTest() throws InterruptedException {
+        AtomicInteger read = new AtomicInteger();
+        PrefetchingIterator<Integer> iterator = new PrefetchingIterator<>(counting(1000000, read), 2, "test-producer");
+        iterator.next();
+        iterator.close();
+        int readWhenClosed = read.get();
+        Thread.sleep(100);
+        assertEquals(readWhenClosed, read.get());
+        assertTrue(readWhenClosed < 10);
+    }
+
+    @Test
+    public void emptySourceTest() {
+        try (PrefetchingIterator<Integer> iterator = new PrefetchingIterator<>(
+                new ArrayList<Integer>().iterator(), 2, "test-producer")) {
+            assertFalse(iterator.hasNext());
+            assertThrows(NoSuchElementException.class, iterator::next);
+        }
+    }
+}
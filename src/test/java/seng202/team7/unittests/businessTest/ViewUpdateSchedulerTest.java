@@ -0,0 +1,93 @@
+package seng202.team7.unittests.businessTest;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import seng202.team7.business.ViewUpdateScheduler;
+import seng202.team7.business.ViewUpdateScheduler.View;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for ViewUpdateScheduler
+ */
+public class ViewUpdateSchedulerTest {
+
+    private List<Runnable> queued;
+    private List<View> updated;
+    private ViewUpdateScheduler scheduler;
+
+    /**
+     * Sets up a scheduler whose refreshes wait in a queue, standing in for the JavaFX application thread
+     */
+    @BeforeEach
+    public void setUp() {
+        queued = new ArrayList<>();
+        updated = new ArrayList<>();
+        scheduler = new ViewUpdateScheduler(queued::add, updated::add);
+    }
+
+    private void runQueued() {
+        List<Runnable> toRun = new ArrayList<>(queued);
+        queued.clear();
+        toRun.forEach(Runnable::run);
+    }
+
+    /**
+     * Tests that a burst of requests only refreshes each view once
+     */
+    @Test
+    public void checkBurstCoalesced() {
+        scheduler.requestUpdate();
+        scheduler.requestUpdate();
+        scheduler.requestUpdate();
+        assertEquals(1, queued.size());
+        assertTrue(updated.isEmpty());
+
+        runQueued();
+        assertEquals(List.of(View.MAP, View.TABLE, View.GRAPH, View.MAIN), updated);
+    }
+
+    /**
+     * Tests that hidden views are left dirty, then refreshed once when shown
+     */
+    @Test
+    public void checkHiddenViewsUpdatedWhenShown() {
+        scheduler.showView(View.MAP);
+        scheduler.requestUpdate();
+        runQueued();
+        assertEquals(List.of(View.MAP, View.MAIN), updated);
+        assertTrue(scheduler.isDirty(View.GRAPH));
+
+        updated.clear();
+        scheduler.showView(View.GRAPH);
+        assertEquals(List.of(View.GRAPH), updated);
+        assertFalse(scheduler.isDirty(View.GRAPH));
+
+        // Showing it again without any changes does nothing
+        scheduler.showView(View.MAP);
+        scheduler.showView(View.GRAPH);
+        assertEquals(List.of(View.GRAPH), updated);
+    }
+
+    /**
+     * Tests that a request made during a refresh schedules another one rather than being lost
+     */
+    @Test
+    public void checkRequestDuringRefresh() {
+        ViewUpdateScheduler[] holder = new ViewUpdateScheduler[1];
+        holder[0] = new ViewUpdateScheduler(queued::add, view -> {
+            updated.add(view);
+            if (view == View.MAIN && updated.size() == 4) {
+                holder[0].requestUpdate();
+            }
+        });
+        holder[0].requestUpdate();
+        runQueued();
+        assertEquals(1, queued.size());
+        runQueued();
+        assertEquals(8, updated.size());
+    }
+}
@@ -4,8 +4,13 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import seng202.team7.io.CrashCSVImporter;
+import seng202.team7.io.ImportListener;
+import seng202.team7.io.ImportProgress;
+import seng202.team7.model.Crash;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Test class for AdviceLogic
@@ -29,4 +34,40 @@ public class CrashCSVImporterTest {
 
         Assertions.assertEquals(10255,importer.readFromFile(file).size());
     }
+
+    @Test
+    public void readFromFileProgressTest() {
+        List<ImportProgress> reports = new ArrayList<>();
+        List<Crash> crashes = importer.readFromFile(file, new ImportListener() {
+            @Override
+            public void onProgress(ImportProgress progress) {
+                reports.add(progress);
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return false;
+            }
+        });
+
+        Assertions.assertEquals(10255, crashes.size());
+        Assertions.assertFalse(reports.isEmpty());
+        Assertions.assertEquals(1.0, reports.get(reports.size() - 1).getFraction());
+    }
+
+    @Test
+    public void readFromFileCancelTest() {
+        List<Crash> crashes = importer.readFromFile(file, new ImportListener() {
+            @Override
+            public void onProgress(ImportProgress progress) {
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return true;
+            }
+        });
+
+        Assertions.assertTrue(crashes.size() < 10255);
+    }
 }
@@ -0,0 +1,55 @@
+package seng202.team7.unittests.ioTest;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import seng202.team7.io.CrashRecord;
+
+import java.util.Arrays;
+
+/**
+ * Test class for CrashRecord
+ */
+public class CrashRecordTest {
+    private String[] line;
+
+    @BeforeEach
+    public void setUp() {
+        line = new String[69];
+        Arrays.fill(line, "");
+        line[0] = "12345";
+        line[9] = "SH 1N";
+        line[12] = "Minor Crash";
+        line[14] = "2001";
+        line[67] = "175.0";
+        line[68] = "-40.0";
+    }
+
+    @Test
+    public void objectIdIsKeyTest() {
+        Assertions.assertEquals(12345L, CrashRecord.fromLine(line, null).getSourceKey());
+    }
+
+    @Test
+    public void keyWithoutObjectIdTest() {
+        line[0] = "";
+        long key = CrashRecord.fromLine(line, null).getSourceKey();
+        line[47] = "100";
+        Assertions.assertEquals(key, CrashRecord.fromLine(line, null).getSourceKey());
+        line[68] = "-41.0";
+        Assertions.assertNotEquals(key, CrashRecord.fromLine(line, null).getSourceKey());
+    }
+
+    @Test
+    public void fingerprintChangesWithContentsTest() {
+        long fingerprint = CrashRecord.fromLine(line, null).getFingerprint();
+        Assertions.assertEquals(fingerprint, CrashRecord.fromLine(line.clone(), null).getFingerprint());
+        line[47] = "100";
+        Assertions.assertNotEquals(fingerprint, CrashRecord.fromLine(line, null).getFingerprint());
+    }
+
+    @Test
+    public void hashSeparatesFieldsTest() {
+        Assertions.assertNotEquals(CrashRecord.hash("ab", "c"), CrashRecord.hash("a", "bc"));
+    }
+}
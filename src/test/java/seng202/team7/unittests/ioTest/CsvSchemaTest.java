@@ -0,0 +1,73 @@
+package seng202.team7.unittests.ioTest;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import seng202.team7.io.CsvRow;
+import seng202.team7.io.CsvSchema;
+import seng202.team7.model.Severity;
+
+import java.util.Map;
+
+/**
+ * Test class for CsvSchema
+ */
+public class CsvSchemaTest {
+    private CsvSchema schema;
+    private CsvRow row;
+
+    @BeforeEach
+    public void setUp() {
+        schema = new CsvSchema()
+                .integer(0, "speedLimit", 0, 110)
+                .text(1, "tlaName")
+                .category(2, "severity", Severity::valueFromStr)
+                .decimal(3, "lat");
+        row = schema.newRow();
+    }
+
+    @Test
+    public void parseValidLineTest() {
+        Assertions.assertTrue(schema.parse(new String[] {"50", "Auckland", "Minor Crash", "-36.85"}, row));
+        Assertions.assertEquals(50, row.getInt(0));
+        Assertions.assertEquals("Auckland", row.getValue(1));
+        Assertions.assertEquals(Severity.MINOR, row.getValue(2));
+        Assertions.assertEquals(-36.85f, row.getFloat(3));
+        Assertions.assertTrue(row.getErrorCounts().isEmpty());
+    }
+
+    @Test
+    public void emptyIntegerIsZeroTest() {
+        Assertions.assertTrue(schema.parse(new String[] {"", "", "Minor Crash", "1"}, row));
+        Assertions.assertEquals(0, row.getInt(0));
+    }
+
+    @Test
+    public void invalidColumnsCountedTest() {
+        Assertions.assertFalse(schema.parse(new String[] {"fifty", "", "Minor Crash", "1"}, row));
+        Assertions.assertFalse(schema.parse(new String[] {"111", "", "Minor Crash", "1"}, row));
+        Assertions.assertFalse(schema.parse(new String[] {"50", "", "Bad Crash", "1"}, row));
+        Assertions.assertFalse(schema.parse(new String[] {"50", "", "Minor Crash", "1.2.3"}, row));
+        Assertions.assertFalse(schema.parse(new String[] {"50", "", "Minor Crash", ""}, row));
+        Assertions.assertFalse(schema.parse(new String[] {"50", ""}, row));
+
+        Map<String, Integer> errors = row.getErrorCounts();
+        Assertions.assertEquals(2, (int) errors.get("speedLimit"));
+        Assertions.assertEquals(1, (int) errors.get("severity"));
+        Assertions.assertEquals(2, (int) errors.get("lat"));
+        Assertions.assertEquals(1, (int) errors.get("too few columns"));
+    }
+
+    @Test
+    public void parseStopsAtFirstInvalidColumnTest() {
+        Assertions.assertFalse(schema.parse(new String[] {"-1", "", "Bad Crash", "x"}, row));
+        Assertions.assertEquals(Map.of("speedLimit", 1), row.getErrorCounts());
+    }
+
+    @Test
+    public void tooManyDigitsTest() {
+        Assertions.assertFalse(schema.parse(new String[] {"99999999999999999999", "", "Minor Crash", "1"}, row));
+        Assertions.assertTrue(schema.parse(new String[] {"+0110", "", "Minor Crash", "1"}, row));
+        Assertions.assertEquals(110, row.getInt(0));
+    }
+}
@@ -0,0 +1,90 @@
+package seng202.team7.unittests.mapTest;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import seng202.team7.map.DiskCache;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+/**
+ * Test class for DiskCache
+ */
+public class DiskCacheTest {
+
+    private static File tempDirectory() throws IOException {
+        File directory = Files.createTempDirectory("disk_cache").toFile();
+        directory.deleteOnExit();
+        return directory;
+    }
+
+    @Test
+    public void putGetTest() throws IOException {
+        DiskCache cache = new DiskCache(tempDirectory(), 1000);
+        cache.put("15/32000/20000.png", new byte[] {1, 2, 3});
+
+        Assertions.assertArrayEquals(new byte[] {1, 2, 3}, cache.get("15/32000/20000.png"));
+        Assertions.assertNull(cache.get("15/32000/20001.png"));
+        Assertions.assertEquals(3, cache.getTotalBytes());
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsedTest() throws IOException {
+        DiskCache cache = new DiskCache(tempDirectory(), 10);
+        cache.put("a.png", new byte[4]);
+        cache.put("b.png", new byte[4]);
+        cache.get("a.png");
+        cache.put("c.png", new byte[4]);
+
+        Assertions.assertNotNull(cache.get("a.png"));
+        Assertions.assertNull(cache.get("b.png"));
+        Assertions.assertNotNull(cache.get("c.png"));
+        Assertions.assertEquals(8, cache.getTotalBytes());
+    }
+
+    @Test
+    public void reopenKeepsFilesTest() throws IOException {
+        File directory = tempDirectory();
+        new DiskCache(directory, 1000).put("leaflet@1.2.0/dist/leaflet.js", new byte[] {7});
+
+        DiskCache reopened = new DiskCache(directory, 1000);
+        Assertions.assertEquals(1, reopened.size());
+        Assertions.assertArrayEquals(new byte[] {7}, reopened.get("leaflet@1.2.0/dist/leaflet.js"));
+    }
+
+    @Test
+    public void concurrentPutSameKeyTest() throws Exception {
+        File directory = tempDirectory();
+        DiskCache cache = new DiskCache(directory, 1000);
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            byte value = (byte) i;
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 50; j++) {
+                    cache.put("a.png", new byte[] {value, value, value});
+                    cache.get("a.png");
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        byte[] bytes = cache.get("a.png");
+        Assertions.assertEquals(3, bytes.length);
+        Assertions.assertTrue(bytes[0] == bytes[1] && bytes[1] == bytes[2]);
+        Assertions.assertEquals(3, cache.getTotalBytes());
+        Assertions.assertArrayEquals(new String[] {"a.png"}, directory.list());
+    }
+
+    @Test
+    public void invalidKeyTest() {
+        Assertions.assertTrue(DiskCache.isValidKey("@turf/turf@6/turf.min.js"));
+        Assertions.assertFalse(DiskCache.isValidKey("../database.db"));
+        Assertions.assertFalse(DiskCache.isValidKey("tiles/../../database.db"));
+        Assertions.assertFalse(DiskCache.isValidKey("/etc/passwd"));
+        Assertions.assertFalse(DiskCache.isValidKey(""));
+    }
+}
@@ -0,0 +1,88 @@
+package seng202.team7.unittests.mapTest;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import seng202.team7.exceptions.GeolocatorFailedException;
+import seng202.team7.map.Geolocator;
+import seng202.team7.map.LocalGeocoder;
+import seng202.team7.map.Position;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Test class for LocalGeocoder
+ */
+public class LocalGeocoderTest {
+
+    private static LocalGeocoder geocoder() {
+        return new LocalGeocoder(Map.of(
+                "RICCARTON ROAD, Christchurch City", new Position(-43.53, 172.59),
+                "TAMAKI DRIVE, Auckland", new Position(-36.85, 174.80),
+                "Christchurch City", new Position(-43.52, 172.63)),
+                Map.of());
+    }
+
+    @Test
+    public void findNormalisedTest() {
+        LocalGeocoder geocoder = geocoder();
+        Assertions.assertEquals(-43.53, geocoder.find("Riccarton Road,  Christchurch City").lat, 0.0001);
+        Assertions.assertEquals(174.80, geocoder.find("T\u0101maki Drive, Auckland, New Zealand").lng, 0.0001);
+        Assertions.assertEquals(172.63, geocoder.find("christchurch city").lng, 0.0001);
+    }
+
+    @Test
+    public void findUnknownTest() {
+        Assertions.assertNull(geocoder().find("Riccarton Road, Wellington City"));
+        Assertions.assertNull(LocalGeocoder.EMPTY.find("Christchurch City"));
+    }
+
+    @Test
+    public void gazetteerTakesPriorityTest() throws IOException {
+        File file = File.createTempFile("gazetteer", ".csv");
+        file.deleteOnExit();
+        Files.write(file.toPath(), List.of("University of Canterbury, Christchurch,-43.5225,172.5794",
+                "Christchurch City,-43.5320,172.6306", "not a place"));
+
+        Map<String, Position> gazetteer = LocalGeocoder.readGazetteer(file);
+        Assertions.assertEquals(2, gazetteer.size());
+
+        LocalGeocoder geocoder = new LocalGeocoder(Map.of("Christchurch City", new Position(-43.52, 172.63)),
+                gazetteer);
+        Assertions.assertEquals(-43.5225, geocoder.find("university of canterbury christchurch").lat, 0.0001);
+        Assertions.assertEquals(-43.5320, geocoder.find("Christchurch City").lat, 0.0001);
+    }
+
+    @Test
+    public void gazetteerReadAsUtf8Test() throws IOException {
+        File file = File.createTempFile("gazetteer", ".csv");
+        file.deleteOnExit();
+        Files.write(file.toPath(), List.of("Wh\u0101ngarei,-35.7251,174.3237"), StandardCharsets.UTF_8);
+
+        // The macron must be read as one letter whatever the platform's charset, or the name never matches
+        LocalGeocoder geocoder = new LocalGeocoder(Map.of(), LocalGeocoder.readGazetteer(file));
+        Assertions.assertEquals(-35.7251, geocoder.find("Whangarei").lat, 0.0001);
+    }
+
+    @Test
+    public void missingGazetteerTest() {
+        Assertions.assertTrue(LocalGeocoder.readGazetteer(new File("no_such_gazetteer.csv")).isEmpty());
+    }
+
+    @Test
+    public void geolocatorUsesLocalFirstTest() throws GeolocatorFailedException {
+        Geolocator geolocator = new Geolocator(LocalGeocoderTest::geocoder);
+        // An interrupted thread cannot make a remote request, so this can only be answered locally
+        Thread.currentThread().interrupt();
+        try {
+            Position position = geolocator.queryAddress("Riccarton Road, Christchurch City");
+            Assertions.assertEquals(172.59, position.lng, 0.0001);
+        } finally {
+            Thread.interrupted();
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package seng202.team7.unittests.mapTest;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import seng202.team7.map.MapServer;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test class for MapServer, with a fake tile server standing in for the internet
+ */
+public class MapServerTest {
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final AtomicInteger upstreamRequests = new AtomicInteger();
+    private HttpServer upstream;
+    private MapServer mapServer;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        upstream = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        upstream.createContext("/", exchange -> {
+            upstreamRequests.incrementAndGet();
+            byte[] body = exchange.getRequestURI().getPath().getBytes();
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        upstream.start();
+        String upstreamUrl = "http://127.0.0.1:" + upstream.getAddress().getPort() + "/";
+
+        File cacheDirectory = Files.createTempDirectory("map_cache").toFile();
+        cacheDirectory.deleteOnExit();
+        mapServer = new MapServer(cacheDirectory, upstreamUrl, upstreamUrl);
+        mapServer.start();
+    }
+
+    @AfterEach
+    public void teardown() {
+        mapServer.stop();
+        upstream.stop(0);
+    }
+
+    private HttpResponse<String> get(String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(mapServer.getUrl(path))).build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Test
+    public void tileCachedTest() throws IOException, InterruptedException {
+        HttpResponse<String> first = get("/tiles/15/32000/20000.png");
+        Assertions.assertEquals(200, first.statusCode());
+        Assertions.assertEquals("/15/32000/20000.png", first.body());
+        Assertions.assertEquals("image/png", first.headers().firstValue("Content-Type").orElse(""));
+
+        // The tile server going away shows the second request never reaches it
+        upstream.stop(0);
+        HttpResponse<String> second = get("/tiles/15/32000/20000.png");
+        Assertions.assertEquals(200, second.statusCode());
+        Assertions.assertEquals("/15/32000/20000.png", second.body());
+        Assertions.assertEquals(1, upstreamRequests.get());
+    }
+
+    @Test
+    public void offlineMissTest() throws IOException, InterruptedException {
+        upstream.stop(0);
+        Assertions.assertEquals(404, get("/tiles/15/32000/20000.png").statusCode());
+    }
+
+    @Test
+    public void vendorCachedTest() throws IOException, InterruptedException {
+        Assertions.assertEquals("/library@1.0.0/library.js", get("/vendor/library@1.0.0/library.js").body());
+        Assertions.assertEquals("/library@1.0.0/library.js", get("/vendor/library@1.0.0/library.js").body());
+        Assertions.assertEquals(1, upstreamRequests.get());
+    }
+
+    /**
+     * Tests that a library bundled with the app is served from the jar without going to the internet
+     */
+    @Test
+    public void vendorBundledTest() throws IOException, InterruptedException {
+        upstream.stop(0);
+        HttpResponse<String> library = get("/vendor/bundled-library@1.0.0/bundled.js");
+        Assertions.assertEquals(200, library.statusCode());
+        Assertions.assertEquals("var bundled = true;\n", library.body());
+        Assertions.assertEquals(0, upstreamRequests.get());
+    }
+
+    /**
+     * Tests that the page used when the server cannot start has no links relative to the server left
+     */
+    @Test
+    public void fallbackPageTest() {
+        String page = MapServer.getFallbackPage();
+        Assertions.assertNotNull(page);
+        Assertions.assertFalse(page.contains("\"../"));
+        Assertions.assertTrue(page.contains(MapServer.class.getResource("/javascript/map.js").toExternalForm()));
+        Assertions.assertTrue(page.contains("leaflet@1.2.0/dist/leaflet.js\""));
+    }
+
+    @Test
+    public void rejectsBadPathsTest() throws IOException, InterruptedException {
+        Assertions.assertEquals(404, get("/tiles/15/32000/not_a_tile.png").statusCode());
+        Assertions.assertEquals(404, get("/vendor/../database.db").statusCode());
+        Assertions.assertEquals(404, get("/sql/initialise_database.sql").statusCode());
+        Assertions.assertEquals(0, upstreamRequests.get());
+    }
+
+    @Test
+    public void servesResourcesTest() throws IOException, InterruptedException {
+        HttpResponse<String> page = get("/html/map.html");
+        Assertions.assertEquals(200, page.statusCode());
+        Assertions.assertTrue(page.body().contains("/javascript/map.js"));
+        Assertions.assertEquals(404, get("/html/missing.html").statusCode());
+    }
+}
@@ -0,0 +1,107 @@
+package seng202.team7.unittests.mapTest;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import seng202.team7.map.OsmRoadReader;
+import seng202.team7.map.RoadGraph;
+import seng202.team7.map.TravelMode;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Test class for OsmRoadReader
+ */
+public class OsmRoadReaderTest {
+
+    private static RoadGraph read(String ways) throws IOException {
+        String xml = "<?xml version='1.0' encoding='UTF-8'?><osm version='0.6'>"
+                + "<node id='1' lat='-43.5300' lon='172.6000'/>"
+                + "<node id='2' lat='-43.5300' lon='172.6010'/>"
+                + "<node id='3' lat='-43.5300' lon='172.6020'/>"
+                + ways + "</osm>";
+        byte[] bytes = xml.getBytes(StandardCharsets.UTF_8);
+        return OsmRoadReader.read(() -> new ByteArrayInputStream(bytes));
+    }
+
+    private static int edgeFrom(RoadGraph graph, int node, TravelMode mode) {
+        int count = 0;
+        for (int edge = graph.getFirstEdge(node); edge < graph.getEndEdge(node); edge++) {
+            if (graph.allows(edge, mode)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Test
+    public void twoWayRoadTest() throws IOException {
+        RoadGraph graph = read("<way id='10'><nd ref='1'/><nd ref='2'/><nd ref='3'/>"
+                + "<tag k='highway' v='residential'/><tag k='maxspeed' v='30'/></way>");
+        Assertions.assertEquals(3, graph.getNodeCount());
+        Assertions.assertEquals(4, graph.getEdgeCount());
+        Assertions.assertEquals(30, graph.getCarSpeed(0));
+        Assertions.assertEquals(2, edgeFrom(graph, 1, TravelMode.CAR));
+    }
+
+    @Test
+    public void onewayTest() throws IOException {
+        RoadGraph graph = read("<way id='10'><nd ref='1'/><nd ref='2'/>"
+                + "<tag k='highway' v='primary'/><tag k='oneway' v='yes'/></way>");
+        Assertions.assertEquals(1, edgeFrom(graph, 0, TravelMode.CAR));
+        Assertions.assertEquals(0, edgeFrom(graph, 1, TravelMode.CAR));
+        Assertions.assertEquals(0, edgeFrom(graph, 1, TravelMode.BIKE));
+        // People walking may go either way
+        Assertions.assertEquals(1, edgeFrom(graph, 1, TravelMode.FOOT));
+        Assertions.assertEquals(80, graph.getCarSpeed(0));
+    }
+
+    @Test
+    public void accessTest() throws IOException {
+        RoadGraph graph = read("<way id='10'><nd ref='1'/><nd ref='2'/><tag k='highway' v='footway'/>"
+                + "<tag k='bicycle' v='yes'/></way>"
+                + "<way id='11'><nd ref='2'/><nd ref='3'/><tag k='highway' v='motorway'/></way>");
+        Assertions.assertEquals(0, edgeFrom(graph, 0, TravelMode.CAR));
+        Assertions.assertEquals(1, edgeFrom(graph, 0, TravelMode.BIKE));
+        Assertions.assertEquals(1, edgeFrom(graph, 1, TravelMode.CAR));
+        Assertions.assertEquals(0, edgeFrom(graph, 2, TravelMode.CAR));
+        Assertions.assertEquals(0, edgeFrom(graph, 2, TravelMode.FOOT));
+    }
+
+    @Test
+    public void ignoresOtherWaysTest() throws IOException {
+        RoadGraph graph = read("<way id='10'><nd ref='1'/><nd ref='2'/><tag k='building' v='yes'/></way>"
+                + "<way id='11'><nd ref='2'/><nd ref='3'/><tag k='highway' v='service'/>"
+                + "<tag k='access' v='private'/></way>"
+                + "<way id='12'><nd ref='1'/><nd ref='99'/><tag k='highway' v='residential'/></way>");
+        Assertions.assertEquals(0, graph.getEdgeCount());
+    }
+
+    @Test
+    public void keepsOnlyRoadNodesTest() throws IOException {
+        String xml = "<?xml version='1.0' encoding='UTF-8'?><osm version='0.6'>"
+                + "<node id='7' lat='-43.5300' lon='172.6020'/>"
+                + "<node id='1' lat='-43.5300' lon='172.6000'/>"
+                + "<node id='4' lat='-43.5310' lon='172.6000'/>"
+                + "<node id='5' lat='-43.5310' lon='172.6010'/>"
+                + "<node id='3' lat='-43.5300' lon='172.6010'/>"
+                + "<way id='10'><nd ref='4'/><nd ref='5'/><tag k='building' v='yes'/></way>"
+                + "<way id='11'><nd ref='1'/><nd ref='3'/><nd ref='7'/><tag k='highway' v='residential'/></way>"
+                + "</osm>";
+        byte[] bytes = xml.getBytes(StandardCharsets.UTF_8);
+        RoadGraph graph = OsmRoadReader.read(() -> new ByteArrayInputStream(bytes));
+
+        // The building's nodes are dropped, and the road's are found even though the extract is not in id order
+        Assertions.assertEquals(3, graph.getNodeCount());
+        Assertions.assertEquals(4, graph.getEdgeCount());
+        Assertions.assertEquals(172.6020, graph.getLng(2), 1e-7);
+        Assertions.assertEquals(2, edgeFrom(graph, 1, TravelMode.CAR));
+    }
+
+    @Test
+    public void notXmlTest() {
+        Assertions.assertThrows(IOException.class, () -> OsmRoadReader.read(
+                () -> new ByteArrayInputStream("not xml".getBytes(StandardCharsets.UTF_8))));
+    }
+}
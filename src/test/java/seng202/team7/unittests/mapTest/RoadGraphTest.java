@@ -0,0 +1,91 @@
+package seng202.team7.unittests.mapTest;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import seng202.team7.map.RoadGraph;
+import seng202.team7.map.TravelMode;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Test class for RoadGraph
+ */
+public class RoadGraphTest {
+    private static final int ALL = TravelMode.CAR.getBit() | TravelMode.BIKE.getBit() | TravelMode.FOOT.getBit();
+
+    private static RoadGraph graph() {
+        RoadGraph.Builder builder = new RoadGraph.Builder();
+        int a = builder.addNode(-43.5300, 172.6000);
+        int b = builder.addNode(-43.5300, 172.6100);
+        int c = builder.addNode(-43.5400, 172.6100);
+        builder.addEdge(a, b, ALL, 50);
+        builder.addEdge(b, a, ALL, 50);
+        builder.addEdge(b, c, TravelMode.FOOT.getBit(), 50);
+        return builder.build();
+    }
+
+    @Test
+    public void edgesTest() {
+        RoadGraph graph = graph();
+        Assertions.assertEquals(3, graph.getNodeCount());
+        Assertions.assertEquals(3, graph.getEdgeCount());
+        Assertions.assertEquals(2, graph.getEndEdge(1) - graph.getFirstEdge(1));
+        Assertions.assertEquals(0, graph.getEndEdge(2) - graph.getFirstEdge(2));
+        int edge = graph.getFirstEdge(0);
+        Assertions.assertEquals(1, graph.getTarget(edge));
+        Assertions.assertEquals(806, graph.getLength(edge), 2);
+        Assertions.assertTrue(graph.allows(edge, TravelMode.BIKE));
+    }
+
+    @Test
+    public void findNearestTest() {
+        RoadGraph graph = graph();
+        Assertions.assertEquals(1, graph.findNearest(-43.5301, 172.6095, TravelMode.CAR, 1000));
+        // Only people walking can reach the third node, so cars are sent to the closest road they can use
+        Assertions.assertEquals(2, graph.findNearest(-43.5395, 172.6100, TravelMode.FOOT, 1000));
+        Assertions.assertEquals(1, graph.findNearest(-43.5395, 172.6100, TravelMode.CAR, 2000));
+        Assertions.assertEquals(-1, graph.findNearest(-41.2865, 174.7762, TravelMode.CAR, 5000));
+    }
+
+    @Test
+    public void findNearestEveryHemisphereTest() {
+        RoadGraph.Builder builder = new RoadGraph.Builder();
+        double[][] positions = {{-43.53, 172.60}, {-43.53, -176.55}, {51.50, -0.12}, {40.71, -74.00}, {-0.01, 0.01}};
+        for (double[] position : positions) {
+            int node = builder.addNode(position[0], position[1]);
+            builder.addEdge(node, node, ALL, 50);
+        }
+        RoadGraph graph = builder.build();
+
+        // The grid numbers cells on both sides of the equator and the prime meridian without mixing them up
+        for (int node = 0; node < positions.length; node++) {
+            Assertions.assertEquals(node, graph.findNearest(positions[node][0] + 0.0001, positions[node][1] - 0.0001,
+                    TravelMode.CAR, 1000));
+        }
+    }
+
+    @Test
+    public void writeReadTest() throws IOException {
+        File file = File.createTempFile("road_graph", ".bin");
+        file.deleteOnExit();
+        RoadGraph graph = graph();
+        graph.write(file);
+
+        RoadGraph read = RoadGraph.read(file);
+        Assertions.assertEquals(graph.getNodeCount(), read.getNodeCount());
+        Assertions.assertEquals(graph.getEdgeCount(), read.getEdgeCount());
+        Assertions.assertEquals(graph.getLat(2), read.getLat(2), 1e-7);
+        Assertions.assertEquals(graph.getLength(0), read.getLength(0), 1e-3);
+        Assertions.assertEquals(50, read.getCarSpeed(0));
+        Assertions.assertFalse(read.allows(read.getFirstEdge(1) + 1, TravelMode.CAR)
+                && read.allows(read.getFirstEdge(1), TravelMode.CAR));
+    }
+
+    @Test
+    public void readNotGraphTest() throws IOException {
+        File file = File.createTempFile("road_graph", ".bin");
+        file.deleteOnExit();
+        Assertions.assertThrows(IOException.class, () -> RoadGraph.read(file));
+    }
+}
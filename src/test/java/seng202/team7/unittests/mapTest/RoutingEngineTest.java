@@ -0,0 +1,142 @@
+package seng202.team7.unittests.mapTest;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import seng202.team7.map.LocalRoute;
+import seng202.team7.map.Position;
+import seng202.team7.map.RoadGraph;
+import seng202.team7.map.RoutingEngine;
+import seng202.team7.map.TravelMode;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Test class for RoutingEngine, over small synthetic road graphs
+ */
+public class RoutingEngineTest {
+    private static final int ALL = TravelMode.CAR.getBit() | TravelMode.BIKE.getBit() | TravelMode.FOOT.getBit();
+    private static final int SIZE = 20;
+    private static final double LAT = -43.53;
+    private static final double LNG = 172.60;
+    private static final double SPACING = 0.001;
+
+    /**
+     * A grid of two way streets, each with a random speed limit.
+     */
+    private static RoadGraph grid(long seed) {
+        Random random = new Random(seed);
+        RoadGraph.Builder builder = new RoadGraph.Builder();
+        for (int row = 0; row < SIZE; row++) {
+            for (int column = 0; column < SIZE; column++) {
+                builder.addNode(LAT - row * SPACING, LNG + column * SPACING);
+            }
+        }
+        for (int row = 0; row < SIZE; row++) {
+            for (int column = 0; column < SIZE; column++) {
+                int node = row * SIZE + column;
+                if (column + 1 < SIZE) {
+                    int speed = 10 + random.nextInt(91);
+                    builder.addEdge(node, node + 1, ALL, speed);
+                    builder.addEdge(node + 1, node, ALL, speed);
+                }
+                if (row + 1 < SIZE) {
+                    int speed = 10 + random.nextInt(91);
+                    builder.addEdge(node, node + SIZE, ALL, speed);
+                    builder.addEdge(node + SIZE, node, ALL, speed);
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * The fastest time between two nodes by car, found by checking every node with Dijkstra's algorithm.
+     */
+    private static double dijkstra(RoadGraph graph, int source, int target) {
+        double[] times = new double[graph.getNodeCount()];
+        boolean[] done = new boolean[graph.getNodeCount()];
+        Arrays.fill(times, Double.POSITIVE_INFINITY);
+        times[source] = 0;
+        for (int i = 0; i < graph.getNodeCount(); i++) {
+            int node = -1;
+            for (int n = 0; n < times.length; n++) {
+                if (!done[n] && (node < 0 || times[n] < times[node])) {
+                    node = n;
+                }
+            }
+            done[node] = true;
+            for (int edge = graph.getFirstEdge(node); edge < graph.getEndEdge(node); edge++) {
+                double time = times[node] + graph.getLength(edge) / (graph.getCarSpeed(edge) / 3.6);
+                times[graph.getTarget(edge)] = Math.min(times[graph.getTarget(edge)], time);
+            }
+        }
+        return times[target];
+    }
+
+    private static Position node(RoadGraph graph, int node) {
+        return new Position(graph.getLat(node), graph.getLng(node));
+    }
+
+    @Test
+    public void fastestRouteTest() {
+        for (long seed = 0; seed < 5; seed++) {
+            RoadGraph graph = grid(seed);
+            RoutingEngine engine = new RoutingEngine(graph);
+            int source = (int) seed;
+            int target = graph.getNodeCount() - 1 - (int) seed * 3;
+
+            LocalRoute route = engine.route(node(graph, source), node(graph, target), TravelMode.CAR);
+            Assertions.assertNotNull(route);
+            Assertions.assertEquals(dijkstra(graph, source, target), route.getDuration(), 1e-6);
+            Assertions.assertTrue(route.getDistance() >= RoadGraph.distance(graph.getLat(source),
+                    graph.getLng(source), graph.getLat(target), graph.getLng(target)));
+        }
+    }
+
+    @Test
+    public void pathFollowsRoadsTest() {
+        RoadGraph graph = grid(1);
+        Position from = new Position(LAT + 0.0001, LNG);
+        Position to = node(graph, SIZE * SIZE - 1);
+        LocalRoute route = new RoutingEngine(graph).route(from, to, TravelMode.FOOT);
+
+        // Walking ignores speed limits, so the route is as short as the grid allows
+        Assertions.assertEquals(2 * (SIZE - 1) + 3, route.getPath().getRoute().size());
+        Assertions.assertEquals(from.lat, route.getPath().getRoute().get(0).lat, 1e-9);
+        Assertions.assertEquals(to.lng, route.getPath().getRoute().get(route.getPath().getRoute().size() - 1).lng,
+                1e-9);
+        Assertions.assertTrue(route.toJSON().startsWith("{\"distance\": "));
+    }
+
+    @Test
+    public void modesAndOnewayTest() {
+        RoadGraph.Builder builder = new RoadGraph.Builder();
+        int a = builder.addNode(LAT, LNG);
+        int b = builder.addNode(LAT, LNG + 0.01);
+        int c = builder.addNode(LAT - 0.01, LNG + 0.01);
+        // A footpath straight across, and a longer one way road around
+        builder.addEdge(a, c, TravelMode.FOOT.getBit(), 5);
+        builder.addEdge(c, a, TravelMode.FOOT.getBit(), 5);
+        builder.addEdge(a, b, TravelMode.CAR.getBit(), 50);
+        builder.addEdge(b, c, TravelMode.CAR.getBit(), 50);
+        RoutingEngine engine = new RoutingEngine(builder.build());
+
+        // Each path holds the start and end positions as well as the nodes along the roads
+        Assertions.assertEquals(4, engine.route(new Position(LAT, LNG), new Position(LAT - 0.01, LNG + 0.01),
+                TravelMode.FOOT).getPath().getRoute().size());
+        Assertions.assertEquals(5, engine.route(new Position(LAT, LNG), new Position(LAT - 0.01, LNG + 0.01),
+                TravelMode.CAR).getPath().getRoute().size());
+        Assertions.assertNull(engine.route(new Position(LAT - 0.01, LNG + 0.01), new Position(LAT, LNG),
+                TravelMode.CAR));
+    }
+
+    @Test
+    public void noRouteTest() {
+        RoutingEngine engine = new RoutingEngine(grid(0));
+        Position start = new Position(LAT, LNG);
+        Assertions.assertNull(engine.route(start, new Position(-41.2865, 174.7762), TravelMode.CAR));
+        Assertions.assertNull(engine.route(start, start, null));
+        Assertions.assertNull(new RoutingEngine((RoadGraph) null).route(start, start, TravelMode.CAR));
+    }
+}
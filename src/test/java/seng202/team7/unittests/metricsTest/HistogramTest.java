@@ -0,0 +1,95 @@
+package seng202.team7.unittests.metricsTest;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import seng202.team7.metrics.Histogram;
+import seng202.team7.metrics.MetricsRegistry;
+import seng202.team7.metrics.Timer;
+import seng202.team7.metrics.TimerSnapshot;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for Histogram and the timers built on it
+ */
+public class HistogramTest {
+
+    private Histogram histogram;
+
+    @BeforeEach
+    public void setUp() {
+        histogram = new Histogram();
+    }
+
+    @Test
+    public void checkEmpty() {
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMean());
+        assertEquals(0, histogram.getValueAtPercentile(99));
+    }
+
+    /**
+     * Tests that small values are recorded exactly
+     */
+    @Test
+    public void checkSmallValuesExact() {
+        for (int i = 1; i <= 10; i++) {
+            histogram.record(i);
+        }
+        assertEquals(10, histogram.getCount());
+        assertEquals(5.5, histogram.getMean());
+        assertEquals(5, histogram.getValueAtPercentile(50));
+        assertEquals(10, histogram.getValueAtPercentile(100));
+        assertEquals(10, histogram.getMax());
+    }
+
+    /**
+     * Tests that percentiles of large values are within the bucket error of 1/16
+     */
+    @Test
+    public void checkLargeValuesWithinError() {
+        for (long i = 1; i <= 1000; i++) {
+            histogram.record(i * 1_000_000);
+        }
+        long p50 = histogram.getValueAtPercentile(50);
+        long p99 = histogram.getValueAtPercentile(99);
+        assertTrue(Math.abs(p50 - 500_000_000L) <= 500_000_000L / 16);
+        assertTrue(Math.abs(p99 - 990_000_000L) <= 990_000_000L / 16);
+        assertEquals(1_000_000_000L, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void checkExtremeValues() {
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+        assertEquals(0, histogram.getValueAtPercentile(50));
+        assertEquals(Long.MAX_VALUE, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void checkReset() {
+        histogram.record(100);
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMax());
+    }
+
+    /**
+     * Tests that the registry gives back the same timer for a name, and only reports timers that have been used
+     */
+    @Test
+    public void checkRegistrySnapshot() {
+        MetricsRegistry registry = MetricsRegistry.getInstance();
+        Timer timer = registry.timer("histogramTest.used");
+        assertSame(timer, registry.timer("histogramTest.used"));
+        registry.timer("histogramTest.unused");
+
+        timer.record(2_000_000);
+        List<TimerSnapshot> snapshots = registry.snapshot();
+        assertTrue(snapshots.stream().anyMatch(snapshot -> snapshot.getName().equals("histogramTest.used")));
+        assertTrue(snapshots.stream().noneMatch(snapshot -> snapshot.getName().equals("histogramTest.unused")));
+        assertFalse(timer.snapshot().toString().contains("\""));
+    }
+}
@@ -0,0 +1,110 @@
+package seng202.team7.unittests.modelTest;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import seng202.team7.model.*;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for CrashColumns and the packed count fields of Crash
+ */
+public class CrashColumnsTest {
+
+    private Crash crash;
+    private CrashColumns columns;
+
+    @BeforeEach
+    public void setUp() {
+        crash = makeCrash(30, 2, "Serious Crash", "Fine");
+        columns = new CrashColumns(1);
+        columns.add(crash);
+    }
+
+    /**
+     * Tests that a row view gives back the same values as the crash it was made from
+     */
+    @Test
+    public void checkRowMatchesCrash() {
+        Crash row = columns.get(0);
+        assertEquals(crash, row);
+        assertEquals(crash.hashCode(), row.hashCode());
+        for (CrashCount field : CrashCount.values()) {
+            assertEquals(crash.getCount(field), row.getCount(field));
+        }
+        assertEquals(30, row.getAdvisorySpeed());
+        assertEquals(2, row.getBicycle());
+        assertEquals(100, row.getSpeedLimit());
+        assertSame(Severity.SERIOUS, row.getSeverity());
+        assertSame(WeatherA.FINE, row.getWeatherA());
+        assertEquals("Manawatu District", row.getTlaName());
+        assertNull(row.getIntersection());
+        assertEquals(crash.getLat(), row.getLat());
+    }
+
+    /**
+     * Tests that the columns grow past their initial capacity and keep rows in order
+     */
+    @Test
+    public void checkColumnsGrow() {
+        for (int i = 0; i < 100; i++) {
+            columns.add(makeCrash(i, 0, "Minor Crash", "Light rain"));
+        }
+        List<Crash> rows = columns.asList();
+        assertEquals(101, rows.size());
+        assertEquals(99, rows.get(100).getAdvisorySpeed());
+        assertSame(WeatherA.LIGHT_RAIN, rows.get(100).getWeatherA());
+        assertSame(Severity.SERIOUS, rows.get(0).getSeverity());
+    }
+
+    /**
+     * Tests that setting the id of a row view writes it back into the columns
+     */
+    @Test
+    public void checkSetIdOnRow() {
+        columns.get(0).setId(42);
+        assertEquals(42, columns.get(0).getId());
+    }
+
+    /**
+     * Tests that blocks of columns, including empty ones, are read as one list in order
+     */
+    @Test
+    public void checkBlocksAsList() {
+        CrashColumns second = new CrashColumns(2);
+        second.add(makeCrash(40, 0, "Minor Crash", "Fine"));
+        second.add(makeCrash(50, 0, "Minor Crash", "Fine"));
+        List<Crash> rows = CrashColumns.asList(List.of(new CrashColumns(1), columns, new CrashColumns(1), second));
+        assertEquals(3, rows.size());
+        assertEquals(30, rows.get(0).getAdvisorySpeed());
+        assertEquals(40, rows.get(1).getAdvisorySpeed());
+        assertEquals(50, rows.get(2).getAdvisorySpeed());
+        assertThrows(IndexOutOfBoundsException.class, () -> rows.get(3));
+        assertThrows(UnsupportedOperationException.class, () -> rows.add(crash));
+    }
+
+    @Test
+    public void checkGetOutOfBounds() {
+        assertThrows(IndexOutOfBoundsException.class, () -> columns.get(1));
+    }
+
+    /**
+     * Tests that counts too large for a byte are saturated rather than wrapping around
+     */
+    @Test
+    public void checkCountSaturates() {
+        Crash large = makeCrash(300, -5, "Fatal Crash", "Fine");
+        assertEquals(CrashCount.MAX_VALUE, large.getAdvisorySpeed());
+        assertEquals(0, large.getBicycle());
+    }
+
+    private Crash makeCrash(int advisorySpeed, int bicycle, String severity, String weatherA) {
+        return new Crash(advisorySpeed, bicycle, 0, 0, 1, 0, "SH 1N", "MANUKAU OFF SBD", severity, 2001, 0, 0, 0,
+                "Flat", 0, "", 0, null, 0, "Overcast", 0, 0, 0, 3, 0, 0, 0, 0, 0, 0, 0, 0,
+                "Nil", "1-way", "Sealed", 0, 0, 0, 0, 100, 0, "On", 0, 0, "Manawatu District", 0,
+                "Stop", 0, 0, 0, 0, 0, 0, "Open", 0, 0, 0, weatherA, "None",
+                (float) -40.2569761312752, (float) 175.388698343564);
+    }
+}
@@ -0,0 +1,59 @@
+package seng202.team7.unittests.modelTest;
+
+import org.junit.jupiter.api.Test;
+import seng202.team7.model.Crash;
+import seng202.team7.model.Severity;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for Severity
+ */
+public class SeverityTest {
+
+    /**
+     * Tests that each severity string from the crash data maps to its enum value
+     */
+    @Test
+    public void checkValueFromStr() {
+        assertEquals(Severity.FATAL, Severity.valueFromStr("Fatal Crash"));
+        assertEquals(Severity.SERIOUS, Severity.valueFromStr("Serious Crash"));
+        assertEquals(Severity.MINOR, Severity.valueFromStr("Minor Crash"));
+        assertEquals(Severity.NON_INJURY, Severity.valueFromStr("Non-Injury Crash"));
+    }
+
+    @Test
+    public void checkValueFromStrInvalid() {
+        assertNull(Severity.valueFromStr("Non Crash"));
+        assertNull(Severity.valueFromStr(null));
+    }
+
+    /**
+     * Tests that toString gives back the string used in the crash data, so it can be stored in the database
+     */
+    @Test
+    public void checkToStringRoundTrip() {
+        for (Severity severity : Severity.values()) {
+            assertSame(severity, Severity.valueFromStr(severity.toString()));
+        }
+    }
+
+    /**
+     * Tests that crashes built from the same severity string share the same enum constant
+     */
+    @Test
+    public void checkCrashesShareSeverity() {
+        Crash crash1 = makeCrash("Serious Crash");
+        Crash crash2 = makeCrash("Serious Crash");
+        assertSame(crash1.getSeverity(), crash2.getSeverity());
+        assertEquals(0.9, crash1.getNumericSeverity());
+    }
+
+    private Crash makeCrash(String severity) {
+        return new Crash(0, 0, 0, 0, 1, 0, "SH 1N", "MANUKAU OFF SBD", severity, 2001, 0, 0, 0,
+                "Flat", 0, "", 0, null, 0, "Overcast", 0, 0, 0, 3, 0, 0, 0, 0, 0, 0, 0, 0,
+                "Nil", "1-way", "Sealed", 0, 0, 0, 0, 100, 0, "On", 0, 0, "Manawatu District", 0,
+                "Stop", 0, 0, 0, 0, 0, 0, "Open", 0, 0, 0, "Fine", "None",
+                (float) -40.2569761312752, (float) 175.388698343564);
+    }
+}
@@ -5,10 +5,15 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import seng202.team7.io.CrashCSVImporter;
+import seng202.team7.io.CrashRecord;
+import seng202.team7.io.ImportListener;
+import seng202.team7.io.ImportProgress;
 import seng202.team7.map.Position;
 import seng202.team7.model.Crash;
 import seng202.team7.repository.CrashDAO;
+import seng202.team7.repository.CrashQuery;
 import seng202.team7.repository.DatabaseManager;
+import seng202.team7.repository.ImportSummary;
 
 import java.io.File;
 import java.util.ArrayList;
@@ -148,6 +153,22 @@ public class CrashDAOTest {
         Assertions.assertEquals(30, listTest.get(9).getId());
     }
 
+    @Test
+    public void getPageOrderedTest() {
+        CrashCSVImporter importer = new CrashCSVImporter();
+        List<Crash> crashes = importer.readFromFile(file1);
+        crashDAO.addBatch(crashes);
+        List<Crash> ascending = crashDAO.getPage(0, 100, "speedLimit", true);
+        List<Crash> descending = crashDAO.getPage(0, 100, "speedLimit", false);
+
+        Assertions.assertEquals(100, ascending.size());
+        for (int i = 1; i < ascending.size(); i++) {
+            Assertions.assertTrue(ascending.get(i - 1).getSpeedLimit() <= ascending.get(i).getSpeedLimit());
+            Assertions.assertTrue(descending.get(i - 1).getSpeedLimit() >= descending.get(i).getSpeedLimit());
+        }
+        Assertions.assertThrows(IllegalArgumentException.class, () -> crashDAO.getPage(0, 10, "id; DROP TABLE crashes", true));
+    }
+
     @Test
     public void getAllTest() {
         CrashCSVImporter importer = new CrashCSVImporter();
@@ -161,6 +182,136 @@ public class CrashDAOTest {
 
     }
 
+    /**
+     * Tests that a table large enough to be read in parallel partitions comes back complete and in id order
+     */
+    @Test
+    public void getAllParallelTest() {
+        List<Crash> crashes = new ArrayList<>();
+        for (int i = 0; i < 25000; i++) {
+            crashes.add(new Crash(0, 0, 0, 0, 1, 0, "SH 1N", "MANUKAU OFF SBD", "Minor Crash", 2001, 0, 0, 0,
+                    "Flat", 0, "", 0, null, 0, "Overcast", 0, 0, 0, 3, 0, 0, 0, 0, 0, 0, 0, 0,
+                    "Nil", "1-way", "Sealed", 0, 0, 0, 0, 100, 0, "On", 0, 0, "Manawatu District", 0,
+                    "Stop", 0, 0, 0, 0, 0, 0, "Open", 0, 0, 0, "Fine", "None",
+                    (float) -40 - i / 10000f, (float) 175));
+        }
+        crashDAO.addBatch(crashes);
+        List<Crash> all = crashDAO.getAll();
+
+        Assertions.assertEquals(25000, all.size());
+        for (int i = 1; i < all.size(); i++) {
+            Assertions.assertTrue(all.get(i - 1).getId() < all.get(i).getId());
+        }
+    }
+
+    private Crash crashAt(float lat, int speedLimit) {
+        return new Crash(0, 0, 0, 0, 1, 0, "SH 1N", "MANUKAU OFF SBD", "Minor Crash", 2001, 0, 0, 0,
+                "Flat", 0, "", 0, null, 0, "Overcast", 0, 0, 0, 3, 0, 0, 0, 0, 0, 0, 0, 0,
+                "Nil", "1-way", "Sealed", 0, 0, 0, 0, speedLimit, 0, "On", 0, 0, "Manawatu District", 0,
+                "Stop", 0, 0, 0, 0, 0, 0, "Open", 0, 0, 0, "Fine", "None", lat, (float) 175);
+    }
+
+    @Test
+    public void importChangesTest() {
+        ImportSummary first = crashDAO.importChanges(List.of(
+                new CrashRecord(1, 11, crashAt(-40, 100)),
+                new CrashRecord(2, 22, crashAt(-41, 100)),
+                new CrashRecord(3, 33, crashAt(-42, 100))));
+        Assertions.assertEquals(3, first.getInserted());
+
+        // Row 1 is unchanged, row 2 changed, row 3 was removed and row 4 is new
+        ImportSummary second = crashDAO.importChanges(List.of(
+                new CrashRecord(1, 11, crashAt(-40, 100)),
+                new CrashRecord(2, 23, crashAt(-41, 50)),
+                new CrashRecord(4, 44, crashAt(-43, 100))));
+        Assertions.assertEquals(1, second.getUnchanged());
+        Assertions.assertEquals(1, second.getUpdated());
+        Assertions.assertEquals(1, second.getDeleted());
+        Assertions.assertEquals(1, second.getInserted());
+
+        List<Crash> all = crashDAO.getAll();
+        Assertions.assertEquals(3, all.size());
+        Assertions.assertEquals(50, all.get(1).getSpeedLimit());
+    }
+
+    @Test
+    public void importChangesSameLocationTest() {
+        crashDAO.addBatch(List.of(crashAt(-40, 100)));
+
+        // The first row takes over the crash from the full import, the second is at the same location
+        ImportSummary summary = crashDAO.importChanges(List.of(
+                new CrashRecord(1, 11, crashAt(-40, 80)),
+                new CrashRecord(2, 22, crashAt(-40, 60))));
+        Assertions.assertEquals(0, summary.getInserted());
+        Assertions.assertEquals(1, summary.getUpdated());
+        Assertions.assertEquals(1, summary.getSkipped());
+        Assertions.assertEquals(80, crashDAO.getAll().get(0).getSpeedLimit());
+    }
+
+    @Test
+    public void searchTest() {
+        crashDAO.addBatch(List.of(crashAt(-40, 100), crashAt(-40.3f, 50), crashAt(-41, 100)));
+
+        List<Crash> near = crashDAO.search(new CrashQuery().withinCircle(-40, 175, 50));
+        Assertions.assertEquals(2, near.size());
+
+        List<Crash> fatal = crashDAO.search(new CrashQuery().withinCircle(-40, 175, 50)
+                .withSeverity(true, false, false));
+        Assertions.assertTrue(fatal.isEmpty());
+
+        List<Crash> minorCars = crashDAO.search(new CrashQuery().involving(true, false, false)
+                .withSeverity(false, false, true).inYears(2000, 2001));
+        Assertions.assertEquals(3, minorCars.size());
+    }
+
+    @Test
+    public void addBatchCancelTest() {
+        List<Crash> crashes = new ArrayList<>();
+        for (int i = 0; i < 25000; i++) {
+            crashes.add(crashAt(-40 - i / 10000f, 100));
+        }
+        // Cancelled after the first chunk is committed, which is kept
+        crashDAO.addBatch(crashes, new ImportListener() {
+            @Override
+            public void onProgress(ImportProgress progress) {
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return true;
+            }
+        });
+
+        Assertions.assertEquals(10000, crashDAO.getCrashesTableLength());
+    }
+
+    @Test
+    public void addBatchMarksEachChunkTest() {
+        List<Crash> crashes = new ArrayList<>();
+        for (int i = 0; i < 25000; i++) {
+            crashes.add(crashAt(-40 - i / 10000f, 100));
+        }
+        List<Long> versions = new ArrayList<>();
+        versions.add(dataManager.getDataVersion());
+        // Each committed chunk is a new version of the data, so searches during the import are not served stale
+        crashDAO.addBatch(crashes, new ImportListener() {
+            @Override
+            public void onProgress(ImportProgress progress) {
+                versions.add(dataManager.getDataVersion());
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return false;
+            }
+        });
+
+        Assertions.assertEquals(4, versions.size());
+        for (int i = 1; i < versions.size(); i++) {
+            Assertions.assertTrue(versions.get(i) > versions.get(i - 1));
+        }
+    }
+
     @Test
     public  void deleteCheck() {
         CrashCSVImporter importer = new CrashCSVImporter();
@@ -171,6 +322,26 @@ public class CrashDAOTest {
         Assertions.assertEquals(2, crashDAO.getAll().get(0).getId());
     }
 
+    @Test
+    public void deleteAllTest() {
+        List<Crash> crashes = new ArrayList<>();
+        for (int i = 0; i < 1200; i++) {
+            crashes.add(crashAt(-40 - i / 1000f, 100));
+        }
+        crashDAO.addBatch(crashes);
+
+        // Spans several chunks, and includes an id that does not exist
+        List<Integer> ids = new ArrayList<>();
+        for (int id = 1; id <= 1100; id++) {
+            ids.add(id);
+        }
+        ids.add(5000);
+
+        Assertions.assertEquals(1100, crashDAO.deleteAll(ids));
+        List<Crash> remaining = crashDAO.getAll();
+        Assertions.assertEquals(100, remaining.size());
+        Assertions.assertEquals(1101, remaining.get(0).getId());
+    }
 
     @Test
     public void rTreeSearchCheck() {
@@ -187,6 +358,25 @@ public class CrashDAOTest {
 
     }
 
+    @Test
+    public void rTreeSearchFromCacheCheck() {
+        CrashCSVImporter importer = new CrashCSVImporter();
+        List<Crash> crashes = importer.readFromFile(file1);
+        crashDAO.addBatch(crashes);
+
+        Position position = new Position(-43.5225, 172.5794);
+        crashDAO.rTreeCircleSearch(position.lat, position.lng, 5);
+
+        // A smaller search inside the cached one must match what the database gives a fresh DAO
+        List<Crash> cached = crashDAO.rTreeCircleSearch(position.lat, position.lng, 1);
+        List<Crash> fresh = new CrashDAO().rTreeCircleSearch(position.lat, position.lng, 1);
+        Assertions.assertEquals(fresh, cached);
+
+        // Changing the data must not leave stale results behind
+        crashDAO.delete(848);
+        Assertions.assertEquals(14, crashDAO.rTreeCircleSearch(position.lat, position.lng, 1).size());
+    }
+
     @Test
     public void testRTreeRectangleSearch() {
         // Arrange: Prepare sample data
@@ -220,4 +410,33 @@ public class CrashDAOTest {
         // Assert: Check if the database is empty
         Assertions.assertEquals(0, crashDAO.getCrashesTableLength());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void clearDatabaseVacuumTest() {
+        crashDAO.addBatch(List.of(crashAt(-40, 100), crashAt(-41, 100)));
+
+        crashDAO.clearDatabase(true);
+
+        Assertions.assertEquals(0, crashDAO.getCrashesTableLength());
+        // The tables are created again, so ids start from the beginning
+        crashDAO.addBatch(List.of(crashAt(-42, 100)));
+        Assertions.assertEquals(1, crashDAO.getAll().get(0).getId());
+    }
+
+    @Test
+    public void searchLocationsTest() {
+        crashDAO.addBatch(List.of(crashAt(-40, 100), crashAt(-41, 100)));
+
+        Assertions.assertEquals(2, crashDAO.searchLocations("manuk off", 10).size());
+        Assertions.assertEquals(1, crashDAO.searchLocations("SH 1N", 1).size());
+        Assertions.assertTrue(crashDAO.searchLocations("riccarton", 10).isEmpty());
+        // Query syntax is ignored rather than failing the search
+        Assertions.assertEquals(2, crashDAO.searchLocations("\"manawatu* (district", 10).size());
+
+        // Deleted crashes are removed from the index
+        crashDAO.delete(1);
+        List<Crash> found = crashDAO.searchLocations("manawatu", 10);
+        Assertions.assertEquals(1, found.size());
+        Assertions.assertEquals(2, found.get(0).getId());
+    }
+}
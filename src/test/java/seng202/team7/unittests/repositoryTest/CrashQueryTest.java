@@ -0,0 +1,57 @@
+package seng202.team7.unittests.repositoryTest;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import seng202.team7.model.Crash;
+import seng202.team7.repository.CrashQuery;
+
+/**
+ * Test class for CrashQuery
+ */
+public class CrashQueryTest {
+
+    private Crash crash(int suv, int bicycle, int pedestrian, String severity, int year) {
+        return new Crash(0, bicycle, 0, 0, 0, 0, "SH 1N", "MANUKAU OFF SBD", severity, year, 0, 0, 0,
+                "Flat", 0, "", 0, null, 0, "Overcast", 0, 0, 0, 3, 0, 0, 0, 0, 0, 0, pedestrian, 0,
+                "Nil", "1-way", "Sealed", 0, 0, 0, 0, 100, 0, "On", suv, 0, "Manawatu District", 0,
+                "Stop", 0, 0, 0, 0, 0, 0, "Open", 0, 0, 0, "Fine", "None", -40, 175);
+    }
+
+    @Test
+    public void noFiltersMatchEverythingTest() {
+        Assertions.assertTrue(new CrashQuery().matchesFilters(crash(0, 0, 0, "Fatal Crash", 2001)));
+    }
+
+    @Test
+    public void vehicleFiltersMatchAnyTest() {
+        CrashQuery query = new CrashQuery().involving(false, true, true);
+        Assertions.assertTrue(query.matchesFilters(crash(0, 1, 0, "Fatal Crash", 2001)));
+        Assertions.assertTrue(query.matchesFilters(crash(0, 0, 2, "Fatal Crash", 2001)));
+        Assertions.assertFalse(query.matchesFilters(crash(1, 0, 0, "Fatal Crash", 2001)));
+    }
+
+    @Test
+    public void minorIncludesNonInjuryTest() {
+        CrashQuery query = new CrashQuery().withSeverity(false, false, true);
+        Assertions.assertTrue(query.matchesFilters(crash(0, 0, 0, "Non-Injury Crash", 2001)));
+        Assertions.assertTrue(query.matchesFilters(crash(0, 0, 0, "Minor Crash", 2001)));
+        Assertions.assertFalse(query.matchesFilters(crash(0, 0, 0, "Fatal Crash", 2001)));
+    }
+
+    @Test
+    public void yearRangeInclusiveTest() {
+        CrashQuery query = new CrashQuery().inYears(2005, 2010);
+        Assertions.assertTrue(query.matchesFilters(crash(0, 0, 0, "Fatal Crash", 2005)));
+        Assertions.assertTrue(query.matchesFilters(crash(0, 0, 0, "Fatal Crash", 2010)));
+        Assertions.assertFalse(query.matchesFilters(crash(0, 0, 0, "Fatal Crash", 2011)));
+    }
+
+    @Test
+    public void copyIsIndependentTest() {
+        CrashQuery query = new CrashQuery().inYears(2005, 2010);
+        CrashQuery copy = query.copy().inYears(2000, 2020);
+        Crash crash = crash(0, 0, 0, "Fatal Crash", 2001);
+        Assertions.assertFalse(query.matchesFilters(crash));
+        Assertions.assertTrue(copy.matchesFilters(crash));
+    }
+}
@@ -0,0 +1,128 @@
+package seng202.team7.unittests.repositoryTest;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import seng202.team7.model.Crash;
+import seng202.team7.model.CrashColumns;
+import seng202.team7.repository.CrashSnapshot;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for CrashSnapshot
+ */
+public class CrashSnapshotTest {
+
+    private File file;
+    private CrashSnapshot snapshot;
+    private CrashColumns first;
+    private CrashColumns second;
+
+    /**
+     * Sets up a snapshot in a temporary file and two blocks of crashes to store in it
+     */
+    @BeforeEach
+    public void setUp() throws IOException {
+        file = File.createTempFile("crashes", ".snapshot");
+        snapshot = new CrashSnapshot(file);
+        first = new CrashColumns(4);
+        second = new CrashColumns(4);
+        for (int i = 0; i < 10; i++) {
+            Crash crash = makeCrash(i, i % 2 == 0 ? "Fatal Crash" : "Minor Crash", i % 3 == 0 ? null : "Road " + i);
+            crash.setId(i + 1);
+            (i < 6 ? first : second).add(crash);
+        }
+    }
+
+    @AfterEach
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Test
+    public void checkRoundTrip() {
+        snapshot.write(List.of(first, second), 3, 10, 10);
+        List<CrashColumns> blocks = snapshot.read(3, 10, 10);
+
+        assertNotNull(blocks);
+        assertEquals(2, blocks.size());
+        assertEquals(first.asList(), blocks.get(0).asList());
+        assertEquals(second.asList(), blocks.get(1).asList());
+        assertEquals(10, blocks.get(1).get(3).getId());
+        assertNull(blocks.get(0).get(0).getLocation1());
+    }
+
+    /**
+     * Tests that a snapshot taken when the database had different crashes is not used
+     */
+    @Test
+    public void checkStaleSnapshotIgnored() {
+        snapshot.write(List.of(first, second), 3, 10, 10);
+        assertNull(snapshot.read(3, 11, 11));
+        assertNull(snapshot.read(3, 9, 10));
+    }
+
+    /**
+     * Tests that a snapshot is not used once the crashes have changed, even if the number of crashes and largest id
+     * are the same, as they are after an edit or after a reset and the same import
+     */
+    @Test
+    public void checkChangedSnapshotIgnored() {
+        snapshot.write(List.of(first, second), 3, 10, 10);
+        assertNull(snapshot.read(4, 10, 10));
+    }
+
+    /**
+     * Tests that a write still running when the snapshot is deleted does not bring it back
+     */
+    @Test
+    public void checkDeleteDiscardsBackgroundWrite() throws InterruptedException {
+        for (int i = 0; i < 20; i++) {
+            snapshot.writeInBackground(List.of(first, second), 3, 10, 10);
+            snapshot.delete();
+        }
+        // Gives the queued writes time to finish
+        Thread.sleep(500);
+        assertFalse(file.exists());
+    }
+
+    /**
+     * Tests that a snapshot with a damaged byte fails its checksum
+     */
+    @Test
+    public void checkCorruptSnapshotIgnored() throws IOException {
+        snapshot.write(List.of(first, second), 3, 10, 10);
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(raf.length() / 2);
+            int value = raf.read();
+            raf.seek(raf.length() / 2);
+            raf.write(value ^ 0xFF);
+        }
+        assertNull(snapshot.read(3, 10, 10));
+    }
+
+    @Test
+    public void checkMissingOrDeletedSnapshot() {
+        file.delete();
+        assertNull(snapshot.read(3, 10, 10));
+
+        snapshot.write(List.of(first), 3, 6, 6);
+        assertNotNull(snapshot.read(3, 6, 6));
+        snapshot.delete();
+        assertFalse(file.exists());
+    }
+
+    private Crash makeCrash(int advisorySpeed, String severity, String location1) {
+        return new Crash(advisorySpeed, 0, 0, 0, 1, 0, location1, "MANUKAU OFF SBD", severity, 2001, 0, 0, 0,
+                "Flat", 0, "", 0, null, 0, "Overcast", 0, 0, 0, 3, 0, 0, 0, 0, 0, 0, 0, 0,
+                "Nil", "1-way", "Sealed", 0, 0, 0, 0, 100, 0, "On", 0, 0, "Manawatu District", 0,
+                "Stop", 0, 0, 0, 0, 0, 0, "Open", 0, 0, 0, "Fine", "None",
+                (float) -40.2569761312752 - advisorySpeed, (float) 175.388698343564);
+    }
+}
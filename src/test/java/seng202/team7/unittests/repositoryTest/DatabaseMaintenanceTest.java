@@ -0,0 +1,64 @@
+package seng202.team7.unittests.repositoryTest;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import seng202.team7.io.CrashCSVImporter;
+import seng202.team7.repository.CrashDAO;
+import seng202.team7.repository.DatabaseMaintenance;
+import seng202.team7.repository.DatabaseManager;
+import seng202.team7.repository.MaintenanceReport;
+import seng202.team7.repository.PooledConnection;
+
+import java.io.File;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Test class for DatabaseMaintenance
+ */
+public class DatabaseMaintenanceTest {
+    static CrashDAO crashDAO;
+
+    @BeforeAll
+    static public void setup() {
+        DatabaseManager.getInstance().resetDB();
+        crashDAO = new CrashDAO();
+    }
+
+    @Test
+    public void runNowTest() throws SQLException {
+        crashDAO.addBatch(new CrashCSVImporter().readFromFile(new File("crash_data_10k.csv")));
+        crashDAO.clearDatabase();
+
+        MaintenanceReport changed = DatabaseMaintenance.getInstance().runNow();
+        Assertions.assertNotNull(changed);
+        Assertions.assertTrue(changed.isAnalyzed());
+        Assertions.assertTrue(changed.getPagesFreed() > 0);
+        Assertions.assertEquals(0, changed.getWalSizeAfter());
+        // Every page the cleared crashes used has been given back
+        Assertions.assertEquals(0, freePages());
+
+        // Nothing has changed since, so only the stale statistics are refreshed
+        MaintenanceReport unchanged = DatabaseMaintenance.getInstance().runNow();
+        Assertions.assertNotNull(unchanged);
+        Assertions.assertFalse(unchanged.isAnalyzed());
+        Assertions.assertEquals(0, crashDAO.getCrashesTableLength());
+    }
+
+    private static long freePages() throws SQLException {
+        try (PooledConnection conn = DatabaseManager.getInstance().borrowReader();
+             Statement statement = conn.getConnection().createStatement();
+             ResultSet rs = statement.executeQuery("PRAGMA freelist_count")) {
+            return rs.next() ? rs.getLong(1) : -1;
+        }
+    }
+
+    @Test
+    public void notDueWhileInUseTest() {
+        crashDAO.getCrashesTableLength();
+
+        Assertions.assertNull(DatabaseMaintenance.getInstance().runIfDue());
+    }
+}
@@ -0,0 +1,78 @@
+package seng202.team7.unittests.repositoryTest;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import seng202.team7.repository.DatabaseManager;
+import seng202.team7.repository.PooledConnection;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Test class for PooledConnection
+ */
+public class PooledConnectionTest {
+    static DatabaseManager dataManager;
+
+    @BeforeAll
+    static public void setup() {
+        dataManager = DatabaseManager.getInstance();
+        dataManager.resetDB();
+    }
+
+    @Test
+    public void statementReusedAfterReturnTest() throws SQLException {
+        String sql = "SELECT COUNT(*) FROM crashes WHERE id > ?";
+        PreparedStatement first;
+        try (PooledConnection conn = dataManager.borrowWriter()) {
+            first = conn.prepare(sql);
+            Assertions.assertSame(first, conn.prepare(sql));
+        }
+        try (PooledConnection conn = dataManager.borrowWriter()) {
+            Assertions.assertSame(first, conn.prepare(sql));
+            Assertions.assertFalse(first.isClosed());
+        }
+    }
+
+    @Test
+    public void parametersClearedTest() throws SQLException {
+        try (PooledConnection conn = dataManager.borrowWriter()) {
+            PreparedStatement ps = conn.prepare("SELECT ?");
+            ps.setInt(1, 5);
+            ps = conn.prepare("SELECT ?");
+            try (ResultSet rs = ps.executeQuery()) {
+                Assertions.assertNull(rs.getObject(1));
+            }
+        }
+    }
+
+    @Test
+    public void openTransactionRolledBackTest() throws SQLException {
+        try (PooledConnection conn = dataManager.borrowWriter()) {
+            Connection connection = conn.getConnection();
+            connection.setAutoCommit(false);
+            conn.prepare("DELETE FROM import_fingerprints").executeUpdate();
+        }
+        try (PooledConnection conn = dataManager.borrowWriter()) {
+            Assertions.assertTrue(conn.getConnection().getAutoCommit());
+        }
+    }
+
+    @Test
+    public void readerNotBlockedByWriterTest() throws SQLException {
+        try (PooledConnection writer = dataManager.borrowWriter()) {
+            writer.getConnection().setAutoCommit(false);
+            writer.prepare("INSERT INTO import_fingerprints (sourceKey, crashId, fingerprint) VALUES (1, 1, 1)")
+                    .executeUpdate();
+
+            // The reader sees the data from before the uncommitted insert, without waiting for it
+            try (PooledConnection reader = dataManager.borrowReader();
+                 ResultSet rs = reader.prepare("SELECT COUNT(*) FROM import_fingerprints").executeQuery()) {
+                Assertions.assertEquals(0, rs.getInt(1));
+            }
+        }
+    }
+}
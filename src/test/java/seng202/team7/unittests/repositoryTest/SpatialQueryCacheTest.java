@@ -0,0 +1,115 @@
+package seng202.team7.unittests.repositoryTest;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import seng202.team7.map.Position;
+import seng202.team7.model.Crash;
+import seng202.team7.repository.SpatialQueryCache;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for SpatialQueryCache
+ */
+public class SpatialQueryCacheTest {
+
+    private SpatialQueryCache cache;
+    private List<Crash> crashes;
+
+    @BeforeEach
+    public void setUp() {
+        cache = new SpatialQueryCache(4, 1000);
+        crashes = new ArrayList<>();
+        // A line of crashes heading north from central Christchurch, roughly 1.1km apart
+        for (int i = 0; i < 10; i++) {
+            crashes.add(makeCrash(-43.5320 + i * 0.01, 172.6366));
+        }
+    }
+
+    @Test
+    public void checkEmptyCacheMisses() {
+        assertNull(cache.getCircle(-43.5320, 172.6366, 5, 1));
+        assertNull(cache.getRectangle(new Position(-44, 172), new Position(-43, 173), 1));
+    }
+
+    /**
+     * Tests that a repeated search is answered with a copy the caller is free to change
+     */
+    @Test
+    public void checkExactHitReturnsCopy() {
+        cache.putCircle(-43.5320, 172.6366, 20, crashes, 1);
+        List<Crash> hit = cache.getCircle(-43.5320, 172.6366, 20, 1);
+        assertEquals(crashes, hit);
+        hit.clear();
+        assertEquals(10, cache.getCircle(-43.5320, 172.6366, 20, 1).size());
+    }
+
+    /**
+     * Tests that a smaller circle inside a cached one is answered by filtering, keeping the cached order
+     */
+    @Test
+    public void checkContainedCircleIsFiltered() {
+        cache.putCircle(-43.5320, 172.6366, 20, crashes, 1);
+        List<Crash> hit = cache.getCircle(-43.5320, 172.6366, 2.5, 1);
+        assertNotNull(hit);
+        assertEquals(crashes.subList(0, 3), hit);
+    }
+
+    @Test
+    public void checkOverlappingCircleMisses() {
+        cache.putCircle(-43.5320, 172.6366, 5, crashes, 1);
+        assertNull(cache.getCircle(-43.4820, 172.6366, 5, 1));
+    }
+
+    @Test
+    public void checkContainedRectangleIsFiltered() {
+        cache.putRectangle(new Position(-44, 172), new Position(-43, 173), crashes, 1);
+        List<Crash> hit = cache.getRectangle(new Position(-43.5325, 172.6), new Position(-43.5115, 172.7), 1);
+        assertNotNull(hit);
+        assertEquals(crashes.subList(0, 3), hit);
+        assertNull(cache.getCircle(-43.5320, 172.6366, 1, 1));
+    }
+
+    /**
+     * Tests that a change in the data version drops everything cached before it
+     */
+    @Test
+    public void checkNewDataVersionInvalidates() {
+        cache.putCircle(-43.5320, 172.6366, 20, crashes, 1);
+        assertNull(cache.getCircle(-43.5320, 172.6366, 20, 2));
+        assertEquals(0, cache.size());
+
+        // A result read before the change must not be stored afterwards
+        cache.putCircle(-43.5320, 172.6366, 20, crashes, 1);
+        assertNull(cache.getCircle(-43.5320, 172.6366, 20, 2));
+    }
+
+    @Test
+    public void checkLeastRecentlyUsedEvicted() {
+        for (int i = 0; i < 5; i++) {
+            cache.putCircle(-43.5320, 172.6366 + i, 1, crashes.subList(0, 1), 1);
+        }
+        assertEquals(4, cache.size());
+        assertNull(cache.getCircle(-43.5320, 172.6366, 1, 1));
+        assertNotNull(cache.getCircle(-43.5320, 176.6366, 1, 1));
+    }
+
+    @Test
+    public void checkCrashLimitEvicts() {
+        SpatialQueryCache smallCache = new SpatialQueryCache(4, 15);
+        smallCache.putCircle(-43.5320, 172.6366, 20, crashes, 1);
+        smallCache.putCircle(-43.5320, 173.6366, 20, crashes, 1);
+        assertEquals(1, smallCache.size());
+        assertNull(smallCache.getCircle(-43.5320, 172.6366, 20, 1));
+    }
+
+    private Crash makeCrash(double lat, double lng) {
+        return new Crash(0, 0, 0, 0, 1, 0, "SH 1N", "MANUKAU OFF SBD", "Minor Crash", 2001, 0, 0, 0,
+                "Flat", 0, "", 0, null, 0, "Overcast", 0, 0, 0, 3, 0, 0, 0, 0, 0, 0, 0, 0,
+                "Nil", "1-way", "Sealed", 0, 0, 0, 0, 100, 0, "On", 0, 0, "Christchurch City", 0,
+                "Stop", 0, 0, 0, 0, 0, 0, "Open", 0, 0, 0, "Fine", "None", (float) lat, (float) lng);
+    }
+}